@@ -0,0 +1,413 @@
+package check.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import main.java.math.GaussException;
+import main.java.math.OrderingType;
+import main.java.math.Pivoting;
+import main.java.network.Component;
+import main.java.network.Network;
+import main.java.network.Resistance;
+import main.java.network.SolverMethod;
+import main.java.network.SolverPrecision;
+import main.java.network.SystemFormulation;
+
+/**
+ * Headless regression check of the accuracy of the solvers on grid circuits of kOhm and MOhm resistances,
+ * where the weak couplings are easily lost in single precision. The reference is the double precision solution of the grid (see {@link GridCircuit#referenceCurrents()}).
+ * The nodal and the incidence and cycle formulations are cross-checked by {@link Network#crossCheckFormulations()} with and without reduction,
+ * where the nodal formulation has the widest spread of coefficients (conductances next to the unit coefficients of the sources).
+ * Every formulation is solved with and without reduction in single precision, and must be valid and accurate.
+ * The default precision of the network is checked with looser pivoting thresholds and every ordering as well: there a solution may be rejected as invalid,
+ * but a valid solution must be accurate, so an inaccurate single precision solution can not go unnoticed.
+ * Larger grids are solved in the default precision with the default pivoting as well, and there the corrections must make the solution valid and accurate.
+ * A resistance of a small circuit is edited repeatedly, and the updated factorizations must give valid and accurate solutions.
+ * Finally a badly scaled small circuit is solved with its components in every order, after an edit and its undo, and saved and loaded again:
+ * it must be valid and accurate in every order, so the edited and the loaded network agree.
+ * Usage: AccuracyCheck [--size n] [--seeds n] [--limit relative error]
+ * Exits with 1, if any of the checks fails.
+ * HUN: Grafikus felület nélküli ellenőrzés a megoldók pontosságára kOhm és MOhm ellenállású rács áramkörökön, ahol a gyenge csatolások egyszeres pontossággal könnyen elvesznek.
+ * A referencia a rács dupla pontosságú megoldása. A csomóponti és a hurok-incidencia felírást összevetjük egyszerűsítéssel és anélkül.
+ * Minden felírást egyszeres pontossággal megoldunk, egyszerűsítéssel és anélkül, ennek helyesnek és pontosnak kell lennie.
+ * Az alapértelmezett pontosságot lazább küszöbökkel és minden sorrenddel is ellenőrizzük: ott a megoldás lehet helytelen, de a helyes megoldásnak pontosnak kell lennie.
+ * Nagyobb rácsokat az alapértelmezett pontossággal és főelemkiválasztással is megoldunk, ott a korrekcióknak helyessé és pontossá kell tenniük a megoldást.
+ * Egy kis áramkör egy ellenállását többször szerkesztjük, a frissített faktorizációknak helyes és pontos megoldást kell adniuk.
+ * Végül egy rosszul skálázott kis áramkört a komponensek minden sorrendjével megoldunk, egy szerkesztés és visszavonása után, majd mentve és újra betöltve is:
+ * minden sorrendben helyesnek és pontosnak kell lennie, így a szerkesztett és a betöltött hálózat egyezik.
+ * @author Simon Zoltán
+ *
+ */
+public class AccuracyCheck {
+
+	/**
+	 * The two values of the resistances of the grids.
+	 * HUN: A rácsok ellenállásainak két értéke.
+	 */
+	static final float LOW_RESISTANCE = 1e3f;
+	static final float HIGH_RESISTANCE = 1e6f;
+	static final float SOURCE_VOLTAGE = 5;
+
+	/**
+	 * Circuit of the check of the repeated edits: two resistances of {@link #LOW_RESISTANCE} in parallel with a voltage source.
+	 * The first resistance is set to each of the {@link #EDITED_RESISTANCES} in turn, so the updates of the factorization follow each other.
+	 * HUN: Az ismételt szerkesztések ellenőrzésének áramköre: két párhuzamos ellenállás egy feszültségforrással.
+	 * Az első ellenállást sorban az egyes értékekre állítjuk, így a faktorizáció frissítései egymásra épülnek.
+	 */
+	static final String EDITED_CIRCUIT =
+			"class: main.java.network.VoltageSource; voltage: 4.0; inputPos: [0, 0]; outputPos: [100, 0]\n"
+			+ "class: main.java.network.Resistance; resistance: 1000.0; inputPos: [0, 0]; outputPos: [100, 0]\n"
+			+ "class: main.java.network.Resistance; resistance: 1000.0; inputPos: [0, 0]; outputPos: [100, 0]\n";
+	static final float EDITED_VOLTAGE = 4;
+	static final float EDITED_RESISTANCES[] = {1e6f, 1e3f, 10f, 1e6f, 1e3f, 10f};
+
+	/**
+	 * Components of the check of the orders: a voltage source of {@link #ORDERED_VOLTAGE} with two resistances of {@link #ORDERED_RESISTANCE} in series,
+	 * and a resistance of {@link #PENDANT_RESISTANCE} dangling from one of the three nodes (the x coordinate of the node is formatted in).
+	 * Without reduction the weak couplings of the high resistances are next to the strong one of the dangling resistance.
+	 * HUN: A sorrendek ellenőrzésének komponensei: egy feszültségforrás két soros nagy ellenállással, és egy kis ellenállás, ami a három csomópont egyikéről lóg.
+	 */
+	static final String ORDERED_COMPONENTS[] = {
+			"class: main.java.network.VoltageSource; voltage: 1.0; inputPos: [0, 0]; outputPos: [100, 0]\n",
+			"class: main.java.network.Resistance; resistance: 1000000.0; inputPos: [100, 0]; outputPos: [200, 0]\n",
+			"class: main.java.network.Resistance; resistance: 1000000.0; inputPos: [200, 0]; outputPos: [0, 0]\n",
+			"class: main.java.network.Resistance; resistance: 1.0; inputPos: [%d, 0]; outputPos: [300, 0]\n"};
+	static final float ORDERED_VOLTAGE = 1;
+	static final float ORDERED_RESISTANCE = 1e6f;
+	static final float PENDANT_RESISTANCE = 1;
+	static final int NO_OF_ORDERS = 24;
+
+	/**
+	 * Sizes and seeds of the larger grids of the check of the corrections.
+	 * HUN: A korrekciók ellenőrzésének nagyobb rácsainak méretei és magjai.
+	 */
+	static final int REFINED_SIZES[] = {12, 14, 16};
+	static final int NO_OF_REFINED_SEEDS = 5;
+
+	/**
+	 * Pivoting thresholds of the check of the default precision. The smaller ones allow more growth of the factors.
+	 * HUN: Az alapértelmezett pontosság ellenőrzésének főelemkiválasztási küszöbei.
+	 */
+	static final float THRESHOLDS[] = {1f, 0.1f, 0.01f};
+
+	/**
+	 * Limit of the difference of the formulations relative to the greatest current.
+	 * The cross-check solves in plain single precision, without corrections.
+	 * HUN: A felírási módok eltérésének korlátja a legnagyobb áramhoz képest. Az összevetés korrekció nélkül, egyszeres pontossággal old meg.
+	 */
+	static final double CROSS_CHECK_LIMIT = 1e-2;
+
+	private int size = 8;
+	private int noOfSeeds = 10;
+	private double limit = 1e-3;
+
+	private int noOfChecks = 0;
+	private int noOfFailures = 0;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor, which parses the command line arguments.
+	 * @param args	The arguments.
+	 */
+	AccuracyCheck(String args[]) {
+		for (int i = 0; i < args.length; i++) {
+			try {
+				switch (args[i]) {
+				case "--size":
+					size = Integer.parseInt(value(args, ++i));
+					break;
+				case "--seeds":
+					noOfSeeds = Integer.parseInt(value(args, ++i));
+					break;
+				case "--limit":
+					limit = Double.parseDouble(value(args, ++i));
+					break;
+				default:
+					throw new RuntimeException("Unknown argument: " + args[i]);
+				}
+			} catch (NumberFormatException e) {
+				throw new RuntimeException("Invalid value of " + args[i - 1]);
+			}
+		}
+		if (size < 2 || noOfSeeds < 1 || !(limit > 0)) {
+			throw new RuntimeException("Invalid parameters.");
+		}
+	}
+
+	private static String value(String args[], int i) {
+		if (i >= args.length) {
+			throw new RuntimeException("Missing value of " + args[i - 1]);
+		}
+		return args[i];
+	}
+
+	//Running:-----------------------------------------------------------
+
+	public static void main(String[] args) {
+		AccuracyCheck check;
+		try {
+			check = new AccuracyCheck(args);
+		} catch (RuntimeException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Usage: AccuracyCheck [--size n] [--seeds n] [--limit relative error]");
+			System.exit(2);
+			return;
+		}
+		System.exit(check.run()? 0 : 1);
+	}
+
+	/**
+	 * Checks the grids of all the seeds, and prints a line for each check.
+	 * HUN: Ellenőrzi minden mag rácsát, és minden ellenőrzésre kiír egy sort.
+	 * @return Whether all the checks passed.
+	 */
+	boolean run() {
+		for (int seed = 0; seed < noOfSeeds; seed++) {
+			GridCircuit grid = new GridCircuit(size, LOW_RESISTANCE, HIGH_RESISTANCE, SOURCE_VOLTAGE, new Random(seed));
+			double reference[] = grid.referenceCurrents();
+			Network network = grid.toNetwork();
+			network.setSolverMethod(SolverMethod.direct);
+			for (boolean reduction : new boolean[] {false, true}) {
+				network.setReduction(reduction);
+				crossCheck(String.format(Locale.ROOT, "seed %d, nodal vs. incidenceAndCycle, reduction %s", seed, reduction ? "on" : "off"),
+						network, maxAbs(reference));
+			}
+			SolverPrecision defaultPrecision = network.getPrecision();
+			for (SystemFormulation formulation : SystemFormulation.values()) {
+				for (boolean reduction : new boolean[] {false, true}) {
+					network.setFormulation(formulation);
+					network.setReduction(reduction);
+					network.setPrecision(SolverPrecision.single);
+					network.simulate(null);
+					check(String.format(Locale.ROOT, "seed %d, %s single, reduction %s", seed, formulation, reduction ? "on" : "off"),
+							network.isValid(), error(network, reference));
+				}
+			}
+			network.setReduction(false);
+			network.setPrecision(defaultPrecision);
+			for (SystemFormulation formulation : SystemFormulation.values()) {
+				network.setFormulation(formulation);
+				for (float threshold : THRESHOLDS) {
+					for (OrderingType ordering : OrderingType.values()) {
+						network.setPivoting(new Pivoting(Pivoting.DEFAULT_ZERO_TOLERANCE, threshold, ordering));
+						network.simulate(null);
+						checkUnnoticed(String.format(Locale.ROOT, "seed %d, %s %s, threshold %s, %s",
+								seed, formulation, defaultPrecision, Float.toString(threshold), ordering),
+								network.isValid(), error(network, reference));
+					}
+				}
+			}
+		}
+		checkRefinement();
+		checkEdits();
+		checkOrders();
+		System.out.println(String.format(Locale.ROOT, "grid %dx%d, resistances %.0e and %.0e Ohm, checks: %d, failed: %d",
+				size, size, LOW_RESISTANCE, HIGH_RESISTANCE, noOfChecks, noOfFailures));
+		return 0 == noOfFailures;
+	}
+
+	/**
+	 * Solves the larger grids of {@link #REFINED_SIZES} in every formulation, in the default precision with the default pivoting and without reduction.
+	 * A correction may bring the residual below its tolerance before the estimate of the error does, and the solution must not be rejected then.
+	 * HUN: Megoldja a nagyobb rácsokat minden felírással, az alapértelmezett pontossággal és főelemkiválasztással, egyszerűsítés nélkül.
+	 * Egy korrekció a maradékot a hibabecslés előtt is a tűréshatár alá viheti, a megoldást ekkor sem szabad elutasítani.
+	 */
+	private void checkRefinement() {
+		for (int size : REFINED_SIZES) {
+			for (int seed = 0; seed < NO_OF_REFINED_SEEDS; seed++) {
+				GridCircuit grid = new GridCircuit(size, LOW_RESISTANCE, HIGH_RESISTANCE, SOURCE_VOLTAGE, new Random(seed));
+				double reference[] = grid.referenceCurrents();
+				Network network = grid.toNetwork();
+				network.setSolverMethod(SolverMethod.direct);
+				network.setReduction(false);
+				for (SystemFormulation formulation : SystemFormulation.values()) {
+					network.setFormulation(formulation);
+					network.simulate(null);
+					check(String.format(Locale.ROOT, "grid %dx%d, seed %d, %s %s", size, size, seed, formulation, network.getPrecision()),
+							network.isValid(), error(network, reference));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Edits a resistance of {@link #EDITED_CIRCUIT} repeatedly, and checks the currents after each edit, in every formulation and precision, without reduction,
+	 * so the factorization is updated instead of factorized again. The circuit is well-posed after every edit, so it must stay valid.
+	 * HUN: Többször szerkeszti az áramkör egy ellenállását, és minden szerkesztés után ellenőrzi az áramokat, minden felírással és pontossággal.
+	 */
+	private void checkEdits() {
+		for (SystemFormulation formulation : SystemFormulation.values()) {
+			for (SolverPrecision precision : SolverPrecision.values()) {
+				Network network = GridCircuit.load(EDITED_CIRCUIT);
+				network.setSolverMethod(SolverMethod.direct);
+				network.setReduction(false);
+				network.setFormulation(formulation);
+				network.setPrecision(precision);
+				network.simulate(null);
+				Component edited = network.getComponents().get(1);
+				Component other = network.getComponents().get(2);
+				for (int i = 0; i < EDITED_RESISTANCES.length; i++) {
+					network.setProperty(edited, "resistance", Float.toString(EDITED_RESISTANCES[i]));
+					network.simulate(null);
+					double expected = EDITED_VOLTAGE / EDITED_RESISTANCES[i];
+					double error = Math.max(Math.abs(Math.abs(edited.getCurrent()) - expected) / expected,
+							Math.abs(Math.abs(other.getCurrent()) - EDITED_VOLTAGE / LOW_RESISTANCE) * LOW_RESISTANCE / EDITED_VOLTAGE);
+					check(String.format(Locale.ROOT, "edit %d to %.0e Ohm, %s %s", i + 1, EDITED_RESISTANCES[i], formulation, precision),
+							network.isValid(), error);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves the circuit of {@link #ORDERED_COMPONENTS} with the dangling resistance on each node and the components in each order,
+	 * in every formulation, precision and reduction: as loaded, after removing a component and undoing it, and after saving and loading it again.
+	 * The order of the components decides the order of the vertices, so the operations of the factorizations, and the edits change it.
+	 * All the solutions must be valid and accurate. A line is printed for each formulation, precision and reduction.
+	 * HUN: Megoldja az áramkört a lógó ellenállással minden csomóponton és a komponensek minden sorrendjével, minden felírással, pontossággal és egyszerűsítéssel:
+	 * betöltve, egy komponens törlése és visszavonása után, valamint mentés és újra betöltés után. Minden megoldásnak helyesnek és pontosnak kell lennie.
+	 */
+	private void checkOrders() {
+		for (SystemFormulation formulation : SystemFormulation.values()) {
+			for (SolverPrecision precision : SolverPrecision.values()) {
+				for (boolean reduction : new boolean[] {false, true}) {
+					boolean valid = true;
+					double maxError = 0;
+					for (int node = 0; node < 3; node++) {
+						List<String> lines = new ArrayList<>();
+						for (String component : ORDERED_COMPONENTS) {
+							lines.add(String.format(Locale.ROOT, component, node * 100));
+						}
+						for (int order = 0; order < NO_OF_ORDERS; order++) {
+							Collections.shuffle(lines, new Random(order));
+							Network network = GridCircuit.load(String.join("", lines));
+							Network networks[] = {network, network, null};
+							for (int i = 0; i < networks.length; i++) {
+								if (i == 1) {		//Edited: a component removed and put back by undo.
+									network.removeComponent(network.getComponents().get(0));
+									network.simulate(null);
+									network.undo();
+								}
+								else if (i == 2) {
+									network = reload(network);
+								}
+								network.setSolverMethod(SolverMethod.direct);
+								network.setFormulation(formulation);
+								network.setPrecision(precision);
+								network.setReduction(reduction);
+								network.simulate(null);
+								valid &= network.isValid();
+								maxError = Math.max(maxError, orderedError(network));
+							}
+						}
+					}
+					check(String.format(Locale.ROOT, "dangling resistance, %d orders, %s %s, reduction %s", 3 * NO_OF_ORDERS, formulation, precision, reduction ? "on" : "off"),
+							valid, maxError);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Greatest difference of the currents of the circuit of {@link #ORDERED_COMPONENTS} from the exact ones, relative to the current of the source.
+	 * No current flows through the dangling resistance.
+	 */
+	private static double orderedError(Network network) {
+		double current = ORDERED_VOLTAGE / (2 * ORDERED_RESISTANCE);
+		double maxDifference = 0;
+		for (Component component : network.getComponents()) {
+			boolean dangling = component instanceof Resistance && ((Resistance) component).getResistance() == PENDANT_RESISTANCE;
+			maxDifference = Math.max(maxDifference, Math.abs(Math.abs(component.getCurrent()) - (dangling ? 0 : current)));
+		}
+		return maxDifference / current;
+	}
+
+	/**
+	 * Saves the network to a temporary file, and loads it into a new network.
+	 */
+	private static Network reload(Network network) {
+		File file = null;
+		try {
+			file = File.createTempFile("circuit", ".txt");
+			network.save(file.getPath());
+			Network loaded = new Network();
+			loaded.load(file.getPath());
+			return loaded;
+		} catch (IOException e) {
+			throw new RuntimeException("Cannot write temporary file.", e);
+		} finally {
+			if (file != null) {
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Cross-checks the nodal and the incidence and cycle formulations, and counts and prints the result.
+	 */
+	private void crossCheck(String name, Network network, double maxCurrent) {
+		double difference;
+		try {
+			difference = network.crossCheckFormulations() / maxCurrent;
+		} catch (GaussException e) {
+			difference = Double.NaN;
+		}
+		boolean passed = difference <= CROSS_CHECK_LIMIT;
+		noOfChecks++;
+		if (!passed) {
+			noOfFailures++;
+		}
+		System.out.println(String.format(Locale.ROOT, "%s: %s (difference %.2e)", name, passed ? "ok" : "FAILED", difference));
+	}
+
+	/**
+	 * Counts and prints the result of a single check.
+	 */
+	private void check(String name, boolean valid, double error) {
+		boolean passed = valid && error <= limit;
+		noOfChecks++;
+		if (!passed) {
+			noOfFailures++;
+		}
+		System.out.println(String.format(Locale.ROOT, "%s: %s (valid: %s, error %.2e)", name, passed ? "ok" : "FAILED", valid, error));
+	}
+
+	/**
+	 * Counts and prints the result of a check, where the solution may be rejected, but must not be valid and inaccurate.
+	 */
+	private void checkUnnoticed(String name, boolean valid, double error) {
+		boolean passed = !valid || error <= limit;
+		noOfChecks++;
+		if (!passed) {
+			noOfFailures++;
+		}
+		System.out.println(String.format(Locale.ROOT, "%s: %s (valid: %s, error %.2e)", name, !passed ? "FAILED" : valid ? "ok" : "rejected", valid, error));
+	}
+
+	/**
+	 * Greatest difference of the currents of the components from the reference, relative to the greatest current of the reference.
+	 */
+	private static double error(Network network, double reference[]) {
+		List<Component> components = network.getComponents();
+		double maxDifference = 0;
+		for (int i = 0; i < reference.length; i++) {
+			maxDifference = Math.max(maxDifference, Math.abs(components.get(i).getCurrent() - reference[i]));
+		}
+		return maxDifference / maxAbs(reference);
+	}
+
+	private static double maxAbs(double values[]) {
+		double max = 0;
+		for (double value : values) {
+			max = Math.max(max, Math.abs(value));
+		}
+		return max;
+	}
+
+}
@@ -0,0 +1,172 @@
+package check.java;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import main.java.math.GaussException;
+import main.java.network.Component;
+import main.java.network.Network;
+import main.java.network.SolverMethod;
+import main.java.network.SystemFormulation;
+
+/**
+ * Headless benchmark of the incidence and cycle and the nodal formulation on N*N grid meshes (see {@link GridCircuit}).
+ * For each size the size of the linear system, the median time of building and solving it, and the error of the currents
+ * relative to the double precision reference of the mesh is printed for both formulations, and the formulations are cross-checked by {@link Network#crossCheckFormulations()}.
+ * The reduction of the network is off by default, so the raw formulations are compared.
+ * Usage: FormulationBenchmark [--sizes n,n,...] [--repetitions n] [--reduction]
+ * HUN: Grafikus felület nélküli mérés a hurok-incidencia és a csomóponti felírásra N*N-es rács hálókon.
+ * Minden méretre kiírja mindkét felírás lineáris rendszerének méretét, a felépítés és megoldás medián idejét, és az áramok hibáját a háló dupla pontosságú referenciájához képest,
+ * és összeveti a felírási módokat. Alapértelmezés szerint a hálózat egyszerűsítése ki van kapcsolva.
+ * @author Simon Zoltán
+ *
+ */
+public class FormulationBenchmark {
+
+	/**
+	 * The two values of the resistances of the meshes.
+	 * HUN: A hálók ellenállásainak két értéke.
+	 */
+	static final float LOW_RESISTANCE = 1e3f;
+	static final float HIGH_RESISTANCE = 1e4f;
+	static final float SOURCE_VOLTAGE = 5;
+
+	static final SystemFormulation FORMULATIONS[] = {SystemFormulation.incidenceAndCycle, SystemFormulation.nodal};
+
+	private int sizes[] = {10, 20, 40};
+	private int noOfRepetitions = 5;
+	private boolean reduction = false;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor, which parses the command line arguments.
+	 * @param args	The arguments.
+	 */
+	FormulationBenchmark(String args[]) {
+		for (int i = 0; i < args.length; i++) {
+			try {
+				switch (args[i]) {
+				case "--sizes":
+					sizes = Arrays.stream(value(args, ++i).split(",")).mapToInt(Integer::parseInt).toArray();
+					break;
+				case "--repetitions":
+					noOfRepetitions = Integer.parseInt(value(args, ++i));
+					break;
+				case "--reduction":
+					reduction = true;
+					break;
+				default:
+					throw new RuntimeException("Unknown argument: " + args[i]);
+				}
+			} catch (NumberFormatException e) {
+				throw new RuntimeException("Invalid value of " + args[i - 1]);
+			}
+		}
+		if (sizes.length == 0 || Arrays.stream(sizes).anyMatch(size -> size < 2) || noOfRepetitions < 1) {
+			throw new RuntimeException("Invalid parameters.");
+		}
+	}
+
+	private static String value(String args[], int i) {
+		if (i >= args.length) {
+			throw new RuntimeException("Missing value of " + args[i - 1]);
+		}
+		return args[i];
+	}
+
+	//Running:-----------------------------------------------------------
+
+	public static void main(String[] args) {
+		try {
+			new FormulationBenchmark(args).run();
+		} catch (RuntimeException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Usage: FormulationBenchmark [--sizes n,n,...] [--repetitions n] [--reduction]");
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Measures the meshes of all the sizes, and prints a row for each.
+	 * HUN: Megméri az összes méretű hálót, és mindegyikre kiír egy sort.
+	 */
+	void run() {
+		StringBuilder header = new StringBuilder(String.format(Locale.ROOT, "%9s %8s %8s", "grid", "vertices", "edges"));
+		for (SystemFormulation formulation : FORMULATIONS) {
+			header.append(String.format(Locale.ROOT, " | %-17s %11s %10s %8s", formulation, "equations", "time [ms]", "error"));
+		}
+		header.append(String.format(Locale.ROOT, " | %8s %11s", "speedup", "cross-check"));
+		System.out.println(header);
+		for (int size : sizes) {
+			GridCircuit grid = new GridCircuit(size, LOW_RESISTANCE, HIGH_RESISTANCE, SOURCE_VOLTAGE, new Random(size));
+			double reference[] = grid.referenceCurrents();
+			Network network = grid.toNetwork();
+			network.setSolverMethod(SolverMethod.direct);
+			network.setReduction(reduction);
+			StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%4dx%-4d %8d %8d",
+					size, size, size * size, grid.getNoOfComponents()));
+			double millis[] = new double[FORMULATIONS.length];
+			for (int f = 0; f < FORMULATIONS.length; f++) {
+				millis[f] = measure(network, FORMULATIONS[f]);
+				row.append(String.format(Locale.ROOT, " | %-17s %11s %10.3f %8.1e", network.isValid() ? "valid" : "INVALID",
+						network.getNoOfEquations() + "x" + network.getNoOfVariables(), millis[f], error(network, reference)));
+			}
+			row.append(String.format(Locale.ROOT, " | %7.1fx %11s", millis[0] / millis[1], crossCheck(network, reference)));
+			System.out.println(row);
+		}
+	}
+
+	/**
+	 * Median time of building and solving the system of the network with the given formulation. The first solve is a warm-up.
+	 * HUN: A hálózat rendszerének felépítési és megoldási medián ideje a megadott felírással. Az első megoldás bemelegítés.
+	 * @return Time in milliseconds.
+	 */
+	private double measure(Network network, SystemFormulation formulation) {
+		long nanos[] = new long[noOfRepetitions];
+		network.setFormulation(formulation);
+		network.simulate(null);
+		for (int i = 0; i < noOfRepetitions; i++) {
+			network.setFormulation(formulation);		//Everything is rebuilt.
+			long start = System.nanoTime();
+			network.simulate(null);
+			nanos[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		return nanos[noOfRepetitions / 2] / 1e6;
+	}
+
+	/**
+	 * Greatest difference of the currents of the components from the reference, relative to the greatest current of the reference.
+	 */
+	private static double error(Network network, double reference[]) {
+		List<Component> components = network.getComponents();
+		double maxDifference = 0;
+		for (int i = 0; i < reference.length; i++) {
+			maxDifference = Math.max(maxDifference, Math.abs(components.get(i).getCurrent() - reference[i]));
+		}
+		return maxDifference / maxAbs(reference);
+	}
+
+	private static double maxAbs(double values[]) {
+		double max = 0;
+		for (double value : values) {
+			max = Math.max(max, Math.abs(value));
+		}
+		return max;
+	}
+
+	/**
+	 * Greatest difference of the currents of the two formulations relative to the greatest current of the reference, or the error, if they can not be solved.
+	 */
+	private static String crossCheck(Network network, double reference[]) {
+		try {
+			return String.format(Locale.ROOT, "%.2e", network.crossCheckFormulations() / maxAbs(reference));
+		} catch (GaussException e) {
+			return e.toString();
+		}
+	}
+
+}
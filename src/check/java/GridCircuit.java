@@ -0,0 +1,245 @@
+package check.java;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+
+import main.java.network.Network;
+
+/**
+ * Generator of synthetic N*N grid circuits for the headless checks and benchmarks: resistances between the neighbouring nodes of the grid,
+ * and a voltage source between two opposite corners. Each resistance is either the low or the high value at random, so the spread of the values is as wide as possible.
+ * The currents of the circuit are also solved in double precision, independently of the solvers of the network, as the reference of the checks.
+ * HUN: N*N-es rács áramkörök generátora a grafikus felület nélküli ellenőrzésekhez és mérésekhez: ellenállások a rács szomszédos csomópontjai között,
+ * és egy feszültségforrás két szemközti sarok között. Minden ellenállás véletlenszerűen az alacsony vagy a magas érték.
+ * Az áramkör áramait dupla pontossággal, a hálózat megoldóitól függetlenül is kiszámoljuk, ez az ellenőrzések referenciája.
+ * @author Simon Zoltán
+ *
+ */
+final class GridCircuit {
+
+	/**
+	 * Distance of the neighbouring nodes of the grid.
+	 * HUN: A rács szomszédos csomópontjainak távolsága.
+	 */
+	static final int SPACING = 100;
+
+	private final int size;
+	private final float sourceVoltage;
+
+	/**
+	 * Resistance of the horizontal and the vertical edge starting from each node, in row major order. The ones leaving the grid are unused.
+	 * HUN: Az egyes csomópontokból induló vízszintes és függőleges él ellenállása, soronként. A rácsból kivezetők nincsenek használva.
+	 */
+	private final float horizontal[];
+	private final float vertical[];
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param size				Number of nodes along a side of the grid. At least 2.
+	 * @param lowResistance		The low value of the resistances.
+	 * @param highResistance	The high value of the resistances. Equal to the low one for a uniform grid.
+	 * @param sourceVoltage		Voltage of the source between the corners.
+	 * @param random			Source of the random resistances.
+	 */
+	GridCircuit(int size, float lowResistance, float highResistance, float sourceVoltage, Random random) {
+		if (size < 2) {
+			throw new RuntimeException("Grid size must be at least 2.");
+		}
+		if (!(lowResistance > 0) || !(highResistance >= lowResistance)) {
+			throw new RuntimeException("Invalid resistances.");
+		}
+		this.size = size;
+		this.sourceVoltage = sourceVoltage;
+		horizontal = new float[size * size];
+		vertical = new float[size * size];
+		for (int i = 0; i < size * size; i++) {
+			horizontal[i] = random.nextBoolean()? highResistance : lowResistance;
+			vertical[i] = random.nextBoolean()? highResistance : lowResistance;
+		}
+	}
+
+	//Output:-----------------------------------------------------------
+
+	/**
+	 * The circuit in the format of {@link Network#save(String)}. The voltage source is the first component,
+	 * the resistances follow row by row, the horizontal one of a node before its vertical one.
+	 * HUN: Az áramkör a {@link Network#save(String)} formátumában. A feszültségforrás az első komponens, az ellenállások soronként következnek.
+	 * @return The text of the circuit.
+	 */
+	String toText() {
+		StringBuilder builder = new StringBuilder();
+		int far = (size - 1) * SPACING;
+		builder.append(String.format(Locale.ROOT, "class: main.java.network.VoltageSource; voltage: %s; inputPos: [0, 0]; outputPos: [%d, %d]\n",
+				Float.toString(sourceVoltage), far, far));
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				if (x + 1 < size) {
+					appendResistance(builder, horizontal[y * size + x], x, y, x + 1, y);
+				}
+				if (y + 1 < size) {
+					appendResistance(builder, vertical[y * size + x], x, y, x, y + 1);
+				}
+			}
+		}
+		return builder.toString();
+	}
+
+	private static void appendResistance(StringBuilder builder, float resistance, int x1, int y1, int x2, int y2) {
+		builder.append(String.format(Locale.ROOT, "class: main.java.network.Resistance; resistance: %s; inputPos: [%d, %d]; outputPos: [%d, %d]\n",
+				Float.toString(resistance), x1 * SPACING, y1 * SPACING, x2 * SPACING, y2 * SPACING));
+	}
+
+	/**
+	 * Creates a new network of the circuit. The network is loaded through a temporary file, like a saved circuit.
+	 * HUN: Létrehozza az áramkör hálózatát. A hálózatot egy ideiglenes fájlon keresztül töltjük be, mint egy mentett áramkört.
+	 * @return The loaded {@link Network}.
+	 */
+	Network toNetwork() {
+		return load(toText());
+	}
+
+	/**
+	 * Creates a new network of a circuit given in the format of {@link Network#save(String)}, through a temporary file.
+	 * HUN: Létrehozza egy szöveges formátumban megadott áramkör hálózatát, egy ideiglenes fájlon keresztül.
+	 * @param text	The text of the circuit.
+	 * @return The loaded {@link Network}.
+	 */
+	static Network load(String text) {
+		File file = null;
+		try {
+			file = File.createTempFile("circuit", ".txt");
+			try (FileWriter writer = new FileWriter(file)) {
+				writer.write(text);
+			}
+			Network network = new Network();
+			network.load(file.getPath());
+			return network;
+		} catch (IOException e) {
+			throw new RuntimeException("Cannot write temporary file.", e);
+		} finally {
+			if (file != null) {
+				file.delete();
+			}
+		}
+	}
+
+	//Reference:--------------------------------------------------------
+
+	/**
+	 * Currents of the components in double precision, solved without the solvers of the network.
+	 * The two corners are fixed to the potentials of the source, the potentials of the other nodes are solved from the conductance matrix,
+	 * which is symmetric positive definite and banded (the bandwidth is the size of the grid), by a banded Cholesky factorization.
+	 * HUN: A komponensek árama dupla pontossággal, a hálózat megoldói nélkül. A két sarok potenciálját a forrás rögzíti,
+	 * a többi csomópont potenciálját a szimmetrikus, pozitív definit, sávos vezetésmátrixból Cholesky-felbontással számoljuk.
+	 * @return Currents in the order of the components of {@link #toText()}. The current of a resistance flows from its input to its output.
+	 */
+	double[] referenceCurrents() {
+		int n = size * size;
+		double potential[] = new double[n];
+		potential[n - 1] = sourceVoltage;
+
+		//Lower band of the conductance matrix of the nodes 1 ... n-2: band[i][d] = A(i, i - d).
+		int m = n - 2;
+		double band[][] = new double[m][size + 1];
+		double rightSide[] = new double[m];
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				int node = y * size + x;
+				if (x + 1 < size) {
+					stamp(band, rightSide, potential, node, node + 1, 1.0 / horizontal[node]);
+				}
+				if (y + 1 < size) {
+					stamp(band, rightSide, potential, node, node + size, 1.0 / vertical[node]);
+				}
+			}
+		}
+
+		//Cholesky factorization in place, band[i][d] = L(i, i - d):
+		for (int i = 0; i < m; i++) {
+			for (int j = Math.max(0, i - size); j <= i; j++) {
+				double sum = band[i][i - j];
+				for (int k = Math.max(0, i - size); k < j; k++) {
+					sum -= band[i][i - k] * band[j][j - k];
+				}
+				band[i][i - j] = (i == j)? Math.sqrt(sum) : sum / band[j][0];
+			}
+		}
+		double solution[] = new double[m];
+		for (int i = 0; i < m; i++) {
+			double sum = rightSide[i];
+			for (int j = Math.max(0, i - size); j < i; j++) {
+				sum -= band[i][i - j] * solution[j];
+			}
+			solution[i] = sum / band[i][0];
+		}
+		for (int i = m - 1; i >= 0; i--) {
+			double sum = solution[i];
+			for (int j = i + 1; j <= Math.min(m - 1, i + size); j++) {
+				sum -= band[j][j - i] * solution[j];
+			}
+			solution[i] = sum / band[i][0];
+		}
+		System.arraycopy(solution, 0, potential, 1, m);
+
+		//Currents of the resistances, and of the source: what flows into its input corner from the grid.
+		double currents[] = new double[getNoOfComponents()];
+		int c = 1;
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				int node = y * size + x;
+				if (x + 1 < size) {
+					currents[c++] = (potential[node] - potential[node + 1]) / horizontal[node];
+				}
+				if (y + 1 < size) {
+					currents[c++] = (potential[node] - potential[node + size]) / vertical[node];
+				}
+			}
+		}
+		currents[0] = -(currents[1] + currents[2]);
+		return currents;
+	}
+
+	/**
+	 * Adds the conductance between nodes a < b to the band of the unknown potentials, or to the right side, if one of them is fixed.
+	 */
+	private static void stamp(double band[][], double rightSide[], double potential[], int a, int b, double conductance) {
+		int n = potential.length;
+		boolean freeA = a != 0 && a != n - 1;
+		boolean freeB = b != 0 && b != n - 1;
+		if (freeA) {
+			band[a - 1][0] += conductance;
+			if (!freeB) {
+				rightSide[a - 1] += conductance * potential[b];
+			}
+		}
+		if (freeB) {
+			band[b - 1][0] += conductance;
+			if (freeA) {
+				band[b - 1][b - a] -= conductance;
+			}
+			else {
+				rightSide[b - 1] += conductance * potential[a];
+			}
+		}
+	}
+
+	//Getters:----------------------------------------------------------
+
+	int getSize() {
+		return size;
+	}
+
+	/**
+	 *
+	 * @return Number of components: the resistances and the voltage source.
+	 */
+	int getNoOfComponents() {
+		return 2 * size * (size - 1) + 1;
+	}
+
+}
@@ -0,0 +1,132 @@
+package check.java;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import main.java.math.PreconditionerType;
+import main.java.network.Network;
+import main.java.network.SolverMethod;
+
+/**
+ * Headless benchmark of the preconditioned conjugate gradient solver on N*N resistor grids (see {@link GridCircuit}).
+ * For each size and preconditioner the median time of the first simulation step of a newly loaded network is printed
+ * (building the system, setting up the preconditioner and solving it from zero), with the number of iterations and the time per vertex.
+ * Usage: MultigridBenchmark [--sizes n,n,...] [--repetitions n] [--preconditioners type,type,...]
+ * HUN: Grafikus felület nélküli mérés az előkondicionált konjugált gradiens megoldóra N*N-es ellenállás rácsokon.
+ * Minden méretre és előkondicionálóra kiírja egy újonnan betöltött hálózat első szimulációs lépésének medián idejét, az iterációk számát és a csúcsonkénti időt.
+ * @author Simon Zoltán
+ *
+ */
+public class MultigridBenchmark {
+
+	/**
+	 * Resistance of the edges of the grids, and the voltage of the source between the corners.
+	 * HUN: A rácsok éleinek ellenállása, és a sarkok közötti forrás feszültsége.
+	 */
+	static final float RESISTANCE = 1e3f;
+	static final float SOURCE_VOLTAGE = 5;
+
+	private int sizes[] = {50, 100, 150};
+	private int noOfRepetitions = 5;
+	private PreconditionerType preconditioners[] = {PreconditionerType.incompleteCholesky, PreconditionerType.algebraicMultigrid};
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor, which parses the command line arguments.
+	 * @param args	The arguments.
+	 */
+	MultigridBenchmark(String args[]) {
+		for (int i = 0; i < args.length; i++) {
+			try {
+				switch (args[i]) {
+				case "--sizes":
+					sizes = Arrays.stream(value(args, ++i).split(",")).mapToInt(Integer::parseInt).toArray();
+					break;
+				case "--repetitions":
+					noOfRepetitions = Integer.parseInt(value(args, ++i));
+					break;
+				case "--preconditioners":
+					preconditioners = Arrays.stream(value(args, ++i).split(",")).map(PreconditionerType::valueOf).toArray(PreconditionerType[]::new);
+					break;
+				default:
+					throw new RuntimeException("Unknown argument: " + args[i]);
+				}
+			} catch (IllegalArgumentException e) {		//Also NumberFormatException.
+				throw new RuntimeException("Invalid value of " + args[i - 1]);
+			}
+		}
+		if (sizes.length == 0 || Arrays.stream(sizes).anyMatch(size -> size < 2) || noOfRepetitions < 1 || preconditioners.length == 0) {
+			throw new RuntimeException("Invalid parameters.");
+		}
+	}
+
+	private static String value(String args[], int i) {
+		if (i >= args.length) {
+			throw new RuntimeException("Missing value of " + args[i - 1]);
+		}
+		return args[i];
+	}
+
+	//Running:-----------------------------------------------------------
+
+	public static void main(String[] args) {
+		try {
+			new MultigridBenchmark(args).run();
+		} catch (RuntimeException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Usage: MultigridBenchmark [--sizes n,n,...] [--repetitions n] [--preconditioners type,type,...]");
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Measures the grids of all the sizes, and prints a row for each.
+	 * HUN: Megméri az összes méretű rácsot, és mindegyikre kiír egy sort.
+	 */
+	void run() {
+		StringBuilder header = new StringBuilder(String.format(Locale.ROOT, "%9s %8s", "grid", "vertices"));
+		for (PreconditionerType preconditioner : preconditioners) {
+			header.append(String.format(Locale.ROOT, " | %-18s %10s %5s %8s", preconditioner, "time [ms]", "iter.", "us/vertex"));
+		}
+		System.out.println(header);
+		for (int size : sizes) {
+			GridCircuit grid = new GridCircuit(size, RESISTANCE, RESISTANCE, SOURCE_VOLTAGE, new Random(size));
+			int noOfVertices = size * size;
+			StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%4dx%-4d %8d", size, size, noOfVertices));
+			for (PreconditionerType preconditioner : preconditioners) {
+				long nanos[] = new long[noOfRepetitions];
+				int noOfIterations = 0;
+				boolean valid = true;
+				measure(grid, preconditioner);		//Warm-up.
+				for (int i = 0; i < noOfRepetitions; i++) {
+					Network network = grid.toNetwork();
+					network.setSolverMethod(SolverMethod.conjugateGradient);
+					network.setPreconditionerType(preconditioner);
+					long start = System.nanoTime();
+					network.simulate(null);
+					nanos[i] = System.nanoTime() - start;
+					noOfIterations = network.getNoOfIterations();
+					valid &= network.isValid();
+				}
+				Arrays.sort(nanos);
+				double millis = nanos[noOfRepetitions / 2] / 1e6;
+				row.append(String.format(Locale.ROOT, " | %-18s %10.1f %5d %8.2f", valid ? "valid" : "INVALID",
+						millis, noOfIterations, millis * 1e3 / noOfVertices));
+			}
+			System.out.println(row);
+		}
+	}
+
+	/**
+	 * Solves a newly loaded network of the grid with the preconditioner once.
+	 */
+	private static void measure(GridCircuit grid, PreconditionerType preconditioner) {
+		Network network = grid.toNetwork();
+		network.setSolverMethod(SolverMethod.conjugateGradient);
+		network.setPreconditionerType(preconditioner);
+		network.simulate(null);
+	}
+
+}
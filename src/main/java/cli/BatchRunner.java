@@ -0,0 +1,200 @@
+package main.java.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless entry point, which solves many saved circuits in parallel, and writes their branch currents and validity as CSV or JSON.
+ * Usage: BatchRunner [--out file] [--format csv|json] [--threads n] (file | directory)...
+ * The *.txt files of the given directories are solved. The statistics are printed to the standard error at the end.
+ * HUN: Grafikus felület nélküli belépési pont, amely sok mentett áramkört old meg párhuzamosan, és az ágáramaikat és a helyességüket CSV vagy JSON formában írja ki.
+ * A megadott könyvtárak *.txt fájljait oldjuk meg. A statisztikákat a végén a hibakimenetre írjuk.
+ * @author Simon Zoltán
+ *
+ */
+public class BatchRunner {
+
+	private List<String> files = new ArrayList<String>();
+	private String out = null;
+	private boolean json = false;
+	private int noOfThreads = Runtime.getRuntime().availableProcessors();
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor, which parses the command line arguments.
+	 * @param args	The arguments.
+	 */
+	BatchRunner(String args[]) {
+		String format = null;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--out":
+				out = value(args, ++i);
+				break;
+			case "--format":
+				format = value(args, ++i);
+				break;
+			case "--threads":
+				try {
+					noOfThreads = Integer.parseInt(value(args, ++i));
+				} catch (NumberFormatException e) {
+					throw new RuntimeException("Invalid number of threads.");
+				}
+				if (noOfThreads < 1) {
+					throw new RuntimeException("Invalid number of threads.");
+				}
+				break;
+			default:
+				addFiles(args[i]);
+			}
+		}
+		if (format == null) {
+			format = (out != null && out.toLowerCase(Locale.ROOT).endsWith(".json"))? "json" : "csv";
+		}
+		if (!format.equals("csv") && !format.equals("json")) {
+			throw new RuntimeException("Unknown format: " + format);
+		}
+		json = format.equals("json");
+		if (files.isEmpty()) {
+			throw new RuntimeException("No files given.");
+		}
+	}
+
+	private static String value(String args[], int i) {
+		if (i >= args.length) {
+			throw new RuntimeException("Missing value of " + args[i - 1]);
+		}
+		return args[i];
+	}
+
+	/**
+	 * Adds a file, or the *.txt files of a directory in the order of their names.
+	 * HUN: Hozzáad egy fájlt, vagy egy könyvtár *.txt fájljait a nevük sorrendjében.
+	 */
+	private void addFiles(String arg) {
+		Path path = Paths.get(arg);
+		if (!Files.isDirectory(path)) {
+			files.add(arg);
+			return;
+		}
+		try (Stream<Path> stream = Files.walk(path)) {
+			files.addAll(stream.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".txt"))
+					.map(Path::toString).sorted().collect(Collectors.toList()));
+		} catch (IOException e) {
+			throw new RuntimeException("Cannot read directory: " + arg, e);
+		}
+	}
+
+	//Running:-----------------------------------------------------------
+
+	public static void main(String[] args) {
+		try {
+			new BatchRunner(args).run();
+		} catch (RuntimeException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Usage: BatchRunner [--out file] [--format csv|json] [--threads n] (file | directory)...");
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Solves the files on a pool of the given number of threads, and writes the results in the order of the files.
+	 * HUN: Megoldja a fájlokat a megadott számú szálon, és a fájlok sorrendjében írja ki az eredményeket.
+	 */
+	void run() {
+		long start = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(noOfThreads);
+		List<Future<CircuitResult>> futures = new ArrayList<Future<CircuitResult>>(files.size());
+		for (String file : files) {
+			futures.add(pool.submit(() -> CircuitResult.solve(file)));
+		}
+		List<CircuitResult> results = new ArrayList<CircuitResult>(files.size());
+		try (PrintStream stream = (out != null)? new PrintStream(out, StandardCharsets.UTF_8) : null) {
+			PrintStream printer = (stream != null)? stream : System.out;
+			printer.print(json? "[\n" : CircuitResult.csvHeader() + "\n");
+			//Each result is written as soon as the ones before it are done:
+			for (Future<CircuitResult> future : futures) {
+				CircuitResult result = future.get();
+				StringBuilder builder = new StringBuilder();
+				if (json) {
+					if (!results.isEmpty()) {
+						builder.append(",\n");
+					}
+					result.appendJson(builder);
+				}
+				else {
+					result.appendCsv(builder);
+				}
+				printer.print(builder);
+				results.add(result);
+			}
+			if (json) {
+				printer.print("\n]\n");
+			}
+			printer.flush();
+		} catch (IOException e) {
+			throw new RuntimeException("Cannot write file: " + out, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted.");
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Solving failed.", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		printStatistics(results, System.nanoTime() - start);
+	}
+
+	/**
+	 * Prints the number of files, the throughput, and the percentiles of the time of a file.
+	 * HUN: Kiírja a fájlok számát, az áteresztőképességet, és egy fájl idejének percentiliseit.
+	 */
+	private void printStatistics(List<CircuitResult> results, long wallNanos) {
+		int noOfErrors = 0;
+		int noOfValid = 0;
+		long nanos[] = new long[results.size()];
+		for (int i = 0; i < results.size(); i++) {
+			if (results.get(i).getError() != null) {
+				noOfErrors++;
+			}
+			else if (results.get(i).isValid()) {
+				noOfValid++;
+			}
+			nanos[i] = results.get(i).getNanos();
+		}
+		Arrays.sort(nanos);
+		double seconds = wallNanos / 1e9;
+		System.err.println(String.format(Locale.ROOT, "files: %d, valid: %d, invalid: %d, errors: %d, threads: %d",
+				results.size(), noOfValid, results.size() - noOfValid - noOfErrors, noOfErrors, noOfThreads));
+		System.err.println(String.format(Locale.ROOT, "wall time: %.3f s, throughput: %.1f files/s",
+				seconds, results.size() / seconds));
+		System.err.println(String.format(Locale.ROOT, "latency: p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms",
+				percentile(nanos, 0.5) / 1e6, percentile(nanos, 0.95) / 1e6, percentile(nanos, 0.99) / 1e6, percentile(nanos, 1.0) / 1e6));
+	}
+
+	/**
+	 * Nearest rank percentile of sorted values.
+	 */
+	private static long percentile(long sorted[], double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int)Math.ceil(p * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+}
@@ -0,0 +1,196 @@
+package main.java.cli;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import main.java.network.Component;
+import main.java.network.Network;
+import main.java.network.TimeStep;
+
+/**
+ * Result of solving a saved circuit: the validity and the branch currents and voltages of its components, or the error of loading it.
+ * HUN: Egy mentett áramkör megoldásának eredménye: a helyessége és a komponensek ágáramai és feszültségei, vagy a betöltés hibája.
+ * @author Simon Zoltán
+ *
+ */
+public class CircuitResult {
+
+	/**
+	 * Maximum number of simulation steps, until the currents settle.
+	 * HUN: A szimulációs lépések maximális száma, amíg az áramok beállnak.
+	 */
+	static final int MAX_NO_OF_STEPS = 16;
+
+	private String file;
+	private String error = null;
+	private boolean valid = false;
+	private int noOfInvalidParts = 0;
+	private int noOfSteps = 0;
+	private long nanos = 0;
+
+	/**
+	 * Type, current, voltage and validity of each component, in the order of the file.
+	 * HUN: Minden komponens típusa, árama, feszültsége és helyessége, a fájlbeli sorrendben.
+	 */
+	private String types[] = new String[0];
+	private float currents[] = new float[0];
+	private float voltages[] = new float[0];
+	private boolean validComponents[] = new boolean[0];
+
+	//Constructor:------------------------------------------------------
+
+	private CircuitResult(String file) {
+		this.file = file;
+	}
+
+	/**
+	 * Loads the circuit, and simulates it until the currents settle. A file, that cannot be loaded, gives a result with an error.
+	 * HUN: Betölti az áramkört, és addig szimulálja, amíg az áramok beállnak. A be nem tölthető fájl hibás eredményt ad.
+	 * @param file	The file in the format of {@link Network#save(String)}.
+	 * @return The result.
+	 */
+	public static CircuitResult solve(String file) {
+		CircuitResult result = new CircuitResult(file);
+		long start = System.nanoTime();
+		try {
+			Network network = new Network();
+			network.load(file);
+			List<Component> components = network.getComponents();
+			float currents[] = null;
+			//A linear network settles in the first step, the second one only confirms it:
+			while (result.noOfSteps < MAX_NO_OF_STEPS) {
+				network.simulate(TimeStep.ZERO);
+				result.noOfSteps++;
+				float next[] = new float[components.size()];
+				for (int i = 0; i < components.size(); i++) {
+					next[i] = components.get(i).getCurrent();
+				}
+				boolean settled = Arrays.equals(currents, next);
+				currents = next;
+				if (settled) {
+					break;
+				}
+			}
+			result.valid = network.isValid();
+			result.noOfInvalidParts = network.getNoOfInvalidParts();
+			result.types = new String[components.size()];
+			result.voltages = new float[components.size()];
+			result.validComponents = new boolean[components.size()];
+			for (int i = 0; i < components.size(); i++) {
+				result.types[i] = components.get(i).getClass().getSimpleName();
+				result.voltages[i] = components.get(i).getVoltage();
+				result.validComponents[i] = network.isValid(components.get(i));
+			}
+			result.currents = currents;
+		} catch (RuntimeException e) {
+			result.error = (e.getCause() != null)? e.getMessage() + " " + e.getCause() : e.getMessage();
+		}
+		result.nanos = System.nanoTime() - start;
+		return result;
+	}
+
+	//Output:-----------------------------------------------------------
+
+	/**
+	 * Header of the CSV rows.
+	 */
+	public static String csvHeader() {
+		return "file,component,type,current,voltage,valid,error";
+	}
+
+	/**
+	 * Appends a CSV row for each component, or a single row with the error.
+	 * HUN: Minden komponenshez egy CSV sort fűz, vagy egyetlen sort a hibával.
+	 * @param builder	The builder of the output.
+	 */
+	public void appendCsv(StringBuilder builder) {
+		String quotedFile = "\"" + file.replace("\"", "\"\"") + "\"";
+		if (error != null) {
+			builder.append(quotedFile).append(",,,,,false,\"").append(error.replace("\"", "\"\"")).append("\"\n");
+			return;
+		}
+		for (int i = 0; i < types.length; i++) {
+			builder.append(quotedFile).append(',').append(i).append(',').append(types[i]).append(',')
+					.append(currents[i]).append(',').append(voltages[i]).append(',').append(validComponents[i]).append(",\n");
+		}
+	}
+
+	/**
+	 * Appends a JSON object of the result.
+	 * HUN: A eredmény JSON objektumát fűzi hozzá.
+	 * @param builder	The builder of the output.
+	 */
+	public void appendJson(StringBuilder builder) {
+		builder.append("{\"file\":").append(quote(file));
+		if (error != null) {
+			builder.append(",\"error\":").append(quote(error)).append('}');
+			return;
+		}
+		builder.append(",\"valid\":").append(valid);
+		builder.append(",\"invalidParts\":").append(noOfInvalidParts);
+		builder.append(",\"steps\":").append(noOfSteps);
+		builder.append(String.format(Locale.ROOT, ",\"millis\":%.3f", nanos / 1e6));
+		builder.append(",\"components\":[");
+		for (int i = 0; i < types.length; i++) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			builder.append("{\"type\":\"").append(types[i]).append('"');
+			builder.append(",\"current\":").append(number(currents[i]));
+			builder.append(",\"voltage\":").append(number(voltages[i]));
+			builder.append(",\"valid\":").append(validComponents[i]).append('}');
+		}
+		builder.append("]}");
+	}
+
+	private static String quote(String str) {
+		StringBuilder builder = new StringBuilder("\"");
+		for (char c : str.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				builder.append(String.format("\\u%04x", (int)c));
+			}
+			else {
+				builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+	/**
+	 * JSON has no NaN or infinity, they are written as null.
+	 */
+	private static String number(float value) {
+		return (Float.isNaN(value) || Float.isInfinite(value))? "null" : String.valueOf(value);
+	}
+
+	//Getters:----------------------------------------------------
+
+	public String getFile() {
+		return file;
+	}
+
+	/**
+	 *
+	 * @return The error of loading or solving, or null if there was none.
+	 */
+	public String getError() {
+		return error;
+	}
+
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 *
+	 * @return Time of loading and solving in nanoseconds.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+}
@@ -9,7 +9,8 @@ import main.java.math.Coordinate;
 import main.java.math.Line;
 import main.java.math.MyMath;
 import main.java.math.Vector;
-import main.java.network.Network;
+import main.java.network.ComponentSnapshot;
+import main.java.network.NetworkSnapshot;
 
 /**
  * Auxiliary methods for drawing components.
@@ -71,19 +72,33 @@ public class DrawingHelper {
 	 * Updates the image visible on canvas.
 	 * HUN: Frissíti a "vásznon" megjelelített képet.
 	 * @param canvas to draw on
-	 * @param network {@link Network} that provides objects to visualise.
+	 * @param snapshot {@link NetworkSnapshot} that provides objects to visualise.
 	 */
-	protected static void updateCanvasContent(Canvas canvas, Network network) {
+	protected static void updateCanvasContent(Canvas canvas, NetworkSnapshot snapshot) {
 		GraphicsContext ctx;
 		if (canvas != null && (ctx = canvas.getGraphicsContext2D()) != null) {
 			ctx.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-			network.draw(ctx);
+			drawSnapshot(ctx, snapshot);
 		}
 	}
-	
+
+	/**
+	 * Draws every component of a network snapshot.
+	 * HUN: Egy hálózati pillanatkép minden komponensét kirajzolja.
+	 * @param ctx		{@link GraphicsContext}, where the network should be drawn.
+	 * @param snapshot	{@link NetworkSnapshot} to draw.
+	 */
+	public static void drawSnapshot(GraphicsContext ctx, NetworkSnapshot snapshot) {
+		ComponentSnapshot selected = snapshot.getSelected();
+		for (ComponentSnapshot component : snapshot.getComponents()) {
+			drawShape(ctx, component.getInput(), component.getOutput(),
+					component.getComponent().getShape(), component.getComponent().getShapeLength(), component == selected);
+		}
+	}
+
 	/**
-	 * Draw shape of a component. Called by components.
-	 * HUN: Komponens alakzatának kirajzolása. A komponensek hívják.
+	 * Draw shape of a component.
+	 * HUN: Komponens alakzatának kirajzolása.
 	 * @param ctx	{@link GraphicsContext}	
 	 * @param inputPos	Position of the input node of the component.
 	 * @param outputPos	Position of the output node of the component.
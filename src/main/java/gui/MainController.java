@@ -3,6 +3,7 @@ package main.java.gui;
 import java.io.File;
 import java.net.URL;
 import java.nio.file.Paths;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -45,10 +46,14 @@ import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.util.Duration;
 import main.java.math.Coordinate;
 import main.java.network.Component;
-import main.java.network.ComponentNode;
 import main.java.network.ComponentProperty;
+import main.java.network.ComponentSnapshot;
 import main.java.network.Network;
+import main.java.network.NetworkSnapshot;
+import main.java.network.Pointer;
 import main.java.network.Resistance;
+import main.java.network.SimulationWorker;
+import main.java.network.TimeStep;
 import main.java.network.VoltageSource;
 import main.java.network.Wire;
 
@@ -57,10 +62,20 @@ public class MainController {
 	static MainController mainController = null;
 	
 	private DrawingHelper helper;
-	private Network network = new Network();
-	private Component     grabbedComponent = null;
-	private ComponentNode grabbedNode = null;
+	
+	/**
+	 * The network is owned by the simulation thread. It is edited through the worker, and shown from its snapshots.
+	 * The pointer is only used in the edits, on the simulation thread.
+	 */
+	private SimulationWorker worker = new SimulationWorker(new Network(), TimeStep.ofMillis(50));
+	private Pointer pointer = new Pointer();
+	private NetworkSnapshot shownSnapshot = NetworkSnapshot.EMPTY;
 	private Component selectedComponent = null;
+	
+	/**
+	 * Text fields of the properties shown in the property view.
+	 */
+	private Map<String, TextField> propertyFields = new HashMap<String, TextField>();
 	private int idx = 0;
 	
 	Boolean simulating = null; 
@@ -152,13 +167,9 @@ public class MainController {
      */
     @FXML
     void miNewAction(ActionEvent event) {
-    	network.clear();
-    	helper.updateCanvasContent(xCanvas, network);
-    	selectedComponent = null;
-    	grabbedNode = null;
-    	grabbedComponent = null;
+    	worker.submit(Network::clear);
+    	worker.setSimulating(false);
     	simulating = null;
-    	destroyPropertyView();
     }
 
     /**
@@ -180,8 +191,7 @@ public class MainController {
         File f = fileChooser.showOpenDialog(App.globalStage);
         if (f != null && f.exists()) {
         	String fileName = f.getAbsolutePath();
-        	network.load(fileName);
-        	network.draw(xCanvas.getGraphicsContext2D());
+        	worker.submit(network -> network.load(fileName));
         }
     }
 
@@ -212,7 +222,7 @@ public class MainController {
         File f = fileChooser.showSaveDialog(null);
         if (f != null) {
         	String fileName = f.getAbsolutePath();
-        	network.save(fileName);
+        	worker.submit(network -> network.save(fileName));
         }
     }
 
@@ -223,6 +233,7 @@ public class MainController {
     @FXML
     void miStartAction(ActionEvent event) {
     	simulating = true;
+    	worker.setSimulating(true);
     	leftStatus.setText("Szimuláció folyamatban.");
     }
 
@@ -236,6 +247,7 @@ public class MainController {
         	leftStatus.setText("Szimuláció szüneteltetve.");    		
     	}
     	simulating = false;
+    	worker.setSimulating(false);
     }
 
     /**
@@ -244,7 +256,8 @@ public class MainController {
      */
     @FXML
     void miStopAction(ActionEvent event) {
-    	network.reset();
+    	worker.setSimulating(false);
+    	worker.submit(Network::reset);
     	simulating = null;
     	leftStatus.setText("Szimuláció leállítva.");    		
     }
@@ -386,19 +399,21 @@ public class MainController {
     	        {
     	            event.setDropCompleted(true);
     	            String str = dragboard.getString();
+    	            Component dropped = null;
     	            if (str.equals("Feszültségforrás")) {
-    	            	network.dropComponent(new VoltageSource(), new Coordinate((int)event.getX(), (int)event.getY()));
+    	            	dropped = new VoltageSource();
     	            }
     	            else if (str.equals("Ellenállás")) {
-    	            	network.dropComponent(new Resistance(), new Coordinate((int)event.getX(), (int)event.getY()));
+    	            	dropped = new Resistance();
     	            }
     	            else if (str.equals("Vezeték")) {
-    	            	network.dropComponent(new Wire(), new Coordinate((int)event.getX(), (int)event.getY()));
+    	            	dropped = new Wire();
+    	            }
+    	            if (dropped != null) {
+    	            	Component component = dropped;
+    	            	Coordinate cursorPos = new Coordinate((int)event.getX(), (int)event.getY());
+    	            	worker.submit(network -> network.dropComponent(component, cursorPos));
     	            }
-    	            selectedComponent = network.getSelected();
-    	            destroyPropertyView();
-    	            buildPropertyView(selectedComponent);
-    	            helper.updateCanvasContent(xCanvas, network);
     	            System.out.println("Successfuly dropped " + dragboard.getString());
     	        } else {
     	            event.setDropCompleted(false);
@@ -412,24 +427,7 @@ public class MainController {
     		event -> {
     			if (event.getButton() ==  MouseButton.PRIMARY) {
     				Coordinate cursorPos = new Coordinate((int)event.getX(), (int)event.getY());
-    				grabbedNode = network.getNodeAtPos(cursorPos);
-    				if (grabbedNode != null) {
-    					network.grabComponentNode(grabbedNode, cursorPos);
-        				helper.updateCanvasContent(xCanvas, network);
-    				} else {
-    					grabbedComponent = network.getComponentAtPos(cursorPos);
-    					if (grabbedComponent != null) {
-    						network.grabComponent(grabbedComponent, cursorPos);
-            				helper.updateCanvasContent(xCanvas, network);
-            				if (null != network.getSelected() &&
-            						(selectedComponent == null || selectedComponent != network.getSelected())) {
-                				selectedComponent = network.getSelected();
-                				destroyPropertyView();
-            					buildPropertyView(selectedComponent);
-            				}
-            				
-    					}
-    				}
+    				worker.submit(network -> pointer.press(network, cursorPos));
     			}
     		}
         );
@@ -437,15 +435,7 @@ public class MainController {
         xCanvas.setOnMouseDragged(
     		event -> {
     			Coordinate cursorPos = new Coordinate((int)event.getX(), (int)event.getY());
-    			if (grabbedNode != null) {
-        			System.out.println(String.format("#1 xCanvas MouseMoved %d", System.currentTimeMillis()));
-    				network.dragComponentNode(grabbedNode, cursorPos);
-    				helper.updateCanvasContent(xCanvas, network);
-    			} else if (grabbedComponent != null) {
-        			System.out.println(String.format("#2 xCanvas MouseMoved %d", System.currentTimeMillis()));
-					network.dragComponent(grabbedComponent, cursorPos);
-    				helper.updateCanvasContent(xCanvas, network);
-    			}
+    			worker.submit(network -> pointer.drag(network, cursorPos));
     	        event.consume();        			
     		}
         );
@@ -453,15 +443,7 @@ public class MainController {
 
         xCanvas.setOnMouseReleased(
     		event -> {
-    			if (grabbedNode != null) {
-    				network.releaseComponentNode(grabbedNode);
-    				grabbedNode = null;
-    				helper.updateCanvasContent(xCanvas, network);
-    			} else if (grabbedComponent != null) {
-					network.releaseComponent(grabbedComponent);
-					grabbedComponent = null;
-    				helper.updateCanvasContent(xCanvas, network);
-    			}
+    			worker.submit(pointer::release);
     		}
         );
 
@@ -473,71 +455,112 @@ public class MainController {
         
 //Timer:----------------------------------------------------------------------------------------
         
-        Duration duration = Duration.millis(50);
+        worker.start();
+        
+        //Only shows the latest snapshot, so it never waits for the simulation:
         Timeline timeline = new Timeline(new KeyFrame(
-            duration,
+            Duration.millis(20),
             ae -> {
-        		try {
-					if (simulating != null && simulating && network != null) {
-						network.simulate(duration);
-						if (network.isValid()) {
-							rightStatus.setText("Helyes kapcsolás.");
-						}
-						else {
-					    	rightStatus.setText("Hibás kapcsolás!");    		
-						}
-					}
-				} catch (Exception e) {
-					System.out.println("simulate error");
-					e.printStackTrace();
-				}
+            	NetworkSnapshot snapshot = worker.getSnapshot();
+            	if (snapshot != shownSnapshot) {
+            		shownSnapshot = snapshot;
+            		showSnapshot(snapshot);
+            	}
             }
         ));
         timeline.setCycleCount(Animation.INDEFINITE);
         timeline.play();
     }
     
+    /**
+     * Shows a snapshot of the network: draws it, updates the property view and the status.
+     * @param snapshot	The {@link NetworkSnapshot}.
+     */
+    private void showSnapshot(NetworkSnapshot snapshot) {
+    	helper.updateCanvasContent(xCanvas, snapshot);
+    	ComponentSnapshot selected = snapshot.getSelected();
+    	Component component = (selected != null)? selected.getComponent() : null;
+    	if (component != selectedComponent) {
+    		destroyPropertyView();
+    		selectedComponent = component;
+    		if (selected != null) {
+    			buildPropertyView(selected);
+    		}
+    	}
+    	else if (selected != null) {
+    		updatePropertyFields(selected);
+    	}
+    	if (snapshot.isSimulating()) {
+			if (snapshot.isValid()) {
+				rightStatus.setText("Helyes kapcsolás.");
+			}
+			else if (snapshot.getNoOfInvalidParts() > 0) {
+		    	rightStatus.setText(String.format("Hibás kapcsolás! (%d hibás rész)", snapshot.getNoOfInvalidParts()));
+			}
+			else {
+		    	rightStatus.setText("Hibás kapcsolás!");    		
+			}
+    	}
+    }
+    
 //PropertyView:---------------------------------------------------------------------------------
     
 	/**
 	 * Build property view of the given component.
-	 * @param component	{@link Component} to build view of.
+	 * @param snapshot	{@link ComponentSnapshot} of the component to build view of.
 	 */
-    public void buildPropertyView(Component component) {    	
+    public void buildPropertyView(ComponentSnapshot snapshot) {    	
     	int row = 0;
-    	if (component.getProperties() != null) {
+    	Component component = snapshot.getComponent();
+    	if (!snapshot.getProperties().isEmpty()) {
     		Insets insets = new Insets(0,0,0,5);
-        	for (Entry<String, ComponentProperty> entry : component.getProperties().entrySet()) {
+        	for (Entry<String, ComponentProperty> entry : snapshot.getProperties().entrySet()) {
         		ComponentProperty prop = entry.getValue();
-        		prop.nameN = new Label(prop.name);
-        		prop.nameN.setPadding(insets);
-        		propertyGrid.add(prop.nameN, 0, row);
+        		Label nameLabel = new Label(prop.name);
+        		nameLabel.setPadding(insets);
+        		propertyGrid.add(nameLabel, 0, row);
         		
-        		prop.valueN = new TextField(prop.value);
-        		prop.valueN.setEditable(prop.editable);
+        		TextField valueField = new TextField(prop.value);
+        		valueField.setEditable(prop.editable);
         		if (prop.editable) {
-        			prop.valueN.textProperty().addListener((observable, oldValue, newValue) -> {
+        			valueField.textProperty().addListener((observable, oldValue, newValue) -> {
         				if (newValue != null  && !newValue.equals(oldValue)) {
-        					prop.value = prop.valueN.getText().trim();
-        					component.updatePropertyModel();
+        					String name = entry.getKey();
+        					String value = valueField.getText().trim();
+        					worker.submit(network -> network.setProperty(component, name, value));
         				}
         			});
         		}
+        		propertyFields.put(entry.getKey(), valueField);
         		
-        		
-        		propertyGrid.add(prop.valueN, 1, row);
-        		prop.unitN = new Label(prop.unit);
-        		prop.unitN.setPadding(insets);
-        		propertyGrid.add(prop.unitN, 2, row);
+        		propertyGrid.add(valueField, 1, row);
+        		Label unitLabel = new Label(prop.unit);
+        		unitLabel.setPadding(insets);
+        		propertyGrid.add(unitLabel, 2, row);
         		row++;
     		}
     	}
     }
     
+    /**
+     * Shows the values of the properties of the snapshot in the property view. The field being edited is not overwritten.
+     * @param snapshot	{@link ComponentSnapshot} of the shown component.
+     */
+    private void updatePropertyFields(ComponentSnapshot snapshot) {
+    	for (Entry<String, TextField> entry : propertyFields.entrySet()) {
+    		ComponentProperty prop = snapshot.getProperties().get(entry.getKey());
+    		TextField field = entry.getValue();
+    		if (prop != null && !field.isFocused() && !field.getText().equals(prop.value)) {
+    			field.setText(prop.value);
+    		}
+    	}
+    }
+    
     /**
      * Destroy currently active property view.
      */
     public void destroyPropertyView() {
+    	propertyFields.clear();
     	Iterator<Node> it = propertyGrid.getChildren().iterator();
     	while (it.hasNext()) {
     		it.next();
@@ -554,25 +577,32 @@ public class MainController {
     		case ENTER:
     			break;
     		case DELETE:
-    			if (selectedComponent != null) {
-        			network.removeComponent(selectedComponent);
-        			destroyPropertyView();
-        			helper.updateCanvasContent(xCanvas, network);
-    				selectedComponent = null;
+    			worker.submit(network -> {
+    				Component selected = network.getSelected();
+    				if (selected != null) {
+    					network.removeComponent(selected);
+    					network.cancelSelection();
+    				}
+    			});
+    			break;
+    		case Z:
+    			if (event.isShortcutDown()) {
+    				worker.submit(Network::undo);
     			}
     			break;
-    		case ESCAPE:
-    			if (selectedComponent != null) {
-    				network.cancelSelection();
-        			destroyPropertyView();
-        			helper.updateCanvasContent(xCanvas, network);
-    				selectedComponent = null;
+    		case Y:
+    			if (event.isShortcutDown()) {
+    				worker.submit(Network::redo);
     			}
     			break;
+    		case ESCAPE:
+    			worker.submit(Network::cancelSelection);
+    			break;
     		default:
     			break;
     	} 
     }   
+
     
     
 }
@@ -0,0 +1,509 @@
+package main.java.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Smoothed aggregation algebraic multigrid (AMG) preconditioner. One V-cycle is applied per iteration.
+ * The vertices, that are strongly connected, are grouped into aggregates. Each aggregate is one variable of the next coarser level.
+ * The prolongation is the piecewise constant interpolation from the aggregates, smoothed by one damped Jacobi step.
+ * The coarse left side is the Galerkin product P^T * A * P. Symmetric Gauss-Seidel is the smoother, the coarsest level is solved by dense Cholesky.
+ * The number of iterations hardly grows with the size of grid shaped networks, so the solve time is nearly linear.
+ * HUN: Simított aggregációs algebrai többrácsos (AMG) előkondicionáló. Iterációnként egy V-ciklust alkalmaz.
+ * Az erősen kapcsolódó csúcsokat aggregátumokba csoportosítja, minden aggregátum a következő, durvább szint egy változója.
+ * @author Simon Zoltán
+ *
+ */
+public class AlgebraicMultigrid implements Preconditioner {
+
+	/**
+	 * Connection of i and j is strong, if |A(i,j)| &gt;= STRENGTH_THRESHOLD * sqrt(|A(i,i) * A(j,j)|).
+	 */
+	public static final double STRENGTH_THRESHOLD = 0.08;
+
+	/**
+	 * Levels with at most this many variables are solved directly.
+	 */
+	public static final int COARSEST_SIZE = 100;
+
+	public static final int MAX_NO_OF_LEVELS = 20;
+
+	/**
+	 * One level of the hierarchy. The left side is stored row by row, the prolongation to this level from the next coarser level as well.
+	 * HUN: A hierarchia egy szintje.
+	 */
+	private static class Level {
+		int n;
+		int index[][];
+		double values[][];
+		double diagonal[];
+
+		/**
+		 * Index of the aggregate (coarse variable) of each variable. Kept while the topology is unchanged.
+		 * HUN: Az egyes változók aggregátumának (durva változójának) indexe.
+		 */
+		int aggregate[];
+		int noOfAggregates;
+
+		int prolongationIndex[][];
+		double prolongationValues[][];
+	}
+
+	private List<Level> levels = new ArrayList<Level>();
+
+	/**
+	 * Lower triangular Cholesky factor of the coarsest level.
+	 * HUN: A legdurvább szint alsó háromszög Cholesky tényezője.
+	 */
+	private double coarsest[][];
+
+	/**
+	 * Constructor. Builds the hierarchy of levels.
+	 * @param system M - (N+1)*N symmetric positive definite sparse matrix. The last row (right side) is ignored. Column i is used as row i.
+	 */
+	public AlgebraicMultigrid(SparseMatrix system) {
+		Level fine = finestLevel(system);
+		levels.add(fine);
+		setup();
+	}
+
+	/**
+	 * The aggregates are kept, only the prolongations and the coarse levels are recalculated, if the pattern of the matrix is unchanged.
+	 */
+	@Override
+	public boolean update(SparseMatrix system) {
+		Level fine = finestLevel(system);
+		Level previous = levels.get(0);
+		if (fine.n != previous.n) {
+			return false;
+		}
+		for (int i = 0; i < fine.n; i++) {
+			if (!Arrays.equals(fine.index[i], previous.index[i])) {
+				return false;
+			}
+		}
+		List<Level> previousLevels = levels;
+		levels = new ArrayList<Level>();
+		levels.add(fine);
+		Level level = fine;
+		for (int l = 0; l + 1 < previousLevels.size(); l++) {		//Same aggregates, new values:
+			level.aggregate = previousLevels.get(l).aggregate;
+			level.noOfAggregates = previousLevels.get(l).noOfAggregates;
+			level = coarseLevel(level);
+			levels.add(level);
+		}
+		coarsest = cholesky(level);
+		return true;
+	}
+
+	@Override
+	public DoubleVector apply(DoubleVector residual) {
+		double b[] = new double[residual.dimension];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = residual.at(i);
+		}
+		double x[] = vCycle(0, b);
+		DoubleVector z = new DoubleVector(x.length);
+		for (int i = 0; i < x.length; i++) {
+			z.setAt(i, x[i]);
+		}
+		return z;
+	}
+
+	/**
+	 *
+	 * @return Number of levels of the hierarchy, including the finest one.
+	 */
+	public int getNoOfLevels() {
+		return levels.size();
+	}
+
+	//Setup:-----------------------------------------------------------------
+
+	/**
+	 * Copies the matrix row by row, in double precision.
+	 */
+	private static Level finestLevel(SparseMatrix system) {
+		Level level = new Level();
+		level.n = system.row - 1;
+		level.index = new int[level.n][];
+		level.values = new double[level.n][];
+		for (int i = 0; i < level.n; i++) {
+			int count = 0;
+			int size = system.getColumnSize(i);
+			int index[] = new int[size];
+			double values[] = new double[size];
+			for (int k = 0; k < size; k++) {
+				int j = system.getRowIndex(i, k);
+				if (j < level.n) {
+					index[count] = j;
+					values[count] = system.getValue(i, k);
+					count++;
+				}
+			}
+			level.index[i] = Arrays.copyOf(index, count);
+			level.values[i] = Arrays.copyOf(values, count);
+		}
+		level.diagonal = diagonal(level);
+		return level;
+	}
+
+	/**
+	 * Coarsens the finest level until it is small enough, or the aggregation does not reduce the size any more.
+	 */
+	private void setup() {
+		Level level = levels.get(0);
+		while (level.n > COARSEST_SIZE && levels.size() < MAX_NO_OF_LEVELS) {
+			aggregate(level);
+			if (level.noOfAggregates == 0 || level.noOfAggregates >= level.n) {
+				break;
+			}
+			level = coarseLevel(level);
+			levels.add(level);
+		}
+		coarsest = cholesky(level);
+	}
+
+	/**
+	 * Groups the strongly connected variables into aggregates:
+	 * 1. A variable with no aggregated strong neighbour forms an aggregate with its strong neighbours.
+	 * 2. The remaining variables join the aggregate of a strong neighbour.
+	 * 3. The still remaining variables form aggregates with their remaining strong neighbours.
+	 * HUN: Az erősen kapcsolódó változókat aggregátumokba csoportosítja.
+	 */
+	private static void aggregate(Level level) {
+		int n = level.n;
+		int aggregate[] = new int[n];
+		Arrays.fill(aggregate, -1);
+		int noOfAggregates = 0;
+
+		//1.
+		for (int i = 0; i < n; i++) {
+			if (aggregate[i] >= 0) {
+				continue;
+			}
+			boolean free = true;
+			for (int k = 0; k < level.index[i].length && free; k++) {
+				int j = level.index[i][k];
+				if (j != i && isStrong(level, i, k) && aggregate[j] >= 0) {
+					free = false;
+				}
+			}
+			if (free) {
+				aggregate[i] = noOfAggregates;
+				for (int k = 0; k < level.index[i].length; k++) {
+					int j = level.index[i][k];
+					if (j != i && isStrong(level, i, k)) {
+						aggregate[j] = noOfAggregates;
+					}
+				}
+				noOfAggregates++;
+			}
+		}
+
+		//2.
+		int firstPass[] = Arrays.copyOf(aggregate, n);
+		for (int i = 0; i < n; i++) {
+			if (aggregate[i] < 0) {
+				double strongest = 0;
+				for (int k = 0; k < level.index[i].length; k++) {
+					int j = level.index[i][k];
+					if (j != i && firstPass[j] >= 0 && isStrong(level, i, k) && Math.abs(level.values[i][k]) > strongest) {
+						strongest = Math.abs(level.values[i][k]);
+						aggregate[i] = firstPass[j];
+					}
+				}
+			}
+		}
+
+		//3.
+		for (int i = 0; i < n; i++) {
+			if (aggregate[i] < 0) {
+				aggregate[i] = noOfAggregates;
+				for (int k = 0; k < level.index[i].length; k++) {
+					int j = level.index[i][k];
+					if (aggregate[j] < 0 && isStrong(level, i, k)) {
+						aggregate[j] = noOfAggregates;
+					}
+				}
+				noOfAggregates++;
+			}
+		}
+		level.aggregate = aggregate;
+		level.noOfAggregates = noOfAggregates;
+	}
+
+	private static boolean isStrong(Level level, int i, int k) {
+		int j = level.index[i][k];
+		return Math.abs(level.values[i][k]) >= STRENGTH_THRESHOLD * Math.sqrt(Math.abs(level.diagonal[i] * level.diagonal[j]));
+	}
+
+	/**
+	 * Calculates the smoothed prolongation of the level and the left side of the next coarser level.
+	 * HUN: Kiszámolja a szint simított prolongációját és a következő durvább szint bal oldalát.
+	 */
+	private static Level coarseLevel(Level fine) {
+		int n = fine.n;
+		int m = fine.noOfAggregates;
+
+		//Tentative prolongation: T(i, aggregate(i)) = 1 / sqrt(size of aggregate).
+		int aggregateSize[] = new int[m];
+		for (int i = 0; i < n; i++) {
+			aggregateSize[fine.aggregate[i]]++;
+		}
+		double tentative[] = new double[n];
+		for (int i = 0; i < n; i++) {
+			tentative[i] = 1 / Math.sqrt(aggregateSize[fine.aggregate[i]]);
+		}
+
+		//Damping of the Jacobi step: 4/3 / spectral radius of D^-1 * A (estimated by Gershgorin).
+		double radius = 0;
+		for (int i = 0; i < n; i++) {
+			double sum = 0;
+			for (int k = 0; k < fine.values[i].length; k++) {
+				sum += Math.abs(fine.values[i][k]);
+			}
+			radius = Math.max(radius, sum / fine.diagonal[i]);
+		}
+		double omega = (radius > 0)? 4.0 / 3.0 / radius : 0;
+
+		//P = (I - omega * D^-1 * A) * T, row by row:
+		fine.prolongationIndex = new int[n][];
+		fine.prolongationValues = new double[n][];
+		int position[] = new int[m];
+		Arrays.fill(position, -1);
+		int index[] = new int[m];
+		double values[] = new double[m];
+		for (int i = 0; i < n; i++) {
+			int count = 0;
+			double scale = omega / fine.diagonal[i];
+			for (int k = 0; k < fine.index[i].length; k++) {
+				int j = fine.index[i][k];
+				int c = fine.aggregate[j];
+				if (position[c] < 0) {
+					position[c] = count;
+					index[count] = c;
+					values[count] = 0;
+					count++;
+				}
+				values[position[c]] -= scale * fine.values[i][k] * tentative[j];
+			}
+			int c = fine.aggregate[i];
+			if (position[c] < 0) {
+				position[c] = count;
+				index[count] = c;
+				values[count] = 0;
+				count++;
+			}
+			values[position[c]] += tentative[i];
+			for (int k = 0; k < count; k++) {
+				position[index[k]] = -1;
+			}
+			fine.prolongationIndex[i] = Arrays.copyOf(index, count);
+			fine.prolongationValues[i] = Arrays.copyOf(values, count);
+		}
+
+		//A * P, row by row:
+		int apIndex[][] = new int[n][];
+		double apValues[][] = new double[n][];
+		for (int i = 0; i < n; i++) {
+			int count = 0;
+			for (int k = 0; k < fine.index[i].length; k++) {
+				int j = fine.index[i][k];
+				double a = fine.values[i][k];
+				for (int q = 0; q < fine.prolongationIndex[j].length; q++) {
+					int c = fine.prolongationIndex[j][q];
+					if (position[c] < 0) {
+						position[c] = count;
+						index[count] = c;
+						values[count] = 0;
+						count++;
+					}
+					values[position[c]] += a * fine.prolongationValues[j][q];
+				}
+			}
+			for (int k = 0; k < count; k++) {
+				position[index[k]] = -1;
+			}
+			apIndex[i] = Arrays.copyOf(index, count);
+			apValues[i] = Arrays.copyOf(values, count);
+		}
+
+		//P^T:
+		int transposeSize[] = new int[m];
+		for (int i = 0; i < n; i++) {
+			for (int c : fine.prolongationIndex[i]) {
+				transposeSize[c]++;
+			}
+		}
+		int transposeIndex[][] = new int[m][];
+		double transposeValues[][] = new double[m][];
+		for (int c = 0; c < m; c++) {
+			transposeIndex[c] = new int[transposeSize[c]];
+			transposeValues[c] = new double[transposeSize[c]];
+			transposeSize[c] = 0;
+		}
+		for (int i = 0; i < n; i++) {
+			for (int k = 0; k < fine.prolongationIndex[i].length; k++) {
+				int c = fine.prolongationIndex[i][k];
+				transposeIndex[c][transposeSize[c]] = i;
+				transposeValues[c][transposeSize[c]] = fine.prolongationValues[i][k];
+				transposeSize[c]++;
+			}
+		}
+
+		//Coarse left side = P^T * (A * P), row by row:
+		Level coarse = new Level();
+		coarse.n = m;
+		coarse.index = new int[m][];
+		coarse.values = new double[m][];
+		for (int c = 0; c < m; c++) {
+			int count = 0;
+			for (int k = 0; k < transposeIndex[c].length; k++) {
+				int i = transposeIndex[c][k];
+				double p = transposeValues[c][k];
+				for (int q = 0; q < apIndex[i].length; q++) {
+					int d = apIndex[i][q];
+					if (position[d] < 0) {
+						position[d] = count;
+						index[count] = d;
+						values[count] = 0;
+						count++;
+					}
+					values[position[d]] += p * apValues[i][q];
+				}
+			}
+			for (int k = 0; k < count; k++) {
+				position[index[k]] = -1;
+			}
+			coarse.index[c] = Arrays.copyOf(index, count);
+			coarse.values[c] = Arrays.copyOf(values, count);
+		}
+		coarse.diagonal = diagonal(coarse);
+		return coarse;
+	}
+
+	private static double[] diagonal(Level level) {
+		double diagonal[] = new double[level.n];
+		for (int i = 0; i < level.n; i++) {
+			for (int k = 0; k < level.index[i].length; k++) {
+				if (level.index[i][k] == i) {
+					diagonal[i] = level.values[i][k];
+				}
+			}
+			if (0 == diagonal[i]) {		//Isolated variable.
+				diagonal[i] = 1;
+			}
+		}
+		return diagonal;
+	}
+
+	/**
+	 * Dense Cholesky factorization of the level. Breakdown (rounding noise) is handled like in {@link IncompleteCholesky}.
+	 */
+	private static double[][] cholesky(Level level) {
+		int n = level.n;
+		double l[][] = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int k = 0; k < level.index[i].length; k++) {
+				int j = level.index[i][k];
+				if (j <= i) {
+					l[i][j] = level.values[i][k];
+				}
+			}
+		}
+		for (int j = 0; j < n; j++) {
+			double d = l[j][j];
+			for (int k = 0; k < j; k++) {
+				d -= l[j][k] * l[j][k];
+			}
+			d = (d > 0)? Math.sqrt(d) : Math.sqrt(Math.abs(level.diagonal[j]));
+			l[j][j] = d;
+			for (int i = j + 1; i < n; i++) {
+				double sum = l[i][j];
+				for (int k = 0; k < j; k++) {
+					sum -= l[i][k] * l[j][k];
+				}
+				l[i][j] = sum / d;
+			}
+		}
+		return l;
+	}
+
+	//Solve:-----------------------------------------------------------------
+
+	/**
+	 * Approximate solution of the level with the given right side.
+	 * HUN: A szint közelítő megoldása az adott jobb oldallal.
+	 */
+	private double[] vCycle(int l, double b[]) {
+		Level level = levels.get(l);
+		if (l == levels.size() - 1) {
+			return solveCoarsest(b);
+		}
+		int n = level.n;
+		double x[] = new double[n];
+		for (int i = 0; i < n; i++) {		//Forward Gauss-Seidel.
+			relax(level, i, x, b);
+		}
+
+		//Restriction of the residual:
+		double coarseRightSide[] = new double[level.noOfAggregates];
+		for (int i = 0; i < n; i++) {
+			double r = b[i];
+			for (int k = 0; k < level.index[i].length; k++) {
+				r -= level.values[i][k] * x[level.index[i][k]];
+			}
+			for (int k = 0; k < level.prolongationIndex[i].length; k++) {
+				coarseRightSide[level.prolongationIndex[i][k]] += level.prolongationValues[i][k] * r;
+			}
+		}
+
+		//Coarse correction:
+		double e[] = vCycle(l + 1, coarseRightSide);
+		for (int i = 0; i < n; i++) {
+			for (int k = 0; k < level.prolongationIndex[i].length; k++) {
+				x[i] += level.prolongationValues[i][k] * e[level.prolongationIndex[i][k]];
+			}
+		}
+
+		for (int i = n - 1; i >= 0; i--) {	//Backward Gauss-Seidel, so the cycle is symmetric.
+			relax(level, i, x, b);
+		}
+		return x;
+	}
+
+	/**
+	 * Gauss-Seidel step of the i. variable.
+	 */
+	private static void relax(Level level, int i, double x[], double b[]) {
+		double sum = b[i];
+		for (int k = 0; k < level.index[i].length; k++) {
+			sum -= level.values[i][k] * x[level.index[i][k]];
+		}
+		x[i] += sum / level.diagonal[i];
+	}
+
+	private double[] solveCoarsest(double b[]) {
+		int n = b.length;
+		double y[] = new double[n];
+		for (int i = 0; i < n; i++) {
+			double sum = b[i];
+			for (int k = 0; k < i; k++) {
+				sum -= coarsest[i][k] * y[k];
+			}
+			y[i] = sum / coarsest[i][i];
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double sum = y[i];
+			for (int k = i + 1; k < n; k++) {
+				sum -= coarsest[k][i] * y[k];
+			}
+			y[i] = sum / coarsest[i][i];
+		}
+		return y;
+	}
+
+}
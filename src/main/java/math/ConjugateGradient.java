@@ -0,0 +1,142 @@
+package main.java.math;
+
+
+/**
+ * Preconditioned conjugate gradient method for symmetric positive definite sparse systems.
+ * The matrix is kept in single precision, the iteration runs in double precision. The iteration can start from the previous solution (warm start),
+ * so when the system changes only a little between two solves, a few iterations are enough.
+ * HUN: Előkondicionált konjugált gradiens módszer szimmetrikus pozitív definit ritka rendszerekre. Az előző megoldásból indítható.
+ * @author Simon Zoltán
+ *
+ */
+public class ConjugateGradient implements Factorization {
+
+	private SparseMatrix system;
+	private Preconditioner preconditioner;
+	private int n;
+	private double tolerance;
+	private int maxNoOfIterations;
+
+	//Results of the last solve:
+	private double achievedResidual;
+	private int noOfIterations;
+
+	/**
+	 * Constructor
+	 * @param system			M - (N+1)*N symmetric positive definite sparse matrix. The last row (right side) is ignored. Column i is used as row i.
+	 * @param preconditioner	Approximate inverse of the left side.
+	 * @param tolerance			Relative residual (2-norm of residual / 2-norm of right side), where the iteration stops.
+	 * @param maxNoOfIterations	Maximum number of iterations.
+	 */
+	public ConjugateGradient(SparseMatrix system, Preconditioner preconditioner, double tolerance, int maxNoOfIterations) {
+		this.system = system;
+		this.preconditioner = preconditioner;
+		this.tolerance = tolerance;
+		this.maxNoOfIterations = maxNoOfIterations;
+		n = system.row - 1;
+	}
+
+	/**
+	 * Solves the system.
+	 * HUN: Megoldja a rendszert.
+	 * @param rightSide		Right side values of the equations.
+	 * @param initialGuess	Starting point of the iteration, or null to start from zero.
+	 * @return The solution.
+	 * @throws NoConvergence - if the tolerance is not reached within the maximum number of iterations.
+	 */
+	public DoubleVector solve(Vector rightSide, DoubleVector initialGuess) throws NoConvergence {
+		DoubleVector x = (initialGuess != null && initialGuess.dimension == n)? new DoubleVector(initialGuess) : new DoubleVector(n);
+		DoubleVector b = new DoubleVector(rightSide);
+		double normOfRightSide = Math.sqrt(b.dot(b));
+		if (0 == normOfRightSide) {
+			normOfRightSide = 1;
+		}
+
+		DoubleVector r = b.subtract(multiply(x));
+		double relative = Math.sqrt(r.dot(r)) / normOfRightSide;
+		noOfIterations = 0;
+		if (relative > tolerance) {
+			DoubleVector z = preconditioner.apply(r);
+			DoubleVector p = new DoubleVector(z);
+			double rz = r.dot(z);
+			while (relative > tolerance) {
+				if (noOfIterations >= maxNoOfIterations) {
+					achievedResidual = relative;
+					throw new NoConvergence();
+				}
+				DoubleVector q = multiply(p);
+				double alpha = rz / p.dot(q);
+				for (int i = 0; i < n; i++) {
+					x.setAt(i, x.at(i) + alpha * p.at(i));
+					r.setAt(i, r.at(i) - alpha * q.at(i));
+				}
+				noOfIterations++;
+				relative = Math.sqrt(r.dot(r)) / normOfRightSide;
+
+				z = preconditioner.apply(r);
+				double rzNext = r.dot(z);
+				double beta = rzNext / rz;
+				rz = rzNext;
+				for (int i = 0; i < n; i++) {
+					p.setAt(i, z.at(i) + beta * p.at(i));
+				}
+			}
+		}
+		achievedResidual = relative;
+		return x;
+	}
+
+	/**
+	 * Solves the system starting from zero. Used for the corrections of {@link IterativeRefinement}.
+	 */
+	@Override
+	public Vector solve(Vector rightSide) throws GaussException {
+		return solve(rightSide, null).toVector();
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return n;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return n;
+	}
+
+	/**
+	 * Left side * x in double precision.
+	 * HUN: Bal oldal * x dupla pontossággal.
+	 */
+	private DoubleVector multiply(DoubleVector x) {
+		DoubleVector ret = new DoubleVector(n);
+		for (int c = 0; c < n; c++) {
+			double sum = 0;
+			for (int k = 0; k < system.getColumnSize(c); k++) {
+				int r = system.getRowIndex(c, k);
+				if (r < n) {
+					sum += system.getValue(c, k) * x.at(r);
+				}
+			}
+			ret.setAt(c, sum);
+		}
+		return ret;
+	}
+
+	/**
+	 *
+	 * @return Relative residual of the last solution.
+	 */
+	public double getAchievedResidual() {
+		return achievedResidual;
+	}
+
+	/**
+	 *
+	 * @return Number of iterations of the last solve.
+	 */
+	public int getNoOfIterations() {
+		return noOfIterations;
+	}
+
+}
@@ -0,0 +1,190 @@
+package main.java.math;
+
+
+/**
+ * Vector of double values. Double precision pair of {@link Vector}.
+ * HUN: Vektor dupla pontosságú lebegőpontos értékek tárolására. A {@link Vector} dupla pontosságú párja.
+ * @author Simon Zoltán
+ *
+ */
+public class DoubleVector {
+	private double n[];
+    public int dimension;
+
+
+	//Constructors:-------------------------------------------------
+	
+    public DoubleVector(int d) {
+    	dimension = d;
+        n = new double[dimension];
+    }
+
+    public DoubleVector(DoubleVector v) {
+    	dimension = v.dimension; 
+        n = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            n[i] = v.at(i);
+        }
+    }
+
+    /**
+     * Constructor. Widens a single precision vector.
+     * @param v source vector.
+     */
+    public DoubleVector(Vector v) {
+    	dimension = v.dimension; 
+        n = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            n[i] = v.at(i);
+        }
+    }
+
+    //Override of default hashCode and equals:---------------------------------------
+    
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + dimension;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DoubleVector other = (DoubleVector) obj;
+		if (dimension != other.dimension)
+			return false;
+		for (int i = 0; i < n.length; i++) {
+			if (n[i] != other.at(i)) {
+				return false;
+			}			
+		}
+		return true;
+	}
+
+	//Indexing-methods:-----------------------------------------------------
+	
+	/**
+     * Indexing. Returns the value stored at position i. 
+	 * @param i index
+	 * @return value
+	 */
+	public double at(int i) {
+        return n[i];
+    }
+    
+	/**
+     * Writing. Sets the value at position i to the given value. 
+	 * @param i index
+	 * @param val new value
+	 */
+	public void setAt(int i, double val) {
+		n[i] = val;		
+	}
+	
+	/**
+     * Fills up vector with given parameter.
+     * HUN: Vektor feltöltése a kapott értékkel.
+	 * @param val value
+	 */
+    public void fill (double val) {
+        for (int i = 0; i < dimension; i++) {
+            n[i] = val;
+        }
+    }
+
+    //Operations:------------------------------------------------------
+
+    /**
+     *  Multiply this vector by scalar s.
+     * @param s scalar value to multiply with.
+     * @return this
+     */
+    public DoubleVector multiply(double s) {
+        for (int i = 0; i < dimension; i++) {
+            n[i] *= s;
+        }
+        return this;
+    }
+
+    /**
+     *  Add vector v to this vector.
+     * @param v vector to add.
+     * @return this
+     */
+    public DoubleVector add(DoubleVector v) {
+        for (int i = 0; i < dimension; i++) {
+            n[i] += v.at(i);
+        }
+        return this;
+    }
+
+    /**
+     *  Add single precision vector v to this vector.
+     * @param v vector to add.
+     * @return this
+     */
+    public DoubleVector add(Vector v) {
+        for (int i = 0; i < dimension; i++) {
+            n[i] += v.at(i);
+        }
+        return this;
+    }
+    
+    /**
+     *  Subtract vector v from this vector.
+     * @param v vector to subtract.
+     * @return this
+     */
+    public DoubleVector subtract(DoubleVector v) {
+        for (int i = 0; i < dimension; i++) {
+            n[i] -= v.at(i);
+        }
+        return this;
+    }
+
+    /**
+     *  Dot product of this vector and vector v.
+     * @param v other vector.
+     * @return sum of the products of the elements.
+     */
+    public double dot(DoubleVector v) {
+        double sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += n[i] * v.at(i);
+        }
+        return sum;
+    }
+
+    /**
+     *  Maximum norm of the vector.
+     * @return greatest absolute value of the elements.
+     */
+    public double maxNorm() {
+        double max = 0;
+        for (int i = 0; i < dimension; i++) {
+            max = Math.max(max, Math.abs(n[i]));
+        }
+        return max;
+    }
+
+    /**
+     * Narrows this vector to single precision.
+     * HUN: Egyszeres pontosságúvá alakítja a vektort.
+     * @return new {@link Vector}.
+     */
+    public Vector toVector() {
+    	Vector ret = new Vector(dimension);
+        for (int i = 0; i < dimension; i++) {
+            ret.setAt(i, (float)n[i]);
+        }
+        return ret;
+    }
+
+}
@@ -0,0 +1,33 @@
+package main.java.math;
+
+
+/**
+ * Factorized left side of a linear system. After the (expensive) factorization, the system can be solved for any right side by cheap substitutions.
+ * HUN: Lineáris rendszer faktorizált bal oldala. A (drága) faktorizáció után bármely jobb oldalra olcsó helyettesítésekkel megoldható.
+ * @author Simon Zoltán
+ *
+ */
+public interface Factorization {
+
+	/**
+	 * Solves the factorized system for the given right side.
+	 * HUN: Megoldja a faktorizált rendszert a megadott jobb oldalra.
+	 * @param rightSide	Right side values of the equations. Dimension must be equal to the number of equations.
+	 * @return Vector - The solution of the linear system. The 0. index value of the vector is the value of the 0. index variable.
+	 * @throws GaussException - if the system has no solution with this right side.
+	 */
+	public Vector solve(Vector rightSide) throws GaussException;
+
+	/**
+	 *
+	 * @return Number of variables of the factorized system.
+	 */
+	public int getNoOfVariables();
+
+	/**
+	 *
+	 * @return Number of equations of the factorized system.
+	 */
+	public int getNoOfEquations();
+
+}
@@ -25,16 +25,28 @@ public class Gauss {
      * @throws GaussException - if the matrix has no solution or has infinite solutions.
      */
     public static Vector Eliminate (Matrix system) throws GaussException {
+    	return Eliminate(system, new Pivoting());
+    }
+
+    /**
+     * Gaussian elimination for column major matrix with partial pivoting.
+     * HUN: Gauss-elimináció oszlop-folytonos mátrixra részleges főelemkiválasztással.
+     * @param system M - (N+1)*N matrix The right side values should be in the last row. Will not be modified.
+     * @param pivoting Zero tolerance of the rank decision.
+     * @return Vector - The solution of the linear system. The 0. index value of the vector is the value of the 0. index variable.
+     * @throws GaussException - if the matrix has no solution or has infinite solutions.
+     */
+    public static Vector Eliminate (Matrix system, Pivoting pivoting) throws GaussException {
     	Matrix M = new Matrix(0,0);		//Create a clone of the original to prevent from modifications.
     	M.copyWithResize(system);
     	
-        SingularityFlag flag = Reduce(M);
+        SingularityFlag flag = Reduce(M, pivoting);
         switch (flag) {
             case noSolution: {
                 throw new NoSolution();
             }
             case infiniteSolutions: {
-                throw new InfiniteSolutions();
+                throw new InfiniteSolutions(M.column);		//Only the independent equations remain.
             }
             case cleanSolution: {
     //Second fase of Gauss eliminaton after reducton:----------------------------
@@ -60,7 +72,7 @@ public class Gauss {
     }
 
     /**
-	 * Reduces matrix to r.e.f.
+	 * Reduces matrix to r.e.f. with the default {@link Pivoting}.
 	 * HUN: A mátrixot lineárisan függetlené redukálja.
 	 * @param M - Matrix to reduce. Will be modified!
 	 * @return SingularityFlag: {<br>
@@ -70,101 +82,165 @@ public class Gauss {
 	 *                          }<br>
 	 */
     public static SingularityFlag Reduce(Matrix M) {
-    	
-    	if (M.column < M.row - 1) {
-            return SingularityFlag.infiniteSolutions;
-        }
-    	
+    	return Reduce(M, new Pivoting());
+    }
 
-        int c = 0;
-        int r = 0;
-        
-        while (true) {
-            if (0 != M.at(r,c)) {
-                //Divide column[c] by M(r,c).
-                float divider = 1 / M.at(r, c);
-                for (int i = 0; i < M.row; i++) {
-                    M.setAt(i, c, M.at(i, c)* divider);
-                }
-                if (c < M.column - 1) {
-                    //Add the -M(r, i) * M[c] column to all "M[i]" columns:
-                    for (int i = c+1; i < M.column; i++) {
-                        float fact = M.at(r, i);
-                        for (int j = 0; j < M.row; j++) {
-                            M.setAt(j, i, M.at(j, i) - fact * M.at(j, c));
-                        }
-                    }
-                }
-                if ((r == M.row - 2) || (c == M.column - 1)) {  //Crossed matrix
-                    break;
-                }
-                else {                 //Proceed diagonally
-                    r++;
-                    c++;
-                }
-            }
-            else {                    //if 0 == M(r,c)
-                boolean foundSwappable = false;
-                if (c < M.column-1) {
-                    //Search for swapable. Criteria: 0 != M(r, i)
-                    for (int i = c+1; i < M.column; i++) {
-                        if (0 != M.at(r, i)) {     //if swappable found swap columns
-                            SwapColumn(M, c, i);
-                            foundSwappable = true;
-                            break;
-                        }
-                    }
-                }
-                if (!foundSwappable) {  //No swappable found
-                    if (r == M.row - 2) {   //if current row == n.
-                        c--;
-                        break;
-                    }
-                    else {
-                        r++;
-                    }
-                }
-            }
-        }
+    /**
+	 * Reduces matrix to r.e.f. with partial pivoting: the pivot of each variable is its greatest coefficient among the not yet reduced equations.
+	 * Coefficients within the zero tolerance of their rounding error bound (the sum of the absolute values, that formed them) can not be pivots.
+	 * The linearly dependent equations are removed, so the number of remaining columns is the numerical rank of the left side.
+	 * HUN: A mátrixot részleges főelemkiválasztással lineárisan függetlené redukálja. A megmaradó oszlopok száma a bal oldal numerikus rangja.
+	 * @param M - Matrix to reduce. Will be modified!
+	 * @param pivoting - Zero tolerance of the rank decision.
+	 * @return SingularityFlag: {<br>
+	 *                          &nbsp;&nbsp;noSolution,<br>
+	 *                          &nbsp;&nbsp;cleanSolution,<br>
+	 *                          &nbsp;&nbsp;infiniteSolutions<br>
+	 *                          }<br>
+	 */
+    public static SingularityFlag Reduce(Matrix M, Pivoting pivoting) {
+    	int n = M.row - 1;				//Number of variables.
+    	int rightSideRow = M.row - 1;
+    	float tolerance = pivoting.zeroTolerance;
 
+    	//Sum of the absolute values forming each coefficient of the left side, and magnitude of the values forming the right side:
+    	float bound[] = new float[M.column * n];
+    	float rightSideMagnitude[] = new float[M.column];
+    	for (int c = 0; c < M.column; c++) {
+    		for (int r = 0; r < n; r++) {
+    			bound[c * n + r] = Math.abs(M.at(r, c));
+    		}
+    		rightSideMagnitude[c] = Math.abs(M.at(rightSideRow, c));
+    	}
 
-        if (c == -1) {
-        	return SingularityFlag.infiniteSolutions;
-        }
+    	int rank = 0;
+    	for (int r = 0; r < n; r++) {
+    		int c = rank;
+    		//Search the greatest coefficient of variable r, which is not only rounding error:
+    		int p = -1;
+    		float max = 0;
+    		for (int i = c; i < M.column; i++) {
+    			float a = Math.abs(M.at(r, i));
+    			if (a > tolerance * bound[i * n + r] && a > max) {
+    				max = a;
+    				p = i;
+    			}
+    		}
+    		if (p == -1) {			//Variable r has no pivot.
+    			for (int i = c; i < M.column; i++) {
+    				M.setAt(r, i, 0);
+    			}
+    			continue;
+    		}
+    		if (p != c) {
+    			SwapColumn(M, c, p);
+    			for (int j = 0; j < n; j++) {
+    				float temp = bound[c * n + j];
+    				bound[c * n + j] = bound[p * n + j];
+    				bound[p * n + j] = temp;
+    			}
+    			float temp = rightSideMagnitude[c];
+    			rightSideMagnitude[c] = rightSideMagnitude[p];
+    			rightSideMagnitude[p] = temp;
+    		}
 
-        //Final steps of Reduce:
-        if (c < M.column-1) {
-            ArrayList<Integer> toRemoveIndexes = new ArrayList<>();     //Only if shrink matrix section is not commented out.
-            for (int i = c; i < M.column; i++) {    //Iterate on columns
-                boolean foundNotZeroInColumn = false;
-                for (int j = 0; j < M.row; j++) {   //Iterate element in current column
-                    if (0 != M.at(j, i)) {
-                        if (j == M.row-1) {     //Found a forbidden column, where all elements are 0 except the last element.
-                            return SingularityFlag.noSolution;
-                        }
-                        foundNotZeroInColumn = true;
-                        break;
-                    }
-                }
-                if (!foundNotZeroInColumn) {    //Zero columns should be removed.
-                    toRemoveIndexes.add(i);
-                }
-            }
+    		//Divide column[c] by M(r,c).
+    		float divider = 1 / M.at(r, c);
+    		for (int j = 0; j < M.row; j++) {
+    			M.setAt(j, c, M.at(j, c) * divider);
+    		}
+    		rightSideMagnitude[c] *= Math.abs(divider);
 
-            //Shrink matrix by removing zero columns:-----------------------
-            M.copyWithResize(MyMath.removeColumns(M, toRemoveIndexes));
+    		//Add the -M(r, i) * M[c] column to all following "M[i]" columns:
+    		for (int i = c + 1; i < M.column; i++) {
+    			float fact = M.at(r, i);
+    			if (0 != fact) {
+    				for (int j = 0; j < M.row; j++) {
+    					float term = fact * M.at(j, c);
+    					if (j < n) {
+    						bound[i * n + j] += Math.abs(term);
+    					}
+    					else {
+    						rightSideMagnitude[i] = Math.max(rightSideMagnitude[i], Math.abs(term));
+    					}
+    					M.setAt(j, i, M.at(j, i) - term);
+    				}
+    				M.setAt(r, i, 0);
+    			}
+    		}
+    		rank++;
+    	}
 
-            if (M.column < M.row - 1) {
-                return SingularityFlag.infiniteSolutions;
-            }
+    	//The remaining equations are linearly dependent on the reduced ones:
+    	ArrayList<Integer> toRemoveIndexes = new ArrayList<>();
+    	for (int i = rank; i < M.column; i++) {
+    		boolean zeroLeftSide = true;
+    		for (int j = 0; j < n; j++) {
+    			if (Math.abs(M.at(j, i)) > tolerance * bound[i * n + j]) {
+    				zeroLeftSide = false;
+    				break;
+    			}
+    		}
+    		if (zeroLeftSide && Math.abs(M.at(rightSideRow, i)) > tolerance * rightSideMagnitude[i]) {
+    			return SingularityFlag.noSolution;	//All coefficients are zero except the right side.
+    		}
+    		toRemoveIndexes.add(i);
+    	}
 
-            return SingularityFlag.cleanSolution;
-        }
-        else {
-            return SingularityFlag.cleanSolution;
-            //return SingularityFlag::noSolution;
-        }
+    	//Shrink matrix by removing dependent columns:-----------------------
+    	if (!toRemoveIndexes.isEmpty()) {
+    		M.copyWithResize(MyMath.removeColumns(M, toRemoveIndexes));
+    	}
 
+    	if (rank < n) {
+    		return SingularityFlag.infiniteSolutions;
+    	}
+    	return SingularityFlag.cleanSolution;
+    }
+
+    /**
+     * Gaussian elimination for column major sparse matrix. Same layout as in case of {@link #Eliminate(Matrix)}: every column is an equation.
+     * The equations are reduced one by one against the already reduced ones, so only the non-zero elements (and the fill-in) are touched. See {@link SparseLUDecomposition}.
+     * The pivots are chosen with the default {@link Pivoting}.
+     * HUN: Gauss-elimináció oszlop-folytonos ritka mátrixra. Csak a nem nulla elemekkel (és a kitöltődéssel) dolgozik.
+     * A pivotokat az alapértelmezett főelemkiválasztással választjuk.
+     * @param system M - (N+1)*M sparse matrix The right side values should be in the last row. Will not be modified.
+     * @return Vector - The solution of the linear system. The 0. index value of the vector is the value of the 0. index variable.
+     * @throws GaussException - if the matrix has no solution or has infinite solutions.
+     */
+    public static Vector Eliminate (SparseMatrix system) throws GaussException {
+    	return new SparseLUDecomposition(system).solve(rightSide(system));
+    }
+
+    /**
+     * Returns the right side of the system (last row).
+     * HUN: Visszaadja a rendszer jobb oldalát (utolsó sor).
+     * @param system M - (N+1)*M matrix
+     * @return Vector of M right side values.
+     */
+    public static Vector rightSide(Matrix system) {
+    	Vector ret = new Vector(system.column);
+    	for (int c = 0; c < system.column; c++) {
+    		ret.setAt(c, system.at(system.row - 1, c));
+    	}
+    	return ret;
+    }
+
+    /**
+     * Returns the right side of the sparse system (last row).
+     * HUN: Visszaadja a ritka rendszer jobb oldalát (utolsó sor).
+     * @param system M - (N+1)*M sparse matrix
+     * @return Vector of M right side values.
+     */
+    public static Vector rightSide(SparseMatrix system) {
+    	Vector ret = new Vector(system.column);
+    	for (int c = 0; c < system.column; c++) {
+    		int size = system.getColumnSize(c);
+    		if (size > 0 && system.getRowIndex(c, size - 1) == system.row - 1) {	//Right side is the last stored element.
+    			ret.setAt(c, system.getValue(c, size - 1));
+    		}
+    	}
+    	return ret;
     }
 
 
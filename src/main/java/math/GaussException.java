@@ -13,5 +13,30 @@ public class GaussException extends RuntimeException {
 	 * 
 	 */
 	private static final long serialVersionUID = 8704961831467105853L;
+
+	/**
+	 * Estimated numerical rank of the left side. -1 if unknown.
+	 * HUN: A bal oldal becsült numerikus rangja. -1, ha ismeretlen.
+	 */
+	private int rank = -1;
+
+	public GaussException() {
+	}
+
+	/**
+	 * Constructor
+	 * @param rank Estimated numerical rank of the left side.
+	 */
+	public GaussException(int rank) {
+		this.rank = rank;
+	}
+
+	/**
+	 * 
+	 * @return Estimated numerical rank of the left side, or -1 if unknown.
+	 */
+	public int getRank() {
+		return rank;
+	}
 	
 }
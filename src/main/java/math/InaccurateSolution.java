@@ -0,0 +1,41 @@
+package main.java.math;
+
+/**
+ * Thrown by {@link IterativeRefinement}, when the estimated error of the solution stays above its limit even after the corrections,
+ * or it can not be estimated, because the correction failed (the estimate is NaN then).
+ * HUN: Akkor dobjuk, ha a megoldás becsült hibája a javítások után is a korlát felett marad, vagy nem becsülhető, mert a javítás sikertelen.
+ * @author Simon Zoltán
+ *
+ */
+public final class InaccurateSolution extends GaussException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 6301528840371652947L;
+
+	/**
+	 * Estimated relative error of the rejected solution.
+	 * HUN: Az elutasított megoldás becsült relatív hibája.
+	 */
+	private double errorEstimate;
+
+	/**
+	 * Constructor
+	 * @param errorEstimate Estimated relative error of the rejected solution. NaN, if it could not be estimated.
+	 */
+	public InaccurateSolution(double errorEstimate) {
+		this.errorEstimate = errorEstimate;
+	}
+
+	/**
+	 * 
+	 * @return Estimated relative error of the rejected solution.
+	 */
+	public double getErrorEstimate() {
+		return errorEstimate;
+	}
+
+	public String toString() {
+        return "Inaccurate solution (estimated relative error: " + errorEstimate + ").";
+    }
+}
@@ -0,0 +1,112 @@
+package main.java.math;
+
+import java.util.Arrays;
+
+
+/**
+ * Incomplete Cholesky factorization without fill-in (IC0): L * L^T approximates the symmetric positive definite left side,
+ * where L has the same sparsity pattern as the lower triangle of the matrix.
+ * HUN: Kitöltődés nélküli nem teljes Cholesky felbontás (IC0). L mintázata megegyezik a mátrix alsó háromszögének mintázatával.
+ * @author Simon Zoltán
+ *
+ */
+public class IncompleteCholesky implements Preconditioner {
+
+	private int n;
+
+	/**
+	 * Rows of L without the diagonal, in increasing column order.
+	 * HUN: L sorai a főátló nélkül, növekvő oszlopindex szerint.
+	 */
+	private int lowerIndex[][];
+	private double lowerValues[][];
+	private double diagonal[];
+
+	/**
+	 * Constructor. Factorizes the matrix.
+	 * @param system M - (N+1)*N symmetric sparse matrix. The last row (right side) is ignored. Column i is used as row i.
+	 */
+	public IncompleteCholesky(SparseMatrix system) {
+		n = system.row - 1;
+		lowerIndex = new int[n][];
+		lowerValues = new double[n][];
+		diagonal = new double[n];
+
+		for (int i = 0; i < n; i++) {
+			//Pattern of row i below the diagonal:
+			int count = 0;
+			double d = 0;
+			int size = system.getColumnSize(i);
+			int index[] = new int[size];
+			double values[] = new double[size];
+			for (int k = 0; k < size; k++) {
+				int j = system.getRowIndex(i, k);
+				if (j < i) {
+					index[count] = j;
+					values[count] = system.getValue(i, k);
+					count++;
+				}
+				else if (j == i) {
+					d = system.getValue(i, k);
+				}
+			}
+			index = Arrays.copyOf(index, count);
+			values = Arrays.copyOf(values, count);
+
+			//L(i,j) = (A(i,j) - sum of L(i,k) * L(j,k) for k < j) / L(j,j), only inside the pattern:
+			for (int a = 0; a < count; a++) {
+				int j = index[a];
+				int rowJ[] = lowerIndex[j];
+				double valuesJ[] = lowerValues[j];
+				double sum = values[a];
+				for (int p = 0, q = 0; p < a && q < rowJ.length; ) {		//Merge of the sorted rows.
+					if (index[p] == rowJ[q]) {
+						sum -= values[p] * valuesJ[q];
+						p++;
+						q++;
+					}
+					else if (index[p] < rowJ[q]) {
+						p++;
+					}
+					else {
+						q++;
+					}
+				}
+				values[a] = sum / diagonal[j];
+				d -= values[a] * values[a];
+			}
+			//Breakdown (not M-matrix): keep the original diagonal instead.
+			diagonal[i] = (d > 0)? Math.sqrt(d) : Math.sqrt(Math.abs(system.at(i, i)) + Double.MIN_NORMAL);
+			lowerIndex[i] = index;
+			lowerValues[i] = values;
+		}
+	}
+
+	@Override
+	public DoubleVector apply(DoubleVector residual) {
+		//L * y = residual
+		double y[] = new double[n];
+		for (int i = 0; i < n; i++) {
+			double sum = residual.at(i);
+			int index[] = lowerIndex[i];
+			double values[] = lowerValues[i];
+			for (int k = 0; k < index.length; k++) {
+				sum -= values[k] * y[index[k]];
+			}
+			y[i] = sum / diagonal[i];
+		}
+		//L^T * z = y, column by column:
+		DoubleVector z = new DoubleVector(n);
+		for (int i = n - 1; i >= 0; i--) {
+			double zi = y[i] / diagonal[i];
+			z.setAt(i, zi);
+			int index[] = lowerIndex[i];
+			double values[] = lowerValues[i];
+			for (int k = 0; k < index.length; k++) {
+				y[index[k]] -= values[k] * zi;
+			}
+		}
+		return z;
+	}
+
+}
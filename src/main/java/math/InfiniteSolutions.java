@@ -6,7 +6,21 @@ public final class InfiniteSolutions extends GaussException {
 	 */
 	private static final long serialVersionUID = 8741773057783416715L;
 
+	public InfiniteSolutions() {
+	}
+
+	/**
+	 * Constructor
+	 * @param rank Estimated numerical rank of the left side.
+	 */
+	public InfiniteSolutions(int rank) {
+		super(rank);
+	}
+
 	public String toString() {
+		if (getRank() >= 0) {
+			return "Infinite solutions of the matrix (numerical rank: " + getRank() + ").";
+		}
         return "Infinite solutions of the matrix.";
     }
 }
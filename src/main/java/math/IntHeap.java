@@ -0,0 +1,64 @@
+package main.java.math;
+
+
+/**
+ * Binary min-heap of int values, used to visit the variables of an equation in increasing order of their keys.
+ * HUN: Bináris min-kupac int értékekre.
+ * @author Simon Zoltán
+ *
+ */
+class IntHeap {
+	private int heap[];
+	private int size = 0;
+
+	IntHeap(int capacity) {
+		heap = new int[Math.max(capacity, 1)];
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	int peek() {
+		return heap[0];
+	}
+
+	void push(int val) {
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (heap[parent] <= val) {
+				break;
+			}
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = val;
+	}
+
+	int pop() {
+		int ret = heap[0];
+		int last = heap[--size];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (heap[child] >= last) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = last;
+		return ret;
+	}
+}
@@ -0,0 +1,167 @@
+package main.java.math;
+
+
+/**
+ * Mixed precision solver. The system is solved with a single precision {@link Factorization},
+ * then the solution is corrected in double precision: the residual is calculated in double and the correction is solved with the same factorization,
+ * until the relative residual is below the tolerance, or the correction stops improving.
+ * The relative size of the correction estimates the error of the solution. A solution, whose estimated error stays above its limit, or can not be estimated, is rejected.
+ * HUN: Vegyes pontosságú megoldó. Egyszeres pontosságú faktorizációval old meg, majd a megoldást dupla pontossággal számolt maradékkal iteratívan javítja.
+ * @author Simon Zoltán
+ *
+ */
+public class IterativeRefinement {
+
+	/**
+	 * Calculates the residual of the system in double precision.
+	 * HUN: Kiszámolja a rendszer maradékát dupla pontossággal.
+	 */
+	public interface Residual {
+
+		/**
+		 * @param solution Approximate solution.
+		 * @return right side - left side * solution, for each equation.
+		 */
+		public DoubleVector residual(DoubleVector solution);
+	}
+
+	/**
+	 * Maximum number of correction steps, when the estimated error is above its limit, even in plain single precision mode.
+	 * HUN: Legfeljebb ennyi javító lépés, ha a becsült hiba a korlát felett van, egyszeres pontosság mellett is.
+	 */
+	public static final int NO_OF_RESCUE_STEPS = 3;
+
+	private double tolerance;
+	private int maxNoOfSteps;
+	private double maxErrorEstimate;
+
+	//Results of the last solve:
+	private double achievedResidual;
+	private double errorEstimate;
+	private int noOfSteps;
+
+	/**
+	 * Constructor
+	 * @param tolerance			Relative residual (maximum norm of residual / maximum norm of right side), where the refinement stops.
+	 * @param maxNoOfSteps		Maximum number of correction steps. 0 means plain single precision solve, but a single correction is still made to estimate the error.
+	 * @param maxErrorEstimate	Limit of the estimated relative error (maximum norm of correction / maximum norm of solution).
+	 * 							Above this the solution is corrected even in plain single precision mode, and rejected, if it stays above.
+	 */
+	public IterativeRefinement(double tolerance, int maxNoOfSteps, double maxErrorEstimate) {
+		this.tolerance = tolerance;
+		this.maxNoOfSteps = maxNoOfSteps;
+		this.maxErrorEstimate = maxErrorEstimate;
+	}
+
+	/**
+	 * Solves the system.
+	 * HUN: Megoldja a rendszert.
+	 * @param factorization	Factorization of the left side.
+	 * @param system		Residual of the same system in double precision.
+	 * @param rightSide		Right side values of the equations.
+	 * @return The refined solution.
+	 * @throws GaussException - if the system has no solution with this right side, or the estimated error of the solution stays above its limit, or the correction fails ({@link InaccurateSolution}).
+	 */
+	public DoubleVector solve(Factorization factorization, Residual system, Vector rightSide) throws GaussException {
+		return refine(factorization, system, rightSide, new DoubleVector(factorization.solve(rightSide)), true);
+	}
+
+	/**
+	 * Refines an approximate solution, that was calculated by some other method.
+	 * The error is estimated only by the correction steps of mixed precision: the other method is expected to control its own residual.
+	 * HUN: Egy más módon kiszámolt közelítő megoldást javít.
+	 * @param factorization	Single precision solver of the left side, used for the corrections.
+	 * @param system		Residual of the same system in double precision.
+	 * @param rightSide		Right side values of the equations.
+	 * @param solution		Approximate solution.
+	 * @return The refined solution.
+	 * @throws InaccurateSolution - if the estimated error of the solution stays above its limit.
+	 */
+	public DoubleVector refine(Factorization factorization, Residual system, Vector rightSide, DoubleVector solution) {
+		return refine(factorization, system, rightSide, solution, false);
+	}
+
+	/**
+	 * Corrects the solution, while the residual is above the tolerance and the steps allow it.
+	 * @param estimate Whether to make at least one correction to estimate the error, even in plain single precision mode.
+	 */
+	private DoubleVector refine(Factorization factorization, Residual system, Vector rightSide, DoubleVector solution, boolean estimate) {
+		double scale = scale(rightSide);
+
+		DoubleVector residual = system.residual(solution);
+		double relative = residual.maxNorm() / scale;
+		noOfSteps = 0;
+		errorEstimate = (estimate)? Double.NaN : 0;		//Unknown until the first correction, unless the other method is trusted.
+		//The estimate is the size of the last correction, so it is corrected again while the estimate is above its limit, even if the residual is already below the tolerance:
+		while ((relative > tolerance && noOfSteps < maxNoOfSteps)
+				|| (noOfSteps < NO_OF_RESCUE_STEPS && !(errorEstimate <= maxErrorEstimate))) {
+			DoubleVector correction;
+			try {
+				correction = new DoubleVector(factorization.solve(residual.toVector()));
+			}
+			catch (GaussException e) {		//Rounding noise in linearly dependent equations, or no convergence of an iterative solver.
+				break;
+			}
+			errorEstimate = relativeSize(correction, solution);
+			DoubleVector next = new DoubleVector(solution).add(correction);
+			DoubleVector nextResidual = system.residual(next);
+			double nextRelative = nextResidual.maxNorm() / scale;
+			if (!(nextRelative < relative)) {	//No more improvement.
+				break;
+			}
+			solution = next;
+			residual = nextResidual;
+			relative = nextRelative;
+			noOfSteps++;
+		}
+		achievedResidual = relative;
+		if (!(errorEstimate <= maxErrorEstimate)) {		//E.g. coupling of the equations is lost in the rounding of the factorization, or the correction failed.
+			throw new InaccurateSolution(errorEstimate);
+		}
+		return solution;
+	}
+
+	/**
+	 * Maximum norm of the correction / maximum norm of the solution.
+	 */
+	private static double relativeSize(DoubleVector correction, DoubleVector solution) {
+		double size = correction.maxNorm();
+		return (0 == size)? 0 : size / solution.maxNorm();
+	}
+
+	/**
+	 * Maximum norm of the right side, or 1 if it is zero.
+	 */
+	private static double scale(Vector rightSide) {
+		double scale = 0;
+		for (int i = 0; i < rightSide.dimension; i++) {
+			scale = Math.max(scale, Math.abs(rightSide.at(i)));
+		}
+		return (0 == scale)? 1 : scale;
+	}
+
+	/**
+	 *
+	 * @return Relative residual of the last solution.
+	 */
+	public double getAchievedResidual() {
+		return achievedResidual;
+	}
+
+	/**
+	 *
+	 * @return Estimated relative error of the last solution: relative size of its last correction. NaN, if it could not be estimated.
+	 */
+	public double getErrorEstimate() {
+		return errorEstimate;
+	}
+
+	/**
+	 *
+	 * @return Number of correction steps of the last solve.
+	 */
+	public int getNoOfSteps() {
+		return noOfSteps;
+	}
+
+}
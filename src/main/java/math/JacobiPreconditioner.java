@@ -0,0 +1,40 @@
+package main.java.math;
+
+
+/**
+ * Jacobi (diagonal) preconditioner. Cheapest to set up and apply, but only compensates the scaling of the equations.
+ * HUN: Jacobi (diagonális) előkondicionáló.
+ * @author Simon Zoltán
+ *
+ */
+public class JacobiPreconditioner implements Preconditioner {
+
+	/**
+	 * Reciprocal of the diagonal elements.
+	 * HUN: A főátló elemeinek reciproka.
+	 */
+	private double inverseDiagonal[];
+
+	/**
+	 * Constructor
+	 * @param system M - (N+1)*N symmetric sparse matrix. The last row (right side) is ignored.
+	 */
+	public JacobiPreconditioner(SparseMatrix system) {
+		int n = system.row - 1;
+		inverseDiagonal = new double[n];
+		for (int i = 0; i < n; i++) {
+			float d = system.at(i, i);
+			inverseDiagonal[i] = (0 != d)? 1.0 / d : 1;
+		}
+	}
+
+	@Override
+	public DoubleVector apply(DoubleVector residual) {
+		DoubleVector z = new DoubleVector(residual.dimension);
+		for (int i = 0; i < z.dimension; i++) {
+			z.setAt(i, residual.at(i) * inverseDiagonal[i]);
+		}
+		return z;
+	}
+
+}
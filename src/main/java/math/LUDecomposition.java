@@ -0,0 +1,196 @@
+package main.java.math;
+
+
+/**
+ * LU factorization with partial pivoting of a column major system. Same layout as in case of {@link Gauss#Eliminate(Matrix)}: every column is an equation.
+ * There can be more equations than variables, the linearly dependent equations are detected during the factorization,
+ * and checked against the right side during solving.
+ * Works in single precision, or in double precision if {@link Pivoting#doublePrecision} is set (see {@link SparseLUDecomposition}).
+ * HUN: Oszlopfolytonos rendszer LU felbontása részleges főelemkiválasztással. Több egyenlet is lehet, mint változó.
+ * @author Simon Zoltán
+ *
+ */
+public class LUDecomposition implements Factorization {
+
+	private int noOfVariables;
+	private int noOfEquations;
+
+	/**
+	 * Factors of the permuted equations, equation by equation. Upper part (j &gt;= i) is U, lower part (j &lt; i) is L without its unit diagonal.
+	 * HUN: A permutált egyenletek faktorai egyenletenként. A felső rész U, az alsó rész L.
+	 */
+	private double lu[];
+
+	/**
+	 * Original index of the equation at each position.
+	 * HUN: Az egyes pozíciókon álló egyenletek eredeti indexe.
+	 */
+	private int permutation[];
+
+	/**
+	 * Zero tolerance of the rank decision and of the check of the dependent equations.
+	 * HUN: A rang döntés és a függő egyenletek ellenőrzésének nulla toleranciája.
+	 */
+	private double zeroTolerance;
+
+	private boolean doublePrecision;
+
+	/**
+	 * Constructor. Factorizes the left side of the system with the default {@link Pivoting}.
+	 * @param system M - (N+1)*M matrix. The last row (right side) is ignored. Will not be modified.
+	 * @throws GaussException - if the system has infinite solutions.
+	 */
+	public LUDecomposition(Matrix system) throws GaussException {
+		this(system, new Pivoting());
+	}
+
+	/**
+	 * Constructor. Factorizes the left side of the system.
+	 * Coefficients within the zero tolerance of their rounding error bound (the sum of the absolute values, that formed them) can not be pivots.
+	 * @param system M - (N+1)*M matrix. The last row (right side) is ignored. Will not be modified.
+	 * @param pivoting Zero tolerance of the rank decision, and the precision.
+	 * @throws GaussException - if the system has infinite solutions. The exception contains the estimated numerical rank.
+	 */
+	public LUDecomposition(Matrix system, Pivoting pivoting) throws GaussException {
+		noOfVariables = system.row - 1;
+		noOfEquations = system.column;
+		zeroTolerance = pivoting.scaledZeroTolerance();
+		doublePrecision = pivoting.doublePrecision;
+		int n = noOfVariables;
+		int m = noOfEquations;
+
+		lu = new double[m * n];
+		permutation = new int[m];
+		double bound[] = new double[m * n];	//Sum of the absolute values forming each coefficient.
+		for (int e = 0; e < m; e++) {
+			permutation[e] = e;
+			for (int v = 0; v < n; v++) {
+				lu[e * n + v] = system.at(v, e);
+				bound[e * n + v] = Math.abs(lu[e * n + v]);
+			}
+		}
+
+		int rank = 0;
+		for (int k = 0; k < n; k++) {
+			//Search the equation with the greatest coefficient of variable k, which is not only rounding error:
+			int p = -1;
+			double max = 0;
+			for (int i = rank; i < m; i++) {
+				double a = Math.abs(lu[i * n + k]);
+				if (a > zeroTolerance * bound[i * n + k] && a > max) {
+					max = a;
+					p = i;
+				}
+			}
+			if (p == -1) {			//Variable k has no pivot.
+				continue;
+			}
+			if (p != rank) {
+				swapEquations(rank, p);
+				for (int j = 0; j < n; j++) {
+					double temp = bound[rank * n + j];
+					bound[rank * n + j] = bound[p * n + j];
+					bound[p * n + j] = temp;
+				}
+			}
+
+			double pivot = lu[rank * n + k];
+			for (int i = rank + 1; i < m; i++) {
+				double l = round(lu[i * n + k] / pivot);
+				lu[i * n + k] = l;
+				if (0 != l) {
+					for (int j = k + 1; j < n; j++) {
+						double term = round(l * lu[rank * n + j]);
+						bound[i * n + j] += Math.abs(term);
+						lu[i * n + j] = round(lu[i * n + j] - term);
+					}
+				}
+			}
+			rank++;
+		}
+		if (rank < n) {
+			throw new InfiniteSolutions(rank);
+		}
+	}
+
+	@Override
+	public Vector solve(Vector rightSide) throws GaussException {
+		int n = noOfVariables;
+		int m = noOfEquations;
+		double y[] = new double[m];
+		double magnitude[] = new double[m];
+		for (int i = 0; i < m; i++) {
+			y[i] = rightSide.at(permutation[i]);
+			magnitude[i] = Math.abs(y[i]);
+		}
+
+		//Forward substitution (L):
+		for (int k = 0; k < n; k++) {
+			if (0 != y[k]) {
+				for (int i = k + 1; i < m; i++) {
+					double term = round(lu[i * n + k] * y[k]);
+					magnitude[i] = Math.max(magnitude[i], Math.abs(term));
+					y[i] = round(y[i] - term);
+				}
+			}
+		}
+		for (int i = n; i < m; i++) {	//Dependent equations must be satisfied.
+			if (Math.abs(y[i]) > zeroTolerance * magnitude[i]) {
+				throw new NoSolution(n);
+			}
+		}
+
+		//Back substitution (U):
+		double solution[] = new double[n];
+		for (int k = n - 1; k >= 0; k--) {
+			double val = y[k];
+			for (int j = k + 1; j < n; j++) {
+				val = round(val - round(lu[k * n + j] * solution[j]));
+			}
+			solution[k] = round(val / lu[k * n + k]);
+		}
+		Vector ret = new Vector(n);
+		for (int k = 0; k < n; k++) {
+			ret.setAt(k, (float)solution[k]);
+		}
+		return ret;
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return noOfVariables;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return noOfEquations;
+	}
+
+	//Auxiliary functions:
+
+	/**
+	 * Rounds a result to the precision of the factorization.
+	 */
+	private double round(double value) {
+		return (doublePrecision)? value : (float)value;
+	}
+
+	/**
+	 * Swaps two (partially factorized) equations.
+	 * HUN: Megcserél két egyenletet.
+	 * @param a position no. 1
+	 * @param b position no. 2
+	 */
+	private void swapEquations(int a, int b) {
+		int n = noOfVariables;
+		for (int j = 0; j < n; j++) {
+			double temp = lu[a * n + j];
+			lu[a * n + j] = lu[b * n + j];
+			lu[b * n + j] = temp;
+		}
+		int temp = permutation[a];
+		permutation[a] = permutation[b];
+		permutation[b] = temp;
+	}
+
+}
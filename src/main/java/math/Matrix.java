@@ -155,6 +155,24 @@ public class Matrix {
     }
 
 
+    /**
+     * Residual of a linear system in double precision. Same layout as in case of {@link Gauss#Eliminate(Matrix)}: every column is an equation, the last row is the right side.
+     * HUN: Lineáris rendszer maradéka dupla pontossággal.
+     * @param solution Approximate solution. Dimension must be row - 1.
+     * @return right side - left side * solution, for each equation (column).
+     */
+    public DoubleVector residual(DoubleVector solution) {
+    	DoubleVector ret = new DoubleVector(column);
+    	for (int c = 0; c < column; c++) {
+    		double sum = n[c * row + row - 1];
+    		for (int r = 0; r < row - 1; r++) {
+    			sum -= (double)n[c * row + r] * solution.at(r);
+    		}
+    		ret.setAt(c, sum);
+    	}
+    	return ret;
+    }
+
 	//Other
 	//float Determinant (Matrix M);
     
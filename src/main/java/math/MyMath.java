@@ -606,7 +606,41 @@ public class MyMath {
 	public static Coordinate subtrackt(Coordinate a, Coordinate b) {
 		return new Coordinate(a.x - b.x, a.y - b.y);
 	}
-	
+
+	/**
+	 * Squared distance of two coordinates. Does not allocate.
+	 * HUN: Két koordináta távolságának négyzete. Nem foglal memóriát.
+	 * @param a first
+	 * @param b second
+	 * @return squared distance
+	 */
+	public static long squaredDistance(Coordinate a, Coordinate b) {
+		long dx = a.x - b.x;
+		long dy = a.y - b.y;
+		return dx * dx + dy * dy;
+	}
+
+	/**
+	 * Whether the point is closer to the segment than the given distance, and its projection falls strictly between the ends of the segment. Does not allocate.
+	 * HUN: A pont a megadott távolságnál közelebb van-e a szakaszhoz, és a vetülete a szakasz végpontjai közé esik-e. Nem foglal memóriát.
+	 * @param p			the point
+	 * @param a			start of the segment
+	 * @param b			end of the segment
+	 * @param distance	the distance
+	 * @return boolean
+	 */
+	public static boolean isNearSegment(Coordinate p, Coordinate a, Coordinate b, float distance) {
+		long dx = b.x - a.x;
+		long dy = b.y - a.y;
+		long fromA = (p.x - a.x) * dx + (p.y - a.y) * dy;
+		long fromB = (p.x - b.x) * dx + (p.y - b.y) * dy;
+		if (fromA <= 0 || fromB >= 0) {
+			return false;
+		}
+		double cross = (double)(p.x - a.x) * dy - (double)(p.y - a.y) * dx;		//Distance times length of the segment.
+		return cross * cross < (double)distance * distance * (dx * dx + dy * dy);
+	}
+
 	
 	
 }
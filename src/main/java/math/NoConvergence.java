@@ -0,0 +1,18 @@
+package main.java.math;
+
+/**
+ * Thrown by iterative solvers, when the residual does not reach the tolerance within the maximum number of iterations.
+ * HUN: Iteratív megoldók dobják, ha a maradék a maximális iterációszámon belül nem éri el a toleranciát.
+ * @author Simon Zoltán
+ *
+ */
+public final class NoConvergence extends GaussException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 4216730455329127806L;
+
+	public String toString() {
+        return "Iterative solver did not converge.";
+    }
+}
@@ -6,7 +6,21 @@ public final class NoSolution extends GaussException {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	public NoSolution() {
+	}
+
+	/**
+	 * Constructor
+	 * @param rank Estimated numerical rank of the left side.
+	 */
+	public NoSolution(int rank) {
+		super(rank);
+	}
+
 	public String toString() {
+		if (getRank() >= 0) {
+			return "No solution of the matrix (numerical rank: " + getRank() + ").";
+		}
         return "No solution of the matrix.";
 	}
 }
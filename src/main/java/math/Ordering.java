@@ -0,0 +1,469 @@
+package main.java.math;
+
+import java.util.Arrays;
+
+
+/**
+ * Symbolic analysis of a sparse system: fill-reducing order of the equations and of the variables for {@link SparseLUDecomposition}.
+ * Depends only on the pattern of the nonzeros, so it can be reused while the topology of the network is unchanged.
+ * If equation i belongs to variable i (symmetric pattern, like in nodal analysis), they are one vertex of the ordered graph (pattern of A + A^T),
+ * otherwise equations and variables are separate vertices of a bipartite graph.
+ * HUN: Ritka rendszer szimbolikus analízise: az egyenletek és a változók kitöltődést csökkentő sorrendje.
+ * Csak a nem nulla elemek mintázatától függ, így amíg a hálózat topológiája nem változik, újrahasznosítható.
+ * @author Simon Zoltán
+ *
+ */
+public class Ordering {
+
+	private OrderingType type;
+
+	/**
+	 * Equations in the order of their reduction.
+	 * HUN: Az egyenletek a redukciójuk sorrendjében.
+	 */
+	private int equationOrder[];
+
+	/**
+	 * Preferred order of the variables as pivots: rank of each variable and variable of each rank.
+	 * HUN: A változók pivotként preferált sorrendje.
+	 */
+	private int rankOfVariable[];
+	private int variableOfRank[];
+
+	//Graph of the pattern (compressed adjacency lists):
+	private int adjacencyStart[];
+	private int adjacency[];
+
+	/**
+	 * Constructor. Analyses the pattern of the system. Square systems are treated as symmetric.
+	 * @param system	M - (N+1)*M sparse matrix. The last row (right side) is ignored.
+	 * @param type		{@link OrderingType}
+	 */
+	public Ordering(SparseMatrix system, OrderingType type) {
+		this(system, type, system.row - 1 == system.column);
+	}
+
+	/**
+	 * Constructor. Analyses the pattern of the system.
+	 * @param system	M - (N+1)*M sparse matrix. The last row (right side) is ignored.
+	 * @param type		{@link OrderingType}
+	 * @param symmetric	Whether equation i belongs to variable i. Only possible for square systems.
+	 */
+	public Ordering(SparseMatrix system, OrderingType type, boolean symmetric) {
+		this.type = type;
+		int n = system.row - 1;
+		int m = system.column;
+		boolean square = symmetric && (n == m);
+		int noOfVertices = square? n : n + m;
+		buildGraph(system, square, noOfVertices);
+
+		int order[];
+		switch (type) {
+			case reverseCuthillMcKee:
+				order = reverseCuthillMcKee(noOfVertices);
+				break;
+			case approximateMinimumDegree:
+				order = approximateMinimumDegree(noOfVertices);
+				break;
+			case natural:
+			default:
+				order = new int[noOfVertices];
+				for (int i = 0; i < noOfVertices; i++) {
+					order[i] = i;
+				}
+		}
+		adjacencyStart = null;
+		adjacency = null;
+
+		equationOrder = new int[m];
+		rankOfVariable = new int[n];
+		variableOfRank = new int[n];
+		int noOfEquations = 0;
+		int noOfVariables = 0;
+		for (int vertex : order) {
+			if (vertex < m) {
+				equationOrder[noOfEquations++] = vertex;
+			}
+			int variable = square? vertex : vertex - m;
+			if (variable >= 0 && variable < n) {
+				rankOfVariable[variable] = noOfVariables;
+				variableOfRank[noOfVariables++] = variable;
+			}
+		}
+	}
+
+	//Getters:--------------------------------------------------------------
+
+	public OrderingType getType() {
+		return type;
+	}
+
+	/**
+	 * @param step	Index of the reduction step.
+	 * @return Index of the equation reduced in the given step.
+	 */
+	public int equation(int step) {
+		return equationOrder[step];
+	}
+
+	/**
+	 * @param variable	Index of the variable.
+	 * @return Position of the variable in the preferred order of the pivots.
+	 */
+	public int rank(int variable) {
+		return rankOfVariable[variable];
+	}
+
+	/**
+	 * @param rank	Position in the preferred order of the pivots.
+	 * @return Index of the variable.
+	 */
+	public int variable(int rank) {
+		return variableOfRank[rank];
+	}
+
+	//Graph:----------------------------------------------------------------
+
+	/**
+	 * Builds the adjacency lists of the graph without duplicates and loops.
+	 */
+	private void buildGraph(SparseMatrix system, boolean square, int noOfVertices) {
+		int n = system.row - 1;
+		int m = system.column;
+		int degree[] = new int[noOfVertices];
+		for (int c = 0; c < m; c++) {
+			for (int k = 0; k < system.getColumnSize(c); k++) {
+				int r = system.getRowIndex(c, k);
+				int v = square? r : m + r;
+				if (r < n && v != c) {
+					degree[c]++;
+					degree[v]++;
+				}
+			}
+		}
+		int start[] = new int[noOfVertices + 1];
+		for (int i = 0; i < noOfVertices; i++) {
+			start[i + 1] = start[i] + degree[i];
+		}
+		int list[] = new int[start[noOfVertices]];
+		int fill[] = Arrays.copyOf(start, noOfVertices);
+		for (int c = 0; c < m; c++) {
+			for (int k = 0; k < system.getColumnSize(c); k++) {
+				int r = system.getRowIndex(c, k);
+				int v = square? r : m + r;
+				if (r < n && v != c) {
+					list[fill[c]++] = v;
+					list[fill[v]++] = c;
+				}
+			}
+		}
+
+		//Remove duplicates (A(i,j) and A(j,i) both give the edge i-j):
+		int mark[] = new int[noOfVertices];
+		Arrays.fill(mark, -1);
+		adjacencyStart = new int[noOfVertices + 1];
+		int count = 0;
+		for (int i = 0; i < noOfVertices; i++) {
+			adjacencyStart[i] = count;
+			for (int k = start[i]; k < start[i + 1]; k++) {
+				if (mark[list[k]] != i) {
+					mark[list[k]] = i;
+					list[count++] = list[k];
+				}
+			}
+		}
+		adjacencyStart[noOfVertices] = count;
+		adjacency = Arrays.copyOf(list, count);
+	}
+
+	private int degree(int vertex) {
+		return adjacencyStart[vertex + 1] - adjacencyStart[vertex];
+	}
+
+	//Reverse Cuthill-McKee:------------------------------------------------
+
+	/**
+	 * Breadth first search from a pseudo-peripheral vertex of each connected part, visiting the neighbours in increasing order of degree.
+	 * The order is reversed at the end.
+	 * HUN: Szélességi bejárás minden összefüggő rész egy perifériás csúcsából, a szomszédokat növekvő fokszám szerint bejárva. A végén megfordítjuk.
+	 */
+	private int[] reverseCuthillMcKee(int noOfVertices) {
+		int order[] = new int[noOfVertices];
+		boolean visited[] = new boolean[noOfVertices];
+		int level[] = new int[noOfVertices];
+		seen = new int[noOfVertices];
+		stamp = 0;
+		int queue[] = new int[noOfVertices];
+		int count = 0;
+		for (int start = 0; start < noOfVertices; start++) {
+			if (visited[start]) {
+				continue;
+			}
+			int root = peripheralVertex(start, level, queue);
+
+			int head = count;
+			order[count++] = root;
+			visited[root] = true;
+			while (head < count) {
+				int vertex = order[head++];
+				int first = count;
+				for (int k = adjacencyStart[vertex]; k < adjacencyStart[vertex + 1]; k++) {
+					int next = adjacency[k];
+					if (!visited[next]) {
+						visited[next] = true;
+						order[count++] = next;
+					}
+				}
+				//Insertion sort of the new vertices by degree:
+				for (int i = first + 1; i < count; i++) {
+					int v = order[i];
+					int j = i - 1;
+					while (j >= first && degree(order[j]) > degree(v)) {
+						order[j + 1] = order[j];
+						j--;
+					}
+					order[j + 1] = v;
+				}
+			}
+		}
+		for (int i = 0, j = noOfVertices - 1; i < j; i++, j--) {
+			int temp = order[i];
+			order[i] = order[j];
+			order[j] = temp;
+		}
+		return order;
+	}
+
+	/**
+	 * Pseudo-peripheral vertex (George-Liu): repeats breadth first search from a minimum degree vertex of the last level,
+	 * while the number of levels grows.
+	 */
+	private int peripheralVertex(int start, int level[], int queue[]) {
+		int root = start;
+		int noOfLevels = levels(root, level, queue);
+		while (true) {
+			int size = queueSize;
+			int candidate = -1;
+			for (int i = 0; i < size; i++) {
+				int v = queue[i];
+				if (level[v] == noOfLevels - 1 && (candidate < 0 || degree(v) < degree(candidate))) {
+					candidate = v;
+				}
+			}
+			int noOfCandidateLevels = levels(candidate, level, queue);
+			if (noOfCandidateLevels <= noOfLevels) {
+				return root;
+			}
+			root = candidate;
+			noOfLevels = noOfCandidateLevels;
+		}
+	}
+
+	//Workspace of the breadth first searches:
+	private int seen[];
+	private int stamp;
+	private int queueSize;
+
+	/**
+	 * Breadth first search, that stores the distance of the reached vertices from the root.
+	 * The reached vertices remain in the queue.
+	 * @return Number of levels.
+	 */
+	private int levels(int root, int level[], int queue[]) {
+		stamp++;
+		int head = 0;
+		int count = 0;
+		queue[count++] = root;
+		seen[root] = stamp;
+		level[root] = 0;
+		int noOfLevels = 1;
+		while (head < count) {
+			int vertex = queue[head++];
+			for (int k = adjacencyStart[vertex]; k < adjacencyStart[vertex + 1]; k++) {
+				int next = adjacency[k];
+				if (seen[next] != stamp) {
+					seen[next] = stamp;
+					level[next] = level[vertex] + 1;
+					noOfLevels = Math.max(noOfLevels, level[next] + 1);
+					queue[count++] = next;
+				}
+			}
+		}
+		queueSize = count;
+		return noOfLevels;
+	}
+
+	//Approximate minimum degree:-------------------------------------------
+
+	/**
+	 * Minimum degree ordering on the quotient graph: an eliminated variable becomes an element, that represents the clique of its neighbours
+	 * (the fill-in), without storing the clique. Elements covered by a new element are absorbed.
+	 * The degree of the neighbours of the eliminated variable is not calculated exactly, but bounded from above as in AMD:
+	 * d(i) &lt;= |A(i)| + |L(p) \ i| + sum of |L(e) \ L(p)| for the other elements e of i.
+	 * HUN: Minimális fokszám sorrend a hányados gráfon. Az eliminált változóból elem lesz, ami a szomszédai klikkjét képviseli.
+	 * A szomszédok fokszámát nem pontosan számoljuk, hanem az AMD szerinti felső becsléssel.
+	 */
+	private int[] approximateMinimumDegree(int noOfVertices) {
+		final int variable = 0, element = 1, absorbed = 2;
+		int status[] = new int[noOfVertices];
+
+		//Variable neighbours (A), element neighbours (E) of each variable, and variables of each element (L):
+		int variables[][] = new int[noOfVertices][];
+		int noOfVariables[] = new int[noOfVertices];
+		int elements[][] = new int[noOfVertices][];
+		int noOfElements[] = new int[noOfVertices];
+
+		//Degree lists:
+		int degree[] = new int[noOfVertices];
+		int head[] = new int[noOfVertices + 1];
+		int next[] = new int[noOfVertices];
+		int previous[] = new int[noOfVertices];
+		Arrays.fill(head, -1);
+
+		for (int i = 0; i < noOfVertices; i++) {
+			variables[i] = Arrays.copyOfRange(adjacency, adjacencyStart[i], adjacencyStart[i + 1]);
+			noOfVariables[i] = variables[i].length;
+			elements[i] = new int[2];
+			degree[i] = noOfVariables[i];
+		}
+		adjacencyStart = null;
+		adjacency = null;
+		for (int i = 0; i < noOfVertices; i++) {
+			insert(i, degree[i], head, next, previous);
+		}
+
+		int mark[] = new int[noOfVertices];
+		int markStamp = 0;
+		int w[] = new int[noOfVertices];
+		int wStamp[] = new int[noOfVertices];
+		int newElement[] = new int[noOfVertices];
+
+		int order[] = new int[noOfVertices];
+		int minDegree = 0;
+		for (int k = 0; k < noOfVertices; k++) {
+			while (head[minDegree] < 0) {
+				minDegree++;
+			}
+			int p = head[minDegree];
+			remove(p, degree[p], head, next, previous);
+			order[k] = p;
+			status[p] = element;
+
+			//L(p) = A(p) + variables of the elements of p, except p:
+			markStamp++;
+			mark[p] = markStamp;
+			int size = 0;
+			for (int a = 0; a < noOfVariables[p]; a++) {
+				int v = variables[p][a];
+				if (status[v] == variable && mark[v] != markStamp) {
+					mark[v] = markStamp;
+					newElement[size++] = v;
+				}
+			}
+			for (int a = 0; a < noOfElements[p]; a++) {
+				int e = elements[p][a];
+				if (status[e] == element) {
+					for (int b = 0; b < noOfVariables[e]; b++) {
+						int v = variables[e][b];
+						if (status[v] == variable && mark[v] != markStamp) {
+							mark[v] = markStamp;
+							newElement[size++] = v;
+						}
+					}
+					status[e] = absorbed;
+					variables[e] = null;
+				}
+			}
+			variables[p] = Arrays.copyOf(newElement, size);
+			noOfVariables[p] = size;
+			elements[p] = null;
+			noOfElements[p] = 0;
+
+			//|L(e) \ L(p)| of the other elements of the variables of L(p):
+			for (int a = 0; a < size; a++) {
+				int i = variables[p][a];
+				for (int b = 0; b < noOfElements[i]; b++) {
+					int e = elements[i][b];
+					if (status[e] != element) {
+						continue;
+					}
+					if (wStamp[e] != k + 1) {
+						wStamp[e] = k + 1;
+						int count = 0;		//Remove eliminated variables from L(e):
+						for (int c = 0; c < noOfVariables[e]; c++) {
+							if (status[variables[e][c]] == variable) {
+								variables[e][count++] = variables[e][c];
+							}
+						}
+						noOfVariables[e] = count;
+						w[e] = count;
+					}
+					w[e]--;
+				}
+			}
+
+			//Update the neighbours of p:
+			int remaining = noOfVertices - k - 1;
+			for (int a = 0; a < size; a++) {
+				int i = variables[p][a];
+				remove(i, degree[i], head, next, previous);
+
+				int count = 0;
+				int external = 0;
+				for (int b = 0; b < noOfElements[i]; b++) {
+					int e = elements[i][b];
+					if (status[e] == element && w[e] == 0) {	//Covered by p: aggressive absorption.
+						status[e] = absorbed;
+						variables[e] = null;
+					}
+					if (status[e] == element) {
+						elements[i][count++] = e;
+						external += w[e];
+					}
+				}
+				if (count == elements[i].length) {
+					elements[i] = Arrays.copyOf(elements[i], 2 * count + 2);
+				}
+				elements[i][count++] = p;
+				noOfElements[i] = count;
+
+				count = 0;		//Variables covered by p are removed from A(i):
+				for (int b = 0; b < noOfVariables[i]; b++) {
+					int v = variables[i][b];
+					if (status[v] == variable && mark[v] != markStamp && v != i) {
+						variables[i][count++] = v;
+					}
+				}
+				noOfVariables[i] = count;
+
+				int d = Math.min(remaining - 1, Math.min(degree[i] + size - 1, count + size - 1 + external));
+				degree[i] = Math.max(d, 0);
+				insert(i, degree[i], head, next, previous);
+				minDegree = Math.min(minDegree, degree[i]);
+			}
+		}
+		return order;
+	}
+
+	private static void insert(int i, int d, int head[], int next[], int previous[]) {
+		next[i] = head[d];
+		previous[i] = -1;
+		if (head[d] >= 0) {
+			previous[head[d]] = i;
+		}
+		head[d] = i;
+	}
+
+	private static void remove(int i, int d, int head[], int next[], int previous[]) {
+		if (previous[i] >= 0) {
+			next[previous[i]] = next[i];
+		}
+		else {
+			head[d] = next[i];
+		}
+		if (next[i] >= 0) {
+			previous[next[i]] = previous[i];
+		}
+	}
+
+}
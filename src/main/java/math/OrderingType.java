@@ -0,0 +1,28 @@
+package main.java.math;
+
+/**
+ * Types of fill-reducing {@link Ordering}.
+ * HUN: A kitöltődést csökkentő sorrendezések típusai.
+ * @author Simon Zoltán
+ *
+ */
+public enum OrderingType {
+
+	/**
+	 * Order of the equations and variables as they are stored.
+	 * HUN: Az egyenletek és változók tárolási sorrendje.
+	 */
+	natural,
+
+	/**
+	 * Reverse Cuthill-McKee: breadth first ordering from a peripheral vertex, reversed. Keeps the nonzeros near the diagonal (small band).
+	 * HUN: Fordított Cuthill-McKee: perifériás csúcsból induló szélességi bejárás, megfordítva. Kis sávszélességet ad.
+	 */
+	reverseCuthillMcKee,
+
+	/**
+	 * Approximate minimum degree: always eliminates the variable with the (approximately) fewest connections. Usually the least fill-in.
+	 * HUN: Közelítő minimális fokszám: mindig a (közelítőleg) legkevesebb kapcsolattal rendelkező változót elimináljuk.
+	 */
+	approximateMinimumDegree
+};
@@ -0,0 +1,103 @@
+package main.java.math;
+
+
+/**
+ * Parameters of the pivot selection and of the numerical rank decision of the eliminations and factorizations.
+ * HUN: A főelemkiválasztás és a numerikus rang döntés paraméterei.
+ * @author Simon Zoltán
+ *
+ */
+public class Pivoting {
+
+	/**
+	 * Machine epsilon of float: the relative rounding error of a single operation is at most half of it.
+	 * HUN: A float gépi epszilonja.
+	 */
+	public static final float FLOAT_EPSILON = Math.ulp(1f);
+
+	/**
+	 * Machine epsilon of double.
+	 * HUN: A double gépi epszilonja.
+	 */
+	public static final double DOUBLE_EPSILON = Math.ulp(1d);
+
+	public static final float DEFAULT_ZERO_TOLERANCE = 8 * FLOAT_EPSILON;
+	public static final float DEFAULT_THRESHOLD = 1f;
+	public static final OrderingType DEFAULT_ORDERING = OrderingType.approximateMinimumDegree;
+
+	/**
+	 * A reduced coefficient is treated as rounding error, if its absolute value is not greater than this portion of its rounding error bound:
+	 * the sum of the absolute values, that formed it (the original coefficient and the subtracted terms).
+	 * Only decides the numerical rank: which coefficients can be pivots, and which equations are linearly dependent. No coefficient is dropped by it.
+	 * A small multiple of {@link #FLOAT_EPSILON}, since the factorizations work in single precision by default.
+	 * HUN: Egy redukált együtthatót kerekítési hibának tekintünk, ha abszolút értéke nem nagyobb, mint a kerekítési hibakorlátjának ekkora része:
+	 * az őt kialakító értékek abszolút értékeinek összegéé. Csak a numerikus rangot dönti el, egyetlen együtthatót sem dob el.
+	 */
+	public float zeroTolerance;
+
+	/**
+	 * Threshold of the sparse partial pivoting. Any coefficient not smaller than this portion of the greatest coefficient of the equation can be the pivot.
+	 * 1 means strict partial pivoting, smaller values leave more freedom to keep the matrix sparse.
+	 * HUN: A ritka részleges főelemkiválasztás küszöbe. Az egyenlet legnagyobb együtthatójának legalább ekkora részét elérő együttható lehet főelem.
+	 */
+	public float threshold;
+
+	/**
+	 * Fill-reducing order of the equations and of the candidate pivots in sparse factorizations.
+	 * HUN: Az egyenletek és a pivot jelöltek kitöltődést csökkentő sorrendje ritka faktorizációkban.
+	 */
+	public OrderingType ordering;
+
+	/**
+	 * Whether the factorization works in double precision instead of single. Single precision is enough for the solutions and for the corrections of mixed precision,
+	 * so it is used only to confirm, when the rank decision of single precision rejects the system. The zero tolerance is scaled to double (see {@link #scaledZeroTolerance()}).
+	 * HUN: Dupla pontossággal dolgozik-e a faktorizáció az egyszeres helyett. Csak megerősítésre használjuk, ha az egyszeres pontosság rang döntése elutasítja a rendszert.
+	 */
+	public boolean doublePrecision = false;
+
+	public Pivoting() {
+		this(DEFAULT_ZERO_TOLERANCE, DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Constructor
+	 * @param zeroTolerance	See {@link #zeroTolerance}
+	 * @param threshold		See {@link #threshold}
+	 */
+	public Pivoting(float zeroTolerance, float threshold) {
+		this(zeroTolerance, threshold, DEFAULT_ORDERING);
+	}
+
+	/**
+	 * Constructor
+	 * @param zeroTolerance	See {@link #zeroTolerance}
+	 * @param threshold		See {@link #threshold}
+	 * @param ordering		See {@link #ordering}
+	 */
+	public Pivoting(float zeroTolerance, float threshold, OrderingType ordering) {
+		this.zeroTolerance = zeroTolerance;
+		this.threshold = threshold;
+		this.ordering = ordering;
+	}
+
+	/**
+	 * The same pivoting in double precision.
+	 * HUN: Ugyanez a főelemkiválasztás dupla pontossággal.
+	 * @return New {@link Pivoting}
+	 */
+	public Pivoting inDoublePrecision() {
+		Pivoting pivoting = new Pivoting(zeroTolerance, threshold, ordering);
+		pivoting.doublePrecision = true;
+		return pivoting;
+	}
+
+	/**
+	 * Zero tolerance in the precision of the factorization: the same multiple of the machine epsilon of double as of float, in case of double precision.
+	 * HUN: A nulla tolerancia a faktorizáció pontosságában.
+	 * @return {@link #zeroTolerance}, scaled by DOUBLE_EPSILON / FLOAT_EPSILON in case of double precision.
+	 */
+	public double scaledZeroTolerance() {
+		return (doublePrecision)? zeroTolerance * (DOUBLE_EPSILON / FLOAT_EPSILON) : zeroTolerance;
+	}
+
+}
@@ -0,0 +1,51 @@
+package main.java.math;
+
+
+/**
+ * Preconditioner of iterative solvers: approximate inverse of the left side of a symmetric system, that is cheap to apply.
+ * HUN: Iteratív megoldók előkondicionálója: a szimmetrikus rendszer bal oldalának olcsón alkalmazható közelítő inverze.
+ * @author Simon Zoltán
+ *
+ */
+public interface Preconditioner {
+
+	/**
+	 * Applies the approximate inverse.
+	 * HUN: Alkalmazza a közelítő inverzet.
+	 * @param residual	Residual of the system.
+	 * @return Approximate solution of left side * z = residual.
+	 */
+	public DoubleVector apply(DoubleVector residual);
+
+	/**
+	 * Updates the preconditioner after the values of the matrix changed, but the graph of the network did not.
+	 * HUN: Frissíti az előkondicionálót, ha a mátrix értékei megváltoztak, de a hálózat gráfja nem.
+	 * @param system	The changed matrix.
+	 * @return false, if the preconditioner can not be updated, and it has to be created again.
+	 */
+	public default boolean update(SparseMatrix system) {
+		return false;
+	}
+
+	/**
+	 * Creates a preconditioner of the given type.
+	 * HUN: Létrehoz egy adott típusú előkondicionálót.
+	 * @param type		{@link PreconditionerType}
+	 * @param system	M - (N+1)*N symmetric sparse matrix. The last row (right side) is ignored.
+	 * @return The preconditioner.
+	 */
+	public static Preconditioner create(PreconditionerType type, SparseMatrix system) {
+		switch (type) {
+			case jacobi:
+				return new JacobiPreconditioner(system);
+			case ssor:
+				return new SSORPreconditioner(system, SSORPreconditioner.DEFAULT_RELAXATION);
+			case algebraicMultigrid:
+				return new AlgebraicMultigrid(system);
+			case incompleteCholesky:
+			default:
+				return new IncompleteCholesky(system);
+		}
+	}
+
+}
@@ -0,0 +1,34 @@
+package main.java.math;
+
+/**
+ * Types of {@link Preconditioner}.
+ * HUN: Az előkondicionálók típusai.
+ * @author Simon Zoltán
+ *
+ */
+public enum PreconditionerType {
+
+	/**
+	 * Diagonal of the matrix. See {@link JacobiPreconditioner}.
+	 * HUN: A mátrix főátlója.
+	 */
+	jacobi,
+
+	/**
+	 * Incomplete Cholesky factorization without fill-in. See {@link IncompleteCholesky}.
+	 * HUN: Kitöltődés nélküli nem teljes Cholesky felbontás.
+	 */
+	incompleteCholesky,
+
+	/**
+	 * Symmetric successive over-relaxation. See {@link SSORPreconditioner}.
+	 * HUN: Szimmetrikus túlrelaxálás.
+	 */
+	ssor,
+
+	/**
+	 * Smoothed aggregation algebraic multigrid V-cycle. See {@link AlgebraicMultigrid}.
+	 * HUN: Simított aggregációs algebrai többrácsos V-ciklus.
+	 */
+	algebraicMultigrid
+};
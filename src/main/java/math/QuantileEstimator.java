@@ -0,0 +1,137 @@
+package main.java.math;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a quantile of a stream of values in constant memory, by the P² algorithm of Jain and Chlamtac.
+ * Five markers follow the minimum, the quantile, the maximum, and the quantiles halfway between them.
+ * Their heights are adjusted by piecewise parabolic interpolation, as the values arrive.
+ * HUN: Értékek folyamának egy kvantilisét becsli állandó memóriában, Jain és Chlamtac P² algoritmusával.
+ * Öt jelölő követi a minimumot, a kvantilist, a maximumot és a köztük félúton levő kvantiliseket.
+ * A magasságukat szakaszonként parabolikus interpolációval igazítjuk az értékek érkezésekor.
+ * @author Simon Zoltán
+ *
+ */
+public class QuantileEstimator {
+
+	private final double p;
+	private int count = 0;
+
+	/**
+	 * Heights and positions (1 based ranks) of the markers, desired positions, and the increments of the desired positions.
+	 * HUN: A jelölők magassága és pozíciója, a kívánt pozíciók, és a kívánt pozíciók növekménye.
+	 */
+	private final double height[] = new double[5];
+	private final double position[] = {1, 2, 3, 4, 5};
+	private final double desired[];
+	private final double increment[];
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param p	The estimated quantile, between 0 and 1. E.g. 0.5 for the median.
+	 */
+	public QuantileEstimator(double p) {
+		if (!(p >= 0 && p <= 1)) {
+			throw new RuntimeException("Quantile out of [0, 1].");
+		}
+		this.p = p;
+		desired = new double[] {1, 1 + 2 * p, 1 + 4 * p, 3 + 2 * p, 5};
+		increment = new double[] {0, p / 2, p, (1 + p) / 2, 1};
+	}
+
+	//Estimation:-------------------------------------------------------
+
+	/**
+	 * Adds a value to the stream.
+	 * HUN: Hozzáad egy értéket a folyamhoz.
+	 * @param value	The value. Must not be NaN.
+	 */
+	public void add(double value) {
+		if (count < 5) {		//The first values are the markers themselves.
+			height[count++] = value;
+			if (count == 5) {
+				Arrays.sort(height);
+			}
+			return;
+		}
+		count++;
+
+		//Cell of the value, the extreme markers follow the minimum and the maximum:
+		int k;
+		if (value < height[0]) {
+			height[0] = value;
+			k = 0;
+		}
+		else if (value >= height[4]) {
+			height[4] = value;
+			k = 3;
+		}
+		else {
+			k = 0;
+			while (value >= height[k + 1]) {
+				k++;
+			}
+		}
+		for (int i = k + 1; i < 5; i++) {
+			position[i]++;
+		}
+		for (int i = 0; i < 5; i++) {
+			desired[i] += increment[i];
+		}
+
+		//Adjust the middle markers, that are off their desired position:
+		for (int i = 1; i <= 3; i++) {
+			double d = desired[i] - position[i];
+			if ((d >= 1 && position[i + 1] - position[i] > 1) || (d <= -1 && position[i - 1] - position[i] < -1)) {
+				int s = (d > 0)? 1 : -1;
+				double parabolic = parabolic(i, s);
+				if (height[i - 1] < parabolic && parabolic < height[i + 1]) {
+					height[i] = parabolic;
+				}
+				else {
+					height[i] += s * (height[i + s] - height[i]) / (position[i + s] - position[i]);
+				}
+				position[i] += s;
+			}
+		}
+	}
+
+	/**
+	 * Height of the i. marker moved by s positions, by the piecewise parabolic formula.
+	 */
+	private double parabolic(int i, int s) {
+		return height[i] + s / (position[i + 1] - position[i - 1])
+				* ((position[i] - position[i - 1] + s) * (height[i + 1] - height[i]) / (position[i + 1] - position[i])
+				+ (position[i + 1] - position[i] - s) * (height[i] - height[i - 1]) / (position[i] - position[i - 1]));
+	}
+
+	//Getters:----------------------------------------------------------
+
+	public double getQuantile() {
+		return p;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * The estimate. Exact, while there are at most 5 values.
+	 * HUN: A becslés. Legfeljebb 5 értékig pontos.
+	 * @return Estimate of the quantile, NaN if there are no values.
+	 */
+	public double getEstimate() {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		if (count <= 5) {		//Nearest rank of the sorted values.
+			double sorted[] = Arrays.copyOf(height, count);
+			Arrays.sort(sorted);
+			return sorted[Math.max((int)Math.ceil(p * count), 1) - 1];
+		}
+		return height[2];
+	}
+
+}
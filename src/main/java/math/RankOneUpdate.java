@@ -0,0 +1,29 @@
+package main.java.math;
+
+
+/**
+ * Rank-one change of the left side of a linear system: coefficient of the j. variable in the i. equation changes by u[i] * v[j].
+ * HUN: Lineáris rendszer bal oldalának egyrangú változása: az i. egyenletben a j. változó együtthatója u[i] * v[j]-vel változik.
+ * @author Simon Zoltán
+ *
+ */
+public class RankOneUpdate {
+
+	/**
+	 * Change by equations. Dimension is the number of equations.
+	 * HUN: Változás egyenletenként.
+	 */
+	public Vector u;
+
+	/**
+	 * Change by variables. Dimension is the number of variables.
+	 * HUN: Változás változónként.
+	 */
+	public Vector v;
+
+	public RankOneUpdate(Vector u, Vector v) {
+		this.u = u;
+		this.v = v;
+	}
+
+}
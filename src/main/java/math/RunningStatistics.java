@@ -0,0 +1,112 @@
+package main.java.math;
+
+/**
+ * Statistics of a stream of values, updated value by value in constant memory: the count, minimum, maximum, mean and standard deviation
+ * (by Welford's method, which does not lose precision on large means), and estimates of the selected quantiles (by {@link QuantileEstimator}).
+ * HUN: Értékek folyamának statisztikái, értékenként frissítve, állandó memóriában: a darabszám, minimum, maximum, átlag és szórás
+ * (Welford módszerével, amely nagy átlag esetén sem veszít pontosságot), és a kiválasztott kvantilisek becslése.
+ * @author Simon Zoltán
+ *
+ */
+public class RunningStatistics {
+
+	private long count = 0;
+	private double mean = 0;
+	private double sumOfSquares = 0;		//Sum of squared differences from the mean.
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	private QuantileEstimator quantiles[];
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param quantiles	The estimated quantiles, between 0 and 1. E.g. 0.05, 0.5 and 0.95.
+	 */
+	public RunningStatistics(double... quantiles) {
+		this.quantiles = new QuantileEstimator[quantiles.length];
+		for (int i = 0; i < quantiles.length; i++) {
+			this.quantiles[i] = new QuantileEstimator(quantiles[i]);
+		}
+	}
+
+	//Update:-----------------------------------------------------------
+
+	/**
+	 * Adds a value to the statistics. NaN values are ignored.
+	 * HUN: Hozzáad egy értéket a statisztikákhoz. A NaN értékeket kihagyja.
+	 * @param value	The value.
+	 */
+	public void add(double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		sumOfSquares += delta * (value - mean);
+		min = (count == 1)? value : Math.min(min, value);
+		max = (count == 1)? value : Math.max(max, value);
+		for (QuantileEstimator quantile : quantiles) {
+			quantile.add(value);
+		}
+	}
+
+	//Getters:----------------------------------------------------------
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 *
+	 * @return The mean, NaN if there are no values.
+	 */
+	public double getMean() {
+		return (count > 0)? mean : Double.NaN;
+	}
+
+	/**
+	 *
+	 * @return The sample standard deviation, NaN if there are less than 2 values.
+	 */
+	public double getStandardDeviation() {
+		return (count > 1)? Math.sqrt(sumOfSquares / (count - 1)) : Double.NaN;
+	}
+
+	public double getMin() {
+		return min;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Estimate of a quantile given to the constructor.
+	 * HUN: A konstruktornak megadott egyik kvantilis becslése.
+	 * @param p	The quantile.
+	 * @return The estimate, NaN if there are no values.
+	 */
+	public double getQuantile(double p) {
+		for (QuantileEstimator quantile : quantiles) {
+			if (quantile.getQuantile() == p) {
+				return quantile.getEstimate();
+			}
+		}
+		throw new RuntimeException("Quantile not estimated: " + p);
+	}
+
+	/**
+	 *
+	 * @return The estimated quantiles, in the order given to the constructor.
+	 */
+	public double[] getQuantiles() {
+		double ret[] = new double[quantiles.length];
+		for (int i = 0; i < quantiles.length; i++) {
+			ret[i] = quantiles[i].getQuantile();
+		}
+		return ret;
+	}
+
+}
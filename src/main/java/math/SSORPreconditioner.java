@@ -0,0 +1,65 @@
+package main.java.math;
+
+
+/**
+ * Symmetric successive over-relaxation preconditioner: a forward and a backward Gauss-Seidel sweep with relaxation.
+ * No setup is needed, the sweeps work on the matrix itself.
+ * HUN: Szimmetrikus túlrelaxálás (SSOR) előkondicionáló: egy előre és egy visszafelé haladó relaxált Gauss-Seidel lépés.
+ * @author Simon Zoltán
+ *
+ */
+public class SSORPreconditioner implements Preconditioner {
+
+	public static final double DEFAULT_RELAXATION = 1.2;
+
+	private SparseMatrix system;
+	private int n;
+	private double omega;
+
+	/**
+	 * Constructor
+	 * @param system	M - (N+1)*N symmetric sparse matrix. The last row (right side) is ignored. Column i is used as row i.
+	 * @param omega		Relaxation factor. 0 &lt; omega &lt; 2.
+	 */
+	public SSORPreconditioner(SparseMatrix system, double omega) {
+		this.system = system;
+		this.omega = omega;
+		n = system.row - 1;
+	}
+
+	@Override
+	public DoubleVector apply(DoubleVector residual) {
+		double y[] = new double[n];
+		double diagonal[] = new double[n];
+
+		//Forward sweep: (D / omega + L) * y = residual
+		for (int i = 0; i < n; i++) {
+			double sum = residual.at(i);
+			for (int k = 0; k < system.getColumnSize(i); k++) {
+				int j = system.getRowIndex(i, k);
+				if (j < i) {
+					sum -= system.getValue(i, k) * y[j];
+				}
+				else if (j == i) {
+					diagonal[i] = system.getValue(i, k);
+				}
+			}
+			y[i] = (0 != diagonal[i])? sum * omega / diagonal[i] : sum;
+		}
+
+		//Backward sweep: (D / omega + U) * z = D / omega * y
+		DoubleVector z = new DoubleVector(n);
+		for (int i = n - 1; i >= 0; i--) {
+			double sum = diagonal[i] / omega * y[i];
+			for (int k = 0; k < system.getColumnSize(i); k++) {
+				int j = system.getRowIndex(i, k);
+				if (j > i && j < n) {
+					sum -= system.getValue(i, k) * z.at(j);
+				}
+			}
+			z.setAt(i, (0 != diagonal[i])? sum * omega / diagonal[i] : sum);
+		}
+		return z.multiply((2 - omega) / omega);
+	}
+
+}
@@ -0,0 +1,305 @@
+package main.java.math;
+
+import java.util.Arrays;
+
+
+/**
+ * LU factorization of a column major sparse system. Same layout as in case of {@link Gauss#Eliminate(SparseMatrix)}: every column is an equation.
+ * The equations are reduced one by one against the already reduced ones. The reduced equations form the upper triangular factor (U),
+ * the multipliers of the reduction form the lower triangular factor (L). Only the non-zero elements (and the fill-in) are stored.
+ * Works in single precision, or in double precision if {@link Pivoting#doublePrecision} is set. The factors are stored as double in both cases,
+ * but in single precision every result is rounded to float, so the arithmetic is the same as with float variables.
+ * HUN: Oszlopfolytonos ritka rendszer LU felbontása. A redukált egyenletek adják a felső (U), a redukció szorzói az alsó (L) háromszögmátrixot.
+ * @author Simon Zoltán
+ *
+ */
+public class SparseLUDecomposition implements Factorization {
+
+	private int noOfVariables;
+	private int noOfEquations;
+
+	/**
+	 * Reduced equations (U), indexed by their pivot variable. Coefficient of the pivot variable is 1 and not stored.
+	 * A reduced equation contains only variables, that were free at the time of its reduction (pivoted later).
+	 * HUN: Redukált egyenletek (U), a pivot változójuk szerint indexelve. Csak a később pivotált változókat tartalmazzák.
+	 */
+	private int upperIndex[][];
+	private double upperValues[][];
+
+	/**
+	 * 1 / the original coefficient of the pivot variable in its reduced equation.
+	 * HUN: A pivot elem reciproka.
+	 */
+	private double divider[];
+
+	/**
+	 * Variable pivoted by each equation. -1 for linearly dependent equations.
+	 * HUN: Az egyenletek pivot változója. Lineárisan függő egyenlet esetén -1.
+	 */
+	private int pivotOfEquation[];
+
+	/**
+	 * Pivot variables in the order of the pivoting.
+	 * HUN: A pivot változók a pivotálás sorrendjében.
+	 */
+	private int variableOfStep[];
+
+	/**
+	 * Multipliers of the reduction (L) for each equation, in the order of the subtractions. Indexed by the pivot variable of the subtracted reduced equation.
+	 * HUN: A redukció szorzói (L) egyenletenként, a kivonások sorrendjében.
+	 */
+	private int lowerIndex[][];
+	private double lowerValues[][];
+
+	/**
+	 * Order of the reduction of the equations and preferred order of the pivot variables.
+	 * HUN: Az egyenletek redukciójának és a pivot változóknak a sorrendje.
+	 */
+	private Ordering ordering;
+
+	/**
+	 * Zero tolerance of the rank decision and of the check of the dependent equations, in the precision of the factorization.
+	 * HUN: A rang döntés és a függő egyenletek ellenőrzésének nulla toleranciája.
+	 */
+	private double zeroTolerance;
+
+	private boolean doublePrecision;
+
+	/**
+	 * Constructor. Factorizes the left side of the system with the default {@link Pivoting}.
+	 * @param system M - (N+1)*M sparse matrix. The last row (right side) is ignored. Will not be modified.
+	 * @throws GaussException - if the system has infinite solutions.
+	 */
+	public SparseLUDecomposition(SparseMatrix system) throws GaussException {
+		this(system, new Pivoting());
+	}
+
+	/**
+	 * Constructor. Factorizes the left side of the system with threshold partial pivoting, in the order given by {@link Pivoting#ordering}.
+	 * @param system M - (N+1)*M sparse matrix. The last row (right side) is ignored. Will not be modified.
+	 * @param pivoting Threshold, zero tolerance and ordering of the pivoting.
+	 * @throws GaussException - if the system has infinite solutions. The exception contains the estimated numerical rank.
+	 */
+	public SparseLUDecomposition(SparseMatrix system, Pivoting pivoting) throws GaussException {
+		this(system, pivoting, new Ordering(system, pivoting.ordering));
+	}
+
+	/**
+	 * Constructor. Factorizes the left side of the system with threshold partial pivoting:
+	 * the equations are reduced in the order of the {@link Ordering}, the pivot of an equation is its first free variable in the preferred order,
+	 * whose coefficient is not smaller than the threshold portion of the greatest one.
+	 * Every non-zero multiplier is applied, and every non-zero coefficient of the reduced equation is kept, however small it is.
+	 * The zero tolerance only decides the numerical rank: a reduced coefficient within the zero tolerance of its rounding error bound can not be a pivot,
+	 * and if all the coefficients of a reduced equation are such, the equation is linearly dependent on the already reduced ones.
+	 * @param system M - (N+1)*M sparse matrix. The last row (right side) is ignored. Will not be modified.
+	 * @param pivoting Threshold, zero tolerance and precision of the pivoting.
+	 * @param ordering Result of the symbolic analysis of the same pattern. Can be reused while the pattern is unchanged.
+	 * @throws GaussException - if the system has infinite solutions. The exception contains the estimated numerical rank.
+	 */
+	public SparseLUDecomposition(SparseMatrix system, Pivoting pivoting, Ordering ordering) throws GaussException {
+		this.ordering = ordering;
+		noOfVariables = system.row - 1;
+		noOfEquations = system.column;
+		zeroTolerance = pivoting.scaledZeroTolerance();
+		doublePrecision = pivoting.doublePrecision;
+		int n = noOfVariables;
+
+		upperIndex = new int[n][];
+		upperValues = new double[n][];
+		divider = new double[n];
+		variableOfStep = new int[n];
+		int stepOfVariable[] = new int[n];
+		Arrays.fill(stepOfVariable, -1);
+		int noOfPivots = 0;
+		pivotOfEquation = new int[noOfEquations];
+		lowerIndex = new int[noOfEquations][];
+		lowerValues = new double[noOfEquations][];
+
+		//Workspace of the equation under reduction:
+		double work[] = new double[n];
+		double bound[] = new double[n];		//Sum of the absolute values forming each coefficient: bound of its rounding error, in epsilon units.
+		boolean queued[] = new boolean[n];
+		//Pivoted variables are visited in the order of pivoting (key = step), then the free variables (key = n + rank):
+		IntHeap heap = new IntHeap(n);
+		int tempLowerIndex[] = new int[Math.max(n, 1)];
+		double tempLowerValues[] = new double[Math.max(n, 1)];
+		int tempIndex[] = new int[Math.max(n, 1)];
+		double tempValues[] = new double[Math.max(n, 1)];
+		double tempBounds[] = new double[Math.max(n, 1)];
+
+		for (int s = 0; s < noOfEquations; s++) {
+			int c = ordering.equation(s);
+			for (int k = 0; k < system.getColumnSize(c); k++) {
+				int r = system.getRowIndex(c, k);
+				if (r < n) {
+					work[r] = system.getValue(c, k);
+					bound[r] = Math.abs(work[r]);
+					queued[r] = true;
+					heap.push((stepOfVariable[r] >= 0)? stepOfVariable[r] : n + ordering.rank(r));
+				}
+			}
+
+			//Subtract the reduced equations of the pivoted variables:
+			int noOfLower = 0;
+			while (!heap.isEmpty() && heap.peek() < n) {
+				int v = variableOfStep[heap.pop()];
+				queued[v] = false;
+				double a = work[v];
+				work[v] = 0;
+				bound[v] = 0;
+				if (0 == a) {
+					continue;
+				}
+				tempLowerIndex[noOfLower] = v;
+				tempLowerValues[noOfLower] = a;
+				noOfLower++;
+				int index[] = upperIndex[v];
+				double values[] = upperValues[v];
+				for (int k = 0; k < index.length; k++) {
+					int j = index[k];
+					if (!queued[j]) {
+						queued[j] = true;
+						heap.push((stepOfVariable[j] >= 0)? stepOfVariable[j] : n + ordering.rank(j));
+					}
+					double term = round(a * values[k]);
+					work[j] = round(work[j] - term);
+					bound[j] += Math.abs(term);
+				}
+			}
+			lowerIndex[c] = Arrays.copyOf(tempLowerIndex, noOfLower);
+			lowerValues[c] = Arrays.copyOf(tempLowerValues, noOfLower);
+
+			//Remaining free variables in the preferred order. Coefficients above their rounding error can be pivots:
+			int count = 0;
+			double max = 0;
+			while (!heap.isEmpty()) {
+				int v = ordering.variable(heap.pop() - n);
+				queued[v] = false;
+				if (0 != work[v]) {
+					tempIndex[count] = v;
+					tempValues[count] = work[v];
+					tempBounds[count] = zeroTolerance * bound[v];
+					if (Math.abs(work[v]) > tempBounds[count]) {
+						max = Math.max(max, Math.abs(work[v]));
+					}
+					count++;
+				}
+				work[v] = 0;
+				bound[v] = 0;
+			}
+
+			if (0 == max) {			//All coefficients vanished, up to rounding errors: linearly dependent equation.
+				pivotOfEquation[c] = -1;
+				continue;
+			}
+
+			//First free variable above its rounding error and the threshold becomes the pivot:
+			int p = 0;
+			while (Math.abs(tempValues[p]) <= tempBounds[p] || Math.abs(tempValues[p]) < pivoting.threshold * max) {
+				p++;
+			}
+			int pivot = tempIndex[p];
+			pivotOfEquation[c] = pivot;
+
+			//Store the remaining part of the equation normalised by the pivot:
+			divider[pivot] = round(1 / tempValues[p]);
+			int index[] = new int[count - 1];
+			double values[] = new double[count - 1];
+			for (int k = 0, i = 0; k < count; k++) {
+				if (k != p) {
+					index[i] = tempIndex[k];
+					values[i] = round(tempValues[k] * divider[pivot]);
+					i++;
+				}
+			}
+			upperIndex[pivot] = index;
+			upperValues[pivot] = values;
+			stepOfVariable[pivot] = noOfPivots;
+			variableOfStep[noOfPivots] = pivot;
+			noOfPivots++;
+		}
+
+		if (noOfPivots < n) {
+			throw new InfiniteSolutions(noOfPivots);
+		}
+	}
+
+	@Override
+	public Vector solve(Vector rightSide) throws GaussException {
+		//Forward substitution (L), gives the right side of the reduced equations.
+		//A running bound of the rounding error is propagated as well (error of the used reduced values + each partial sum),
+		//to decide whether a dependent equation contradicts:
+		double reduced[] = new double[noOfVariables];
+		double reducedMagnitude[] = new double[noOfVariables];
+		for (int s = 0; s < noOfEquations; s++) {
+			int c = ordering.equation(s);
+			double val = rightSide.at(c);
+			double magnitude = Math.abs(val);
+			int index[] = lowerIndex[c];
+			double values[] = lowerValues[c];
+			for (int k = 0; k < index.length; k++) {
+				val = round(val - round(values[k] * reduced[index[k]]));
+				magnitude += Math.abs(values[k]) * reducedMagnitude[index[k]] + Math.abs(val);
+			}
+			int pivot = pivotOfEquation[c];
+			if (pivot >= 0) {
+				reduced[pivot] = round(val * divider[pivot]);
+				reducedMagnitude[pivot] = magnitude * Math.abs(divider[pivot]);
+			}
+			else if (Math.abs(val) > zeroTolerance * magnitude) {		//Dependent equation with contradicting right side.
+				throw new NoSolution(noOfVariables);
+			}
+		}
+
+		//Back substitution (U) in reverse order of pivoting, reduced equations contain only later pivoted variables:
+		double solution[] = new double[noOfVariables];
+		for (int s = noOfVariables - 1; s >= 0; s--) {
+			int v = variableOfStep[s];
+			double val = reduced[v];
+			int index[] = upperIndex[v];
+			double values[] = upperValues[v];
+			for (int k = 0; k < index.length; k++) {
+				val = round(val - round(values[k] * solution[index[k]]));
+			}
+			solution[v] = val;
+		}
+		Vector ret = new Vector(noOfVariables);
+		for (int v = 0; v < noOfVariables; v++) {
+			ret.setAt(v, (float)solution[v]);
+		}
+		return ret;
+	}
+
+	/**
+	 * Rounds a result to the precision of the factorization.
+	 */
+	private double round(double value) {
+		return (doublePrecision)? value : (float)value;
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return noOfVariables;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return noOfEquations;
+	}
+
+	/**
+	 *
+	 * @return Number of stored elements of the L and U factors.
+	 */
+	public int nonZeros() {
+		int sum = 0;
+		for (int v = 0; v < noOfVariables; v++) {
+			sum += upperIndex[v].length + 1;
+		}
+		for (int c = 0; c < noOfEquations; c++) {
+			sum += lowerIndex[c].length;
+		}
+		return sum;
+	}
+
+}
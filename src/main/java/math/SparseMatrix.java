@@ -0,0 +1,278 @@
+package main.java.math;
+
+import java.util.Arrays;
+
+
+/**
+ * Column major sparse matrix, for float values. Only the non-zero elements of the columns are stored (compressed columns).
+ * HUN: Oszlopfolytonos ritka mátrix, lebegőpontos értékek tárolására. Oszloponként csak a nem nulla elemeket tárolja.
+ * @author Simon Zoltán
+ *
+ */
+public class SparseMatrix {
+
+	/**
+	 * Row indices of the stored elements, column by column. Sorted in increasing order inside each column.
+	 * HUN: A tárolt elemek sorindexei oszloponként, növekvő sorrendben.
+	 */
+	int rowIndex[][];
+
+	/**
+	 * Values of the stored elements, column by column.
+	 * HUN: A tárolt elemek értékei oszloponként.
+	 */
+	float values[][];
+
+	/**
+	 * Number of stored elements in each column.
+	 * HUN: Az oszlopokban tárolt elemek száma.
+	 */
+	int size[];
+
+    public int row;
+    public int column;
+
+
+	//Constructors:---------------------------------------------------
+
+    /**
+     * Constructor. Creates a zero matrix.
+     * @param r - number of rows
+     * @param c - number of columns
+     */
+    public SparseMatrix(int r, int c) {
+    	row = r;
+    	column = c;
+    	rowIndex = new int[column][];
+    	values = new float[column][];
+    	size = new int[column];
+    }
+
+    /**
+     * Constructor
+     * @param M source matrix
+     */
+    public SparseMatrix(SparseMatrix M) {
+    	this(0, 0);
+    	copyWithResize(M);
+    }
+
+    //Indexing:-------------------------------------------------------
+
+    /**
+     * Indexing. Returns the value stored at position of r. row and c. column.
+     * @param r - row index
+     * @param c - columns index
+     * @return	value
+     */
+    public float at(int r, int c) {
+    	int i = find(r, c);
+    	return (i >= 0)? values[c][i] : 0;
+    }
+
+    /**
+     * Writing. Sets the value at position of r. row and c. column to the given value.
+     * Writing zero removes the element from the storage.
+     * @param r	row index
+     * @param c column index
+     * @param val new value at given position.
+     */
+    public void setAt(int r, int c, float val) {
+    	int i = find(r, c);
+    	if (i >= 0) {
+    		if (0 != val) {
+    			values[c][i] = val;
+    		}
+    		else {		//Remove element:
+    			System.arraycopy(rowIndex[c], i + 1, rowIndex[c], i, size[c] - i - 1);
+    			System.arraycopy(values[c], i + 1, values[c], i, size[c] - i - 1);
+    			size[c]--;
+    		}
+    	}
+    	else if (0 != val) {	//Insert element:
+    		i = -(i + 1);
+    		if (rowIndex[c] == null) {
+    			rowIndex[c] = new int[4];
+    			values[c] = new float[4];
+    		}
+    		else if (size[c] == rowIndex[c].length) {
+    			int newLength = 2 * rowIndex[c].length;
+    			int tempIndex[] = new int[newLength];
+    			float tempValues[] = new float[newLength];
+    			System.arraycopy(rowIndex[c], 0, tempIndex, 0, size[c]);
+    			System.arraycopy(values[c], 0, tempValues, 0, size[c]);
+    			rowIndex[c] = tempIndex;
+    			values[c] = tempValues;
+    		}
+    		System.arraycopy(rowIndex[c], i, rowIndex[c], i + 1, size[c] - i);
+    		System.arraycopy(values[c], i, values[c], i + 1, size[c] - i);
+    		rowIndex[c][i] = r;
+    		values[c][i] = val;
+    		size[c]++;
+    	}
+    }
+
+    /**
+     * Replaces the c. column with the given elements at once. Cheaper than setting them one by one, when the rows are not in increasing order.
+     * HUN: Egyszerre lecseréli a c. oszlopot a megadott elemekre. Olcsóbb az egyenkénti beállításnál, ha a sorok nem növekvő sorrendben jönnek.
+     * @param c			column index
+     * @param rows		row indices of the elements, in any order, without repetition
+     * @param vals		values of the elements, zeros are skipped
+     * @param count		number of the elements
+     */
+    public void setColumn(int c, int rows[], float vals[], int count) {
+    	long keys[] = new long[count];
+    	int n = 0;
+    	for (int k = 0; k < count; k++) {
+    		if (0 != vals[k]) {
+    			keys[n++] = ((long)rows[k] << 32) | (Float.floatToRawIntBits(vals[k]) & 0xffffffffL);
+    		}
+    	}
+    	Arrays.sort(keys, 0, n);
+    	rowIndex[c] = new int[Math.max(n, 1)];
+    	values[c] = new float[Math.max(n, 1)];
+    	for (int k = 0; k < n; k++) {
+    		rowIndex[c][k] = (int)(keys[k] >>> 32);
+    		values[c][k] = Float.intBitsToFloat((int)keys[k]);
+    	}
+    	size[c] = n;
+    }
+
+    /**
+     * Number of stored (non-zero) elements in the given column.
+     * HUN: Az adott oszlopban tárolt (nem nulla) elemek száma.
+     * @param c column index
+     * @return number of stored elements
+     */
+    public int getColumnSize(int c) {
+    	return size[c];
+    }
+
+    /**
+     * Row index of the k. stored element of the c. column.
+     * HUN: A c. oszlop k. tárolt elemének sorindexe.
+     * @param c column index
+     * @param k index inside the column
+     * @return row index
+     */
+    public int getRowIndex(int c, int k) {
+    	return rowIndex[c][k];
+    }
+
+    /**
+     * Value of the k. stored element of the c. column.
+     * HUN: A c. oszlop k. tárolt elemének értéke.
+     * @param c column index
+     * @param k index inside the column
+     * @return value
+     */
+    public float getValue(int c, int k) {
+    	return values[c][k];
+    }
+
+    /**
+     * Number of all stored (non-zero) elements.
+     * HUN: Az összes tárolt (nem nulla) elem száma.
+     * @return number of non-zero elements
+     */
+    public int nonZeros() {
+    	int sum = 0;
+    	for (int c = 0; c < column; c++) {
+    		sum += size[c];
+    	}
+    	return sum;
+    }
+
+    /**
+     * Copy content of parameter matrix to this with resize.
+     * HUN: Tartalom másolása újraméretezéssel.
+     * @param M Source matrix.
+     * @return this
+     */
+    public SparseMatrix copyWithResize (SparseMatrix M) {
+    	if (this != M) {
+    		row = M.row;
+    		column = M.column;
+    		rowIndex = new int[column][];
+    		values = new float[column][];
+    		size = new int[column];
+    		for (int c = 0; c < column; c++) {
+    			size[c] = M.size[c];
+    			if (M.rowIndex[c] != null) {
+    				rowIndex[c] = M.rowIndex[c].clone();
+    				values[c] = M.values[c].clone();
+    			}
+    		}
+    	}
+    	return this;
+    }
+
+    /**
+     * Converts to dense, column major matrix.
+     * HUN: Sűrű, oszlopfolytonos mátrixszá alakít.
+     * @return {@link Matrix} with the same content.
+     */
+    public Matrix toMatrix() {
+    	Matrix M = new Matrix(row, column);
+    	M.fill(0);
+    	for (int c = 0; c < column; c++) {
+    		for (int k = 0; k < size[c]; k++) {
+    			M.setAt(rowIndex[c][k], c, values[c][k]);
+    		}
+    	}
+    	return M;
+    }
+
+    /**
+     * Residual of a linear system in double precision. Same layout as in case of {@link Gauss#Eliminate(SparseMatrix)}: every column is an equation, the last row is the right side.
+     * HUN: Lineáris rendszer maradéka dupla pontossággal.
+     * @param solution Approximate solution. Dimension must be row - 1.
+     * @return right side - left side * solution, for each equation (column).
+     */
+    public DoubleVector residual(DoubleVector solution) {
+    	DoubleVector ret = new DoubleVector(column);
+    	for (int c = 0; c < column; c++) {
+    		double sum = 0;
+    		for (int k = 0; k < size[c]; k++) {
+    			int r = rowIndex[c][k];
+    			if (r == row - 1) {
+    				sum += values[c][k];
+    			}
+    			else {
+    				sum -= (double)values[c][k] * solution.at(r);
+    			}
+    		}
+    		ret.setAt(c, sum);
+    	}
+    	return ret;
+    }
+
+    //Auxiliary:-------------------------------------------------------
+
+    /**
+     * Binary search of the r. row inside the c. column.
+     * HUN: Bináris keresés a c. oszlopban.
+     * @param r row index
+     * @param c column index
+     * @return The index inside the column if found, otherwise -(insertion point) - 1.
+     */
+    private int find(int r, int c) {
+    	int low = 0;
+    	int high = size[c] - 1;
+    	while (low <= high) {
+    		int mid = (low + high) >>> 1;
+    		int midRow = rowIndex[c][mid];
+    		if (midRow < r) {
+    			low = mid + 1;
+    		}
+    		else if (midRow > r) {
+    			high = mid - 1;
+    		}
+    		else {
+    			return mid;
+    		}
+    	}
+    	return -(low + 1);
+    }
+
+}
@@ -0,0 +1,106 @@
+package main.java.math;
+
+import java.util.ArrayList;
+
+
+/**
+ * Factorization, that follows rank-one changes of the left side without refactorization (Sherman-Morrison formula).
+ * Every update makes the solving a bit more expensive (O(variables) per update) and less accurate,
+ * so after a limited number of updates, or if an update would be badly conditioned, it refuses the update and the system needs to be factorized again.
+ * HUN: Faktorizáció, ami a bal oldal egyrangú változásait újrafaktorizálás nélkül követi (Sherman-Morrison formula).
+ * Korlátozott számú frissítés után, vagy rosszul kondicionált frissítés esetén a rendszert újra kell faktorizálni.
+ * @author Simon Zoltán
+ *
+ */
+public class UpdatableFactorization implements Factorization {
+
+	/**
+	 * Below this relative value of the denominator (1 + v^T * A^-1 * u) the update is refused.
+	 * HUN: A nevező ennél kisebb relatív értéke esetén a frissítést elutasítja.
+	 */
+	public static final float CONDITION_LIMIT = 1e-3f;
+
+	private Factorization base;
+	private int maxNoOfUpdates;
+
+	/**
+	 * For each update: v, A^-1 * u (with the previous updates) and 1 + v^T * A^-1 * u.
+	 * HUN: Frissítésenként: v, A^-1 * u (a korábbi frissítésekkel) és 1 + v^T * A^-1 * u.
+	 */
+	private ArrayList<Vector> v;
+	private ArrayList<Vector> z;
+	private ArrayList<Float> denominator;
+
+	/**
+	 * Constructor
+	 * @param base				Factorization of the original left side.
+	 * @param maxNoOfUpdates	Maximum number of accepted updates.
+	 */
+	public UpdatableFactorization(Factorization base, int maxNoOfUpdates) {
+		this.base = base;
+		this.maxNoOfUpdates = maxNoOfUpdates;
+		v = new ArrayList<Vector>();
+		z = new ArrayList<Vector>();
+		denominator = new ArrayList<Float>();
+	}
+
+	/**
+	 * Applies a rank-one change of the left side.
+	 * HUN: Alkalmazza a bal oldal egyrangú változását.
+	 * @param update	The change.
+	 * @return true if the update is accepted, false if the system needs to be factorized again. The factorization is unchanged in this case.
+	 */
+	public boolean update(RankOneUpdate update) {
+		if (v.size() >= maxNoOfUpdates) {
+			return false;
+		}
+		Vector zNew;
+		try {
+			zNew = solve(update.u);
+		}
+		catch (GaussException e) {		//The change touches linearly dependent equations.
+			return false;
+		}
+		float vz = update.v.dot(zNew);
+		float d = 1 + vz;
+		if (Float.isNaN(d) || Math.abs(d) < CONDITION_LIMIT * Math.max(1, Math.abs(vz))) {
+			return false;
+		}
+		v.add(update.v);
+		z.add(zNew);
+		denominator.add(d);
+		return true;
+	}
+
+	@Override
+	public Vector solve(Vector rightSide) throws GaussException {
+		Vector x = base.solve(rightSide);
+		for (int k = 0; k < v.size(); k++) {
+			float s = v.get(k).dot(x) / denominator.get(k);
+			Vector zk = z.get(k);
+			for (int i = 0; i < x.dimension; i++) {
+				x.setAt(i, x.at(i) - s * zk.at(i));
+			}
+		}
+		return x;
+	}
+
+	/**
+	 *
+	 * @return Number of accepted updates since the factorization.
+	 */
+	public int getNoOfUpdates() {
+		return v.size();
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return base.getNoOfVariables();
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return base.getNoOfEquations();
+	}
+
+}
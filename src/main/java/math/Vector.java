@@ -138,6 +138,19 @@ public class Vector {
         return this;
     }
     
+    /**
+     *  Dot product of this vector and vector v.
+     * @param v other vector.
+     * @return sum of the products of the elements.
+     */
+    public float dot(Vector v) {
+        float sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += n[i] * v.at(i);
+        }
+        return sum;
+    }
+
     /**
      * Copy content from vector v to this vector.
      * @param v source vector.
@@ -0,0 +1,121 @@
+package main.java.network;
+
+/**
+ * Entry of the change journal of the network. Records the type of the change and the affected edge or vertices.
+ * HUN: A hálózat változásnaplójának bejegyzése. A változás típusát és az érintett élet vagy csúcsokat tartalmazza.
+ * @author Simon Zoltán
+ *
+ */
+public class Change {
+
+	private ChangeType type;
+
+	/**
+	 * The affected edge. null in case of merged vertices and of the change of everything.
+	 * HUN: Az érintett él.
+	 */
+	private Edge edge = null;
+
+	/**
+	 * The persistent and the merged vertex in case of merged vertices.
+	 * HUN: A megmaradó és a beolvadó csúcs, csúcsok összeolvasztása esetén.
+	 */
+	private Vertex persistent = null;
+	private Vertex merged = null;
+
+	/**
+	 * Resistance of the edge before the change, in case of changed resistance.
+	 * HUN: Az él változás előtti ellenállása.
+	 */
+	private float previousValue = 0;
+
+	//Constructors:------------------------------------------------------
+
+	/**
+	 * Constructor of the change of everything.
+	 * @param type	{@link ChangeType}
+	 */
+	public Change(ChangeType type) {
+		this.type = type;
+	}
+
+	/**
+	 * Constructor of the change of an edge.
+	 * @param type	{@link ChangeType}
+	 * @param edge	The affected edge.
+	 */
+	public Change(ChangeType type, Edge edge) {
+		this.type = type;
+		this.edge = edge;
+	}
+
+	/**
+	 * Constructor of the change of a value of an edge.
+	 * @param type			{@link ChangeType}
+	 * @param edge			The affected edge.
+	 * @param previousValue	The value before the change.
+	 */
+	public Change(ChangeType type, Edge edge, float previousValue) {
+		this.type = type;
+		this.edge = edge;
+		this.previousValue = previousValue;
+	}
+
+	/**
+	 * Constructor of the merge of two vertices.
+	 * @param type			{@link ChangeType}
+	 * @param persistent	The vertex, which obtains the other's role.
+	 * @param merged		The vertex, which is merged into the other.
+	 */
+	public Change(ChangeType type, Vertex persistent, Vertex merged) {
+		this.type = type;
+		this.persistent = persistent;
+		this.merged = merged;
+	}
+
+	//Getters:------------------------------------------------------------
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public Edge getEdge() {
+		return edge;
+	}
+
+	public Vertex getPersistent() {
+		return persistent;
+	}
+
+	public Vertex getMerged() {
+		return merged;
+	}
+
+	public float getPreviousValue() {
+		return previousValue;
+	}
+
+	/**
+	 *
+	 * @return Id of the affected edge, or of the persistent and the merged vertex.
+	 */
+	public int[] getIds() {
+		if (edge != null) {
+			return new int[] {edge.getId()};
+		}
+		if (persistent != null) {
+			return new int[] {persistent.getId(), merged.getId()};
+		}
+		return new int[0];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(type.toString());
+		for (int id : getIds()) {
+			builder.append(' ').append(id);
+		}
+		return builder.toString();
+	}
+
+}
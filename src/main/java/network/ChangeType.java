@@ -0,0 +1,46 @@
+package main.java.network;
+
+/**
+ * Type of a change of the network, recorded in its journal until the next simulation step.
+ * HUN: A hálózat egy változásának típusa, amit a következő szimulációs lépésig a naplójában tartunk.
+ * @author Simon Zoltán
+ *
+ */
+public enum ChangeType {
+
+	/**
+	 * An edge was added, or an end of it was connected to a new vertex. Structural change of its connected part.
+	 * HUN: Egy él bekerült, vagy egyik vége új csúcshoz kapcsolódott.
+	 */
+	edgeAdded,
+
+	/**
+	 * An edge was removed, or an end of it was disconnected. Structural change of its connected part.
+	 * HUN: Egy él törlődött, vagy egyik vége lekapcsolódott.
+	 */
+	edgeRemoved,
+
+	/**
+	 * A vertex was merged into an other one. Structural change of their connected parts.
+	 * HUN: Egy csúcs beolvadt egy másikba.
+	 */
+	verticesMerged,
+
+	/**
+	 * The resistance of an edge changed. The factorization of its connected part can be updated.
+	 * HUN: Egy él ellenállása változott. Az összefüggő része faktorizációja frissíthető.
+	 */
+	resistanceChanged,
+
+	/**
+	 * The source voltage of an edge changed. Only the right side of the system of its connected part changes.
+	 * HUN: Egy él forrásfeszültsége változott. Csak az összefüggő része rendszerének jobb oldala változik.
+	 */
+	sourceChanged,
+
+	/**
+	 * Everything changed: the network was loaded or cleared, or the settings of the solution changed. Every connected part is rebuilt.
+	 * HUN: Minden változott: betöltés, törlés vagy a megoldás beállításainak változása. Minden összefüggő rész újra felépül.
+	 */
+	all
+};
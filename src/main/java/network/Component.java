@@ -1,11 +1,10 @@
 package main.java.network;
 
-import javafx.util.Duration;
-
+import java.util.List;
 import java.util.Map;
 
-import javafx.scene.canvas.GraphicsContext;
 import main.java.math.Coordinate;
+import main.java.math.Line;
 import main.java.math.MyMath;
 
 /**
@@ -23,6 +22,12 @@ public abstract class Component {
 	
 	private ComponentNode input;
 	private ComponentNode output;
+
+	/**
+	 * Index of the component in the list of components of the network. Makes removal and membership check constant time.
+	 * HUN: A komponens indexe a hálózat komponenslistájában. Konstans idejűvé teszi a törlést és a tagság vizsgálatát.
+	 */
+	int networkIndex = -1;
 	
 	//Manipulation related:
 	boolean grabbed = false;
@@ -75,6 +80,9 @@ public abstract class Component {
 
 	public void setInput(ComponentNode input) {
 		this.input = input;
+		if (parent != null) {
+			parent.componentMoved(this);
+		}
 	}
 
 	public ComponentNode getOutput() {
@@ -83,6 +91,9 @@ public abstract class Component {
 
 	public void setOutput(ComponentNode output) {
 		this.output = output;
+		if (parent != null) {
+			parent.componentMoved(this);
+		}
 	}
 	
 	public Map<String, ComponentProperty> getProperties() {
@@ -106,8 +117,8 @@ public abstract class Component {
 		getInput().addOutgoing(this);
 		getOutput().addIncoming(this);
 		
-		parent.getComponentNodes().add(this.getInput());
-		parent.getComponentNodes().add(this.getOutput());
+		parent.addComponentNode(this.getInput());
+		parent.addComponentNode(this.getOutput());
 	}
 	
 	/**
@@ -118,13 +129,13 @@ public abstract class Component {
 		ComponentNode input = getInput();
 		ComponentNode output = getOutput();
 		if (input.getNoOfIncoming() == 0 && input.getNoOfOutgoing() == 1) {
-			parent.getComponentNodes().remove(input);
+			parent.removeComponentNode(input);
 		}
 		else {
 			input.getOutgoing().remove(this);
 		}
 		if (output.getNoOfIncoming() == 1 && output.getNoOfOutgoing() == 0) {
-			parent.getComponentNodes().remove(output);
+			parent.removeComponentNode(output);
 		}
 		else {
 			output.getIncoming().remove(this);			
@@ -191,7 +202,7 @@ public abstract class Component {
 	 * HUN: Frissíti a belső struktúrát. Nem lineáris komponensek esetén különösen fontos! 
 	 * @param deltaTime	The time spent since the last call of update.
 	 */
-	abstract public void update(Duration deltaTime);
+	abstract public void update(TimeStep deltaTime);
 	
 	/**
 	 * Adds the persistent content of the component to the given builder.
@@ -229,13 +240,28 @@ public abstract class Component {
 	 * @return resistance ohm
 	 */
 	abstract public float getResistance();
+
+	/**
+	 * Returns the edge of the component in the graph representation of the network. null before building.
+	 * HUN: Visszaadja a komponens élét a hálózat gráf-reprezentációjában.
+	 * @return {@link Edge}
+	 */
+	abstract Edge getEdge();
 	
 	/**
-	 * Draws the component's visual representation to the given GraphicsContext.
-	 * HUN: Kirajzolja a komponens grafikus reprezentációját a megadott rajzfelületre. 
-	 * @param ctx GraphicsContext, where the component gets drawn.
+	 * Returns the lines of the component's visual representation, from the input at the origin to the output on the x axis at the shape length.
+	 * The drawing is left to the UI, which scales and rotates the shape between the end nodes.
+	 * HUN: Visszaadja a komponens grafikus reprezentációjának vonalait, a bemenettől az origóban a kimenetig az x tengelyen, az alakzat hosszában.
+	 * A rajzolás a felhasználói felület dolga, amely a végpontok közé skálázza és forgatja az alakzatot.
+	 * @return The lines of the shape.
+	 */
+	abstract public List<Line> getShape();
+
+	/**
+	 * 
+	 * @return The normal length of the shape. Used to calculate scaling of the drawing.
 	 */
-	abstract public void draw(GraphicsContext ctx);
+	abstract public float getShapeLength();
 
 	/**
 	 * Disconnects graph elements (edges, vertices) from other parts of the graph representation of the network.
@@ -46,6 +46,12 @@ public class ComponentNode {
 	 * 
 	 */
 	Vertex vertexBinding = null;
+
+	/**
+	 * Index of the node in the list of nodes of the network. Makes removal and membership check constant time.
+	 * HUN: A csomópont indexe a hálózat csomópontlistájában. Konstans idejűvé teszi a törlést és a tagság vizsgálatát.
+	 */
+	int networkIndex = -1;
 	
 	//Constructors:------------------------------------------------------
 	
@@ -91,6 +97,9 @@ public class ComponentNode {
 
 	public void setPos(Coordinate pos) {
 		this.pos = pos;
+		if (parent != null) {
+			parent.componentNodeMoved(this);
+		}
 	}
 	
 	public boolean isGrabbed() {
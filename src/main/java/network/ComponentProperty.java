@@ -2,10 +2,7 @@ package main.java.network;
 
 public class ComponentProperty {
 	public String name = "";
-	public javafx.scene.control.Label nameN = null;
 	public boolean editable = false;
 	public String unit = "";
-	public javafx.scene.control.Label unitN = null;
 	public String value = "";
-	public javafx.scene.control.TextField valueN = null;
 }
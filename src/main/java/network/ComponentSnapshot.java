@@ -0,0 +1,98 @@
+package main.java.network;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import main.java.math.Coordinate;
+
+/**
+ * Immutable copy of the state of a component at the time of a {@link NetworkSnapshot}. It can be read by any thread.
+ * The component itself is only referenced for its identity and its shape, which depends only on its type.
+ * HUN: Egy komponens állapotának megváltoztathatatlan másolata egy {@link NetworkSnapshot} idején. Bármely szál olvashatja.
+ * Magára a komponensre csak az azonossága és az alakja miatt hivatkozunk, amely csak a típusától függ.
+ * @author Simon Zoltán
+ *
+ */
+public final class ComponentSnapshot {
+
+	private final Component component;
+	private final Coordinate input;
+	private final Coordinate output;
+	private final float current;
+	private final float voltage;
+	private final boolean valid;
+
+	/**
+	 * Copies of the properties. Only the selected component's properties are copied, the map is empty otherwise.
+	 * HUN: A tulajdonságok másolatai. Csak a kiválasztott komponens tulajdonságait másoljuk, egyébként a map üres.
+	 */
+	private final Map<String, ComponentProperty> properties;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor. Must be called on the thread owning the network.
+	 * @param network			The network of the component.
+	 * @param component			The component.
+	 * @param withProperties	Whether the properties should be copied.
+	 */
+	ComponentSnapshot(Network network, Component component, boolean withProperties) {
+		this.component = component;
+		input = new Coordinate(component.getInput().getPos());
+		output = new Coordinate(component.getOutput().getPos());
+		valid = network.isValid(component);
+		current = component.getCurrent();
+		voltage = component.getVoltage();
+		if (withProperties && component.getProperties() != null) {
+			Map<String, ComponentProperty> copies = new HashMap<String, ComponentProperty>();
+			for (Map.Entry<String, ComponentProperty> entry : component.getProperties().entrySet()) {
+				ComponentProperty copy = new ComponentProperty();
+				copy.name = entry.getValue().name;
+				copy.editable = entry.getValue().editable;
+				copy.unit = entry.getValue().unit;
+				copy.value = entry.getValue().value;
+				copies.put(entry.getKey(), copy);
+			}
+			properties = Collections.unmodifiableMap(copies);
+		}
+		else {
+			properties = Collections.emptyMap();
+		}
+	}
+
+	//Getters:----------------------------------------------------
+
+	public Component getComponent() {
+		return component;
+	}
+
+	public Coordinate getInput() {
+		return new Coordinate(input);
+	}
+
+	public Coordinate getOutput() {
+		return new Coordinate(output);
+	}
+
+	public float getCurrent() {
+		return current;
+	}
+
+	public float getVoltage() {
+		return voltage;
+	}
+
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * The returned properties must not be modified.
+	 * @return Copies of the properties.
+	 */
+	public Map<String, ComponentProperty> getProperties() {
+		return properties;
+	}
+
+}
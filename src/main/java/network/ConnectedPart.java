@@ -0,0 +1,644 @@
+package main.java.network;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import main.java.math.ConjugateGradient;
+import main.java.math.DoubleVector;
+import main.java.math.Factorization;
+import main.java.math.GaussException;
+import main.java.math.InfiniteSolutions;
+import main.java.math.IterativeRefinement;
+import main.java.math.Pivoting;
+import main.java.math.Preconditioner;
+import main.java.math.RankOneUpdate;
+import main.java.math.SparseMatrix;
+import main.java.math.UpdatableFactorization;
+import main.java.math.Vector;
+
+/**
+ * Connected part of the graph representation of the network. No current flows between the parts, so each part has its own linear system,
+ * which is built, solved and validated independently of the others.
+ * HUN: A hálózat gráf-reprezentációjának egy összefüggő része. A részek között nem folyik áram, ezért minden résznek saját lineáris rendszere van,
+ * amit a többitől függetlenül építünk fel, oldunk meg és ellenőrzünk.
+ * @author Simon Zoltán
+ *
+ */
+public class ConnectedPart {
+
+	/**
+	 * The network of the part. Holds the parameters of the solution.
+	 * HUN: A rész hálózata. A megoldás paramétereit tartalmazza.
+	 */
+	private Network parent;
+
+	/**
+	 * Vertices and edges of the part, maintained by the {@link SpanningForest} of the network. The position of each is its index ({@link Vertex#index}, {@link Edge#index}).
+	 * HUN: A rész csúcsai és élei, a hálózat feszítőerdeje tartja karban őket. Mindegyik pozíciója az indexe.
+	 */
+	private ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+	private ArrayList<Edge> edges = new ArrayList<Edge>();
+
+	/**
+	 * Integer indexed representation of the part, with the same numbering of the vertices and edges as their lists. Built again after they changed.
+	 * HUN: A rész egész indexekkel leírt reprezentációja, a csúcsok és élek listájával azonos számozással. Változásuk után újra felépül.
+	 */
+	private Graph graph = null;
+
+	/**
+	 * Matrix representation of the part.
+	 * HUN: A rész mátrix reprezentációja.
+	 */
+	private SystemForCurrent linSystem;
+
+	/**
+	 * Solver of the linear system. Measures the residual, and refines the solution in case of mixed precision.
+	 * HUN: A lineáris rendszer megoldója. Méri a maradékot, vegyes pontosság esetén javítja a megoldást.
+	 */
+	private IterativeRefinement solver;
+
+	/**
+	 * Whether the linear system of the part is solved by the iterative method.
+	 * HUN: A rész lineáris rendszerét iteratív módszerrel oldjuk-e meg.
+	 */
+	private boolean iterative = false;
+
+	/**
+	 * Iterative solver of the linear system and its preconditioner. The preconditioner is reused while the resistances and the graph are unchanged,
+	 * and updated if only the resistances changed and the preconditioner supports it.
+	 * HUN: A lineáris rendszer iteratív megoldója és előkondicionálója. Az előkondicionálót újrahasznosítjuk, amíg az ellenállások és a gráf nem változik,
+	 * és frissítjük, ha csak az ellenállások változtak.
+	 */
+	private ConjugateGradient iterativeSolver;
+	private Preconditioner preconditioner;
+
+	/**
+	 * Solution of the last tick. Starting point of the iterative solver.
+	 * HUN: Az előző lépés megoldása. Az iteratív megoldó kiindulópontja.
+	 */
+	private DoubleVector previousSolution;
+
+	/**
+	 * Factorization of the left side of the linear system. Reused while only the source voltages change,
+	 * and updated when the resistance of a few edges change.
+	 * HUN: A lineáris rendszer bal oldalának faktorizációja. Amíg csak a forrásfeszültségek változnak, újrahasznosítjuk,
+	 * néhány él ellenállásának változásakor frissítjük.
+	 */
+	private UpdatableFactorization factorization;
+
+	/**
+	 * Resistance of the edges changed since the last simulation, as they were before the change.
+	 * HUN: A legutóbbi szimuláció óta megváltozott ellenállású élek korábbi ellenállása.
+	 */
+	private Map<Edge, Float> previousResistances = new HashMap<Edge, Float>();
+
+	/**
+	 * Resistances, that the system was built with. The zero resistance edges determine, whether the system can be updated, or must be built again.
+	 * HUN: Az ellenállások, amelyekkel a rendszer felépült. A nulla ellenállású élek döntik el, hogy a rendszer frissíthető-e, vagy újra kell építeni.
+	 */
+	private Vector builtResistances;
+
+	//Flags:
+	boolean updateGraph = true;
+	boolean updateVoltage = true;
+	boolean updateResistance = true;
+	boolean updateCurrent = true;
+
+	private boolean valid = false;
+
+	//Results of the last calculation of the currents:
+	private double residual = 0;
+	private double errorEstimate = 0;
+	private int noOfIterations = 0;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor. Creates an empty part.
+	 * @param parent	The network of the part.
+	 */
+	ConnectedPart(Network parent) {
+		this.parent = parent;
+		resetSolver();
+	}
+
+	//Vertices and edges:-----------------------------------------------
+
+	/**
+	 * Adds a vertex to the part. The system of the part will be rebuilt at the next simulation step.
+	 * HUN: Hozzáad egy csúcsot a részhez. A rész rendszere a következő szimulációs lépésben újra felépül.
+	 * @param vertex	The added {@link Vertex}.
+	 */
+	void add(Vertex vertex) {
+		vertex.index = vertices.size();
+		vertex.part = this;
+		vertices.add(vertex);
+		setUpdateGraph();
+	}
+
+	/**
+	 * Removes a vertex from the part. The last vertex takes its position.
+	 * HUN: Eltávolít egy csúcsot a részből. A helyére az utolsó csúcs kerül.
+	 * @param vertex	The removed {@link Vertex}.
+	 */
+	void remove(Vertex vertex) {
+		int index = vertex.index;
+		if (index < 0 || index >= vertices.size() || vertices.get(index) != vertex) {
+			throw new RuntimeException("Vertex out of the part.");
+		}
+		Vertex last = vertices.remove(vertices.size() - 1);
+		if (last != vertex) {
+			vertices.set(index, last);
+			last.index = index;
+		}
+		vertex.index = -1;
+		vertex.part = null;
+		setUpdateGraph();
+	}
+
+	/**
+	 * Adds an edge to the part. The system of the part will be rebuilt at the next simulation step.
+	 * HUN: Hozzáad egy élet a részhez. A rész rendszere a következő szimulációs lépésben újra felépül.
+	 * @param edge	The added {@link Edge}.
+	 */
+	void add(Edge edge) {
+		edge.index = edges.size();
+		edges.add(edge);
+		setUpdateGraph();
+	}
+
+	/**
+	 * Removes an edge from the part. The last edge takes its position.
+	 * HUN: Eltávolít egy élet a részből. A helyére az utolsó él kerül.
+	 * @param edge	The removed {@link Edge}.
+	 */
+	void remove(Edge edge) {
+		if (!contains(edge)) {
+			throw new RuntimeException("Edge out of the part.");
+		}
+		int index = edge.index;
+		Edge last = edges.remove(edges.size() - 1);
+		if (last != edge) {
+			edges.set(index, last);
+			last.index = index;
+		}
+		edge.index = -1;
+		setUpdateGraph();
+	}
+
+	/**
+	 * Whether the edge is in the part.
+	 * HUN: A részhez tartozik-e az él?
+	 * @param edge	The examined {@link Edge}.
+	 * @return boolean
+	 */
+	boolean contains(Edge edge) {
+		return edge.index >= 0 && edge.index < edges.size() && edges.get(edge.index) == edge;
+	}
+
+	/**
+	 * The vertices or edges of the part changed, so its graph and system must be built again.
+	 */
+	private void setUpdateGraph() {
+		updateGraph = true;
+		graph = null;
+	}
+
+	//--------------------------------------------------------------------
+
+	/**
+	 * Returns the resistance of all the edges of the part.
+	 * HUN: A rész összes élének ellenállása.
+	 * @return	Vector of resistances, in the order of the edges of the part.
+	 */
+	Vector gatherResistances() {
+		Vector resistances = new Vector(edges.size());
+		for (int i = 0; i < edges.size(); i++) {
+			resistances.setAt(i, edges.get(i).getResistance());
+		}
+		return resistances;
+	}
+
+	/**
+	 * Returns the source voltages of all the edges of the part.
+	 * HUN: A rész összes élének forrásfeszültsége.
+	 * @return Vector of source voltages, in the order of the edges of the part.
+	 */
+	Vector gatherSourceVoltages() {
+		Vector sourceVoltages = new Vector(edges.size());
+		for (int i = 0; i < edges.size(); i++) {
+			sourceVoltages.setAt(i, edges.get(i).getSourceVoltage());
+		}
+		return sourceVoltages;
+	}
+
+	/**
+	 * Applies the resistance changes since the last simulation to the factorization of the system.
+	 * HUN: A legutóbbi szimuláció óta történt ellenállás változásokat alkalmazza a rendszer faktorizációjára.
+	 * @return true if the factorization is up to date, false if it needs to be recalculated.
+	 */
+	private boolean updateFactorization() {
+		if (factorization == null || previousResistances.isEmpty()) {
+			return false;
+		}
+		for (Map.Entry<Edge, Float> entry : previousResistances.entrySet()) {
+			if (!contains(entry.getKey())) {
+				return false;
+			}
+			RankOneUpdate update = linSystem.resistanceUpdate(entry.getKey().index, entry.getValue(), entry.getKey().getResistance());
+			if (update == null || !factorization.update(update)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Factorizes the present left side of the system, dropping the updates of the previous factorization.
+	 * HUN: Faktorizálja a rendszer jelenlegi bal oldalát, az előző faktorizáció frissítéseit eldobva.
+	 * @throws GaussException - if the system has infinite solutions.
+	 */
+	private void factorize() throws GaussException {
+		factorization = null;
+		factorization = new UpdatableFactorization(factorize(linSystem, parent.getPivoting()), parent.maxNoOfResistanceUpdates);
+	}
+
+	/**
+	 * Factorizes the left side of a system in single precision. A system found singular in single precision is factorized in double precision again,
+	 * before it is rejected: the rank decision of single precision can not tell a weak coupling of a badly scaled system from rounding error,
+	 * e.g. a high resistance next to a low one, and whether it does depends on the order of the operations, so on the order of the vertices.
+	 * The solution is still rounded to single precision.
+	 * HUN: Faktorizálja egy rendszer bal oldalát egyszeres pontossággal. Az egyszeres pontossággal szingulárisnak talált rendszert
+	 * dupla pontossággal újra faktorizálja, mielőtt elutasítaná: az egyszeres pontosság rang döntése nem tudja megkülönböztetni
+	 * egy rosszul skálázott rendszer gyenge csatolását a kerekítési hibától.
+	 * @param system	The system.
+	 * @param pivoting	Pivoting of the factorization.
+	 * @return {@link Factorization}
+	 * @throws GaussException - if the system has infinite solutions.
+	 */
+	static Factorization factorize(SystemForCurrent system, Pivoting pivoting) throws GaussException {
+		try {
+			return system.factorize(pivoting);
+		}
+		catch (InfiniteSolutions e) {
+			return system.factorize(pivoting.inDoublePrecision());
+		}
+	}
+
+	/**
+	 * Uses LU factorization, to get the current in all edges of the part. The factorization is only recalculated, when the left side of the system changed,
+	 * or when the solution fails with a factorization, that was updated to the changes of resistances.
+	 * In case of the iterative method, preconditioned conjugate gradient is used instead, starting from the solution of the previous tick.
+	 * HUN: LU felbontás segítségével kiszámolja a rész éleinek áramát. A felbontást csak a rendszer bal oldalának változásakor számolja újra.
+	 * Iteratív módszer esetén előkondicionált konjugált gradiens módszert használ, az előző lépés megoldásából indulva.
+	 * @return Vector of currents, in the order of the edges of the part. null if the system has no solution or has infinite solutions.
+	 */
+	private Vector calculateCurrent() {
+		try {
+			if (iterative) {
+				SupernodalSystemForCurrent system = (SupernodalSystemForCurrent) linSystem;
+				if (iterativeSolver == null) {
+					if (preconditioner == null) {
+						preconditioner = Preconditioner.create(parent.getPreconditionerType(), system);
+					}
+					iterativeSolver = new ConjugateGradient(system, preconditioner, parent.iterativeTolerance, parent.maxNoOfIterations);
+				}
+				Vector rightSide = system.getRightSide();
+				DoubleVector solution = iterativeSolver.solve(rightSide, previousSolution);
+				noOfIterations = iterativeSolver.getNoOfIterations();
+				solution = solver.refine(iterativeSolver, system, rightSide, solution);
+				previousSolution = solution;
+				residual = solver.getAchievedResidual();
+				errorEstimate = solver.getErrorEstimate();
+				return system.branchCurrents(solution);
+			}
+			if (factorization == null) {
+				factorize();
+			}
+			DoubleVector solution;
+			try {
+				solution = solver.solve(factorization, linSystem, linSystem.getRightSide());
+			}
+			catch (GaussException e) {
+				if (0 == factorization.getNoOfUpdates()) {
+					throw e;
+				}
+				//The rounding errors of the updates add up, so the updated factorization may fail, where the present left side is well-posed:
+				factorize();
+				solution = solver.solve(factorization, linSystem, linSystem.getRightSide());
+			}
+			residual = solver.getAchievedResidual();
+			errorEstimate = solver.getErrorEstimate();
+			noOfIterations = 0;
+			return linSystem.branchCurrents(solution);
+		}
+		catch (GaussException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Brings the linear system of the part up to date, and calculates the currents of its edges, if anything changed since the last call.
+	 * Called concurrently for different parts, so it touches only the part and its own edges.
+	 * HUN: Frissíti a rész lineáris rendszerét, és kiszámolja az élek áramát, ha a legutóbbi hívás óta bármi változott.
+	 * Különböző részekre párhuzamosan hívódik, ezért csak a részt és a saját éleit módosítja.
+	 */
+	void simulate() {
+		if (updateGraph || linSystem == null) {
+			linSystem = null;
+			Vector resistances = gatherResistances();
+			if (getGraph().hasZeroResistanceLoop(resistances)) {		//No formulation has a unique solution.
+				updateCurrent = false;
+				valid = false;
+				return;
+			}
+			iterative = (parent.getSolverMethod() == SolverMethod.conjugateGradient)
+					|| (parent.getSolverMethod() == SolverMethod.automatic && vertices.size() > parent.iterativeThreshold);
+			linSystem = buildSystem((iterative)? SystemFormulation.supernodal : parent.getFormulation(), resistances);
+			builtResistances = resistances;
+			factorization = null;
+			iterativeSolver = null;
+			preconditioner = null;
+			previousSolution = null;
+			previousResistances.clear();
+
+			//Disable flags:
+			updateGraph = false;
+			updateResistance = false;
+			updateVoltage = false;
+
+			//Set flag:
+			updateCurrent = true;
+		}
+		else {
+			if (updateResistance) {
+				updateResistance = false;
+				Vector resistances = gatherResistances();
+				if (!PartModel.haveSameZeros(resistances, builtResistances)) {		//The zero resistance edges may form a loop, or change the reduction: rebuild.
+					updateGraph = true;
+					simulate();
+					return;
+				}
+				linSystem.updateResistances(resistances);
+				if (!updateFactorization()) {
+					factorization = null;
+				}
+				if (preconditioner != null && !preconditioner.update((SparseMatrix) linSystem)) {
+					preconditioner = null;
+				}
+				iterativeSolver = null;
+				previousResistances.clear();
+				updateCurrent = true;
+			}
+			if (updateVoltage) {
+				updateVoltage = false;
+				linSystem.updateSourceVoltage(gatherSourceVoltages());
+				updateCurrent = true;
+			}
+		}
+
+		if (updateCurrent) {
+			updateCurrent = false;
+			Vector current = calculateCurrent();
+			if (current != null) {
+				valid = true;
+				for (int i = 0; i < edges.size(); i++) {
+					edges.get(i).setCurrent(current.at(i));
+				}
+			}
+			else {
+				valid = false;
+			}
+		}
+	}
+
+	/**
+	 * Builds the linear system of the part in the given formulation.
+	 * If reduction is enabled, the system is formed for the network reduced by {@link ReducedSystemForCurrent}, except for the supernodal formulation.
+	 * HUN: Felépíti a rész lineáris egyenletrendszerét a megadott felírási mód szerint.
+	 * Ha az egyszerűsítés engedélyezett, a rendszert az egyszerűsített hálózatra írjuk fel, kivéve a szupercsomóponti felírást.
+	 * @param formulation	The way the equations are formed.
+	 * @return The new system.
+	 */
+	SystemForCurrent buildSystem(SystemFormulation formulation) {
+		return buildSystem(formulation, gatherResistances());
+	}
+
+	/**
+	 * Builds the linear system of the part in the given formulation with the given resistances.
+	 */
+	private SystemForCurrent buildSystem(SystemFormulation formulation, Vector resistances) {
+		return buildSystem(formulation, getGraph(), (formulation == SystemFormulation.incidenceAndCycle)? spanningTree() : null,
+				resistances, gatherSourceVoltages(), parent.reduction, parent.sparseThreshold);
+	}
+
+	/**
+	 * Builds the linear system of a graph in the given formulation, reduced by {@link ReducedSystemForCurrent} if it is enabled.
+	 * A loop of zero resistance edges ({@link Graph#hasZeroResistanceLoop(Vector)}) can not be reduced, so it is built without reduction, and has infinite solutions.
+	 * The supernodal formulation must not be built with such a loop.
+	 * HUN: Felépíti egy gráf lineáris egyenletrendszerét a megadott felírási mód szerint, engedélyezés esetén egyszerűsítve.
+	 * A nulla ellenállású élek köre nem egyszerűsíthető, így egyszerűsítés nélkül épül fel. Szupercsomóponti felírással ilyen kör nem építhető fel.
+	 * @param formulation		The way the equations are formed.
+	 * @param graph				Integer indexed graph representation.
+	 * @param previousEdge		Spanning tree of the graph. Only used by the incidence and cycle formulation.
+	 * @param resistances		Resistances in the order of the edges of the graph.
+	 * @param sourceVoltage		Source voltages in the order of the edges of the graph.
+	 * @param reduction			Whether the network is reduced before the equations are formed. Not used by the supernodal formulation.
+	 * @param sparseThreshold	Above this number of edges the incidence and cycle formulation uses sparse representation.
+	 * @return The new system.
+	 */
+	static SystemForCurrent buildSystem(SystemFormulation formulation, Graph graph, int previousEdge[],
+			Vector resistances, Vector sourceVoltage, boolean reduction, int sparseThreshold) {
+		if (reduction && formulation != SystemFormulation.supernodal && !graph.hasZeroResistanceLoop(resistances)) {
+			return new ReducedSystemForCurrent(graph, resistances, sourceVoltage, formulation, sparseThreshold);
+		}
+		return createSystem(formulation, graph, previousEdge, resistances, sourceVoltage, sparseThreshold);
+	}
+
+	/**
+	 * Builds the linear system of a graph in the given formulation.
+	 * HUN: Felépíti egy gráf lineáris egyenletrendszerét a megadott felírási mód szerint.
+	 * @param formulation		The way the equations are formed.
+	 * @param graph				Integer indexed graph representation.
+	 * @param previousEdge		Spanning tree of the graph ({@link Graph#spanningTree()}). Only used by the incidence and cycle formulation.
+	 * @param resistances		Resistances in the order of the edges of the graph.
+	 * @param sourceVoltage		Source voltages in the order of the edges of the graph.
+	 * @param sparseThreshold	Above this number of edges the incidence and cycle formulation uses sparse representation.
+	 * @return The new system.
+	 */
+	static SystemForCurrent createSystem(SystemFormulation formulation, Graph graph, int previousEdge[],
+			Vector resistances, Vector sourceVoltage, int sparseThreshold) {
+		if (formulation == SystemFormulation.nodal) {
+			return new NodalSystemForCurrent(graph, resistances, sourceVoltage);
+		}
+		if (formulation == SystemFormulation.supernodal) {
+			return new SupernodalSystemForCurrent(graph, resistances, sourceVoltage);
+		}
+
+		//Graph representations:
+		SparseMatrix incidence = new SparseMatrix(0,0);
+		SparseMatrix cycle = new SparseMatrix(0,0);
+		graph.treeMatrices(previousEdge, incidence, cycle);
+
+		//Create system:
+		if (graph.getNoOfEdges() > sparseThreshold) {
+			return new SparseLinearSystemForCurrent(incidence, cycle, resistances, sourceVoltage);
+		}
+		return new LinearSystemForCurrent(incidence.toMatrix(), cycle.toMatrix(), resistances, sourceVoltage);
+	}
+
+	/**
+	 * Spanning tree of the part, maintained by the {@link SpanningForest} of the network, so no search of the graph is needed.
+	 * HUN: A rész feszítőfája, amit a hálózat feszítőerdeje tart karban, így nincs szükség a gráf bejárására.
+	 * @return Index of the tree edge to the parent of each vertex, -1 for the root.
+	 */
+	int[] spanningTree() {
+		int previousEdge[] = new int[vertices.size()];
+		for (int v = 0; v < vertices.size(); v++) {
+			Edge treeEdge = vertices.get(v).treeEdge;
+			previousEdge[v] = (treeEdge != null)? treeEdge.index : -1;
+		}
+		return previousEdge;
+	}
+
+	/**
+	 * Integer indexed representation of the part. Built at the first call after the vertices or edges changed.
+	 * HUN: A rész egész indexekkel leírt reprezentációja. A csúcsok vagy élek változása utáni első híváskor épül fel.
+	 * @return {@link Graph}
+	 */
+	Graph getGraph() {
+		if (graph == null) {
+			graph = new Graph(vertices, edges);
+		}
+		return graph;
+	}
+
+	/**
+	 * When only the resistance of the given edge of the part changed. The factorization of the system can be updated.
+	 * HUN: Ha csak a rész adott élének ellenállása változott. A rendszer faktorizációja frissíthető.
+	 * @param edge					The changed {@link Edge}.
+	 * @param previousResistance	Resistance of the edge before the change.
+	 */
+	void setUpdateResistance(Edge edge, float previousResistance) {
+		updateResistance = true;
+		if (!previousResistances.containsKey(edge)) {
+			previousResistances.put(edge, previousResistance);
+		}
+	}
+
+	/**
+	 * The cheapest way, that brings the currents of the part up to date at the next simulation step.
+	 * HUN: A rész áramait a következő szimulációs lépésben frissítő legolcsóbb mód.
+	 * @return {@link UpdatePath}, null if the part is up to date.
+	 */
+	UpdatePath getUpdatePath() {
+		if (updateGraph || linSystem == null) {
+			return UpdatePath.structure;
+		}
+		if (updateResistance) {
+			return UpdatePath.values;
+		}
+		if (updateVoltage || updateCurrent) {
+			return UpdatePath.rightSide;
+		}
+		return null;
+	}
+
+	/**
+	 * Factorization of the system with the present resistances. It is not changed until the next simulation step, so it can be shared read only until then.
+	 * HUN: A rendszer faktorizációja a jelenlegi ellenállásokkal. A következő szimulációs lépésig nem változik, addig csak olvasva megosztható.
+	 * @return {@link Factorization}, null if the part is solved iteratively, or it is not up to date.
+	 */
+	Factorization getFactorization() {
+		return (!iterative && getUpdatePath() == null)? factorization : null;
+	}
+
+	/**
+	 * Creates the solver according to the precision of the network. The currents will be recalculated at the next simulation step.
+	 * HUN: A hálózat pontossága szerint létrehozza a megoldót.
+	 */
+	void resetSolver() {
+		solver = new IterativeRefinement(parent.residualTolerance,
+				(parent.getPrecision() == SolverPrecision.mixed)? parent.maxNoOfRefinementSteps : 0, parent.maxErrorEstimate);
+		updateCurrent = true;
+	}
+
+	/**
+	 * Drops the iterative solver and its preconditioner, so they are created again with the preconditioner type of the network.
+	 * HUN: Eldobja az iteratív megoldót és az előkondicionálót, hogy a hálózat előkondicionáló típusával jöjjenek létre újra.
+	 */
+	void resetPreconditioner() {
+		iterativeSolver = null;
+		preconditioner = null;
+		updateCurrent = true;
+	}
+
+	//Getters:------------------------------------------------------------
+
+	public ArrayList<Vertex> getVertices() {
+		return vertices;
+	}
+
+	public ArrayList<Edge> getEdges() {
+		return edges;
+	}
+
+	/**
+	 * Whether the last calculation of the currents of the part succeeded.
+	 * HUN: Helyes-e a rész?
+	 * @return boolean
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 *
+	 * @return Relative residual of the last calculation of the currents of the part.
+	 */
+	public double getResidual() {
+		return residual;
+	}
+
+	/**
+	 *
+	 * @return Estimated relative error of the last calculation of the currents of the part. 0 if the iterative solution was not corrected.
+	 */
+	public double getErrorEstimate() {
+		return errorEstimate;
+	}
+
+	/**
+	 *
+	 * @return Number of variables of the linear system of the part, 0 if it is not built.
+	 */
+	public int getNoOfVariables() {
+		return (linSystem != null)? linSystem.getNoOfVariables() : 0;
+	}
+
+	/**
+	 *
+	 * @return Number of equations of the linear system of the part, 0 if it is not built.
+	 */
+	public int getNoOfEquations() {
+		return (linSystem != null)? linSystem.getNoOfEquations() : 0;
+	}
+
+	/**
+	 *
+	 * @return Number of conjugate gradient iterations of the last calculation of the currents of the part. 0 if it was solved by factorization.
+	 */
+	public int getNoOfIterations() {
+		return noOfIterations;
+	}
+
+	/**
+	 *
+	 * @return Number of iterative refinement steps of the last calculation of the currents of the part.
+	 */
+	public int getNoOfRefinementSteps() {
+		return solver.getNoOfSteps();
+	}
+
+}
@@ -0,0 +1,46 @@
+package main.java.network;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the value of a component around its nominal value, for the {@link MonteCarlo} analysis.
+ * HUN: Egy komponens értékének eloszlása a névleges értéke körül, a Monte Carlo elemzéshez.
+ * @author Simon Zoltán
+ *
+ */
+public interface Distribution {
+
+	/**
+	 * Draws a value. Must only use the given random generator, so the samples are reproducible.
+	 * HUN: Húz egy értéket. Csak a kapott véletlengenerátort használhatja, hogy a minták megismételhetők legyenek.
+	 * @param nominal	The nominal value of the component.
+	 * @param random	The random generator of the sample.
+	 * @return The value.
+	 */
+	float sample(float nominal, SplittableRandom random);
+
+	/**
+	 * Uniform distribution in [nominal * (1 - tolerance), nominal * (1 + tolerance)].
+	 * HUN: Egyenletes eloszlás a névleges érték tűrés szerinti környezetében.
+	 * @param tolerance	Relative tolerance, e.g. 0.05 for 5%.
+	 * @return {@link Distribution}
+	 */
+	static Distribution uniform(float tolerance) {
+		return (nominal, random) -> (float)(nominal * (1 + tolerance * (2 * random.nextDouble() - 1)));
+	}
+
+	/**
+	 * Normal distribution with the nominal value as mean.
+	 * HUN: Normális eloszlás a névleges érték várható értékkel.
+	 * @param sigma	Relative standard deviation, e.g. 0.05 / 3 for 5% as three sigma.
+	 * @return {@link Distribution}
+	 */
+	static Distribution normal(float sigma) {
+		return (nominal, random) -> {
+			//Box-Muller transform, 1 - nextDouble() is never zero:
+			double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+			return (float)(nominal * (1 + sigma * gaussian));
+		};
+	}
+
+}
@@ -9,8 +9,23 @@ package main.java.network;
  */
 public class Edge {
 	
-	static int gen = 0;
-	private int id;
+	/**
+	 * Id of the edge, given by the {@link IdAllocator} of the network, when the edge is added. -1 until then.
+	 * HUN: Az él azonosítója, a hálózat azonosító-kiosztója adja az él hozzáadásakor.
+	 */
+	int id = -1;
+
+	/**
+	 * Index of the edge in its {@link ConnectedPart}.
+	 * HUN: Az él indexe az összefüggő részében.
+	 */
+	int index = -1;
+
+	/**
+	 * Index of the edge in the list of edges of the network. Makes removal and membership check constant time.
+	 * HUN: Az él indexe a hálózat éllistájában. Konstans idejűvé teszi a törlést és a tagság vizsgálatát.
+	 */
+	int networkIndex = -1;
 	
 	private Vertex input;
 	private Vertex output;
@@ -24,13 +39,9 @@ public class Edge {
 	//Constructor:----------------------------------------------------------
 	
 	public Edge() {
-		gen++;
-		id = gen;
 	}
 
 	public Edge(float r, float i) {
-		gen++;
-		id = gen;
 		resistance = r;
 		current = i;
 	}
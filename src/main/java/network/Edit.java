@@ -0,0 +1,295 @@
+package main.java.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import main.java.math.Coordinate;
+
+/**
+ * A user edit of the network, that can be undone and redone. It holds the state of the touched components before and after the edit,
+ * so its size is proportional to the edit, not to the network. The rest of the network is shared between the states.
+ * The state of a component is its presence, the position of its end nodes, whether they are connected to other components, and its editable properties.
+ * HUN: A hálózat egy felhasználói szerkesztése, amely visszavonható és megismételhető. Az érintett komponensek szerkesztés előtti és utáni állapotát tárolja,
+ * így a mérete a szerkesztéssel arányos, nem a hálózattal. A hálózat többi része közös az állapotokban.
+ * @author Simon Zoltán
+ *
+ */
+public class Edit {
+
+	/**
+	 * The touched components.
+	 * HUN: Az érintett komponensek.
+	 */
+	private ArrayList<Component> components;
+	private Set<Component> touched = Collections.newSetFromMap(new IdentityHashMap<Component, Boolean>());
+
+	/**
+	 * State of the touched components before and after the edit.
+	 * HUN: Az érintett komponensek állapota a szerkesztés előtt és után.
+	 */
+	private ArrayList<State> before = new ArrayList<State>();
+	private ArrayList<State> after = null;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor. Captures the state before the edit.
+	 * @param network		The edited network.
+	 * @param components	The components, that the edit touches.
+	 */
+	Edit(Network network, List<Component> components) {
+		this.components = new ArrayList<Component>(components.size());
+		for (Component component : components) {
+			if (touched.add(component)) {		//A loop component is listed at both ends of a node.
+				this.components.add(component);
+			}
+		}
+		for (Component component : this.components) {
+			before.add(new State(network, component, touched));
+		}
+	}
+
+	//Recording:-------------------------------------------------------
+
+	/**
+	 * Captures the state after the edit.
+	 * HUN: Rögzíti a szerkesztés utáni állapotot.
+	 * @param network	The edited network.
+	 */
+	void finish(Network network) {
+		after = new ArrayList<State>();
+		for (Component component : components) {
+			after.add(new State(network, component, touched));
+		}
+	}
+
+	/**
+	 * Whether the edit changed nothing, e.g. a component was grabbed and released in place.
+	 * HUN: Semmit sem változtatott-e a szerkesztés.
+	 * @return boolean
+	 */
+	boolean isEmpty() {
+		for (int i = 0; i < components.size(); i++) {
+			if (!before.get(i).equals(after.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the other edit changes the same properties of the same component, so they can be joined. Typing a value gives an edit for each character.
+	 * HUN: A másik szerkesztés ugyanannak a komponensnek ugyanazokat a tulajdonságait változtatja-e, így összevonhatók.
+	 * @param other	The next edit.
+	 * @return boolean
+	 */
+	boolean isContinuedBy(Edit other) {
+		return components.size() == 1 && other.components.size() == 1 && components.get(0) == other.components.get(0)
+				&& after.get(0).hasSamePlacement(before.get(0)) && other.after.get(0).hasSamePlacement(other.before.get(0))
+				&& after.get(0).hasSamePlacement(other.after.get(0));
+	}
+
+	/**
+	 * Joins the next edit to this one.
+	 * HUN: A következő szerkesztést ehhez fűzi.
+	 * @param other	The next edit.
+	 */
+	void join(Edit other) {
+		after = other.after;
+	}
+
+	//Undo/Redo:-------------------------------------------------------
+
+	void undo(Network network) {
+		apply(network, before);
+	}
+
+	void redo(Network network) {
+		apply(network, after);
+	}
+
+	/**
+	 * Brings the touched components to the given state. Moved, added and removed components are taken out and put back,
+	 * so only the connected parts around them are rebuilt. A change of properties only updates the values, so the factorization is updated, not rebuilt.
+	 * HUN: Az érintett komponenseket az adott állapotba hozza. A mozgatott, hozzáadott és törölt komponenseket kivesszük és visszatesszük,
+	 * így csak a körülöttük levő összefüggő részek épülnek újra. A tulajdonságok változása csak az értékeket frissíti.
+	 */
+	private void apply(Network network, ArrayList<State> states) {
+		ArrayList<Integer> placed = new ArrayList<Integer>();
+		for (int i = 0; i < components.size(); i++) {
+			Component component = components.get(i);
+			if (!states.get(i).isPlaced(network, component)) {
+				if (network.contains(component)) {
+					network.removeComponent(component);
+				}
+				if (states.get(i).present) {
+					placed.add(i);
+				}
+			}
+		}
+		for (int i : placed) {
+			Component component = components.get(i);
+			network.addComponent(component);
+			component.getInput().setPos(states.get(i).input);
+			component.getOutput().setPos(states.get(i).output);
+		}
+		//The neighbours are either untouched, so they are where they were in the state, or placed above:
+		for (int i : placed) {
+			Component component = components.get(i);
+			State state = states.get(i);
+			connect(network, component.getInput(), state.inputNeighbour, state.inputNeighbourAtInput);
+			connect(network, component.getOutput(), state.outputNeighbour, state.outputNeighbourAtInput);
+		}
+		for (int i = 0; i < components.size(); i++) {
+			if (states.get(i).present) {
+				states.get(i).applyProperties(components.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Merges the node into the node of the neighbour, unless they are merged already.
+	 */
+	private static void connect(Network network, ComponentNode node, Component neighbour, boolean atInput) {
+		if (neighbour != null) {
+			ComponentNode target = atInput? neighbour.getInput() : neighbour.getOutput();
+			if (target != node) {
+				network.mergeComponentNode(node, target);
+			}
+		}
+	}
+
+	/**
+	 * State of a component. The end nodes are given by their position, and a neighbour sharing them,
+	 * because merging by position alone is ambiguous, when more nodes are close to each other.
+	 * HUN: Egy komponens állapota. A végpontokat a pozíciójuk és egy rajtuk osztozó szomszéd adja meg,
+	 * mert a pozíció alapján történő összeolvasztás nem egyértelmű, ha több csomópont van egymáshoz közel.
+	 */
+	private static class State {
+		boolean present;
+		Coordinate input;
+		Coordinate output;
+		Component inputNeighbour;
+		boolean inputNeighbourAtInput;
+		Component outputNeighbour;
+		boolean outputNeighbourAtInput;
+		Map<String, String> properties = new HashMap<String, String>();
+
+		State(Network network, Component component, Set<Component> touched) {
+			present = network.contains(component);
+			if (present) {
+				input = new Coordinate(component.getInput().getPos());
+				output = new Coordinate(component.getOutput().getPos());
+				inputNeighbour = neighbour(component, component.getInput(), touched);
+				inputNeighbourAtInput = isInputOf(inputNeighbour, component, component.getInput(), true);
+				outputNeighbour = neighbour(component, component.getOutput(), touched);
+				outputNeighbourAtInput = isInputOf(outputNeighbour, component, component.getOutput(), false);
+				for (Map.Entry<String, ComponentProperty> entry : component.getProperties().entrySet()) {
+					if (entry.getValue().editable) {
+						properties.put(entry.getKey(), entry.getValue().value);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Finds an other component sharing the node. An untouched one is preferred, so the touched components put back together are connected to the rest too.
+		 * If there is no other, the other end of the same component may share the node.
+		 */
+		private static Component neighbour(Component component, ComponentNode node, Set<Component> touched) {
+			Component found = null;
+			for (Component outgoing : node.getOutgoing()) {
+				if (outgoing != component && !touched.contains(outgoing)) {
+					return outgoing;
+				}
+				else if (outgoing != component && found == null) {
+					found = outgoing;
+				}
+			}
+			for (Component incoming : node.getIncoming()) {
+				if (incoming != component && !touched.contains(incoming)) {
+					return incoming;
+				}
+				else if (incoming != component && found == null) {
+					found = incoming;
+				}
+			}
+			if (found == null && component.getInput() == component.getOutput()) {
+				found = component;
+			}
+			return found;
+		}
+
+		/**
+		 * Whether the end of the neighbour sharing the node is its input.
+		 */
+		private static boolean isInputOf(Component neighbour, Component component, ComponentNode node, boolean atInput) {
+			if (neighbour == null) {
+				return false;
+			}
+			return (neighbour == component)? !atInput : neighbour.getInput() == node;
+		}
+
+		/**
+		 * Whether the component is placed as in this state, so it need not be taken out and put back.
+		 */
+		boolean isPlaced(Network network, Component component) {
+			if (present != network.contains(component)) {
+				return false;
+			}
+			return !present || (input.equals(component.getInput().getPos()) && output.equals(component.getOutput().getPos())
+					&& isConnected(component.getInput(), inputNeighbour, inputNeighbourAtInput)
+					&& isConnected(component.getOutput(), outputNeighbour, outputNeighbourAtInput));
+		}
+
+		private static boolean isConnected(ComponentNode node, Component neighbour, boolean atInput) {
+			if (neighbour == null) {
+				return node.getNoOfIncoming() + node.getNoOfOutgoing() == 1;
+			}
+			return node == (atInput? neighbour.getInput() : neighbour.getOutput());
+		}
+
+		boolean hasSamePlacement(State other) {
+			if (present != other.present) {
+				return false;
+			}
+			return !present || (input.equals(other.input) && output.equals(other.output)
+					&& (inputNeighbour == null) == (other.inputNeighbour == null)
+					&& (outputNeighbour == null) == (other.outputNeighbour == null));
+		}
+
+		void applyProperties(Component component) {
+			boolean changed = false;
+			for (Map.Entry<String, String> entry : properties.entrySet()) {
+				ComponentProperty property = component.getProperties().get(entry.getKey());
+				if (property != null && !entry.getValue().equals(property.value)) {
+					property.value = entry.getValue();
+					changed = true;
+				}
+			}
+			if (changed) {
+				component.updatePropertyModel();
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof State)) {
+				return false;
+			}
+			State other = (State) obj;
+			return hasSamePlacement(other) && properties.equals(other.properties);
+		}
+
+		@Override
+		public int hashCode() {
+			return properties.hashCode();
+		}
+	}
+
+}
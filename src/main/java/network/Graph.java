@@ -0,0 +1,358 @@
+package main.java.network;
+
+import java.util.Arrays;
+import java.util.List;
+
+import main.java.math.SparseMatrix;
+import main.java.math.Vector;
+
+/**
+ * Compact, integer indexed representation of the graph of the network. The vertices and edges are numbered densely from 0,
+ * the edges incident to each vertex are stored in compressed sparse row (CSR) arrays. A graph is not modified after it is built:
+ * a new one is built, when the vertices or edges change.
+ * HUN: A hálózat gráfjának tömör, egész indexekkel leírt reprezentációja. A csúcsok és élek 0-tól folytonosan számozottak,
+ * a csúcsokra illeszkedő éleket tömörített sorfolytonos (CSR) tömbök tárolják. Felépítés után nem változik: újat építünk, ha a csúcsok vagy élek változnak.
+ * @author Simon Zoltán
+ *
+ */
+public class Graph {
+
+	private int noOfVertices;
+
+	/**
+	 * Input and output vertex of each edge.
+	 * HUN: Az élek bemeneti és kimeneti csúcsa.
+	 */
+	private int input[];
+	private int output[];
+
+	/**
+	 * The edges incident to vertex v are incident[start[v]] ... incident[start[v + 1] - 1]. A loop edge is listed twice.
+	 * HUN: A v csúcsra illeszkedő élek: incident[start[v]] ... incident[start[v + 1] - 1].
+	 */
+	private int start[];
+	private int incident[];
+
+	//Constructors:------------------------------------------------------
+
+	/**
+	 * Constructor. Numbers the vertices in the order of the list ({@link Vertex#index}), and the edges in the order of their list.
+	 * @param vertices	Vertices of the graph.
+	 * @param edges		Edges of the graph. Both ends of each edge must be in the list of vertices.
+	 */
+	public Graph(List<Vertex> vertices, List<Edge> edges) {
+		int noOfEdges = edges.size();
+		int input[] = new int[noOfEdges];
+		int output[] = new int[noOfEdges];
+		for (int v = 0; v < vertices.size(); v++) {
+			vertices.get(v).index = v;
+		}
+		for (int e = 0; e < noOfEdges; e++) {
+			input[e] = indexOf(vertices, edges.get(e).getInput());
+			output[e] = indexOf(vertices, edges.get(e).getOutput());
+		}
+		build(vertices.size(), input, output);
+	}
+
+	/**
+	 * Constructor
+	 * @param noOfVertices	Number of vertices.
+	 * @param input			Index of the input vertex of each edge.
+	 * @param output		Index of the output vertex of each edge.
+	 */
+	public Graph(int noOfVertices, int input[], int output[]) {
+		build(noOfVertices, input, output);
+	}
+
+	/**
+	 * Index of the vertex, that was numbered by the constructor. Checks, that the vertex is in the list.
+	 */
+	private static int indexOf(List<Vertex> vertices, Vertex vertex) {
+		int v = vertex.index;
+		if (v < 0 || v >= vertices.size() || vertices.get(v) != vertex) {
+			throw new RuntimeException("Edge with vertex out of the graph.");
+		}
+		return v;
+	}
+
+	/**
+	 * Fills the incidence lists by counting sort of the ends of the edges.
+	 * HUN: Az élvégek leszámláló rendezésével kitölti az illeszkedési listákat.
+	 */
+	private void build(int noOfVertices, int input[], int output[]) {
+		this.noOfVertices = noOfVertices;
+		this.input = input;
+		this.output = output;
+		start = new int[noOfVertices + 1];
+		for (int e = 0; e < input.length; e++) {
+			start[input[e] + 1]++;
+			start[output[e] + 1]++;
+		}
+		for (int v = 0; v < noOfVertices; v++) {
+			start[v + 1] += start[v];
+		}
+		incident = new int[start[noOfVertices]];
+		int fill[] = new int[noOfVertices];
+		for (int e = 0; e < input.length; e++) {
+			incident[start[input[e]] + fill[input[e]]++] = e;
+			incident[start[output[e]] + fill[output[e]]++] = e;
+		}
+	}
+
+	//Getters:------------------------------------------------------------
+
+	public int getNoOfVertices() {
+		return noOfVertices;
+	}
+
+	public int getNoOfEdges() {
+		return input.length;
+	}
+
+	public int input(int edge) {
+		return input[edge];
+	}
+
+	public int output(int edge) {
+		return output[edge];
+	}
+
+	/**
+	 *
+	 * @return Position of the first incident edge of the vertex. Together with {@link #end(int)} and {@link #incident(int)}.
+	 */
+	public int start(int vertex) {
+		return start[vertex];
+	}
+
+	/**
+	 *
+	 * @return Position after the last incident edge of the vertex.
+	 */
+	public int end(int vertex) {
+		return start[vertex + 1];
+	}
+
+	/**
+	 *
+	 * @return The incident edge at the given position.
+	 */
+	public int incident(int position) {
+		return incident[position];
+	}
+
+	/**
+	 *
+	 * @return The vertex at the other end of the edge.
+	 */
+	public int other(int edge, int vertex) {
+		return (input[edge] == vertex)? output[edge] : input[edge];
+	}
+
+	//Other:-----------------------------------------------------------------
+
+	/**
+	 * Finds the connected parts by breadth first search.
+	 * HUN: Szélességi kereséssel megkeresi az összefüggő részeket.
+	 * @return Index of the connected part of each vertex. The parts are numbered in the order of their first vertex.
+	 */
+	public int[] connectedParts() {
+		int part[] = new int[noOfVertices];
+		Arrays.fill(part, -1);
+		int queue[] = new int[noOfVertices];
+		int noOfParts = 0;
+		for (int root = 0; root < noOfVertices; root++) {
+			if (part[root] >= 0) {
+				continue;
+			}
+			part[root] = noOfParts;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = root;
+			while (head < tail) {
+				int u = queue[head++];
+				for (int k = start[u]; k < start[u + 1]; k++) {
+					int w = other(incident[k], u);
+					if (part[w] < 0) {
+						part[w] = noOfParts;
+						queue[tail++] = w;
+					}
+				}
+			}
+			noOfParts++;
+		}
+		return part;
+	}
+
+	/**
+	 * Spanning forest by breadth first search.
+	 * HUN: Feszítőerdő szélességi kereséssel.
+	 * @return Index of the tree edge to the parent of each vertex, -1 for the roots.
+	 */
+	public int[] spanningTree() {
+		int previousEdge[] = new int[noOfVertices];
+		boolean reached[] = new boolean[noOfVertices];
+		int queue[] = new int[noOfVertices];
+		for (int root = 0; root < noOfVertices; root++) {
+			if (reached[root]) {
+				continue;
+			}
+			reached[root] = true;
+			previousEdge[root] = -1;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = root;
+			while (head < tail) {
+				int u = queue[head++];
+				for (int k = start[u]; k < start[u + 1]; k++) {
+					int w = other(incident[k], u);
+					if (!reached[w]) {
+						reached[w] = true;
+						previousEdge[w] = incident[k];
+						queue[tail++] = w;
+					}
+				}
+			}
+		}
+		return previousEdge;
+	}
+
+	/**
+	 * Whether the zero resistance edges (wires, voltage sources) form a loop, by union-find of their end vertices.
+	 * The current around such a loop is undetermined, so the system of the part has infinite solutions in every formulation,
+	 * and the zero resistance edges can not be contracted into supernodes.
+	 * HUN: Kört alkotnak-e a nulla ellenállású élek? Egy ilyen kör árama határozatlan, így a rész rendszerének bármely felírásban végtelen sok megoldása van.
+	 * @param resistances	Resistances in the order of the edges.
+	 * @return Whether there is a loop of zero resistance edges.
+	 */
+	public boolean hasZeroResistanceLoop(Vector resistances) {
+		int root[] = new int[noOfVertices];
+		for (int v = 0; v < noOfVertices; v++) {
+			root[v] = v;
+		}
+		for (int e = 0; e < input.length; e++) {
+			if (0 != resistances.at(e)) {
+				continue;
+			}
+			int a = find(root, input[e]);
+			int b = find(root, output[e]);
+			if (a == b) {
+				return true;
+			}
+			root[a] = b;
+		}
+		return false;
+	}
+
+	/**
+	 * Root of the set of the vertex, halving the path to it.
+	 */
+	private static int find(int root[], int v) {
+		while (root[v] != v) {
+			root[v] = root[root[v]];
+			v = root[v];
+		}
+		return v;
+	}
+
+	/**
+	 * Fills the incidence and the fundamental cycle matrices of the graph by the given spanning forest.
+	 * The depth of each vertex is calculated only once, so it takes time proportional to the size of the graph and its cycle matrix.
+	 * HUN: A megadott feszítőerdő alapján feltölti a gráf illeszkedési és alapkör mátrixát.
+	 * @param previousEdge	Index of the tree edge to the parent of each vertex, -1 for the roots.
+	 * @param incidence		Incidence matrix to fill up. Will be filled with reduced incidence matrix of the graph:
+	 * 						the column of the root vertex of each tree is left out, so the equations are independent.
+	 * @param cycle			Cycle matrix to fill up. Will be filled with base cycle matrix of the graph.
+	 */
+	public void treeMatrices(int previousEdge[], SparseMatrix incidence, SparseMatrix cycle) {
+		int n = noOfVertices;
+		int m = input.length;
+		if (n == 0) {
+			throw new RuntimeException("No nodes to work with.");
+		}
+
+		//Depth: the path to the root is followed only until a vertex of known depth.
+		int depth[] = new int[n];				//-1: not yet calculated.
+		int path[] = new int[n];
+		Arrays.fill(depth, -1);
+		for (int v = 0; v < n; v++) {
+			int length = 0;
+			int step = v;
+			while (depth[step] < 0 && previousEdge[step] >= 0) {
+				if (length == n) {
+					throw new RuntimeException("Spanning tree contains cycle.");
+				}
+				path[length++] = step;
+				step = other(previousEdge[step], step);
+			}
+			if (depth[step] < 0) {				//Root
+				depth[step] = 0;
+			}
+			while (length > 0) {
+				int child = path[--length];
+				depth[child] = depth[step] + 1;
+				step = child;
+			}
+		}
+
+		//The current law of the root of each tree is the sum of the others, so it is left out (reduced incidence matrix):
+		int columnOf[] = new int[n];
+		int noOfColumns = 0;
+		for (int v = 0; v < n; v++) {
+			columnOf[v] = (previousEdge[v] >= 0)? noOfColumns++ : -1;
+		}
+		incidence.copyWithResize(new SparseMatrix(m, noOfColumns));
+		int noOfCycles = 0;             //First count the cycles:
+		for (int e = 0; e < m; e++) {
+			int in = input(e);
+			int out = output(e);
+			if (in != out) {
+				if (columnOf[in] >= 0) {
+					incidence.setAt(e, columnOf[in], 1);
+				}
+				if (columnOf[out] >= 0) {
+					incidence.setAt(e, columnOf[out], -1);
+				}
+			}
+			if (previousEdge[in] != e && previousEdge[out] != e) {
+				noOfCycles++;
+			}
+		}
+
+		//Each edge out of the tree closes a cycle with the tree path between its ends. The cycle is directed along the edge,
+		//and the path is walked up from the deeper end, until the two ends meet at their common ancestor.
+		//The path is collected first, and stored as a whole column:
+		cycle.copyWithResize(new SparseMatrix(m, noOfCycles));
+		int rows[] = new int[n];
+		float values[] = new float[n];
+		int currentCycle = 0;
+		for (int e = 0; e < m; e++) {
+			int in = input(e);
+			int out = output(e);
+			if (previousEdge[in] != e && previousEdge[out] != e) {
+				rows[0] = e;
+				values[0] = 1;
+				int count = 1;
+				while (in != out) {
+					int treeEdge;
+					if (depth[out] >= depth[in]) {		//From the output up to the ancestor: tree edges directed to the parent are +1.
+						treeEdge = previousEdge[out];
+						values[count] = (input(treeEdge) == out)? 1 : -1;
+						out = other(treeEdge, out);
+					}
+					else {								//From the ancestor down to the input: tree edges directed to the child are +1.
+						treeEdge = previousEdge[in];
+						values[count] = (output(treeEdge) == in)? 1 : -1;
+						in = other(treeEdge, in);
+					}
+					rows[count] = treeEdge;
+					count++;
+				}
+				cycle.setColumn(currentCycle, rows, values, count);
+				currentCycle++;
+			}
+		}
+	}
+
+
+}
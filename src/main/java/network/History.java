@@ -0,0 +1,109 @@
+package main.java.network;
+
+import java.util.ArrayDeque;
+
+/**
+ * Undo and redo history of the edits of a network. A new edit clears the redo history.
+ * HUN: A hálózat szerkesztéseinek visszavonási és megismétlési előzménye. Egy új szerkesztés törli a megismételhető szerkesztéseket.
+ * @author Simon Zoltán
+ *
+ */
+public class History {
+
+	/**
+	 * The edits, that can be undone and redone. The last edit is at the head.
+	 * HUN: A visszavonható és a megismételhető szerkesztések. Az utolsó szerkesztés az elején van.
+	 */
+	private ArrayDeque<Edit> undoable = new ArrayDeque<Edit>();
+	private ArrayDeque<Edit> redoable = new ArrayDeque<Edit>();
+
+	/**
+	 * Maximum number of edits kept. The oldest edits are dropped.
+	 * HUN: A megtartott szerkesztések maximális száma. A legrégebbieket eldobjuk.
+	 */
+	private int maxNoOfEdits;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param maxNoOfEdits	Maximum number of edits kept.
+	 */
+	public History(int maxNoOfEdits) {
+		this.maxNoOfEdits = maxNoOfEdits;
+	}
+
+	//Edits:-----------------------------------------------------------
+
+	/**
+	 * Adds a finished edit. An empty edit is not added. A property edit continuing the last one is joined to it.
+	 * HUN: Hozzáad egy befejezett szerkesztést. Az üres szerkesztést nem adja hozzá. Az előzőt folytató tulajdonság szerkesztést hozzáfűzi ahhoz.
+	 * @param edit	The {@link Edit}.
+	 */
+	void add(Edit edit) {
+		if (edit.isEmpty()) {
+			return;
+		}
+		redoable.clear();
+		if (!undoable.isEmpty() && undoable.peek().isContinuedBy(edit)) {
+			undoable.peek().join(edit);
+			return;
+		}
+		undoable.push(edit);
+		if (undoable.size() > maxNoOfEdits) {
+			undoable.removeLast();
+		}
+	}
+
+	/**
+	 * Undoes the last edit.
+	 * HUN: Visszavonja az utolsó szerkesztést.
+	 * @param network	The edited network.
+	 * @return Whether there was an edit to undo.
+	 */
+	boolean undo(Network network) {
+		if (undoable.isEmpty()) {
+			return false;
+		}
+		Edit edit = undoable.pop();
+		edit.undo(network);
+		redoable.push(edit);
+		return true;
+	}
+
+	/**
+	 * Redoes the last undone edit.
+	 * HUN: Megismétli az utoljára visszavont szerkesztést.
+	 * @param network	The edited network.
+	 * @return Whether there was an edit to redo.
+	 */
+	boolean redo(Network network) {
+		if (redoable.isEmpty()) {
+			return false;
+		}
+		Edit edit = redoable.pop();
+		edit.redo(network);
+		undoable.push(edit);
+		return true;
+	}
+
+	/**
+	 * Forgets every edit.
+	 * HUN: Minden szerkesztést elfelejt.
+	 */
+	public void clear() {
+		undoable.clear();
+		redoable.clear();
+	}
+
+	//Getters:----------------------------------------------------
+
+	public boolean canUndo() {
+		return !undoable.isEmpty();
+	}
+
+	public boolean canRedo() {
+		return !redoable.isEmpty();
+	}
+
+}
@@ -0,0 +1,85 @@
+package main.java.network;
+
+import java.util.Arrays;
+
+/**
+ * Allocator of the ids of the vertices or the edges of a network. Each network has its own allocators, so networks in different threads do not share ids.
+ * The ids of the removed objects are recycled, so the ids stay below the largest number of objects ever present at once,
+ * and arrays can be indexed by them.
+ * HUN: Egy hálózat csúcsainak vagy éleinek azonosítóit osztja ki. Minden hálózatnak saját kiosztója van, így a különböző szálakon futó hálózatok nem osztoznak az azonosítókon.
+ * A törölt objektumok azonosítóit újra kiosztjuk, így az azonosítók a valaha egyszerre jelen levő objektumok legnagyobb száma alatt maradnak, és tömbök indexelhetők velük.
+ * @author Simon Zoltán
+ *
+ */
+public class IdAllocator {
+
+	/**
+	 * The ids handed out so far are below this bound.
+	 * HUN: Az eddig kiosztott azonosítók e korlát alatt vannak.
+	 */
+	private int bound = 0;
+
+	/**
+	 * Released ids, waiting for reuse.
+	 * HUN: A felszabadított, újra kiosztható azonosítók.
+	 */
+	private int free[] = new int[16];
+	private int noOfFree = 0;
+
+	//Allocation:----------------------------------------------------
+
+	/**
+	 * Hands out an id. A released id is reused first.
+	 * HUN: Kioszt egy azonosítót. Először a felszabadítottakat osztja ki újra.
+	 * @return The id.
+	 */
+	public int allocate() {
+		if (noOfFree > 0) {
+			return free[--noOfFree];
+		}
+		return bound++;
+	}
+
+	/**
+	 * Releases an id for reuse. The object of the id must not be used in the network any more.
+	 * HUN: Felszabadít egy azonosítót újrafelhasználásra. Az azonosító objektuma többé nem használható a hálózatban.
+	 * @param id	The released id.
+	 */
+	public void release(int id) {
+		if (id < 0 || id >= bound) {
+			throw new RuntimeException("Invalid id.");
+		}
+		if (noOfFree == free.length) {
+			free = Arrays.copyOf(free, 2 * free.length);
+		}
+		free[noOfFree++] = id;
+	}
+
+	/**
+	 * Releases every id.
+	 * HUN: Minden azonosítót felszabadít.
+	 */
+	public void clear() {
+		bound = 0;
+		noOfFree = 0;
+	}
+
+	//Getters:----------------------------------------------------
+
+	/**
+	 *
+	 * @return Every id in use is below this bound.
+	 */
+	public int getBound() {
+		return bound;
+	}
+
+	/**
+	 *
+	 * @return Number of the ids in use.
+	 */
+	public int getNoOfAllocated() {
+		return bound - noOfFree;
+	}
+
+}
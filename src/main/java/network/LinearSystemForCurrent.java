@@ -1,6 +1,13 @@
 package main.java.network;
 
+import main.java.math.DoubleVector;
+import main.java.math.Factorization;
+import main.java.math.Gauss;
+import main.java.math.GaussException;
+import main.java.math.LUDecomposition;
 import main.java.math.Matrix;
+import main.java.math.Pivoting;
+import main.java.math.RankOneUpdate;
 import main.java.math.Vector;
 
 /**
@@ -24,7 +31,7 @@ import main.java.math.Vector;
  *</pre>
  *
  */
-public class LinearSystemForCurrent extends Matrix {
+public class LinearSystemForCurrent extends Matrix implements SystemForCurrent {
 	int cycleOffset;
 	int noOfVariables;
 	Matrix cycle;
@@ -81,6 +88,7 @@ public class LinearSystemForCurrent extends Matrix {
 	 * HUN: Frissíti a mátrix feszültésforrásokat leíró részét.
 	 * @param sourceVoltages	{@link Vector} of source voltages. 
 	 */
+	@Override
 	public void updateSourceVoltage(Vector sourceVoltages) {
 		for (int c = 0; c < this.cycle.column; c++) {
 			float sumOfVoltages = 0;
@@ -101,6 +109,7 @@ public class LinearSystemForCurrent extends Matrix {
 	 * HUN: Frissíti a mátrix ellenállásokat leíró részét.
 	 * @param resistances {@link Vector} of resistances.
 	 */
+	@Override
 	public void updateResistances(Vector resistances) {
 		for (int c = 0; c < this.cycle.column; c++) {
 			for (int r = 0; r < resistances.dimension; r++) {
@@ -116,5 +125,53 @@ public class LinearSystemForCurrent extends Matrix {
 			}
 		}		
 	}
-	
+
+	/**
+	 * The resistance of the edge appears only in the cycle equations, that contain the edge.
+	 */
+	@Override
+	public RankOneUpdate resistanceUpdate(int edgeIndex, float previousResistance, float resistance) {
+		Vector u = new Vector(column);
+		Vector v = new Vector(noOfVariables);
+		v.setAt(edgeIndex, 1);
+		float delta = resistance - previousResistance;
+		for (int c = 0; c < this.cycle.column; c++) {
+			if (this.cycle.at(edgeIndex, c) > 0) {
+				u.setAt(cycleOffset + c, delta);
+			}
+			else if (this.cycle.at(edgeIndex, c) < 0) {
+				u.setAt(cycleOffset + c, -delta);
+			}
+		}
+		return new RankOneUpdate(u, v);
+	}
+
+	@Override
+	public Factorization factorize(Pivoting pivoting) throws GaussException {
+		return new LUDecomposition(this, pivoting);
+	}
+
+	@Override
+	public Vector getRightSide() {
+		return Gauss.rightSide(this);
+	}
+
+	/**
+	 * The variables of the system are the currents of the edges.
+	 */
+	@Override
+	public Vector branchCurrents(DoubleVector solution) {
+		return solution.toVector();
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return row - 1;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return column;
+	}
+
 }
@@ -0,0 +1,310 @@
+package main.java.network;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import main.java.math.Factorization;
+import main.java.math.GaussException;
+import main.java.math.Vector;
+
+/**
+ * Monte Carlo tolerance analysis of a network. The resistance of {@link Resistance} and the source voltage of {@link VoltageSource} components
+ * are drawn from their {@link Distribution}s for each sample, and the statistics of the currents of all the components are collected over the samples,
+ * without changing the network. The samples are solved in parallel chunks, and added to the statistics in their order, as the chunks are done.
+ * HUN: Egy hálózat Monte Carlo tűrés elemzése. Az ellenállás és feszültségforrás komponensek értékét minden mintához az eloszlásukból húzzuk,
+ * és az összes komponens áramának statisztikáit gyűjtjük a mintákon, a hálózat megváltoztatása nélkül. A mintákat párhuzamosan, darabokban oldjuk meg,
+ * és a sorrendjükben adjuk a statisztikákhoz, ahogy a darabok elkészülnek.
+ * @author Simon Zoltán
+ *
+ *<h2>Reproducibility:</h2>{Each value of each sample is drawn by its own random generator, seeded from the seed of the component and the index of the sample.
+ *                    The samples are added to the statistics in their order. So the result only depends on the seeds, not on the number of threads.}<br>
+ *<h2>Reuse:</h2>{The graph and the spanning tree of the parts are built once for the analysis, each thread copies only the value vectors for a sample.
+ *                    A sample with the nominal resistances reuses the factorization of the network, e.g. when only source voltages have tolerance.
+ *                    A sample with a few changed resistances updates it by rank-one updates, when it is possible.}<br>
+ */
+public class MonteCarlo {
+
+	/**
+	 * Number of samples solved in a chunk by a thread.
+	 * HUN: Egy szál által egy darabban megoldott minták száma.
+	 */
+	int chunkSize = 64;
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private Network network;
+	private long seed;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	private double percentiles[] = {0.05, 0.5, 0.95};
+
+	/**
+	 * Toleranced components, their distributions and seeds, in the order of adding them.
+	 * HUN: A tűréssel rendelkező komponensek, eloszlásaik és magjaik, a hozzáadásuk sorrendjében.
+	 */
+	private ArrayList<Component> components = new ArrayList<Component>();
+	private ArrayList<Distribution> distributions = new ArrayList<Distribution>();
+	private ArrayList<Long> seeds = new ArrayList<Long>();
+
+	/**
+	 * Components with limited current, and their limits, for the yield.
+	 * HUN: A korlátozott áramú komponensek és korlátaik, a kihozatalhoz.
+	 */
+	private ArrayList<Component> limited = new ArrayList<Component>();
+	private ArrayList<float[]> limits = new ArrayList<float[]>();
+
+	//Working data of a run:
+	private NetworkModel model;
+	private Factorization factorizations[];		//Factorization of each part model with the nominal resistances, null if there is none.
+	private float nominals[];					//Nominal value of each toleranced component.
+	private int limitedIndices[];				//Index of each limited component in the network.
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param network	The analyzed network.
+	 * @param seed		Seed of the components added without their own seed.
+	 */
+	public MonteCarlo(Network network, long seed) {
+		this.network = network;
+		this.seed = seed;
+	}
+
+	//Parameters:-------------------------------------------------------
+
+	/**
+	 * Adds a tolerance to the analysis: of the resistance of a {@link Resistance}, or of the source voltage of a {@link VoltageSource}.
+	 * The seed of the component is derived from the seed of the analysis and the order of adding.
+	 * HUN: Tűrést ad az elemzéshez. A komponens magja az elemzés magjából és a hozzáadás sorrendjéből származik.
+	 * @param component		The component of the network.
+	 * @param distribution	Distribution of the value around the nominal value of the component.
+	 */
+	public void add(Component component, Distribution distribution) {
+		add(component, distribution, new SplittableRandom(seed + components.size() * GOLDEN_GAMMA).nextLong());
+	}
+
+	/**
+	 * Adds a tolerance to the analysis with its own seed, so the values of the component do not depend on the other components.
+	 * HUN: Tűrést ad az elemzéshez saját maggal, így a komponens értékei nem függenek a többi komponenstől.
+	 * @param component		The component of the network.
+	 * @param distribution	Distribution of the value around the nominal value of the component.
+	 * @param seed			Seed of the values of the component.
+	 */
+	public void add(Component component, Distribution distribution, long seed) {
+		if (!(component instanceof Resistance) && !(component instanceof VoltageSource)) {
+			throw new RuntimeException("Component has no toleranced value.");
+		}
+		if (!network.contains(component)) {
+			throw new RuntimeException("Component out of the network.");
+		}
+		if (components.contains(component)) {
+			throw new RuntimeException("Component already has tolerance.");
+		}
+		components.add(component);
+		distributions.add(distribution);
+		seeds.add(seed);
+	}
+
+	/**
+	 * Sets the limits of the current of a component. A sample passes, if all the limited currents are within their limits.
+	 * HUN: Beállítja egy komponens áramának korlátait. Egy minta megfelelő, ha minden korlátozott áram a korlátain belül van.
+	 * @param component		The component of the network.
+	 * @param minCurrent	The lowest allowed current.
+	 * @param maxCurrent	The highest allowed current.
+	 */
+	public void setLimits(Component component, float minCurrent, float maxCurrent) {
+		if (!network.contains(component)) {
+			throw new RuntimeException("Component out of the network.");
+		}
+		int i = limited.indexOf(component);
+		if (i < 0) {
+			limited.add(component);
+			limits.add(new float[] {minCurrent, maxCurrent});
+		}
+		else {
+			limits.set(i, new float[] {minCurrent, maxCurrent});
+		}
+	}
+
+	/**
+	 * Sets the percentiles estimated for the currents. 5%, 50% and 95% by default.
+	 * HUN: Beállítja az áramokra becsült percentiliseket.
+	 * @param percentiles	The percentiles, between 0 and 1.
+	 */
+	public void setPercentiles(double... percentiles) {
+		for (double p : percentiles) {
+			if (!(p >= 0 && p <= 1)) {
+				throw new RuntimeException("Percentile out of [0, 1].");
+			}
+		}
+		this.percentiles = percentiles.clone();
+	}
+
+	//Running:-----------------------------------------------------------
+
+	/**
+	 * Solves the samples, and collects the statistics. Must be called on the thread owning the network,
+	 * and the network must not be changed until it returns. The network is simulated once before the analysis, its values are not changed.
+	 * HUN: Megoldja a mintákat, és gyűjti a statisztikákat. A hálózatot birtokló szálon kell hívni.
+	 * Az elemzés előtt a hálózatot egyszer szimuláljuk, az értékeit nem változtatjuk meg.
+	 * @param noOfSamples	Number of samples.
+	 * @return {@link MonteCarloResult}
+	 */
+	public MonteCarloResult run(int noOfSamples) {
+		prepare();
+		MonteCarloResult result = new MonteCarloResult(noOfSamples, network.getComponents().size(), percentiles);
+		ArrayDeque<ForkJoinTask<SweepPoint[]>> chunks = new ArrayDeque<ForkJoinTask<SweepPoint[]>>();
+		int window = 2 * pool.getParallelism();
+		int next = 0;
+		try {
+			while (next < noOfSamples || !chunks.isEmpty()) {
+				//Only a few chunks are solved ahead, so the samples are not held:
+				while (next < noOfSamples && chunks.size() < window) {
+					int begin = next;
+					int end = (int)Math.min((long)next + chunkSize, noOfSamples);
+					chunks.add(pool.submit(() -> solveChunk(begin, end)));
+					next = end;
+				}
+				for (SweepPoint sample : chunks.poll().join()) {
+					result.add(sample.getCurrents(), sample.isValid(), sample.isValid() && passes(sample));
+				}
+			}
+		} finally {
+			for (ForkJoinTask<SweepPoint[]> chunk : chunks) {
+				chunk.cancel(false);
+			}
+			model = null;
+			factorizations = null;
+		}
+		return result;
+	}
+
+	/**
+	 * Makes the models of the parts with tolerances, and factorizes them with the nominal values, if the network has not.
+	 * HUN: Elkészíti a tűréssel rendelkező részek modelljeit, és faktorizálja őket a névleges értékekkel, ha a hálózat nem tette.
+	 */
+	private void prepare() {
+		network.simulate(TimeStep.ZERO);
+		model = new NetworkModel(network, components);
+		nominals = new float[components.size()];
+		for (int j = 0; j < components.size(); j++) {
+			PartModel partModel = model.getModel(model.getModelOf(j));
+			nominals[j] = ((components.get(j) instanceof Resistance)? partModel.getResistances() : partModel.getSourceVoltages())
+					.at(model.getEdgeOf(j));
+		}
+		factorizations = new Factorization[model.getNoOfModels()];
+		for (int m = 0; m < factorizations.length; m++) {
+			PartModel partModel = model.getModel(m);
+			factorizations[m] = partModel.getFactorization();
+			if (factorizations[m] == null) {
+				try {
+					partModel.workspace().setValues(partModel.getResistances(), partModel.getSourceVoltages());
+					factorizations[m] = partModel.workspace().factorize();
+				} catch (GaussException e) {		//Each sample is factorized on its own.
+					factorizations[m] = null;
+				}
+			}
+		}
+		limitedIndices = new int[limited.size()];
+		for (int k = 0; k < limited.size(); k++) {
+			limitedIndices[k] = limited.get(k).networkIndex;
+		}
+	}
+
+	/**
+	 * Solves a chunk of samples.
+	 * HUN: Megoldja a minták egy darabját.
+	 */
+	private SweepPoint[] solveChunk(int begin, int end) {
+		SweepPoint samples[] = new SweepPoint[end - begin];
+		for (int s = begin; s < end; s++) {
+			float values[] = valuesOf(s);
+			Vector partCurrents[] = new Vector[factorizations.length];
+			boolean valid = model.isConstantValid();
+			for (int m = 0; m < factorizations.length; m++) {
+				partCurrents[m] = solveModel(m, values);
+				valid &= (partCurrents[m] != null);
+			}
+			samples[s - begin] = new SweepPoint(s, values, model.gather(partCurrents), valid);
+		}
+		return samples;
+	}
+
+	/**
+	 * Values of the toleranced components in a sample.
+	 * HUN: A tűréssel rendelkező komponensek értékei egy mintában.
+	 */
+	private float[] valuesOf(int sample) {
+		float values[] = new float[components.size()];
+		for (int j = 0; j < values.length; j++) {
+			SplittableRandom random = new SplittableRandom(seeds.get(j) + sample * GOLDEN_GAMMA);
+			values[j] = distributions.get(j).sample(nominals[j], random);
+			if (components.get(j) instanceof Resistance) {
+				values[j] = Math.max(values[j], 0);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Solves a model with the values of a sample, in the workspace of the calling thread.
+	 * @return Vector of currents in the order of the edges of the part, or null if the part has no solution.
+	 */
+	private Vector solveModel(int m, float values[]) {
+		PartModel partModel = model.getModel(m);
+		Vector nominalResistances = partModel.getResistances();
+		Vector resistances = partModel.getResistances();
+		Vector sourceVoltages = partModel.getSourceVoltages();
+		for (int j = 0; j < values.length; j++) {
+			if (model.getModelOf(j) == m) {
+				((components.get(j) instanceof Resistance)? resistances : sourceVoltages).setAt(model.getEdgeOf(j), values[j]);
+			}
+		}
+		PartModel.Workspace workspace = partModel.workspace();
+		try {
+			workspace.setValues(resistances, sourceVoltages);
+			Factorization factorization = null;
+			if (factorizations[m] != null) {
+				factorization = resistances.equals(nominalResistances)?
+						factorizations[m] : workspace.update(factorizations[m], nominalResistances, resistances);
+			}
+			if (factorization == null) {
+				factorization = workspace.factorize();
+			}
+			return workspace.solve(factorization);
+		} catch (GaussException e) {		//No solution with these values.
+			return null;
+		}
+	}
+
+	/**
+	 * Whether all the limited currents of a sample are within their limits.
+	 */
+	private boolean passes(SweepPoint sample) {
+		for (int k = 0; k < limitedIndices.length; k++) {
+			float current = sample.getCurrent(limitedIndices[k]);
+			if (!(current >= limits.get(k)[0] && current <= limits.get(k)[1])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//Getters/Setters:----------------------------------------------------
+
+	public ArrayList<Component> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Sets the pool of the threads solving the chunks. The common pool by default.
+	 * @param pool	{@link ForkJoinPool}
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+}
@@ -0,0 +1,120 @@
+package main.java.network;
+
+import main.java.math.RunningStatistics;
+
+/**
+ * Result of a {@link MonteCarlo} analysis: the number of valid and passing samples, and the statistics of the current of each component of the network.
+ * HUN: Egy Monte Carlo elemzés eredménye: a helyes és a megfelelő minták száma, és a hálózat minden komponensének áramstatisztikája.
+ * @author Simon Zoltán
+ *
+ */
+public final class MonteCarloResult {
+
+	private final int noOfSamples;
+	private int noOfInvalid = 0;
+	private int noOfPassed = 0;
+	private final RunningStatistics statistics[];
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param noOfSamples		Number of samples of the analysis.
+	 * @param noOfComponents	Number of components of the network.
+	 * @param percentiles		The estimated percentiles, between 0 and 1.
+	 */
+	MonteCarloResult(int noOfSamples, int noOfComponents, double percentiles[]) {
+		this.noOfSamples = noOfSamples;
+		statistics = new RunningStatistics[noOfComponents];
+		for (int i = 0; i < noOfComponents; i++) {
+			statistics[i] = new RunningStatistics(percentiles);
+		}
+	}
+
+	/**
+	 * Adds a solved sample to the statistics. Invalid samples are only counted.
+	 * HUN: Hozzáad egy megoldott mintát a statisztikákhoz. A helytelen mintákat csak számoljuk.
+	 * @param currents	Currents of the components in the order of the components of the network.
+	 * @param valid		Whether all the parts of the network could be solved.
+	 * @param passed	Whether all the currents are within their limits.
+	 */
+	void add(float currents[], boolean valid, boolean passed) {
+		if (!valid) {
+			noOfInvalid++;
+			return;
+		}
+		if (passed) {
+			noOfPassed++;
+		}
+		for (int i = 0; i < statistics.length; i++) {
+			statistics[i].add(currents[i]);
+		}
+	}
+
+	//Output:-----------------------------------------------------------
+
+	/**
+	 * Table of the statistics in CSV format, a row for each component of the network.
+	 * HUN: A statisztikák táblázata CSV formátumban, a hálózat minden komponensére egy sorral.
+	 * @return The table.
+	 */
+	public String toCsv() {
+		StringBuilder builder = new StringBuilder("component,mean,sigma,min,max");
+		double percentiles[] = (statistics.length > 0)? statistics[0].getQuantiles() : new double[0];
+		for (double p : percentiles) {
+			builder.append(",p").append(p * 100);
+		}
+		builder.append('\n');
+		for (int i = 0; i < statistics.length; i++) {
+			RunningStatistics each = statistics[i];
+			builder.append(i).append(',').append(each.getMean()).append(',').append(each.getStandardDeviation())
+					.append(',').append(each.getMin()).append(',').append(each.getMax());
+			for (double p : percentiles) {
+				builder.append(',').append(each.getQuantile(p));
+			}
+			builder.append('\n');
+		}
+		return builder.toString();
+	}
+
+	//Getters:----------------------------------------------------------
+
+	public int getNoOfSamples() {
+		return noOfSamples;
+	}
+
+	/**
+	 *
+	 * @return Number of samples, where some part of the network could not be solved.
+	 */
+	public int getNoOfInvalid() {
+		return noOfInvalid;
+	}
+
+	/**
+	 *
+	 * @return Number of valid samples with all the limited currents within their limits.
+	 */
+	public int getNoOfPassed() {
+		return noOfPassed;
+	}
+
+	/**
+	 * Ratio of the passing samples to all the samples.
+	 * HUN: A megfelelő minták aránya az összes mintához.
+	 * @return The yield between 0 and 1.
+	 */
+	public double getYield() {
+		return (noOfSamples > 0)? (double)noOfPassed / noOfSamples : Double.NaN;
+	}
+
+	/**
+	 *
+	 * @param i	Index of the component in the list of components of the network.
+	 * @return Statistics of the current of the component over the valid samples.
+	 */
+	public RunningStatistics getStatistics(int i) {
+		return statistics[i];
+	}
+
+}
@@ -4,17 +4,18 @@ import java.io.BufferedReader;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.OutputStreamWriter;
-import javafx.util.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
 
-import javafx.scene.canvas.GraphicsContext;
 import main.java.math.Coordinate;
-import main.java.math.Gauss;
 import main.java.math.GaussException;
-import main.java.math.Matrix;
 import main.java.math.MyMath;
+import main.java.math.Pivoting;
+import main.java.math.PreconditionerType;
 import main.java.math.Vector;
 
 
@@ -51,19 +52,87 @@ public class Network {
 	private ArrayList<Component> components;
 	
 	/**
-	 * Matrix representation of the network.
-	 * A hálózat mátrix reprezentációja.
+	 * Spanning forest of the graph representation, maintained on every edit of the edges. Each of its trees spans a connected part,
+	 * which has its own linear system.
+	 * HUN: A gráf-reprezentáció feszítőerdeje, az élek minden módosításakor karbantartjuk. Minden fája egy összefüggő részt feszít ki,
+	 * amelynek saját lineáris rendszere van.
 	 */
-	private LinearSystemForCurrent linSystem;
+	private SpanningForest forest = new SpanningForest(this);
+
+	/**
+	 * Allocators of the ids of the vertices and the edges. The ids of the removed ones are recycled.
+	 * HUN: A csúcsok és az élek azonosítóinak kiosztói. A töröltek azonosítóit újra kiosztják.
+	 */
+	private IdAllocator vertexIds = new IdAllocator();
+	private IdAllocator edgeIds = new IdAllocator();
+
+	/**
+	 * Spatial indices of the nodes and the components, for finding them near the cursor and merging the nodes without examining all of them.
+	 * HUN: A csomópontok és a komponensek térbeli indexe, hogy a kurzorhoz közelieket és az összeolvasztandó csomópontokat mindegyikük vizsgálata nélkül találjuk meg.
+	 */
+	private SpatialGrid<ComponentNode> nodeGrid = new SpatialGrid<ComponentNode>(64);
+	private SpatialGrid<Component> componentGrid = new SpatialGrid<Component>(64);
+
+	/**
+	 * While loading, the components are only collected. Their nodes are merged and the graph representation is built at the end, in one pass.
+	 * HUN: Betöltés közben a komponenseket csak összegyűjtjük. A csomópontjaikat a végén, egy menetben olvasztjuk össze, és a gráf-reprezentációt is ekkor építjük fel.
+	 */
+	private boolean loading = false;
+
+	/**
+	 * Thread pool, where the connected parts are solved in parallel.
+	 * HUN: Szálkészlet, amiben az összefüggő részeket párhuzamosan oldjuk meg.
+	 */
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
 	
-	//Flags:
-	boolean updateGraph = true;
-	boolean updateVoltage = true;
-	boolean updateResistance = true;
-	boolean updateCurrent = true;
-	private Component selected = null;
+	/**
+	 * The way the equations of the network are formed.
+	 * HUN: A hálózat egyenleteinek felírási módja.
+	 */
+	private SystemFormulation formulation = SystemFormulation.incidenceAndCycle;
+
+	/**
+	 * Precision of the calculation of the currents.
+	 * HUN: Az áramok kiszámításának pontossága.
+	 */
+	private SolverPrecision precision = SolverPrecision.single;
+
+	/**
+	 * Threshold and zero tolerance of the pivoting in the factorization of the system.
+	 * HUN: A rendszer faktorizációjában használt főelemkiválasztás küszöbe és nulla toleranciája.
+	 */
+	private Pivoting pivoting = new Pivoting();
+
+	/**
+	 * Method of solving the linear system, and the preconditioner of the iterative method.
+	 * HUN: A lineáris rendszer megoldási módja, és az iteratív módszer előkondicionálója.
+	 */
+	private SolverMethod method = SolverMethod.automatic;
+	private PreconditionerType preconditionerType = PreconditionerType.algebraicMultigrid;
 	
-	private boolean validNetwork = false;
+	/**
+	 * Changes of the network since the last simulation step, in the order of happening. Consumed by {@link #simulate(TimeStep)}.
+	 * HUN: A hálózat legutóbbi szimulációs lépés óta történt változásai, a bekövetkezésük sorrendjében.
+	 */
+	private ArrayList<Change> journal = new ArrayList<Change>();
+
+	/**
+	 * Number of connected part updates by each {@link UpdatePath}.
+	 * HUN: Az összefüggő részek frissítéseinek száma frissítési módonként.
+	 */
+	private long noOfUpdates[] = new long[UpdatePath.values().length];
+
+	private Component selected = null;
+
+	/**
+	 * Undo and redo history of the edits. The edit in progress is recorded between grabbing and releasing.
+	 * While an edit is undone or redone, the changes are not recorded.
+	 * HUN: A szerkesztések visszavonási és megismétlési előzménye. A folyamatban levő szerkesztést a megfogás és az elengedés között rögzítjük.
+	 * Visszavonás és megismétlés közben a változásokat nem rögzítjük.
+	 */
+	private History history = new History(100);
+	private Edit currentEdit = null;
+	private boolean replaying = false;
 	
 	//--------------------------------------------------
 	
@@ -73,6 +142,57 @@ public class Network {
 	 */
 	int closeProximity = 8;
 	
+	/**
+	 * Above this number of edges the sparse representation and elimination is used.
+	 * HUN: Ennél több él esetén ritka mátrixos reprezentációt és eliminációt használunk.
+	 */
+	int sparseThreshold = 100;
+
+	/**
+	 * Whether the wires, series and parallel branches are reduced before the linear system is built.
+	 * HUN: Az egyenletrendszer felépítése előtt összevonjuk-e a vezetékeket, a soros és a párhuzamos ágakat.
+	 */
+	boolean reduction = true;
+
+	/**
+	 * Above this number of edges to be solved the connected parts are solved in parallel.
+	 * HUN: Ennél több megoldandó él esetén az összefüggő részeket párhuzamosan oldjuk meg.
+	 */
+	int parallelThreshold = 1000;
+
+	/**
+	 * After this number of resistance updates the system is factorized again.
+	 * HUN: Ennyi ellenállás frissítés után a rendszert újra faktorizáljuk.
+	 */
+	int maxNoOfResistanceUpdates = 8;
+
+	/**
+	 * Relative residual, where the iterative refinement stops, and the maximum number of refinement steps in case of mixed precision.
+	 * HUN: Az iteratív javítás célzott relatív maradéka és maximális lépésszáma vegyes pontosság esetén.
+	 */
+	double residualTolerance = 1e-12;
+	int maxNoOfRefinementSteps = 10;
+
+	/**
+	 * Limit of the estimated relative error of the solution of a part (relative size of its correction). Above this the solution is corrected even in single precision,
+	 * and the part is invalid, if it stays above.
+	 * HUN: Egy rész megoldásának megengedett becsült relatív hibája. Felette egyszeres pontosság mellett is javítunk, és ha felette marad, a rész helytelen.
+	 */
+	double maxErrorEstimate = 1e-3;
+
+	/**
+	 * Above this number of vertices the automatic solver method selects the iterative solver.
+	 * HUN: Ennél több csúcs esetén az automatikus megoldási mód az iteratív megoldót választja.
+	 */
+	int iterativeThreshold = 2000;
+
+	/**
+	 * Relative residual, where the iterative solver stops, and its maximum number of iterations.
+	 * HUN: Az iteratív megoldó célzott relatív maradéka és maximális iterációszáma.
+	 */
+	double iterativeTolerance = 1e-10;
+	int maxNoOfIterations = 10000;
+	
 	//Constructor:------------------------------------------------------
 	
 	public Network() {
@@ -81,125 +201,99 @@ public class Network {
 		
 		componentNodes = new ArrayList<ComponentNode>();
 		components = new ArrayList<Component>();
-
-		linSystem = null;
 		
 	}
 
 	//--------------------------------------------------------------------
 	
 	/**
-	 * Returns the resistance of all the edges.
-	 * HUN: Visszaad egy vektort amiben az összes gráf-élhez rendelt ellenállás értékei vannak felsorolva
-	 * az élek, "edges" listában szereplő sorrendje szerint. 
-	 * @return	Vector of resistances. The order of elements of the vector is the same as the order of the edges in private ArrayList&lt;Edge&gt; edges.
+	 * Solves a range of connected parts on the {@link ForkJoinPool}. The range is split in halves, until it contains a single part,
+	 * or too few edges to be worth the parallel execution.
+	 * HUN: Összefüggő részek egy tartományát oldja meg. A tartományt felezi, amíg egyetlen rész vagy túl kevés él marad benne.
 	 */
-	private Vector gatherResistances() {
-    	Vector resistances = new Vector(edges.size());
-    	for (int i = 0; i < edges.size(); i++) {
-    		resistances.setAt(i, edges.get(i).getResistance());
-    	}		
-    	return resistances;
-	}
-	
-	/**
-	 * Returns the source voltages of all the edges.
-	 * HUN: Visszaad egy vektort amiben az összes gráf-élhez rendelt feszültségforrás értékei vannak felsorolva
-	 * az élek, "edges" listában szereplő sorrendje szerint. 
-	 * @return Vector of source voltages. The order of elements of the vector is the same as the order of the edges in private ArrayList&lt;Edge&gt; edges.
-	 */
-	private Vector gatherSourceVoltages() {
-    	Vector sourceVoltages = new Vector(edges.size());
-    	for (int i = 0; i < edges.size(); i++) {
-    		sourceVoltages.setAt(i, edges.get(i).getSourceVoltage());
-    	}
-    	return sourceVoltages;
-	}
-	
-	/**
-	 * Uses Gaussian elimination, to get the current in all edges.
-	 * HUN: Gauss-elimináció segítségével kiszámolja a gráf-élekhez tartozó áramot. 
-	 * Visszaad egy vektort amiben az összes gráf-élhez rendelt áram értékei vannak felsorolva
-	 * az élek, "edges" listában szereplő sorrendje szerint. 
-	 * @return Vector of currents. The order of elements of the vector is the same as the order of the edges in private ArrayList&lt;Edge&gt; edges.
-	 */
-	private Vector CalculateCurrent() {
-		try {
-			return Gauss.Eliminate(linSystem);			
+	private class SolveParts extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private ArrayList<ConnectedPart> toSolve;
+		private int begin;
+		private int end;
+
+		SolveParts(ArrayList<ConnectedPart> toSolve, int begin, int end) {
+			this.toSolve = toSolve;
+			this.begin = begin;
+			this.end = end;
 		}
-		catch (GaussException e) {
-			return null;
+
+		@Override
+		protected void compute() {
+			int noOfEdges = 0;
+			for (int i = begin; i < end; i++) {
+				noOfEdges += toSolve.get(i).getEdges().size();
+			}
+			if (end - begin == 1 || noOfEdges <= parallelThreshold) {
+				for (int i = begin; i < end; i++) {
+					toSolve.get(i).simulate();
+				}
+				return;
+			}
+			int middle = (begin + end) / 2;
+			invokeAll(new SolveParts(toSolve, begin, middle), new SolveParts(toSolve, middle, end));
 		}
 	}
 	
 	/**
 	 * Implements the physical behavior of the network. Calculates current resistance and voltage levels.
-	 * HUN: A hálózat fizikai viselkedését valósítja meg. Kiszámolja az áram, ellenállás és feszültség szinteket.  
+	 * The connected parts are solved independently, in parallel when they are big enough. Only the parts changed since the last call are solved again,
+	 * by the cheapest {@link UpdatePath}, that the changes in the journal allow.
+	 * HUN: A hálózat fizikai viselkedését valósítja meg. Kiszámolja az áram, ellenállás és feszültség szinteket.
+	 * Az összefüggő részeket egymástól függetlenül, elég nagy méret esetén párhuzamosan oldja meg. Csak a legutóbbi hívás óta változott részeket oldja meg újra,
+	 * a napló változásai által megengedett legolcsóbb módon.
 	 * @param deltaTime	The time spent since the last call of this method.
 	 */
-	public void simulate (Duration deltaTime) {
+	public void simulate (TimeStep deltaTime) {
 		if (null == deltaTime) {
-			deltaTime = new Duration(0);
+			deltaTime = TimeStep.ZERO;
 		}
 		
-		//ManageLinearSystem:
+		//Consume-journal:
 		
-	    if (updateGraph || linSystem == null) {
-	    	    	
-	    	//Graph representations:
-	    	Matrix incidence = new Matrix(0,0);
-	    	Matrix cycle = new Matrix(0,0);
-	    	try {
-		    	DFS(incidence, cycle);
-	    	
-		    	//Parameters:
-		    	Vector resistances = gatherResistances();
-			    Vector sourceVoltage = gatherSourceVoltages(); //Voltage sources;
-			    
-		    	//Create system:
-		    	linSystem = new LinearSystemForCurrent(incidence, cycle, resistances, sourceVoltage);
-
-		    	//Disable flags:
-		    	updateGraph = false;
-		    	updateResistance = false;
-		    	updateVoltage = false;
-		    	
-		    	//Set flag:
-		    	updateCurrent = true;
-		    	
-		    	
-			} catch (RuntimeException e) {
-				updateCurrent = false;				
-			}
-	    }
-	    else {
-	    	if (updateResistance) {
-	    		updateResistance = false;
-		    	linSystem.updateResistances(gatherResistances());
-		    	updateCurrent = true;
+	    for (Change change : journal) {
+	    	ConnectedPart part = (change.getEdge() != null)? change.getEdge().getInput().part : null;
+	    	switch (change.getType()) {
+	    	case all:
+	    		for (ConnectedPart each : forest.getParts()) {
+	    			each.updateGraph = true;
+	    		}
+	    		break;
+	    	case resistanceChanged:
+	    		if (part != null) {
+	    			part.setUpdateResistance(change.getEdge(), change.getPreviousValue());
+	    		}
+	    		break;
+	    	case sourceChanged:
+	    		if (part != null) {
+	    			part.updateVoltage = true;
+	    		}
+	    		break;
+	    	default:		//Structural changes: the spanning forest already marked the changed parts.
+	    		break;
 	    	}
-	    	if (updateVoltage) {	    
-	    		updateVoltage = false;
-		    	linSystem.updateSourceVoltage(gatherSourceVoltages());
-		    	updateCurrent = true;
-		    }
 	    }
+	    journal.clear();
 	    
 	    //Calculate-current:
 	    
-	    if (updateCurrent) {
-			updateCurrent = false;
-			Vector current = CalculateCurrent();
-			if (current != null) {
-		    	validNetwork = true;
-				for (int i = 0; i < edges.size(); i++) {
-					edges.get(i).setCurrent(current.at(i));
-				}
-			}
-			else {
-				validNetwork = false;
-			}
-				
+	    ArrayList<ConnectedPart> toSolve = new ArrayList<ConnectedPart>();
+	    for (ConnectedPart part : forest.getParts()) {
+	    	UpdatePath path = part.getUpdatePath();
+	    	if (path != null) {
+	    		noOfUpdates[path.ordinal()]++;
+	    		toSolve.add(part);
+	    	}
+	    }
+	    if (!toSolve.isEmpty()) {
+	    	pool.invoke(new SolveParts(toSolve, 0, toSolve.size()));
 	    }
 		for (Component component : components) {
 			component.update(deltaTime);
@@ -207,181 +301,35 @@ public class Network {
 
 	}
 	
-	
 	/**
-	 * Depth First Search algorithm.
-	 * HUN: Mélységi keresés.
-	 * A kapott mátrixokat feltölti a gráf-reprezentáció illeszkedési és alapkör mátrixával.
-	 * @param incidence	Incidence matrix to fill up. Will be filled with incidence matrix of the network as a graph.
-	 * @param cycle	Cycle matrix to fill up. Will be filled with base cycle matrix  of the network as a graph.
+	 * Solves the network with both formulations and compares the currents of the edges. Does not change the state of the network.
+	 * HUN: Mindkét felírási móddal megoldja a hálózatot, és összeveti az élek áramát.
+	 * @return The greatest absolute difference of the currents of an edge. 
+	 * @throws GaussException - if any of the systems has no solution or has infinite solutions.
 	 */
-	private void DFS (Matrix incidence, Matrix cycle) {
-		if (vertices.isEmpty()) {
-			throw new RuntimeException("No nodes to work with.");
+	public float crossCheckFormulations() throws GaussException {
+		float maxDifference = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			Vector byCycles = part.buildSystem(SystemFormulation.incidenceAndCycle).calculateCurrent();
+			Vector byNodes = part.buildSystem(SystemFormulation.nodal).calculateCurrent();
+			for (int i = 0; i < byCycles.dimension; i++) {
+				maxDifference = Math.max(maxDifference, Math.abs(byCycles.at(i) - byNodes.at(i)));
+			}
 		}
-		
-	    Vertex s = vertices.iterator().next();  //Starting vertex
-
-	    Map<Vertex, Integer> depth = new HashMap<Vertex, Integer>();
-	    Map<Vertex, Integer> finish = new HashMap<Vertex, Integer>();
-	    Map<Vertex, Vertex> previous = new HashMap<Vertex, Vertex>();
-	    Vertex current;
-	    int GreatestDepth;
-	    int GreatestFinish;
-
-	    ///Initialization:
-	    depth.put(s, 1);
-        previous.put(s, null);
-        finish.put(s, -1);
-
-	    ///Using -1 as undefined value:
-	    previous.put(s, null);
-	    for (Vertex iter : vertices) {
-	        if (iter != s) {
-	            depth.put(iter, -1);
-		        previous.put(iter, null);
-		        finish.put(iter, -1);
-	        }
-	    }
+		return maxDifference;
+	}
 
-	    GreatestDepth = 1;
-	    GreatestFinish = 0;
-	    current = s;
-
-	    ///Cycle:
-	    boolean run = true;
-	    while (run) {
-	        ///Finding adjacent vertex with (*) depth:
-	        Vertex v = current;	 
-	        for (Vertex iter : current.getOutgoing().keySet()) {
-	            if (depth.get(iter) != null && -1 == depth.get(iter)) {
-	                v = iter;
-	        		break;
-	            }
-	        }
-			if (current == v) {
-				//Also search in reversed edges:
-		        for (Vertex iter : current.getIncoming().keySet()) {
-		            if (depth.get(iter) != null && -1 == depth.get(iter)) {
-		                v = iter;
-		        		break;
-		            }
-		        }
-			}
-	        if (current != v) {		//Found adjacent vertex with (*) depth
-	            GreatestDepth++;
-	            depth.put(v, GreatestDepth);
-	            previous.put(v, current);	            		            	
-	            current = v;
-	        } else {
-	            GreatestFinish++;
-	            finish.put(current, GreatestFinish);
-	            if (null != previous.get(current)) {	//Backtracking
-	                current = previous.get(current);
-	            } else {
-	                ///Finding vertex with (*) depth:
-	                v = current;
-	                for (Vertex iter : vertices) {
-	                    if (-1 == depth.get(iter)) {
-	                        v = iter;
-	                        break;
-	                    }
-	                }
-	                if (current != v) { //Found adjacent vertex with (*) depth
-                        GreatestDepth = 1;
-                        depth.put(v, GreatestDepth);
-	                    current = v;
-	                } else {
-	                    run = false;
-	                }
-	            }
-	        }
-	    }
-	    
-	    incidence.copyWithResize(new Matrix(edges.size(), vertices.size()));
-	    incidence.fill(0);
-	    int noOfCycles = 0;             //First count the cycles:
-	    for (int i = 0; i < edges.size(); i++) {
-	    	Edge edge = edges.get(i);
-            incidence.setAt(i, vertices.indexOf(edge.getInput()), 1);
-            incidence.setAt(i, vertices.indexOf(edge.getOutput()), -1);
-	        if (edge.getOutput() != previous.get(edge.getInput()) &&
-	        		edge.getInput() != previous.get(edge.getOutput())) {
-            	noOfCycles++;       	
-	        }
-	    }
-	    
-	    
-	    cycle.copyWithResize(new Matrix(edges.size(), noOfCycles));
-	    cycle.fill(0);
-	    int currentCycle = 0;
-	    for (int i = 0; i < edges.size() && currentCycle < noOfCycles; i++) {
-
-	    	Edge edge = edges.get(i);
-	        if (edge.getOutput() != previous.get(edge.getInput()) &&
-	        		edge.getInput() != previous.get(edge.getOutput())) {
-            	Vertex in = edge.getInput();
-            	Vertex out = edge.getOutput();
-            	int dIn = depth.get(in);
-	        	int dOut = depth.get(out);
-	        	if (dIn > dOut) {
-	        		//Backward edge
-        			cycle.setAt(i, currentCycle, 1);
-	        		Vertex step = in;
-	        		while (step != out) {
-	        			if (previous.get(step) == null) {
-	        				System.out.println("Null.");
-	        			}
-	        			Edge e = step.getIncoming().get(previous.get(step));
-	        			if (e != null) {
-		        			cycle.setAt(edges.indexOf(e), currentCycle, 1);	        				
-	        			}
-	        			else {
-	        				e = step.getOutgoing().get(previous.get(step));
-		        			cycle.setAt(edges.indexOf(e), currentCycle, -1);	        					        				
-	        			}
-	        				        			
-        				step = previous.get(step);
-	        		}
-	        	}
-	        	else if (dIn < dOut) {
-	        		//Forward edge
-        			cycle.setAt(i, currentCycle, -1);
-	        		Vertex step = out;
-	        		while (step != in) {
-	        			Edge e = step.getIncoming().get(previous.get(step));
-	        			if (e != null) {
-		        			cycle.setAt(edges.indexOf(e), currentCycle, 1);	        				
-	        			}
-	        			else {
-	        				e = step.getOutgoing().get(previous.get(step));
-		        			cycle.setAt(edges.indexOf(e), currentCycle, -1);	        					        				
-	        			}
-
-	        			step = previous.get(step);
-	        		}
-	        	}
-	        	else {
-	        		//Cross edge
-	        		throw new RuntimeException("Cross found despite of DFS on undirected graph!");
-	        		
-	        		/*
-	        		cycle.setAt(i, currentCycle, 1);
-	        		Vertex step1 = in;
-	        		Vertex step2 = out;
-	        		while (step1 != step2) {
-	        			cycle.setAt(edges.indexOf(previous.get(step1)), currentCycle, 1);
-	        			cycle.setAt(edges.indexOf(previous.get(step2)), currentCycle, -1);
-        				step1 = previous.get(step1);
-        				step2 = previous.get(step2);
-	        		}
-	        		*/	        		
-	        	}
-	        	currentCycle++;
-	        }
-	    }     	    
+	/**
+	 * Starts a Monte Carlo tolerance analysis of the network. The tolerances are added to the returned analysis, then it is run on the thread owning the network.
+	 * HUN: Monte Carlo tűrés elemzést indít a hálózaton. A tűréseket a visszaadott elemzéshez kell adni, majd a hálózatot birtokló szálon futtatni.
+	 * @param seed	Seed of the random values.
+	 * @return {@link MonteCarlo}
+	 */
+	public MonteCarlo analyzeTolerances(long seed) {
+		return new MonteCarlo(this, seed);
 	}
 
+
 	
 	//Access edges and nodes:-----------------------------------------------------------------------------------
 	//No other method allowed to manipulate edges nor nodes from outside the network. 
@@ -392,19 +340,27 @@ public class Network {
 	 * @param edge	Edge to be added.
 	 */
 	public void addEdge(Edge edge) {
-		Vertex input = new Vertex();
-		Vertex output = new Vertex();
+		Vertex input = new Vertex(vertexIds.allocate());
+		Vertex output = new Vertex(vertexIds.allocate());
+		edge.id = edgeIds.allocate();
 		
 		edge.setInput(input);
 		edge.setOutput(output);
+		if (loading) {		//Connected by buildLoaded().
+			add(edges, edge, EDGE_INDEX);
+			return;
+		}
 		
 		input.addOutgoing(output, edge);
 		output.addIncoming(input, edge);
 		
-		edges.add(edge);
-		vertices.add(input);
-		vertices.add(output);
-		
+		add(edges, edge, EDGE_INDEX);
+		add(vertices, input, VERTEX_INDEX);
+		add(vertices, output, VERTEX_INDEX);
+		forest.addVertex(input);
+		forest.addVertex(output);
+		forest.addEdge(edge);
+		record(new Change(ChangeType.edgeAdded, edge));
 	}
 	
 	/**
@@ -413,22 +369,27 @@ public class Network {
 	 * @param edge	Edge to be removed.
 	 */
 	public void removeEdge(Edge edge) {
+		record(new Change(ChangeType.edgeRemoved, edge));
+		forest.removeEdge(edge);
 		if (edge.getInput().getNoOfIncoming() == 0 && edge.getInput().getNoOfOutgoing() == 1) {
-			vertices.remove(edge.getInput());
+			remove(vertices, edge.getInput(), edge.getInput().networkIndex, VERTEX_INDEX);
+			forest.removeVertex(edge.getInput());
+			vertexIds.release(edge.getInput().getId());
 		}
 		else {
-			edge.getInput().removeOutgoing(edge.getOutput());
+			edge.getInput().removeOutgoing(edge);
 		}
 		if (edge.getOutput().getNoOfIncoming() == 1 && edge.getOutput().getNoOfOutgoing() == 0) {
-			vertices.remove(edge.getOutput());
+			remove(vertices, edge.getOutput(), edge.getOutput().networkIndex, VERTEX_INDEX);
+			forest.removeVertex(edge.getOutput());
+			vertexIds.release(edge.getOutput().getId());
 		}
 		else {
-			edge.getOutput().removeIncoming(edge.getInput());
+			edge.getOutput().removeIncoming(edge);
 		}
 		
-		setUpdateAll();
-		
-		edges.remove(edge);
+		remove(edges, edge, edge.networkIndex, EDGE_INDEX);
+		edgeIds.release(edge.getId());
 	}
 	
 	/**
@@ -444,16 +405,19 @@ public class Network {
 				Vertex prevIn = edge.getInput();
 				Vertex prevOut = edge.getOutput();
 				
-				Vertex newIn = new Vertex();
-				getVertices().add(newIn);
+				Vertex newIn = new Vertex(vertexIds.allocate());
+				add(vertices, newIn, VERTEX_INDEX);
+				record(new Change(ChangeType.edgeRemoved, edge));
+				forest.removeEdge(edge);
+				forest.addVertex(newIn);
 				
 				newIn.addOutgoing(prevOut, edge);
 				edge.setInput(newIn);
-				prevOut.removeIncoming(prevIn);
 				prevOut.addIncoming(newIn, edge);
 				
-				prevIn.removeOutgoing(prevOut);
-				edge.setInput(newIn);
+				prevIn.removeOutgoing(edge);
+				forest.addEdge(edge);
+				record(new Change(ChangeType.edgeAdded, edge));
 			}
 		}
 		
@@ -463,16 +427,19 @@ public class Network {
 				Vertex prevIn = edge.getInput();
 				Vertex prevOut = edge.getOutput();
 				
-				Vertex newOut = new Vertex();
-				getVertices().add(newOut);
+				Vertex newOut = new Vertex(vertexIds.allocate());
+				add(vertices, newOut, VERTEX_INDEX);
+				record(new Change(ChangeType.edgeRemoved, edge));
+				forest.removeEdge(edge);
+				forest.addVertex(newOut);
 				
 				newOut.addIncoming(prevIn, edge);
 				edge.setOutput(newOut);
-				prevIn.removeOutgoing(prevOut);
 				prevIn.addOutgoing(newOut, edge);
 				
-				prevOut.removeIncoming(prevIn);			
-				edge.setOutput(newOut);
+				prevOut.removeIncoming(edge);
+				forest.addEdge(edge);
+				record(new Change(ChangeType.edgeAdded, edge));
 			}
 		}
 		
@@ -480,28 +447,34 @@ public class Network {
 	
 	/**
 	 * Merges two vertices. After this only one vertex will remain. This, persistent vertex obtains the information held in the now obsolete vertex, such as the incoming and outgoing edges.
+	 * Edges between the two vertices become loops, edges to a common neighbour become parallel edges.
 	 * HUN: Összeolvaszt két gráf-csúcsot. A perzisztens csúcs megkapja a beolvadó csúcs kapcsolatait.
+	 * A két csúcs közti élek hurokélek, a közös szomszédhoz futó élek párhuzamos élek lesznek.
 	 * @param persistent	The vertex, which obtains the other's role.
 	 * @param merge			The vertex, which is merged into the other. 
 	 */
 	protected void mergeVertices(Vertex persistent, Vertex merge)  {
 		if (persistent != merge) {
-			for (Map.Entry<Vertex, Edge> incoming : merge.getIncoming().entrySet()) {
-				incoming.getKey().removeOutgoing(merge);
-				incoming.getKey().addOutgoing(persistent, incoming.getValue());				
-				
-				incoming.getValue().setOutput(persistent);
-				persistent.addIncoming(incoming.getKey(), incoming.getValue());
+			record(new Change(ChangeType.verticesMerged, persistent, merge));
+			forest.mergeVertices(persistent, merge);
+
+			//First move the ends of the edges, so the other end is final even for the edges between the two vertices:
+			for (Edge incoming : merge.getIncoming().keySet()) {
+				incoming.setOutput(persistent);
 			}
-			for (Map.Entry<Vertex, Edge> outgoing : merge.getOutgoing().entrySet()) {
-				outgoing.getKey().removeIncoming(merge);
-				outgoing.getKey().addIncoming(persistent, outgoing.getValue());
-				
-				outgoing.getValue().setInput(persistent);
-				persistent.addOutgoing(outgoing.getKey(), outgoing.getValue());
+			for (Edge outgoing : merge.getOutgoing().keySet()) {
+				outgoing.setInput(persistent);
+			}
+			for (Edge incoming : merge.getIncoming().keySet()) {
+				persistent.addIncoming(incoming.getInput(), incoming);
+				incoming.getInput().addOutgoing(persistent, incoming);
+			}
+			for (Edge outgoing : merge.getOutgoing().keySet()) {
+				persistent.addOutgoing(outgoing.getOutput(), outgoing);
+				outgoing.getOutput().addIncoming(persistent, outgoing);
 			}
-			vertices.remove(merge);
-			setUpdateAll();
+			remove(vertices, merge, merge.networkIndex, VERTEX_INDEX);
+			vertexIds.release(merge.getId());
 		}
 	}
 	
@@ -516,7 +489,10 @@ public class Network {
 	public void addComponent (Component component) {
 		component.setParent(this);
 		component.build();
-		components.add(component);
+		add(components, component, COMPONENT_INDEX);
+		if (!loading) {		//Indexed by buildLoaded().
+			putInGrid(component);
+		}
 	}
 
 	/**
@@ -525,8 +501,11 @@ public class Network {
 	 * @param component	The component to be removed.
 	 */
 	public void removeComponent (Component component) {
+		Edit edit = beginEdit(component);
 		component.destroy();
-		components.remove(component);
+		remove(components, component, component.networkIndex, COMPONENT_INDEX);
+		componentGrid.remove(component);
+		endEdit(edit);
 	}
 	
 	//Move ComponentNode:--------------------------------------------------------------
@@ -538,9 +517,12 @@ public class Network {
  	 * @param cursorPos The position of the cursor;
 	 */
 	public void grabComponentNode(ComponentNode componentNode, Coordinate cursorPos) {
-		if (!componentNodes.contains(componentNode)) {
+		if (!contains(componentNodes, componentNode, componentNode.networkIndex)) {
 			throw new RuntimeException("Invalid node grabbed.");
 		}
+		ArrayList<Component> moved = new ArrayList<Component>(componentNode.getIncoming());
+		moved.addAll(componentNode.getOutgoing());
+		currentEdit = beginEdit(moved);
 		componentNode.grab(cursorPos);
 		
 	}
@@ -552,7 +534,7 @@ public class Network {
  	 * @param cursorPos The new position of the cursor;
 	 */	
 	public void dragComponentNode(ComponentNode componentNode, Coordinate cursorPos) {
-		if (!componentNodes.contains(componentNode)) {
+		if (!contains(componentNodes, componentNode, componentNode.networkIndex)) {
 			throw new RuntimeException("Invalid node moved.");
 		}
 		componentNode.drag(cursorPos);
@@ -564,11 +546,12 @@ public class Network {
 	 * @param componentNode The node to release.
 	 */
 	public void releaseComponentNode(ComponentNode componentNode) {
-		if (!componentNodes.contains(componentNode)) {
+		if (!contains(componentNodes, componentNode, componentNode.networkIndex)) {
 			throw new RuntimeException("Invalid node released.");
 		}
 		componentNode.release();
-		setUpdateAll();
+		endEdit(currentEdit);
+		currentEdit = null;
 	}
 
 	//---------------------------------------------------------------
@@ -581,10 +564,12 @@ public class Network {
 	 * @param cursorPos	The position to be dropped at. Input node is going to have x =-30 and output x = +30 offset on position.
 	 */
 	public void dropComponent(Component component, Coordinate cursorPos) {
+		Edit edit = beginEdit(component);
 		addComponent(component);
 		selected = component;
 		component.getInput().setPos(MyMath.subtrackt(cursorPos, new Coordinate(30, 0)));
 		component.getOutput().setPos(MyMath.add(cursorPos, new Coordinate(30, 0)));		
+		endEdit(edit);
 	}
 	
 	/**
@@ -594,13 +579,12 @@ public class Network {
 	 * @param cursorPos The position of the cursor;
 	 */
 	public void grabComponent(Component component, Coordinate cursorPos) {
-		if (!components.contains(component)) {
+		if (!contains(components, component, component.networkIndex)) {
 			throw new RuntimeException("Invalid node grabbed.");
 		}
 		selected = component;
+		currentEdit = beginEdit(component);
 		component.grab(cursorPos);
-		setUpdateAll();
-
 	}
 	
 	/**
@@ -610,7 +594,7 @@ public class Network {
 	 * @param cursorPos The new position of the cursor;
 	 */	
 	public void dragComponent(Component component, Coordinate cursorPos) {
-		if (!components.contains(component)) {
+		if (!contains(components, component, component.networkIndex)) {
 			throw new RuntimeException("Invalid component moved.");
 		}
 		component.drag(cursorPos);
@@ -622,30 +606,155 @@ public class Network {
 	 * @param component The component to release.
 	 */
 	public void releaseComponent(Component component) {
-		if (!components.contains(component)) {
+		if (!contains(components, component, component.networkIndex)) {
 			throw new RuntimeException("Invalid component released.");
 		}
 		component.release();
-		setUpdateAll();
+		endEdit(currentEdit);
+		currentEdit = null;
+	}
 
+	//---------------------------------------------------------------
+	//Edit properties:
+
+	/**
+	 * Sets the value of an editable property of a component, and updates the component from it.
+	 * A resistance or a voltage change only updates the system of its connected part, so undoing it does not factorize again.
+	 * HUN: Beállítja egy komponens szerkeszthető tulajdonságának értékét, és frissíti belőle a komponenst.
+	 * Az ellenállás vagy a feszültség változása csak az összefüggő rész rendszerét frissíti, így a visszavonása sem faktorizál újra.
+	 * @param component	The component.
+	 * @param name		Name of the property.
+	 * @param value		The new value.
+	 */
+	public void setProperty(Component component, String name, String value) {
+		ComponentProperty property = component.getProperties().get(name);
+		if (property == null || !property.editable) {
+			throw new RuntimeException("Invalid property edited.");
+		}
+		Edit edit = beginEdit(component);
+		property.value = value;
+		component.updatePropertyModel();
+		endEdit(edit);
+	}
+
+	//---------------------------------------------------------------
+	//Undo/Redo:
+
+	/**
+	 * Undoes the last edit. Only the touched components are taken out and put back, the rest of the network and its solved parts are kept.
+	 * HUN: Visszavonja az utolsó szerkesztést. Csak az érintett komponenseket vesszük ki és tesszük vissza, a hálózat többi része és megoldott részei megmaradnak.
+	 * @return Whether there was an edit to undo.
+	 */
+	public boolean undo() {
+		replaying = true;
+		try {
+			return history.undo(this);
+		}
+		finally {
+			replaying = false;
+			if (selected != null && !contains(selected)) {
+				selected = null;
+			}
+		}
+	}
+
+	/**
+	 * Redoes the last undone edit.
+	 * HUN: Megismétli az utoljára visszavont szerkesztést.
+	 * @return Whether there was an edit to redo.
+	 */
+	public boolean redo() {
+		replaying = true;
+		try {
+			return history.redo(this);
+		}
+		finally {
+			replaying = false;
+			if (selected != null && !contains(selected)) {
+				selected = null;
+			}
+		}
+	}
+
+	public History getHistory() {
+		return history;
+	}
+
+	/**
+	 * Starts recording an edit of the given components, unless an edit is being replayed.
+	 * HUN: Elkezdi a megadott komponensek szerkesztésének rögzítését, hacsak nem egy szerkesztés visszajátszása folyik.
+	 * @return The {@link Edit}, or null if not recording.
+	 */
+	private Edit beginEdit(ArrayList<Component> touched) {
+		return (replaying || loading)? null : new Edit(this, touched);
+	}
+
+	private Edit beginEdit(Component component) {
+		ArrayList<Component> touched = new ArrayList<Component>(1);
+		touched.add(component);
+		return beginEdit(touched);
+	}
+
+	private void endEdit(Edit edit) {
+		if (edit != null && !replaying) {
+			edit.finish(this);
+			history.add(edit);
+		}
+	}
+
+	/**
+	 * Whether the component is in the network.
+	 * HUN: Benne van-e a komponens a hálózatban.
+	 */
+	boolean contains(Component component) {
+		return contains(components, component, component.networkIndex);
+	}
+
+	boolean contains(ComponentNode componentNode) {
+		return contains(componentNodes, componentNode, componentNode.networkIndex);
 	}
 	//---------------------------------------------------------------
 	
 	/**
-	 * When everything needs to be updated in the network. Sets all update flags:
-	 * updateGraph,
-	 * updateVoltage,
-	 * updateResistance,
-	 * updateCurrent
-	 * HUN: Beállít minden frissítési jelzőt.
+	 * Records a change in the journal. After a change of everything the other changes are not recorded, they are covered by it.
+	 * HUN: Feljegyez egy változást a naplóba. Minden megváltozása után a többi változást nem jegyzi fel, azokat lefedi.
+	 * @param change	The {@link Change}.
+	 */
+	private void record(Change change) {
+		if (journal.isEmpty() || journal.get(0).getType() != ChangeType.all) {
+			journal.add(change);
+		}
+	}
+
+	/**
+	 * When everything needs to be updated in the network. Replaces the journal with a change of everything, so the system of every connected part will be rebuilt.
+	 * Edits of the edges need not call it: they are recorded one by one, and mark only the changed parts.
+	 * HUN: Ha a hálózatban mindent frissíteni kell. A naplót egyetlen, mindenre kiterjedő változásra cseréli, így minden összefüggő rész rendszere újra felépül.
 	 */
 	protected void setUpdateAll() {
-		updateGraph = true;
-		updateVoltage = true;
-		updateResistance = true;
-		updateCurrent = true;	
+		journal.clear();
+		journal.add(new Change(ChangeType.all));
 	}
 	
+	/**
+	 * When only the resistance of the given edge changed. The factorization of the system can be updated.
+	 * HUN: Ha csak az adott él ellenállása változott. A rendszer faktorizációja frissíthető.
+	 * @param edge					The changed {@link Edge}.
+	 * @param previousResistance	Resistance of the edge before the change.
+	 */
+	protected void setUpdateResistance(Edge edge, float previousResistance) {
+		record(new Change(ChangeType.resistanceChanged, edge, previousResistance));
+	}
+
+	/**
+	 * When only the source voltage of the given edge changed. The factorization of the system can be reused.
+	 * HUN: Ha csak az adott él forrásfeszültsége változott. A rendszer faktorizációja újrahasznosítható.
+	 * @param edge	The changed {@link Edge}.
+	 */
+	protected void setUpdateVoltage(Edge edge) {
+		record(new Change(ChangeType.sourceChanged, edge));
+	}
+
 	/**
 	 * Disconnects a the given component from the network. This means, that the end nodes of the component will be disconnected from other components.
 	 * HUN: Letkapcsol egy komponenst a többi komponensről. Ez a komponenst két végpontjának lecsatlakoztatásával valósul meg.
@@ -656,7 +765,7 @@ public class Network {
 			//Clone input:
 			ComponentNode prevInput = component.getInput();
 			ComponentNode newInput = new ComponentNode(prevInput.getParent());
-			componentNodes.add(newInput);
+			addComponentNode(newInput);
 			
 			newInput.setPos(prevInput.getPos());
 			newInput.setMerge(true);
@@ -670,7 +779,7 @@ public class Network {
 			//Clone output:
 			ComponentNode prevOutput = component.getOutput();
 			ComponentNode newOutput = new ComponentNode(prevOutput.getParent());
-			componentNodes.add(newOutput);
+			addComponentNode(newOutput);
 			
 			newOutput.setPos(prevOutput.getPos());
 			newOutput.setMerge(true);
@@ -684,51 +793,53 @@ public class Network {
 	
 	/**
 	 * Tries to merge a given node to any of the other nodes.
-	 * Conditions of a successful merge are, that the other node must be in the close proximity of this node and
-	 * they can not be neighbor of each other.
+	 * Condition of a successful merge is, that the other node must be in the close proximity of this node.
+	 * When they are neighbours, the components between them become loop edges.
 	 * HUN: Megpróbál találni egy adott csomóponthoz egy másik csomópontot, amellyel összeolvaszthatja az adott csomópontot.
-	 * Az összeolvasztás feltételei, hogy a másik csomópontnak "közel kell lennie" ( closeProximity )
-	 * és nem lehetnek szomszédosak.
+	 * Az összeolvasztás feltétele, hogy a másik csomópontnak "közel kell lennie" ( closeProximity ).
+	 * Szomszédos csomópontok esetén a köztük lévő alkatrészek hurokélek lesznek.
 	 * 
 	 * @param componentNode	The node, that is tried to be merged with other nodes.
 	 * @return	True, when the merging attempt was successful.
 	 */
 	protected boolean tryToMergeComponentNode(ComponentNode componentNode) {
-		for (ComponentNode iter : componentNodes) {
-			if (iter != componentNode) {
-				if (closeProximity > MyMath.magnitude(MyMath.subtrackt(componentNode.getPos(), iter.getPos()))) {					
-					if (!componentNode.isNeighbouring(iter)) {
-						//Merge needed:
-						for (Component incoming : componentNode.getIncoming()) {
-							incoming.setOutput(iter);
-							iter.addIncoming(incoming);
-						}
-						for (Component outgoing : componentNode.getOutgoing()) {
-							outgoing.setInput(iter);
-							iter.addOutgoing(outgoing);
-						}
-						
-						if (componentNode.getVertexBinding() != null && iter.getVertexBinding() != null) {
-							mergeVertices(iter.getVertexBinding(), componentNode.getVertexBinding());
-						}
-						else {
-							throw new RuntimeException("ComponentNode does not contain reference to actual node.");
-						}
-
-						componentNodes.remove(componentNode);
-						setUpdateAll();
-					
-						return true;						
-					}
-					else {
-						throw new RuntimeException("Neighbours!");
-					}
-				}
-			}
+		Coordinate pos = componentNode.getPos();
+		long proximity = (long)closeProximity * closeProximity;
+		ComponentNode iter = nodeGrid.first(pos.x, pos.y, closeProximity,
+				node -> node != componentNode && MyMath.squaredDistance(pos, node.getPos()) < proximity);
+		if (iter != null) {
+			mergeComponentNode(componentNode, iter);
+			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Merges a node into an other node. The components of the merged node are moved to the other one, and the merged node is removed.
+	 * HUN: Egy csomópontot egy másikba olvaszt. Az összeolvasztott csomópont komponenseit a másikhoz helyezi át, és az összeolvasztottat törli.
+	 * @param componentNode	The merged node.
+	 * @param iter			The node, that is kept.
+	 */
+	void mergeComponentNode(ComponentNode componentNode, ComponentNode iter) {
+		for (Component incoming : componentNode.getIncoming()) {
+			incoming.setOutput(iter);
+			iter.addIncoming(incoming);
+		}
+		for (Component outgoing : componentNode.getOutgoing()) {
+			outgoing.setInput(iter);
+			iter.addOutgoing(outgoing);
+		}
+		
+		if (componentNode.getVertexBinding() != null && iter.getVertexBinding() != null) {
+			mergeVertices(iter.getVertexBinding(), componentNode.getVertexBinding());
+		}
+		else {
+			throw new RuntimeException("ComponentNode does not contain reference to actual node.");
+		}
+
+		removeComponentNode(componentNode);
+	}
+
 	public ArrayList<Component> getComponents() {
 		return components;
 	}
@@ -744,13 +855,7 @@ public class Network {
 	 * @return	ComponentNode, in close proximity to the given Coordinate or null, if there is no ComponentNode in close proximity.
 	 */
 	public ComponentNode getNodeAtPos(Coordinate pos) {
-		for (ComponentNode iter : componentNodes) {
-			if (MyMath.magnitude(MyMath.subtrackt(iter.getPos(), pos)) < 10) {
-				return iter;
-			}
-		}
-		
-		return null;
+		return nodeGrid.first(pos.x, pos.y, 10, node -> MyMath.squaredDistance(node.getPos(), pos) < 100);
 	}
 	
 	/**
@@ -760,26 +865,71 @@ public class Network {
 	 * @return ComponentNode, in close proximity to the given Coordinate or null, if there is no ComponentNode in close proximity.
 	 */
 	public Component getComponentAtPos(Coordinate cursorPos) {
-		
-		for (Component component : components) {
-			Vector inPos = MyMath.coordToVector(component.getInput().getPos());
-			Vector outPos = MyMath.coordToVector(component.getOutput().getPos());
-			Vector cursor = MyMath.coordToVector(cursorPos);
-			
-			Vector fromInToCursor = MyMath.subtract(cursor, inPos);
-			Vector fromOutToCursor = MyMath.subtract(cursor, outPos);
+		return componentGrid.first(cursorPos.x, cursorPos.y, 0,
+				component -> MyMath.isNearSegment(cursorPos, component.getInput().getPos(), component.getOutput().getPos(), closeProximity));
+	}
 
-			Vector fromInToOut = MyMath.subtract(outPos, inPos);			
-			
-			if (MyMath.dot(fromInToCursor, fromInToOut) > 0 && MyMath.dot(fromOutToCursor, fromInToOut) < 0) {
-				float distance = MyMath.magnitude(MyMath.reject(fromInToCursor, fromInToOut)); 
-				if (distance < closeProximity) {
-					return component;
-				}
+	/**
+	 * Adds an end node of a component to the network.
+	 * HUN: Hozzáad a hálózathoz egy komponens-végpontot.
+	 * @param componentNode	The new node.
+	 */
+	void addComponentNode(ComponentNode componentNode) {
+		add(componentNodes, componentNode, NODE_INDEX);
+		if (loading) {		//Indexed by buildLoaded().
+			return;
+		}
+		nodeGrid.put(componentNode, componentNode.getPos().x, componentNode.getPos().y, componentNode.getPos().x, componentNode.getPos().y);
+	}
+
+	/**
+	 * Removes an end node of a component from the network.
+	 * HUN: Eltávolít a hálózatból egy komponens-végpontot.
+	 * @param componentNode	The removed node.
+	 */
+	void removeComponentNode(ComponentNode componentNode) {
+		remove(componentNodes, componentNode, componentNode.networkIndex, NODE_INDEX);
+		nodeGrid.remove(componentNode);
+	}
+
+	/**
+	 * Updates the spatial indices, when a node moved. The components of the node moved too.
+	 * HUN: Frissíti a térbeli indexeket, ha egy csomópont elmozdult. A csomópont komponensei is elmozdultak.
+	 * @param componentNode	The moved node.
+	 */
+	void componentNodeMoved(ComponentNode componentNode) {
+		if (nodeGrid.contains(componentNode)) {
+			nodeGrid.put(componentNode, componentNode.getPos().x, componentNode.getPos().y, componentNode.getPos().x, componentNode.getPos().y);
+			for (Component component : componentNode.getIncoming()) {
+				componentMoved(component);
 			}
-		}		
-		
-		return null;
+			for (Component component : componentNode.getOutgoing()) {
+				componentMoved(component);
+			}
+		}
+	}
+
+	/**
+	 * Updates the spatial index, when an end node of a component moved or was replaced.
+	 * HUN: Frissíti a térbeli indexet, ha egy komponens végpontja elmozdult vagy lecserélődött.
+	 * @param component	The moved component.
+	 */
+	void componentMoved(Component component) {
+		if (componentGrid.contains(component)) {
+			putInGrid(component);
+		}
+	}
+
+	/**
+	 * Puts the component in the spatial index as a segment between its end nodes, with the distance of grabbing as margin.
+	 * HUN: Beteszi a komponenst a térbeli indexbe a végpontjai közti szakaszként, a megfogás távolságával mint margóval.
+	 */
+	private void putInGrid(Component component) {
+		if (component.getInput() != null && component.getOutput() != null) {
+			Coordinate in = component.getInput().getPos();
+			Coordinate out = component.getOutput().getPos();
+			componentGrid.putSegment(component, in.x, in.y, out.x, out.y, closeProximity);
+		}
 	}
 	
 	/**
@@ -815,6 +965,7 @@ public class Network {
 		try {
 			clear();			//Clear current state.
 			setUpdateAll();	
+			loading = true;
 
 			FileReader input = new FileReader(fileName);
 			
@@ -842,18 +993,160 @@ public class Network {
 					comp.load(pairs);
 					comp.getInput().setMerge(true);
 					comp.getOutput().setMerge(true);
-					tryToMergeComponentNode(comp.getInput());
-					tryToMergeComponentNode(comp.getOutput());
 				}
 				
 			}
 			reader.close();
+			buildLoaded();
 			
 		} catch (Exception e) {
+			clear();
 			throw new RuntimeException("Load error!", e);
+		} finally {
+			loading = false;
 		}
 			
 	}
+
+	/**
+	 * Merges the nodes of the loaded components, and builds the graph representation at once.
+	 * The nodes are merged in the same order, and into the same nodes, as {@link #tryToMergeComponentNode(ComponentNode)} would merge them one by one:
+	 * each node merges into the first remaining node in its close proximity. The remaining nodes are kept in the spatial index,
+	 * and the merges are collected in a union-find structure, so the whole load takes near linear time.
+	 * HUN: Összeolvasztja a betöltött komponensek csomópontjait, és egyszerre építi fel a gráf-reprezentációt.
+	 * A csomópontok ugyanabban a sorrendben és ugyanazokba a csomópontokba olvadnak, mint egyenkénti összeolvasztáskor:
+	 * minden csomópont a közelében levő első megmaradó csomópontba olvad. A megmaradó csomópontokat a térbeli index tartja nyilván,
+	 * az összeolvasztásokat egy unió-holvan struktúra gyűjti, így a teljes betöltés közel lineáris idejű.
+	 */
+	private void buildLoaded() {
+		int n = componentNodes.size();
+		ComponentNode nodes[] = componentNodes.toArray(new ComponentNode[n]);
+		int nodeOfVertex[] = new int[vertexIds.getBound()];
+		for (int k = 0; k < n; k++) {
+			nodeOfVertex[nodes[k].getVertexBinding().getId()] = k;
+		}
+
+		//Merge the nodes, component by component, in the order of loading:
+		int parent[] = new int[n];
+		long proximity = (long)closeProximity * closeProximity;
+		for (int k = 0; k < n; k++) {
+			parent[k] = k;
+		}
+		for (Component component : components) {
+			ComponentNode ends[] = {component.getInput(), component.getOutput()};
+			for (ComponentNode node : ends) {
+				nodeGrid.put(node, node.getPos().x, node.getPos().y, node.getPos().x, node.getPos().y);
+			}
+			for (ComponentNode node : ends) {
+				Coordinate pos = node.getPos();
+				ComponentNode target = nodeGrid.first(pos.x, pos.y, closeProximity,
+						other -> other != node && MyMath.squaredDistance(pos, other.getPos()) < proximity);
+				if (target != null) {
+					parent[nodeOfVertex[node.getVertexBinding().getId()]] = nodeOfVertex[target.getVertexBinding().getId()];
+					nodeGrid.remove(node);
+				}
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			parent[k] = find(parent, k);
+		}
+
+		//Remaining nodes and their vertices:
+		componentNodes.clear();
+		for (int k = 0; k < n; k++) {
+			if (parent[k] == k) {
+				add(componentNodes, nodes[k], NODE_INDEX);
+				nodes[k].getIncoming().clear();
+				nodes[k].getOutgoing().clear();
+				add(vertices, nodes[k].getVertexBinding(), VERTEX_INDEX);
+			}
+			else {
+				vertexIds.release(nodes[k].getVertexBinding().getId());
+			}
+		}
+		for (Component component : components) {
+			ComponentNode input = nodes[parent[nodeOfVertex[component.getInput().getVertexBinding().getId()]]];
+			ComponentNode output = nodes[parent[nodeOfVertex[component.getOutput().getVertexBinding().getId()]]];
+			component.setInput(input);
+			component.setOutput(output);
+			input.addOutgoing(component);
+			output.addIncoming(component);
+		}
+		for (Edge edge : edges) {
+			Vertex input = nodes[parent[nodeOfVertex[edge.getInput().getId()]]].getVertexBinding();
+			Vertex output = nodes[parent[nodeOfVertex[edge.getOutput().getId()]]].getVertexBinding();
+			edge.setInput(input);
+			edge.setOutput(output);
+			input.addOutgoing(output, edge);
+			output.addIncoming(input, edge);
+		}
+
+		//Spanning forest and spatial index of the components:
+		for (Vertex vertex : vertices) {
+			forest.addVertex(vertex);
+		}
+		for (Edge edge : edges) {
+			forest.addEdge(edge);
+		}
+		for (Component component : components) {
+			putInGrid(component);
+		}
+		setUpdateAll();
+	}
+
+	//Indexed lists:-----------------------------------------------------
+
+	/**
+	 * Setters of the index of the items in the lists of the network.
+	 */
+	private static final ObjIntConsumer<Vertex> VERTEX_INDEX = (vertex, index) -> vertex.networkIndex = index;
+	private static final ObjIntConsumer<Edge> EDGE_INDEX = (edge, index) -> edge.networkIndex = index;
+	private static final ObjIntConsumer<Component> COMPONENT_INDEX = (component, index) -> component.networkIndex = index;
+	private static final ObjIntConsumer<ComponentNode> NODE_INDEX = (node, index) -> node.networkIndex = index;
+
+	/**
+	 * Appends an item to a list of the network, and stores its index in the item.
+	 * HUN: Hozzáfűz egy elemet a hálózat egy listájához, és eltárolja az elemben az indexét.
+	 */
+	private static <T> void add(ArrayList<T> list, T item, ObjIntConsumer<T> setIndex) {
+		setIndex.accept(item, list.size());
+		list.add(item);
+	}
+
+	/**
+	 * Removes an item from a list of the network in constant time. The last item is moved to its place.
+	 * HUN: Konstans időben töröl egy elemet a hálózat egy listájából. Az utolsó elem kerül a helyére.
+	 */
+	private static <T> void remove(ArrayList<T> list, T item, int index, ObjIntConsumer<T> setIndex) {
+		if (!contains(list, item, index)) {
+			return;
+		}
+		T last = list.remove(list.size() - 1);
+		if (last != item) {
+			list.set(index, last);
+			setIndex.accept(last, index);
+		}
+		setIndex.accept(item, -1);
+	}
+
+	/**
+	 * Whether the item is in a list of the network, at its stored index.
+	 * HUN: Benne van-e az elem a hálózat egy listájában, a tárolt indexén.
+	 */
+	private static <T> boolean contains(ArrayList<T> list, T item, int index) {
+		return index >= 0 && index < list.size() && list.get(index) == item;
+	}
+
+	/**
+	 * Root of the set of the element in a union-find structure, with path halving.
+	 */
+	private static int find(int parent[], int k) {
+		while (parent[k] != parent[parent[k]]) {
+			parent[k] = parent[parent[k]];
+			k = parent[k];
+		}
+		return parent[k];
+	}
 	
 	/**
 	 * Clears network layout. The model will be lost!
@@ -864,24 +1157,37 @@ public class Network {
 		componentNodes.clear();
 		edges.clear();
 		vertices.clear();
-		
+		forest.clear();
+		nodeGrid.clear();
+		componentGrid.clear();
+		vertexIds.clear();
+		edgeIds.clear();
+		history.clear();
+		currentEdit = null;
 		
 		setUpdateAll();
 	}
 
+	public ArrayList<Vertex> getVertices() {
+		return vertices;
+	}
+
 	/**
-	 * Calls the draw method on each component.
-	 * HUN: Minden komponensen meghívja a draw metódust.
-	 * @param ctx	{@link GraphicsContext}, where the network should be drawn.
+	 * The ids of the vertices are below this bound, so arrays of this size can be indexed by them.
+	 * HUN: A csúcsok azonosítói e korlát alatt vannak, így ekkora tömbök indexelhetők velük.
+	 * @return Bound of the vertex ids.
 	 */
-	public void draw(GraphicsContext ctx) {
-		for (Component component : components) {
-			component.draw(ctx);
-		}
+	public int getVertexIdBound() {
+		return vertexIds.getBound();
 	}
-	
-	public ArrayList<Vertex> getVertices() {
-		return vertices;
+
+	/**
+	 * The ids of the edges are below this bound, so arrays of this size can be indexed by them.
+	 * HUN: Az élek azonosítói e korlát alatt vannak, így ekkora tömbök indexelhetők velük.
+	 * @return Bound of the edge ids.
+	 */
+	public int getEdgeIdBound() {
+		return edgeIds.getBound();
 	}
 	
 	/**
@@ -921,13 +1227,226 @@ public class Network {
 		selected = null;
 	}
 	
+	public SystemFormulation getFormulation() {
+		return formulation;
+	}
+	
 	/**
-	 * Whether the network is valid or not.
-	 * HUN: Helyes-e a hálózat?
+	 * Selects the way the equations of the network are formed. The system will be rebuilt at the next simulation step.
+	 * HUN: Kiválasztja a hálózat egyenleteinek felírási módját.
+	 * @param formulation {@link SystemFormulation}
+	 */
+	public void setFormulation(SystemFormulation formulation) {
+		this.formulation = formulation;
+		setUpdateAll();
+	}
+	
+	public boolean isReduction() {
+		return reduction;
+	}
+
+	/**
+	 * Enables the reduction of the wires, series and parallel branches before the linear system is built. The system will be rebuilt at the next simulation step.
+	 * HUN: Engedélyezi a vezetékek, soros és párhuzamos ágak összevonását az egyenletrendszer felépítése előtt.
+	 * @param reduction Whether to reduce.
+	 */
+	public void setReduction(boolean reduction) {
+		this.reduction = reduction;
+		setUpdateAll();
+	}
+
+	public Pivoting getPivoting() {
+		return pivoting;
+	}
+
+	/**
+	 * Sets the parameters of the pivoting. The system will be factorized again at the next simulation step.
+	 * HUN: Beállítja a főelemkiválasztás paramétereit.
+	 * @param pivoting {@link Pivoting}
+	 */
+	public void setPivoting(Pivoting pivoting) {
+		this.pivoting = pivoting;
+		setUpdateAll();
+	}
+
+	public SolverPrecision getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * Selects the precision of the calculation of the currents. The currents will be recalculated at the next simulation step.
+	 * HUN: Kiválasztja az áramok kiszámításának pontosságát.
+	 * @param precision {@link SolverPrecision}
+	 */
+	public void setPrecision(SolverPrecision precision) {
+		this.precision = precision;
+		for (ConnectedPart part : forest.getParts()) {
+			part.resetSolver();
+		}
+	}
+
+	/**
+	 * Relative residual of the last calculation of the currents (maximum norm of residual / maximum norm of right side), in double precision.
+	 * The greatest one of the connected parts.
+	 * HUN: Az áramok legutóbbi kiszámításának relatív maradéka. Az összefüggő részek közül a legnagyobb.
+	 * @return residual
+	 */
+	public double getResidual() {
+		double residual = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			residual = Math.max(residual, part.getResidual());
+		}
+		return residual;
+	}
+
+	/**
+	 *
+	 * @return Greatest number of conjugate gradient iterations of the last calculation of the currents of a connected part, without the corrections of mixed precision.
+	 * 0 if all parts were solved by factorization.
+	 */
+	public int getNoOfIterations() {
+		int noOfIterations = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			noOfIterations = Math.max(noOfIterations, part.getNoOfIterations());
+		}
+		return noOfIterations;
+	}
+
+	public SolverMethod getSolverMethod() {
+		return method;
+	}
+
+	/**
+	 * Selects the method of solving the linear system. The system will be rebuilt at the next simulation step.
+	 * HUN: Kiválasztja a lineáris rendszer megoldási módját.
+	 * @param method {@link SolverMethod}
+	 */
+	public void setSolverMethod(SolverMethod method) {
+		this.method = method;
+		setUpdateAll();
+	}
+
+	public PreconditionerType getPreconditionerType() {
+		return preconditionerType;
+	}
+
+	/**
+	 * Selects the preconditioner of the iterative solver.
+	 * HUN: Kiválasztja az iteratív megoldó előkondicionálóját.
+	 * @param preconditionerType {@link PreconditionerType}
+	 */
+	public void setPreconditionerType(PreconditionerType preconditionerType) {
+		this.preconditionerType = preconditionerType;
+		for (ConnectedPart part : forest.getParts()) {
+			part.resetPreconditioner();
+		}
+	}
+
+	/**
+	 * Estimated relative error of the last calculation of the currents (maximum norm of the correction / maximum norm of the solution).
+	 * The greatest one of the connected parts, that were corrected. Unlike the relative residual, it notices the loss of the weak couplings of the network.
+	 * HUN: Az áramok legutóbbi kiszámításának becsült relatív hibája. A javított összefüggő részek közül a legnagyobb.
+	 * @return error estimate
+	 */
+	public double getErrorEstimate() {
+		double errorEstimate = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			if (part.getErrorEstimate() > errorEstimate) {
+				errorEstimate = part.getErrorEstimate();
+			}
+		}
+		return errorEstimate;
+	}
+
+	/**
+	 *
+	 * @return Greatest number of iterative refinement steps of the last calculation of the currents of a connected part.
+	 */
+	public int getNoOfRefinementSteps() {
+		int noOfSteps = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			noOfSteps = Math.max(noOfSteps, part.getNoOfRefinementSteps());
+		}
+		return noOfSteps;
+	}
+
+	/**
+	 * Whether the network is valid or not: it is not empty, and all of its connected parts are valid.
+	 * HUN: Helyes-e a hálózat? Nem üres, és minden összefüggő része helyes.
 	 * @return boolean
 	 */
 	public boolean isValid () {
-		return validNetwork;
+		return !forest.getParts().isEmpty() && getNoOfInvalidParts() == 0;
+	}
+
+	/**
+	 * Whether the connected part of the given component is valid or not. The currents of the component are up to date only if it is valid.
+	 * HUN: Helyes-e az adott komponenst tartalmazó összefüggő rész?
+	 * @param component The component in question.
+	 * @return boolean
+	 */
+	public boolean isValid (Component component) {
+		Vertex vertex = component.getInput().getVertexBinding();
+		return vertex != null && vertex.part != null && vertex.part.isValid();
+	}
+
+	/**
+	 *
+	 * @return Number of the connected parts, whose currents could not be calculated.
+	 */
+	public int getNoOfInvalidParts() {
+		int count = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			if (!part.isValid()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public ArrayList<ConnectedPart> getConnectedParts() {
+		return forest.getParts();
+	}
+
+	/**
+	 *
+	 * @return Number of variables of the linear systems of the connected parts.
+	 */
+	public int getNoOfVariables() {
+		int sum = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			sum += part.getNoOfVariables();
+		}
+		return sum;
+	}
+
+	/**
+	 *
+	 * @return Number of equations of the linear systems of the connected parts.
+	 */
+	public int getNoOfEquations() {
+		int sum = 0;
+		for (ConnectedPart part : forest.getParts()) {
+			sum += part.getNoOfEquations();
+		}
+		return sum;
+	}
+
+	/**
+	 *
+	 * @return Changes of the network since the last simulation step.
+	 */
+	public ArrayList<Change> getJournal() {
+		return journal;
+	}
+
+	/**
+	 *
+	 * @param path	{@link UpdatePath}
+	 * @return Number of connected part updates by the given way, since the network was created.
+	 */
+	public long getNoOfUpdates(UpdatePath path) {
+		return noOfUpdates[path.ordinal()];
 	}
 	
 }
@@ -0,0 +1,165 @@
+package main.java.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import main.java.math.Vector;
+
+/**
+ * Copy of a network for solving it with other values of some of its components, on any thread. The connected parts of the varied components
+ * are copied into {@link PartModel}s, the currents of the other parts do not change, so they are copied as they are.
+ * HUN: Egy hálózat másolata, hogy néhány komponensének más értékeivel bármely szálon megoldható legyen. A változtatott komponensek összefüggő részeit
+ * modellekbe másoljuk, a többi rész árama nem változik, ezért azokat úgy másoljuk, ahogy vannak.
+ * @author Simon Zoltán
+ *
+ */
+class NetworkModel {
+
+	private final PartModel models[];
+
+	/**
+	 * Model and edge index of each varied component.
+	 * HUN: A változtatott komponensek modellje és élindexe.
+	 */
+	private final int modelOfVaried[];
+	private final int edgeOfVaried[];
+	private final List<Component> varied;
+
+	/**
+	 * Model and edge index of each component of the network, -1 as model for the components of the other parts, and their constant currents.
+	 * HUN: A hálózat komponenseinek modellje és élindexe, a többi rész komponenseinek modellje -1, és az állandó áramuk.
+	 */
+	private final int modelOfComponent[];
+	private final int edgeOfComponent[];
+	private final float constantCurrents[];
+	private final boolean constantValid;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor. Must be called on the thread owning the network, after simulating it.
+	 * @param network	The network.
+	 * @param varied	The varied components of the network.
+	 */
+	NetworkModel(Network network, List<Component> varied) {
+		this.varied = new ArrayList<Component>(varied);
+		Map<ConnectedPart, Integer> modelOfPart = new IdentityHashMap<ConnectedPart, Integer>();
+		ArrayList<PartModel> modelList = new ArrayList<PartModel>();
+		modelOfVaried = new int[varied.size()];
+		edgeOfVaried = new int[varied.size()];
+		for (int j = 0; j < varied.size(); j++) {
+			if (!network.contains(varied.get(j))) {
+				throw new RuntimeException("Component out of the network.");
+			}
+			Edge edge = varied.get(j).getEdge();
+			ConnectedPart part = edge.getInput().part;
+			Integer m = modelOfPart.get(part);
+			if (m == null) {
+				m = modelList.size();
+				modelOfPart.put(part, m);
+				modelList.add(new PartModel(network, part));
+			}
+			modelOfVaried[j] = m;
+			edgeOfVaried[j] = edge.index;
+		}
+		models = modelList.toArray(new PartModel[modelList.size()]);
+
+		ArrayList<Component> all = network.getComponents();
+		modelOfComponent = new int[all.size()];
+		edgeOfComponent = new int[all.size()];
+		constantCurrents = new float[all.size()];
+		boolean valid = true;
+		for (int i = 0; i < all.size(); i++) {
+			Edge edge = all.get(i).getEdge();
+			Integer m = modelOfPart.get(edge.getInput().part);
+			modelOfComponent[i] = (m != null)? m : -1;
+			edgeOfComponent[i] = edge.index;
+			if (m == null) {
+				constantCurrents[i] = all.get(i).getCurrent();
+				valid &= network.isValid(all.get(i));
+			}
+		}
+		constantValid = valid;
+	}
+
+	//Getters:----------------------------------------------------------
+
+	int getNoOfModels() {
+		return models.length;
+	}
+
+	PartModel getModel(int m) {
+		return models[m];
+	}
+
+	/**
+	 *
+	 * @param j	Index of the varied component.
+	 * @return Index of the model of the varied component.
+	 */
+	int getModelOf(int j) {
+		return modelOfVaried[j];
+	}
+
+	/**
+	 *
+	 * @param j	Index of the varied component.
+	 * @return Index of the edge of the varied component in its model.
+	 */
+	int getEdgeOf(int j) {
+		return edgeOfVaried[j];
+	}
+
+	/**
+	 * Varied components of a model with the given type.
+	 * HUN: Egy modell adott típusú változtatott komponensei.
+	 * @param m		Index of the model.
+	 * @param type	{@link Resistance} or {@link VoltageSource}.
+	 * @return Indices of the varied components.
+	 */
+	int[] getVaried(int m, Class<? extends Component> type) {
+		int count = 0;
+		int indices[] = new int[varied.size()];
+		for (int j = 0; j < varied.size(); j++) {
+			if (modelOfVaried[j] == m && type.isInstance(varied.get(j))) {
+				indices[count++] = j;
+			}
+		}
+		return Arrays.copyOf(indices, count);
+	}
+
+	/**
+	 * Whether the parts without varied components are valid.
+	 * HUN: Helyesek-e a változtatott komponenst nem tartalmazó részek?
+	 * @return boolean
+	 */
+	boolean isConstantValid() {
+		return constantValid;
+	}
+
+	//Currents:---------------------------------------------------------
+
+	/**
+	 * Currents of all the components of the network from the currents of the models.
+	 * HUN: A hálózat összes komponensének árama a modellek áramaiból.
+	 * @param partCurrents	Currents of the edges of each model. null for a model without solution.
+	 * @return Currents in the order of the components of the network. NaN in the models without solution.
+	 */
+	float[] gather(Vector partCurrents[]) {
+		float currents[] = new float[modelOfComponent.length];
+		for (int i = 0; i < currents.length; i++) {
+			int m = modelOfComponent[i];
+			if (m < 0) {
+				currents[i] = constantCurrents[i];
+			}
+			else {
+				currents[i] = (partCurrents[m] != null)? partCurrents[m].at(edgeOfComponent[i]) : Float.NaN;
+			}
+		}
+		return currents;
+	}
+
+}
@@ -0,0 +1,96 @@
+package main.java.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, versioned copy of the results of a network: the placement, currents and validity of the components, and the selection.
+ * It is published by the {@link SimulationWorker}, and can be read by the UI without locking.
+ * HUN: A hálózat eredményeinek megváltoztathatatlan, verziózott másolata: a komponensek elhelyezése, áramai és helyessége, valamint a kiválasztás.
+ * A {@link SimulationWorker} teszi közzé, és a felhasználói felület zárolás nélkül olvashatja.
+ * @author Simon Zoltán
+ *
+ */
+public final class NetworkSnapshot {
+
+	/**
+	 * Snapshot of an empty network, before the first publication.
+	 * HUN: Üres hálózat pillanatképe az első közzététel előtt.
+	 */
+	public static final NetworkSnapshot EMPTY = new NetworkSnapshot();
+
+	private final long version;
+	private final List<ComponentSnapshot> components;
+	private final ComponentSnapshot selected;
+	private final boolean valid;
+	private final int noOfInvalidParts;
+	private final boolean simulating;
+
+	//Constructors:------------------------------------------------------
+
+	private NetworkSnapshot() {
+		version = 0;
+		components = Collections.emptyList();
+		selected = null;
+		valid = false;
+		noOfInvalidParts = 0;
+		simulating = false;
+	}
+
+	/**
+	 * Constructor. Must be called on the thread owning the network.
+	 * @param network		The network.
+	 * @param version		Version of the snapshot. Increases with each publication.
+	 * @param simulating	Whether the simulation is running.
+	 */
+	NetworkSnapshot(Network network, long version, boolean simulating) {
+		this.version = version;
+		this.simulating = simulating;
+		List<ComponentSnapshot> list = new ArrayList<ComponentSnapshot>(network.getComponents().size());
+		ComponentSnapshot selectedSnapshot = null;
+		for (Component component : network.getComponents()) {
+			boolean isSelected = network.isThisSelected(component);
+			ComponentSnapshot snapshot = new ComponentSnapshot(network, component, isSelected);
+			if (isSelected) {
+				selectedSnapshot = snapshot;
+			}
+			list.add(snapshot);
+		}
+		components = Collections.unmodifiableList(list);
+		selected = selectedSnapshot;
+		valid = network.isValid();
+		noOfInvalidParts = network.getNoOfInvalidParts();
+	}
+
+	//Getters:----------------------------------------------------
+
+	public long getVersion() {
+		return version;
+	}
+
+	public List<ComponentSnapshot> getComponents() {
+		return components;
+	}
+
+	/**
+	 *
+	 * @return The selected component, or null if there is none.
+	 */
+	public ComponentSnapshot getSelected() {
+		return selected;
+	}
+
+	public boolean isValid() {
+		return valid;
+	}
+
+	public int getNoOfInvalidParts() {
+		return noOfInvalidParts;
+	}
+
+	public boolean isSimulating() {
+		return simulating;
+	}
+
+}
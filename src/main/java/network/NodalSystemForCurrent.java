@@ -0,0 +1,300 @@
+package main.java.network;
+
+import main.java.math.DoubleVector;
+import main.java.math.Factorization;
+import main.java.math.Gauss;
+import main.java.math.GaussException;
+import main.java.math.Ordering;
+import main.java.math.Pivoting;
+import main.java.math.RankOneUpdate;
+import main.java.math.SparseLUDecomposition;
+import main.java.math.SparseMatrix;
+import main.java.math.Vector;
+
+/**
+ * Linear system of the modified nodal analysis (MNA) of the network.
+ * HUN: A hálózat módosított csomóponti potenciálos (MNA) egyenletrendszere.
+ * @author Simon Zoltán
+ *
+ *<h2>Variables:</h2>{Potentials of the vertices, except one reference vertex in each connected part of the graph (potential = 0).
+ *                    Then the currents of the edges with zero resistance (voltage sources, wires).}<br>
+ *
+ *<h2>Equations:</h2>{Kirchhoff's current law for each non reference vertex,
+ *                    then the voltage equation of each zero resistance edge.}<br>
+ *
+ *<pre>
+ *_______________________________
+ *|  G conductance |     B       |   potentials
+ *|________________|_____________|
+ *|      B^T       |     0       |   currents of zero resistance edges
+ *-------------------------------	=
+ *|  -G*U of edges | -U of edges |   &lt;- "right side" of equations.
+ *-------------------------------
+ *</pre>
+ *
+ * The left side is symmetric and it has only (vertices - parts + zero resistance edges) variables,
+ * instead of the (edges) variables of {@link LinearSystemForCurrent}.
+ * Resistances, wires and voltage sources are stamped directly by their edges.
+ */
+public class NodalSystemForCurrent extends SparseMatrix implements SystemForCurrent {
+
+	private int noOfEdges;
+
+	/**
+	 * Index of the potential variable of the input and output vertex of each edge. -1 for reference vertices.
+	 * HUN: Az élek bemeneti és kimeneti csúcsához tartozó potenciál változó indexe. Referencia csúcs esetén -1.
+	 */
+	private int inputVariable[];
+	private int outputVariable[];
+
+	/**
+	 * Index of the current variable of each edge. -1 for edges with non zero resistance.
+	 * HUN: Az élek áram változójának indexe. Nem nulla ellenállású él esetén -1.
+	 */
+	private int currentVariable[];
+
+	private int noOfPotentials;
+	private Vector resistances;
+	private Vector sourceVoltages;
+
+	/**
+	 * Fill-reducing ordering of the pattern of the system. Calculated at the first factorization, and kept while the pattern is unchanged.
+	 * HUN: A rendszer mintázatának kitöltődést csökkentő sorrendje. Az első faktorizációkor számoljuk, és amíg a mintázat nem változik, megtartjuk.
+	 */
+	private Ordering ordering;
+
+	/**
+	 * Constructor
+	 * @param graph			Integer indexed graph representation of network.
+	 * @param resistances	Vector of resistances of edges in the order of the edges of the graph.
+	 * @param sourceVoltage	Vector of source voltages of edges in the order of the edges of the graph.
+	 */
+	public NodalSystemForCurrent(Graph graph, Vector resistances, Vector sourceVoltage) {
+		super(0, 0);
+		int n = graph.getNoOfVertices();
+		if (n == 0) {
+			throw new RuntimeException("No nodes to work with.");
+		}
+		this.noOfEdges = graph.getNoOfEdges();
+		this.resistances = resistances;
+		this.sourceVoltages = sourceVoltage;
+
+		//Number the vertices, the first vertex of each connected part is the reference:
+		int potential[] = new int[n];
+		boolean numbered[] = new boolean[n];
+		int queue[] = new int[n];
+		noOfPotentials = 0;
+		for (int start = 0; start < n; start++) {
+			if (!numbered[start]) {
+				numbered[start] = true;
+				potential[start] = -1;
+				int head = 0;
+				int tail = 0;
+				queue[tail++] = start;
+				while (head < tail) {
+					int current = queue[head++];
+					for (int k = graph.start(current); k < graph.end(current); k++) {
+						int next = graph.other(graph.incident(k), current);
+						if (!numbered[next]) {
+							numbered[next] = true;
+							potential[next] = noOfPotentials++;
+							queue[tail++] = next;
+						}
+					}
+				}
+			}
+		}
+
+		inputVariable = new int[noOfEdges];
+		outputVariable = new int[noOfEdges];
+		currentVariable = new int[noOfEdges];
+		for (int i = 0; i < noOfEdges; i++) {
+			inputVariable[i] = potential[graph.input(i)];
+			outputVariable[i] = potential[graph.output(i)];
+		}
+
+		build();
+	}
+
+	/**
+	 * Stamps every edge into the matrix. The size of the matrix depends on the number of zero resistance edges.
+	 * HUN: Minden élet beír a mátrixba.
+	 */
+	private void build() {
+		int noOfVariables = noOfPotentials;
+		for (int i = 0; i < noOfEdges; i++) {
+			currentVariable[i] = (0 == resistances.at(i))? noOfVariables++ : -1;
+		}
+		copyWithResize(new SparseMatrix(noOfVariables + 1, noOfVariables));
+
+		for (int i = 0; i < noOfEdges; i++) {
+			int in = inputVariable[i];
+			int out = outputVariable[i];
+			int k = currentVariable[i];
+			if (k < 0) {			//Conductance:
+				float g = 1 / resistances.at(i);
+				addAt(in, in, g);
+				addAt(out, out, g);
+				addAt(in, out, -g);
+				addAt(out, in, -g);
+			}
+			else {					//Current of zero resistance edge:
+				addAt(k, in, 1);
+				addAt(k, out, -1);
+				addAt(in, k, 1);
+				addAt(out, k, -1);
+			}
+		}
+		updateSourceVoltage(sourceVoltages);
+	}
+
+	/**
+	 * Adds val to the element at position of r. row and c. column. Reference vertices (negative index) are skipped.
+	 * HUN: Hozzáad egy értéket az adott pozíción lévő elemhez. A referencia csúcsokat kihagyja.
+	 */
+	private void addAt(int r, int c, float val) {
+		if (r >= 0 && c >= 0) {
+			setAt(r, c, at(r, c) + val);
+		}
+	}
+
+	@Override
+	public void updateSourceVoltage(Vector sourceVoltages) {
+		this.sourceVoltages = sourceVoltages;
+		int rightSideRow = row - 1;
+		for (int c = 0; c < column; c++) {
+			setAt(rightSideRow, c, 0);
+		}
+		for (int i = 0; i < noOfEdges; i++) {
+			float u = sourceVoltages.at(i);
+			if (0 != u) {
+				int k = currentVariable[i];
+				if (k < 0) {		//Source in series with resistance: equivalent current source.
+					float gu = u / resistances.at(i);
+					addAt(rightSideRow, inputVariable[i], -gu);
+					addAt(rightSideRow, outputVariable[i], gu);
+				}
+				else {
+					addAt(rightSideRow, k, -u);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void updateResistances(Vector resistances) {
+		for (int i = 0; i < noOfEdges; i++) {
+			if ((0 == resistances.at(i)) != (currentVariable[i] >= 0)) {		//Variables of zero resistance edges change.
+				ordering = null;
+				break;
+			}
+		}
+		this.resistances = resistances;
+		build();
+	}
+
+	/**
+	 * The conductance of the edge appears in the equations of its end vertices.
+	 * Zero resistance edges have their own current variable, so change from or to zero resistance changes the size of the system.
+	 */
+	@Override
+	public RankOneUpdate resistanceUpdate(int edgeIndex, float previousResistance, float resistance) {
+		if (0 == previousResistance || 0 == resistance) {
+			return null;
+		}
+		float delta = 1 / resistance - 1 / previousResistance;
+		Vector u = new Vector(column);
+		Vector v = new Vector(column);
+		int in = inputVariable[edgeIndex];
+		int out = outputVariable[edgeIndex];
+		if (in >= 0) {
+			u.setAt(in, delta);
+			v.setAt(in, 1);
+		}
+		if (out >= 0) {
+			u.setAt(out, -delta);
+			v.setAt(out, -1);
+		}
+		return new RankOneUpdate(u, v);
+	}
+
+	@Override
+	public Factorization factorize(Pivoting pivoting) throws GaussException {
+		if (ordering == null || ordering.getType() != pivoting.ordering) {
+			ordering = new Ordering(this, pivoting.ordering);
+		}
+		return new SparseLUDecomposition(this, pivoting, ordering);
+	}
+
+	@Override
+	public Vector getRightSide() {
+		return Gauss.rightSide(this);
+	}
+
+	/**
+	 * The solution contains the potentials and the currents of zero resistance edges.
+	 */
+	@Override
+	public Vector branchCurrents(DoubleVector solution) {
+		Vector current = new Vector(noOfEdges);
+		for (int i = 0; i < noOfEdges; i++) {
+			current.setAt(i, (float)branchCurrent(i, solution));
+		}
+		return current;
+	}
+
+	/**
+	 * Calculated edge by edge from the resistances and source voltages in double precision,
+	 * instead of the single precision conductances stamped into the matrix.
+	 */
+	@Override
+	public DoubleVector residual(DoubleVector solution) {
+		DoubleVector ret = new DoubleVector(column);
+		for (int i = 0; i < noOfEdges; i++) {
+			int in = inputVariable[i];
+			int out = outputVariable[i];
+			int k = currentVariable[i];
+			double current = branchCurrent(i, solution);
+			if (k >= 0) {		//Voltage equation: V_in - V_out = -U
+				double vIn = (in < 0)? 0 : solution.at(in);
+				double vOut = (out < 0)? 0 : solution.at(out);
+				ret.setAt(k, ret.at(k) - sourceVoltages.at(i) - vIn + vOut);
+			}
+			//Current law: the current leaves the input and enters the output vertex.
+			if (in >= 0) {
+				ret.setAt(in, ret.at(in) - current);
+			}
+			if (out >= 0) {
+				ret.setAt(out, ret.at(out) + current);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Current of an edge from the solution of the system.
+	 * HUN: Egy él árama a rendszer megoldásából.
+	 * @param i			Index of the edge.
+	 * @param solution	Potentials and currents of zero resistance edges.
+	 * @return current
+	 */
+	private double branchCurrent(int i, DoubleVector solution) {
+		if (currentVariable[i] >= 0) {
+			return solution.at(currentVariable[i]);
+		}
+		double vIn = (inputVariable[i] < 0)? 0 : solution.at(inputVariable[i]);
+		double vOut = (outputVariable[i] < 0)? 0 : solution.at(outputVariable[i]);
+		return (vIn - vOut + sourceVoltages.at(i)) / resistances.at(i);
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return row - 1;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return column;
+	}
+
+}
@@ -0,0 +1,238 @@
+package main.java.network;
+
+import main.java.math.Factorization;
+import main.java.math.GaussException;
+import main.java.math.InfiniteSolutions;
+import main.java.math.IterativeRefinement;
+import main.java.math.Pivoting;
+import main.java.math.RankOneUpdate;
+import main.java.math.UpdatableFactorization;
+import main.java.math.Vector;
+
+/**
+ * Copy of a {@link ConnectedPart}, that can be solved with other resistances and source voltages on any thread, without touching the network.
+ * The graph and the spanning tree are built once, and shared by the threads. Each thread solves in its own {@link Workspace},
+ * which holds its own linear system, so only the value vectors are copied for a new solution, not the object graph of the network.
+ * HUN: Egy összefüggő rész másolata, amely más ellenállásokkal és forrásfeszültségekkel bármely szálon megoldható, a hálózat érintése nélkül.
+ * A gráfot és a feszítőfát egyszer építjük fel, és a szálak közösen használják. Minden szál a saját munkaterületén, saját lineáris rendszerrel old meg,
+ * így egy új megoldáshoz csak az értékek vektorait másoljuk, nem a hálózat objektumait.
+ * @author Simon Zoltán
+ *
+ */
+class PartModel {
+
+	/**
+	 * Integer indexed representation and spanning tree of the part. Read only.
+	 * HUN: A rész egész indexekkel leírt reprezentációja és feszítőfája. Csak olvassuk.
+	 */
+	private final Graph graph;
+	private final int previousEdge[];
+
+	/**
+	 * Resistances and source voltages of the edges, when the model was made. Read only.
+	 * HUN: Az élek ellenállásai és forrásfeszültségei a modell készítésekor. Csak olvassuk.
+	 */
+	private final Vector resistances;
+	private final Vector sourceVoltages;
+
+	/**
+	 * Factorization of the part with the copied resistances, if the part had an up to date one. Read only.
+	 * HUN: A rész faktorizációja a másolt ellenállásokkal, ha a résznek volt naprakész faktorizációja. Csak olvassuk.
+	 */
+	private final Factorization factorization;
+
+	//Parameters of the solution, copied from the network:
+	private final SystemFormulation formulation;
+	private final boolean reduction;
+	private final int sparseThreshold;
+	private final Pivoting pivoting;
+	private final double residualTolerance;
+	private final int maxNoOfRefinementSteps;
+	private final double maxErrorEstimate;
+	private final int maxNoOfResistanceUpdates;
+
+	private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor. Must be called on the thread owning the network.
+	 * @param network	The network of the part. Holds the parameters of the solution.
+	 * @param part		The copied part.
+	 */
+	PartModel(Network network, ConnectedPart part) {
+		graph = part.getGraph();
+		previousEdge = part.spanningTree();
+		resistances = part.gatherResistances();
+		sourceVoltages = part.gatherSourceVoltages();
+		factorization = part.getFactorization();
+		formulation = network.getFormulation();
+		reduction = network.reduction;
+		sparseThreshold = network.sparseThreshold;
+		pivoting = network.getPivoting();
+		residualTolerance = network.residualTolerance;
+		maxNoOfRefinementSteps = (network.getPrecision() == SolverPrecision.mixed)? network.maxNoOfRefinementSteps : 0;
+		maxErrorEstimate = network.maxErrorEstimate;
+		maxNoOfResistanceUpdates = network.maxNoOfResistanceUpdates;
+	}
+
+	//Getters:----------------------------------------------------------
+
+	int getNoOfEdges() {
+		return graph.getNoOfEdges();
+	}
+
+	/**
+	 *
+	 * @return Copy of the resistances of the edges, in the order of the edges of the part.
+	 */
+	Vector getResistances() {
+		return new Vector(resistances);
+	}
+
+	/**
+	 *
+	 * @return Copy of the source voltages of the edges, in the order of the edges of the part.
+	 */
+	Vector getSourceVoltages() {
+		return new Vector(sourceVoltages);
+	}
+
+	/**
+	 * The factorization is shared by the threads, it must not be updated.
+	 * @return Factorization with the copied resistances, or null if the part had no up to date factorization.
+	 */
+	Factorization getFactorization() {
+		return factorization;
+	}
+
+	/**
+	 *
+	 * @return The workspace of the calling thread.
+	 */
+	Workspace workspace() {
+		return workspaces.get();
+	}
+
+	/**
+	 * Whether the same edges have zero resistance. Then the systems built with them have the same variables, so a factorization made with one can be updated to the other.
+	 * HUN: Ugyanazoknak az éleknek nulla-e az ellenállása? Ekkor a velük felépített rendszereknek ugyanazok a változói.
+	 */
+	static boolean haveSameZeros(Vector resistances, Vector other) {
+		for (int i = 0; i < resistances.dimension; i++) {
+			if ((0 == resistances.at(i)) != (0 == other.at(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//Workspace:--------------------------------------------------------
+
+	/**
+	 * Linear system and solver of the model for a single thread.
+	 * HUN: A modell lineáris rendszere és megoldója egyetlen szál számára.
+	 */
+	class Workspace {
+
+		private SystemForCurrent system = null;
+
+		/**
+		 * Resistances, that the system was built with. The zero resistance edges determine the variables of the system.
+		 * HUN: Az ellenállások, amelyekkel a rendszer felépült. A nulla ellenállású élek határozzák meg a rendszer változóit.
+		 */
+		private Vector builtResistances = null;
+
+		private IterativeRefinement solver = new IterativeRefinement(residualTolerance, maxNoOfRefinementSteps, maxErrorEstimate);
+
+		/**
+		 * Sets the values of the edges in the system. The system is only built again, when the zero resistance edges changed.
+		 * HUN: Beállítja az élek értékeit a rendszerben. A rendszer csak a nulla ellenállású élek változásakor épül újra.
+		 * @param resistances		Resistances in the order of the edges of the part.
+		 * @param sourceVoltages	Source voltages in the order of the edges of the part.
+		 * @throws GaussException - if the zero resistance edges form a loop ({@link InfiniteSolutions}), so no system has a unique solution with these values.
+		 */
+		void setValues(Vector resistances, Vector sourceVoltages) throws GaussException {
+			//The systems keep the given vectors, so the caller may reuse its own:
+			resistances = new Vector(resistances);
+			sourceVoltages = new Vector(sourceVoltages);
+			if (system != null && haveSameZeros(resistances, builtResistances)) {
+				system.updateResistances(resistances);
+				system.updateSourceVoltage(sourceVoltages);
+			}
+			else {
+				system = null;
+				if (graph.hasZeroResistanceLoop(resistances)) {
+					throw new InfiniteSolutions();
+				}
+				system = ConnectedPart.buildSystem(formulation, graph, previousEdge, resistances, sourceVoltages, reduction, sparseThreshold);
+				builtResistances = resistances;
+			}
+		}
+
+		/**
+		 * Sets only the source voltages. The resistances stay as they were last set.
+		 * HUN: Csak a forrásfeszültségeket állítja be.
+		 * @param sourceVoltages	Source voltages in the order of the edges of the part.
+		 */
+		void setSourceVoltages(Vector sourceVoltages) {
+			system.updateSourceVoltage(new Vector(sourceVoltages));
+		}
+
+		/**
+		 * Factorizes the left side with the resistances set last. The factorization is read only, so it can be shared by the threads.
+		 * HUN: Faktorizálja a bal oldalt a legutóbb beállított ellenállásokkal. A faktorizáció csak olvasható, így a szálak közösen használhatják.
+		 * @return {@link Factorization}
+		 * @throws GaussException - if the system has infinite solutions.
+		 */
+		Factorization factorize() throws GaussException {
+			return ConnectedPart.factorize(system, pivoting);
+		}
+
+		/**
+		 * Updates a factorization made with other resistances, to the resistances set last, by rank-one updates of the changed edges.
+		 * HUN: Egy más ellenállásokkal készült faktorizációt a legutóbb beállított ellenállásokra frissít, a megváltozott élek egyrangú frissítéseivel.
+		 * @param base				The factorization.
+		 * @param baseResistances	Resistances of the factorization.
+		 * @param resistances		Resistances set last.
+		 * @return The updated factorization, or null if it has to be factorized again.
+		 */
+		Factorization update(Factorization base, Vector baseResistances, Vector resistances) {
+			if (!haveSameZeros(resistances, baseResistances)) {		//The variables of the system changed.
+				return null;
+			}
+			int noOfChanges = 0;
+			for (int i = 0; i < resistances.dimension; i++) {
+				if (resistances.at(i) != baseResistances.at(i)) {
+					noOfChanges++;
+				}
+			}
+			if (noOfChanges > maxNoOfResistanceUpdates) {
+				return null;
+			}
+			UpdatableFactorization updated = new UpdatableFactorization(base, maxNoOfResistanceUpdates);
+			for (int i = 0; i < resistances.dimension; i++) {
+				if (resistances.at(i) != baseResistances.at(i)) {
+					RankOneUpdate update = system.resistanceUpdate(i, baseResistances.at(i), resistances.at(i));
+					if (update == null || !updated.update(update)) {
+						return null;
+					}
+				}
+			}
+			return updated;
+		}
+
+		/**
+		 * Solves the system with the values set last.
+		 * HUN: Megoldja a rendszert a legutóbb beállított értékekkel.
+		 * @param factorization	Factorization of the left side with the resistances set last.
+		 * @return Vector of currents, in the order of the edges of the part.
+		 * @throws GaussException - if the system has no solution with these source voltages.
+		 */
+		Vector solve(Factorization factorization) throws GaussException {
+			return system.branchCurrents(solver.solve(factorization, system, system.getRightSide()));
+		}
+
+	}
+
+}
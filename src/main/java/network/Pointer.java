@@ -0,0 +1,86 @@
+package main.java.network;
+
+import main.java.math.Coordinate;
+
+/**
+ * Grabbing, dragging and releasing nodes and components with a pointer. A node is preferred over a component at the same position.
+ * Used on the thread owning the network, so the UI only sends the pointer positions.
+ * HUN: Csomópontok és komponensek megfogása, mozgatása és elengedése egy mutatóval. Ugyanazon a helyen a csomópontot választja a komponens helyett.
+ * A hálózatot birtokló szálon használjuk, így a felhasználói felület csak a mutató pozícióit küldi.
+ * @author Simon Zoltán
+ *
+ */
+public class Pointer {
+
+	private ComponentNode grabbedNode = null;
+	private Component grabbedComponent = null;
+
+	//Pointer events:---------------------------------------------------
+
+	/**
+	 * Grabs the node or component at the position.
+	 * HUN: Megfogja a pozíción levő csomópontot vagy komponenst.
+	 * @param network	The network.
+	 * @param cursorPos	Position of the pointer.
+	 */
+	public void press(Network network, Coordinate cursorPos) {
+		grabbedNode = network.getNodeAtPos(cursorPos);
+		grabbedComponent = null;
+		if (grabbedNode != null) {
+			network.grabComponentNode(grabbedNode, cursorPos);
+		}
+		else {
+			grabbedComponent = network.getComponentAtPos(cursorPos);
+			if (grabbedComponent != null) {
+				network.grabComponent(grabbedComponent, cursorPos);
+			}
+		}
+	}
+
+	/**
+	 * Moves the grabbed node or component.
+	 * HUN: Mozgatja a megfogott csomópontot vagy komponenst.
+	 * @param network	The network.
+	 * @param cursorPos	Position of the pointer.
+	 */
+	public void drag(Network network, Coordinate cursorPos) {
+		if (!isGrabbedIn(network)) {
+			return;
+		}
+		if (grabbedNode != null) {
+			network.dragComponentNode(grabbedNode, cursorPos);
+		}
+		else {
+			network.dragComponent(grabbedComponent, cursorPos);
+		}
+	}
+
+	/**
+	 * Releases the grabbed node or component.
+	 * HUN: Elengedi a megfogott csomópontot vagy komponenst.
+	 * @param network	The network.
+	 */
+	public void release(Network network) {
+		if (isGrabbedIn(network)) {
+			if (grabbedNode != null) {
+				network.releaseComponentNode(grabbedNode);
+			}
+			else {
+				network.releaseComponent(grabbedComponent);
+			}
+		}
+		grabbedNode = null;
+		grabbedComponent = null;
+	}
+
+	/**
+	 * Whether something is grabbed, and it is still in the network. It may have been removed, e.g. by clearing the network during the drag.
+	 */
+	private boolean isGrabbedIn(Network network) {
+		if (grabbedNode != null) {
+			return network.contains(grabbedNode);
+		}
+		return grabbedComponent != null && network.contains(grabbedComponent);
+	}
+
+}
@@ -0,0 +1,623 @@
+package main.java.network;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import main.java.math.DoubleVector;
+import main.java.math.Factorization;
+import main.java.math.GaussException;
+import main.java.math.Pivoting;
+import main.java.math.RankOneUpdate;
+import main.java.math.Vector;
+
+/**
+ * Linear system of the network, that is reduced by topological rules before the equations are formed.
+ * HUN: A hálózat lineáris rendszere, amit az egyenletek felírása előtt topológiai szabályokkal egyszerűsítünk.
+ * @author Simon Zoltán
+ *
+ *<h2>Reduction:</h2>{The zero resistance edges (wires, voltage sources) are contracted into supernodes, as in {@link SupernodalSystemForCurrent}.
+ *                    Then the branches with resistance are folded: a supernode with two branches joins them in series,
+ *                    two branches between the same supernodes are joined in parallel, a branch with both ends in one supernode is solved directly,
+ *                    and a branch to a supernode without other branches carries no current.}<br>
+ *
+ *<h2>Solution:</h2>{The remaining branches form a smaller network, which is solved by the system of the selected {@link SystemFormulation}.
+ *                   The currents of the folded branches are expanded back from the currents of the remaining ones,
+ *                   and the zero resistance edges carry the sum of the currents in the subtree of their supernode behind them.}<br>
+ *
+ * A typical hand drawn schematic, with wires between its elements and chains of resistances, shrinks several-fold.
+ * The zero resistance edges must not form a loop ({@link Graph#hasZeroResistanceLoop(Vector)}), because the current of a loop of zero resistance would be undetermined.
+ * In this case the constructor throws {@link RuntimeException}.
+ */
+public class ReducedSystemForCurrent implements SystemForCurrent {
+
+	//Kinds of branches:
+	private static final int EDGE = 0;
+	private static final int SERIES = 1;
+	private static final int PARALLEL = 2;
+
+	//States of branches:
+	private static final int REMAINING = 0;	//Part of the reduced network.
+	private static final int FOLDED = 1;		//Part of a series or parallel branch.
+	private static final int LOOP = 2;			//Both ends in the same supernode: solved directly.
+	private static final int OPEN = 3;			//Leads to a supernode without other branches: no current.
+
+	private int noOfEdges;
+	private Vector resistances;
+	private Vector sourceVoltages;
+
+	/**
+	 * Index of the input and output vertex of each edge.
+	 * HUN: Az élek bemeneti és kimeneti csúcsának indexe.
+	 */
+	private int inputVertex[];
+	private int outputVertex[];
+
+	/**
+	 * Supernode of each vertex, and potential of each vertex relative to the root of its supernode.
+	 * HUN: A csúcsok szupercsomópontja, és potenciáljuk a szupercsomópontjuk gyökeréhez képest.
+	 */
+	private int groupOf[];
+	private double offset[];
+
+	/**
+	 * Vertices in the order of discovery in their supernode (roots first), and the zero resistance edge leading to them. -1 for roots.
+	 * HUN: A csúcsok a szupercsomópontjukon belüli bejárás sorrendjében, és a hozzájuk vezető nulla ellenállású él.
+	 */
+	private int order[];
+	private int parentEdge[];
+	private int noOfGroups;
+
+	/**
+	 * Branches between the supernodes, in the order of creation, so the parts of a branch come before it.
+	 * An edge branch has the index of its edge as first part. The direction of a part relative to its branch is +1 or -1.
+	 * HUN: A szupercsomópontok közti ágak, a létrehozásuk sorrendjében, így egy ág részei megelőzik az ágat.
+	 */
+	private int noOfBranches = 0;
+	private int kind[];
+	private int state[];
+	private int first[];
+	private int second[];
+	private int firstDirection[];
+	private int secondDirection[];
+	private int from[];
+	private int to[];
+
+	/**
+	 * Equivalent resistance and source voltage of each branch.
+	 * HUN: Az ágak eredő ellenállása és forrásfeszültsége.
+	 */
+	private double branchResistance[];
+	private double branchSourceVoltage[];
+
+	/**
+	 * Branch of each edge with resistance. -1 for zero resistance edges.
+	 * HUN: A nem nulla ellenállású élek ága.
+	 */
+	private int branchOfEdge[];
+
+	/**
+	 * Index of each remaining branch in the reduced network, and the remaining branches by their index.
+	 * HUN: A megmaradó ágak indexe az egyszerűsített hálózatban.
+	 */
+	private int reducedIndex[];
+	private int remaining[];
+
+	/**
+	 * System of the reduced network. null if no branch remained.
+	 * HUN: Az egyszerűsített hálózat rendszere.
+	 */
+	private SystemForCurrent reduced;
+
+	//Working storage of the reduction:
+	private int incident[][];
+	private int noOfIncident[];
+	private int degree[];
+	private HashMap<Long, Integer> between;
+	private int stack[];
+	private int top;
+
+	/**
+	 * Constructor
+	 * @param graph				Integer indexed graph representation of network.
+	 * @param resistances		Vector of resistances of edges in the order of the edges of the graph.
+	 * @param sourceVoltage		Vector of source voltages of edges in the order of the edges of the graph.
+	 * @param formulation		Formulation of the system of the reduced network.
+	 * @param sparseThreshold	Above this number of branches the incidence and cycle formulation uses sparse representation.
+	 */
+	public ReducedSystemForCurrent(Graph graph, Vector resistances, Vector sourceVoltage, SystemFormulation formulation, int sparseThreshold) {
+		int n = graph.getNoOfVertices();
+		if (n == 0) {
+			throw new RuntimeException("No nodes to work with.");
+		}
+		noOfEdges = graph.getNoOfEdges();
+		this.resistances = resistances;
+		this.sourceVoltages = sourceVoltage;
+
+		inputVertex = new int[noOfEdges];
+		outputVertex = new int[noOfEdges];
+		for (int i = 0; i < noOfEdges; i++) {
+			inputVertex[i] = graph.input(i);
+			outputVertex[i] = graph.output(i);
+		}
+		groupOf = new int[n];
+		offset = new double[n];
+		order = new int[n];
+		parentEdge = new int[n];
+
+		contract();
+		reduce();
+		evaluate();
+
+		//The reduced network:
+		int vertexOfGroup[] = new int[noOfGroups];
+		int noOfVertices = 0;
+		for (int g = 0; g < noOfGroups; g++) {
+			vertexOfGroup[g] = (degree[g] > 0)? noOfVertices++ : -1;
+		}
+		reducedIndex = new int[noOfBranches];
+		Arrays.fill(reducedIndex, -1);
+		int noOfRemaining = 0;
+		for (int b = 0; b < noOfBranches; b++) {
+			if (state[b] == REMAINING) {
+				reducedIndex[b] = noOfRemaining++;
+			}
+		}
+		remaining = new int[noOfRemaining];
+		int input[] = new int[noOfRemaining];
+		int output[] = new int[noOfRemaining];
+		for (int b = 0; b < noOfBranches; b++) {
+			if (state[b] == REMAINING) {
+				remaining[reducedIndex[b]] = b;
+				input[reducedIndex[b]] = vertexOfGroup[from[b]];
+				output[reducedIndex[b]] = vertexOfGroup[to[b]];
+			}
+		}
+		incident = null;
+		between = null;
+		stack = null;
+
+		if (noOfRemaining > 0) {
+			Graph reducedGraph = new Graph(noOfVertices, input, output);
+			reduced = ConnectedPart.createSystem(formulation, reducedGraph,
+					(formulation == SystemFormulation.incidenceAndCycle)? reducedGraph.spanningTree() : null,
+					reducedResistances(), reducedSourceVoltages(), sparseThreshold);
+		}
+	}
+
+	//Reduction:------------------------------------------------------------
+
+	/**
+	 * Contracts the zero resistance edges into supernodes.
+	 * HUN: A nulla ellenállású éleket szupercsomópontokká vonja össze.
+	 */
+	private void contract() {
+		int n = groupOf.length;
+
+		//Zero resistance edges of each vertex:
+		int start[] = new int[n + 1];
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 == resistances.at(i)) {
+				start[inputVertex[i] + 1]++;
+				start[outputVertex[i] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			start[v + 1] += start[v];
+		}
+		int zeroEdges[] = new int[start[n]];
+		int fill[] = start.clone();
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 == resistances.at(i)) {
+				zeroEdges[fill[inputVertex[i]]++] = i;
+				zeroEdges[fill[outputVertex[i]]++] = i;
+			}
+		}
+
+		//Spanning tree of each supernode:
+		Arrays.fill(groupOf, -1);
+		boolean treeEdge[] = new boolean[noOfEdges];
+		noOfGroups = 0;
+		int visited = 0;
+		for (int root = 0; root < n; root++) {
+			if (groupOf[root] >= 0) {
+				continue;
+			}
+			groupOf[root] = noOfGroups;
+			parentEdge[root] = -1;
+			order[visited++] = root;
+			for (int k = visited - 1; k < visited; k++) {
+				int u = order[k];
+				for (int j = start[u]; j < start[u + 1]; j++) {
+					int e = zeroEdges[j];
+					if (treeEdge[e]) {
+						continue;
+					}
+					int w = (inputVertex[e] == u)? outputVertex[e] : inputVertex[e];
+					if (groupOf[w] >= 0) {
+						throw new RuntimeException("Loop of zero resistance edges.");
+					}
+					treeEdge[e] = true;
+					groupOf[w] = noOfGroups;
+					parentEdge[w] = e;
+					order[visited++] = w;
+				}
+			}
+			noOfGroups++;
+		}
+		updateOffsets();
+	}
+
+	/**
+	 * Calculates the potential of the vertices relative to the root of their supernode, from the source voltages of the zero resistance edges.
+	 * HUN: Kiszámolja a csúcsok potenciálját a szupercsomópontjuk gyökeréhez képest.
+	 */
+	private void updateOffsets() {
+		for (int k = 0; k < order.length; k++) {
+			int v = order[k];
+			int e = parentEdge[v];
+			if (e < 0) {
+				offset[v] = 0;
+			}
+			else if (outputVertex[e] == v) {	//V_out = V_in + U
+				offset[v] = offset[inputVertex[e]] + sourceVoltages.at(e);
+			}
+			else {
+				offset[v] = offset[outputVertex[e]] - sourceVoltages.at(e);
+			}
+		}
+	}
+
+	/**
+	 * Folds the branches with resistance, until no rule applies. Every folding removes a branch, so it takes linear time.
+	 * HUN: Összevonja az ellenállással rendelkező ágakat, amíg van alkalmazható szabály.
+	 */
+	private void reduce() {
+		int capacity = 2 * noOfEdges + 1;
+		kind = new int[capacity];
+		state = new int[capacity];
+		first = new int[capacity];
+		second = new int[capacity];
+		firstDirection = new int[capacity];
+		secondDirection = new int[capacity];
+		from = new int[capacity];
+		to = new int[capacity];
+		incident = new int[noOfGroups][];
+		noOfIncident = new int[noOfGroups];
+		degree = new int[noOfGroups];
+		between = new HashMap<Long, Integer>();
+		stack = new int[3 * capacity + noOfGroups];		//Each branch pushes its two ends when inserted, and the other end when opened.
+		top = 0;
+
+		branchOfEdge = new int[noOfEdges];
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 != resistances.at(i)) {
+				branchOfEdge[i] = newBranch(EDGE, i, 0, 1, 0, groupOf[inputVertex[i]], groupOf[outputVertex[i]]);
+				insert(branchOfEdge[i]);
+			}
+			else {
+				branchOfEdge[i] = -1;
+			}
+		}
+		for (int g = 0; g < noOfGroups; g++) {
+			stack[top++] = g;
+		}
+		while (top > 0) {
+			int g = stack[--top];
+			if (degree[g] == 1) {			//Open branch:
+				int a = remainingBranchAt(g, -1);
+				remove(a);
+				state[a] = OPEN;
+				stack[top++] = other(a, g);
+			}
+			else if (degree[g] == 2) {		//Series branches:
+				int a = remainingBranchAt(g, -1);
+				int b = remainingBranchAt(g, a);
+				int p = other(a, g);
+				int q = other(b, g);
+				remove(a);
+				remove(b);
+				state[a] = FOLDED;
+				state[b] = FOLDED;
+				insert(newBranch(SERIES, a, b, (from[a] == p)? 1 : -1, (from[b] == g)? 1 : -1, p, q));
+			}
+		}
+	}
+
+	/**
+	 * Adds a branch to the reduced network. A branch parallel to an other one is folded with it.
+	 */
+	private void insert(int b) {
+		int p = from[b];
+		int q = to[b];
+		if (p == q) {
+			state[b] = LOOP;
+			return;
+		}
+		long key = ((long)Math.min(p, q) << 32) | Math.max(p, q);
+		Integer parallel = between.get(key);
+		if (parallel != null) {
+			int a = parallel;
+			remove(a);
+			state[a] = FOLDED;
+			state[b] = FOLDED;
+			b = newBranch(PARALLEL, a, b, 1, (from[b] == from[a])? 1 : -1, from[a], to[a]);
+		}
+		between.put(key, b);
+		attach(b, p);
+		attach(b, q);
+		state[b] = REMAINING;
+		stack[top++] = p;
+		stack[top++] = q;
+	}
+
+	/**
+	 * Removes a branch from the reduced network.
+	 */
+	private void remove(int b) {
+		degree[from[b]]--;
+		degree[to[b]]--;
+		long key = ((long)Math.min(from[b], to[b]) << 32) | Math.max(from[b], to[b]);
+		Integer stored = between.get(key);
+		if (stored != null && stored == b) {
+			between.remove(key);
+		}
+	}
+
+	private void attach(int b, int g) {
+		if (incident[g] == null) {
+			incident[g] = new int[4];
+		}
+		else if (noOfIncident[g] == incident[g].length) {
+			incident[g] = Arrays.copyOf(incident[g], 2 * noOfIncident[g]);
+		}
+		incident[g][noOfIncident[g]++] = b;
+		degree[g]++;
+	}
+
+	/**
+	 * A remaining branch of the supernode, other than the given one. The removed branches are dropped from the list of the supernode meanwhile.
+	 */
+	private int remainingBranchAt(int g, int except) {
+		int count = 0;
+		int found = -1;
+		for (int k = 0; k < noOfIncident[g]; k++) {
+			int b = incident[g][k];
+			if (state[b] == REMAINING && (from[b] == g || to[b] == g)) {
+				incident[g][count++] = b;
+				if (found < 0 && b != except) {
+					found = b;
+				}
+			}
+		}
+		noOfIncident[g] = count;
+		return found;
+	}
+
+	private int newBranch(int kind, int first, int second, int firstDirection, int secondDirection, int from, int to) {
+		int b = noOfBranches++;
+		this.kind[b] = kind;
+		this.first[b] = first;
+		this.second[b] = second;
+		this.firstDirection[b] = firstDirection;
+		this.secondDirection[b] = secondDirection;
+		this.from[b] = from;
+		this.to[b] = to;
+		state[b] = REMAINING;
+		return b;
+	}
+
+	private int other(int b, int g) {
+		return (from[b] == g)? to[b] : from[b];
+	}
+
+	/**
+	 * Calculates the equivalent resistance and source voltage of the branches, parts first.
+	 * HUN: Kiszámolja az ágak eredő ellenállását és forrásfeszültségét, a részeikkel kezdve.
+	 */
+	private void evaluate() {
+		if (branchResistance == null) {
+			branchResistance = new double[noOfBranches];
+			branchSourceVoltage = new double[noOfBranches];
+		}
+		for (int b = 0; b < noOfBranches; b++) {
+			int a = first[b];
+			int c = second[b];
+			if (kind[b] == EDGE) {
+				branchResistance[b] = resistances.at(a);
+				branchSourceVoltage[b] = offset[inputVertex[a]] - offset[outputVertex[a]] + sourceVoltages.at(a);
+			}
+			else if (kind[b] == SERIES) {
+				branchResistance[b] = branchResistance[a] + branchResistance[c];
+				branchSourceVoltage[b] = firstDirection[b] * branchSourceVoltage[a] + secondDirection[b] * branchSourceVoltage[c];
+			}
+			else {		//Parallel: equivalent current sources are summed.
+				double ga = 1 / branchResistance[a];
+				double gc = 1 / branchResistance[c];
+				branchResistance[b] = 1 / (ga + gc);
+				branchSourceVoltage[b] = (branchSourceVoltage[a] * ga + secondDirection[b] * branchSourceVoltage[c] * gc) / (ga + gc);
+			}
+		}
+	}
+
+	private Vector reducedResistances() {
+		Vector ret = new Vector(remaining.length);
+		for (int k = 0; k < remaining.length; k++) {
+			ret.setAt(k, (float)branchResistance[remaining[k]]);
+		}
+		return ret;
+	}
+
+	private Vector reducedSourceVoltages() {
+		Vector ret = new Vector(remaining.length);
+		for (int k = 0; k < remaining.length; k++) {
+			ret.setAt(k, (float)branchSourceVoltage[remaining[k]]);
+		}
+		return ret;
+	}
+
+	//SystemForCurrent:------------------------------------------------------
+
+	@Override
+	public void updateSourceVoltage(Vector sourceVoltages) {
+		this.sourceVoltages = sourceVoltages;
+		updateOffsets();
+		evaluate();
+		if (reduced != null) {
+			reduced.updateSourceVoltage(reducedSourceVoltages());
+		}
+	}
+
+	/**
+	 * The equivalent source voltage of a parallel branch depends on the resistances too.
+	 * The same edges must have zero resistance as the system was built with ({@link PartModel#haveSameZeros(Vector, Vector)}),
+	 * otherwise the supernodes would change, so the system must be built again. Throws {@link RuntimeException} if they are not the same.
+	 */
+	@Override
+	public void updateResistances(Vector resistances) {
+		for (int i = 0; i < noOfEdges; i++) {
+			if ((0 == resistances.at(i)) != (0 == this.resistances.at(i))) {
+				throw new RuntimeException("Zero resistance edges changed.");
+			}
+		}
+		this.resistances = resistances;
+		evaluate();
+		if (reduced != null) {
+			reduced.updateResistances(reducedResistances());
+			reduced.updateSourceVoltage(reducedSourceVoltages());
+		}
+	}
+
+	/**
+	 * Only an edge, that remained a branch on its own, changes the reduced system by a rank-one update.
+	 */
+	@Override
+	public RankOneUpdate resistanceUpdate(int edgeIndex, float previousResistance, float resistance) {
+		int b = branchOfEdge[edgeIndex];
+		if (reduced == null || b < 0 || state[b] != REMAINING || 0 == previousResistance || 0 == resistance) {
+			return null;
+		}
+		return reduced.resistanceUpdate(reducedIndex[b], previousResistance, resistance);
+	}
+
+	@Override
+	public Factorization factorize(Pivoting pivoting) throws GaussException {
+		if (reduced == null) {
+			return new Factorization() {
+				@Override
+				public Vector solve(Vector rightSide) {
+					return new Vector(0);
+				}
+
+				@Override
+				public int getNoOfVariables() {
+					return 0;
+				}
+
+				@Override
+				public int getNoOfEquations() {
+					return 0;
+				}
+			};
+		}
+		return reduced.factorize(pivoting);
+	}
+
+	@Override
+	public Vector getRightSide() {
+		return (reduced != null)? reduced.getRightSide() : new Vector(0);
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return (reduced != null)? reduced.getNoOfVariables() : 0;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return (reduced != null)? reduced.getNoOfEquations() : 0;
+	}
+
+	@Override
+	public DoubleVector residual(DoubleVector solution) {
+		return (reduced != null)? reduced.residual(solution) : new DoubleVector(0);
+	}
+
+	/**
+	 * The solution is the solution of the reduced system. The currents of the remaining branches are expanded to their parts,
+	 * then the zero resistance edges carry the sum of the currents in the subtree of their supernode behind them.
+	 */
+	@Override
+	public Vector branchCurrents(DoubleVector solution) {
+		double branchCurrent[] = new double[noOfBranches];
+		if (reduced != null) {
+			Vector current = reduced.branchCurrents(solution);
+			for (int k = 0; k < remaining.length; k++) {
+				branchCurrent[remaining[k]] = current.at(k);
+			}
+		}
+		for (int b = noOfBranches - 1; b >= 0; b--) {		//Branches before their parts.
+			if (state[b] == LOOP) {
+				branchCurrent[b] = branchSourceVoltage[b] / branchResistance[b];
+			}
+			else if (state[b] == OPEN) {
+				branchCurrent[b] = 0;
+			}
+			int a = first[b];
+			int c = second[b];
+			if (kind[b] == SERIES) {
+				branchCurrent[a] = firstDirection[b] * branchCurrent[b];
+				branchCurrent[c] = secondDirection[b] * branchCurrent[b];
+			}
+			else if (kind[b] == PARALLEL) {
+				double voltage = branchCurrent[b] * branchResistance[b] - branchSourceVoltage[b];		//V_from - V_to
+				branchCurrent[a] = (voltage + branchSourceVoltage[a]) / branchResistance[a];
+				branchCurrent[c] = (secondDirection[b] * voltage + branchSourceVoltage[c]) / branchResistance[c];
+			}
+		}
+
+		Vector current = new Vector(noOfEdges);
+		double netCurrent[] = new double[groupOf.length];	//Current flowing into each vertex from resistances.
+		for (int i = 0; i < noOfEdges; i++) {
+			if (branchOfEdge[i] >= 0) {
+				double c = branchCurrent[branchOfEdge[i]];
+				current.setAt(i, (float)c);
+				netCurrent[inputVertex[i]] -= c;
+				netCurrent[outputVertex[i]] += c;
+			}
+		}
+		for (int k = order.length - 1; k >= 0; k--) {		//Leaves first.
+			int v = order[k];
+			int e = parentEdge[v];
+			if (e >= 0) {
+				if (inputVertex[e] == v) {
+					current.setAt(e, (float)netCurrent[v]);
+					netCurrent[outputVertex[e]] += netCurrent[v];
+				}
+				else {
+					current.setAt(e, (float)-netCurrent[v]);
+					netCurrent[inputVertex[e]] += netCurrent[v];
+				}
+			}
+		}
+		return current;
+	}
+
+	//Getters:------------------------------------------------------------
+
+	/**
+	 *
+	 * @return Number of branches of the reduced network.
+	 */
+	public int getNoOfBranches() {
+		return remaining.length;
+	}
+
+	/**
+	 *
+	 * @return The system of the reduced network. null if no branch remained.
+	 */
+	public SystemForCurrent getReducedSystem() {
+		return reduced;
+	}
+
+}
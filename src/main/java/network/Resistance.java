@@ -1,12 +1,9 @@
 package main.java.network;
 
-import javafx.util.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import javafx.scene.canvas.GraphicsContext;
-import main.java.gui.DrawingHelper;
 import main.java.math.Coordinate;
 import main.java.math.Line;
 import main.java.math.MyMath;
@@ -50,6 +47,11 @@ public class Resistance extends Component {
 	public float getResistance() {
 		return e.getResistance();
 	}
+
+	@Override
+	Edge getEdge() {
+		return e;
+	}
 	
 	public void setResistance(float resistance) {
 		this.resistance = resistance;
@@ -108,7 +110,7 @@ public class Resistance extends Component {
 	//Update:-------------------------------------------------------------------------------------------
 	
 	@Override
-	public void update(Duration duration) {
+	public void update(TimeStep duration) {
 		updatePropertyView();		
 	}
 
@@ -166,7 +168,7 @@ public class Resistance extends Component {
 	}
 
 	@Override
-	public void draw(GraphicsContext ctx) {
+	public List<Line> getShape() {
 		List<Line> lines = new ArrayList<Line>();
 		
 		//Construction:
@@ -189,10 +191,12 @@ public class Resistance extends Component {
 				DEFAULT_LENGTH - DEFAULT_WIDTH, 0.0f, 
 				DEFAULT_LENGTH, 0.0f));
 
-		//call drawShape
-		DrawingHelper.drawShape(ctx, getInput().getPos(), getOutput().getPos(), lines, DEFAULT_LENGTH, getParent().isThisSelected(this));
-		
-		//System.out.println("Resistance draw!");
+		return lines;
+	}
+
+	@Override
+	public float getShapeLength() {
+		return DEFAULT_LENGTH;
 	}
 	
 	@Override
@@ -216,6 +220,7 @@ public class Resistance extends Component {
 	public void updatePropertyModel() {
 		String str = getProperties().get("resistance").value;
 		if (str != null && str.length() > 0) {
+			float previousResistance = getResistance();
 			try {
 				float val = Float.parseFloat(str);
 				setResistance(val);
@@ -223,7 +228,7 @@ public class Resistance extends Component {
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
-			getParent().setUpdateAll();
+			getParent().setUpdateResistance(e, previousResistance);
 			getProperties().get("resistance").value = String.valueOf(getResistance());
 		}
 		
@@ -233,23 +238,14 @@ public class Resistance extends Component {
 	public void updatePropertyView() {
 		if (getProperties().containsKey("voltage")) {
 			getProperties().get("voltage").value = String.valueOf(getVoltage());
-			if (getProperties().get("voltage").valueN != null) {
-				getProperties().get("voltage").valueN.setText(String.valueOf(getVoltage()));				
-			}
 		}
 
 		if (getProperties().containsKey("current")) {
 			getProperties().get("current").value = String.valueOf(getCurrent());
-			if (getProperties().get("current").valueN != null) {
-				getProperties().get("current").valueN.setText(String.valueOf(getCurrent()));				
-			}
 		}
 
 		if (getProperties().containsKey("resistance")) {
 			getProperties().get("resistance").value = String.valueOf(getResistance());
-			if (getProperties().get("resistance").valueN != null) {
-				getProperties().get("resistance").valueN.setText(String.valueOf(getResistance()));				
-			}
 		}
 	}
 
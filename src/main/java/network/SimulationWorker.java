@@ -0,0 +1,167 @@
+package main.java.network;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs the simulation of a network on a dedicated thread. The network is owned by this thread: the UI sends its edits through a queue,
+ * and reads the results from the latest {@link NetworkSnapshot}, which is published through an atomic reference.
+ * So the UI never waits for a solve, and never locks.
+ * HUN: Egy hálózat szimulációját saját szálon futtatja. A hálózat ehhez a szálhoz tartozik: a felhasználói felület egy sorba küldi a szerkesztéseit,
+ * és az eredményeket a legutóbbi {@link NetworkSnapshot} pillanatképből olvassa, amelyet egy atomi referencián keresztül teszünk közzé.
+ * Így a felhasználói felület sosem vár a megoldásra, és sosem zárol.
+ * @author Simon Zoltán
+ *
+ */
+public class SimulationWorker {
+
+	/**
+	 * The simulated network. Only used on the worker thread after starting.
+	 * HUN: A szimulált hálózat. Indítás után csak a szálon használjuk.
+	 */
+	private final Network network;
+
+	/**
+	 * Edits sent to the network, in the order of sending.
+	 * HUN: A hálózatnak küldött szerkesztések, a küldés sorrendjében.
+	 */
+	private final ConcurrentLinkedQueue<Consumer<Network>> edits = new ConcurrentLinkedQueue<Consumer<Network>>();
+
+	/**
+	 * The latest published snapshot.
+	 * HUN: A legutóbb közzétett pillanatkép.
+	 */
+	private final AtomicReference<NetworkSnapshot> snapshot = new AtomicReference<NetworkSnapshot>(NetworkSnapshot.EMPTY);
+	private long version = 0;
+
+	/**
+	 * Length of a simulation step, and the wall clock time between the steps.
+	 * HUN: Egy szimulációs lépés hossza, és a lépések között eltelt valós idő.
+	 */
+	private final TimeStep timeStep;
+
+	private volatile boolean simulating = false;
+	private volatile boolean stopped = false;
+	private final Thread thread;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor. The network must not be used directly after calling {@link #start()}.
+	 * @param network	The network to simulate.
+	 * @param timeStep	Length of a simulation step.
+	 */
+	public SimulationWorker(Network network, TimeStep timeStep) {
+		this.network = network;
+		this.timeStep = timeStep;
+		thread = new Thread(this::run, "simulation");
+		thread.setDaemon(true);
+	}
+
+	//Control:-----------------------------------------------------------
+
+	public void start() {
+		thread.start();
+	}
+
+	/**
+	 * Stops the thread, and waits for it to finish the current step.
+	 * HUN: Leállítja a szálat, és megvárja, hogy befejezze az aktuális lépést.
+	 */
+	public void shutdown() {
+		stopped = true;
+		LockSupport.unpark(thread);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sends an edit to the network. It is applied on the worker thread, before the next simulation step.
+	 * The edit must not keep references to mutable state of the sending thread.
+	 * HUN: Egy szerkesztést küld a hálózatnak. A szálon, a következő szimulációs lépés előtt hajtjuk végre.
+	 * @param edit	The edit.
+	 */
+	public void submit(Consumer<Network> edit) {
+		edits.add(edit);
+		LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Starts or pauses the simulation steps. The edits are applied and published while paused too.
+	 * HUN: Elindítja vagy szünetelteti a szimulációs lépéseket. A szerkesztéseket szüneteltetés alatt is végrehajtjuk és közzétesszük.
+	 * @param simulating	Whether the simulation should run.
+	 */
+	public void setSimulating(boolean simulating) {
+		this.simulating = simulating;
+		LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Can be called from any thread, without locking.
+	 * @return The latest published snapshot.
+	 */
+	public NetworkSnapshot getSnapshot() {
+		return snapshot.get();
+	}
+
+	//Worker thread:-------------------------------------------------------
+
+	private void run() {
+		long period = (long)(timeStep.toMillis() * 1000000.0);
+		long nextStep = System.nanoTime();
+		boolean wasSimulating = false;
+		while (!stopped) {
+			boolean running = simulating;
+			//The edits are published before the step, so they are shown without waiting for the solve:
+			if (applyEdits() || running != wasSimulating) {
+				snapshot.set(new NetworkSnapshot(network, ++version, running));
+				wasSimulating = running;
+			}
+			if (running && System.nanoTime() - nextStep >= 0) {
+				try {
+					network.simulate(timeStep);
+				} catch (RuntimeException e) {
+					System.out.println("simulate error");
+					e.printStackTrace();
+				}
+				snapshot.set(new NetworkSnapshot(network, ++version, running));
+				//A step slower than the period is not made up for:
+				nextStep = Math.max(nextStep + period, System.nanoTime());
+			}
+			if (edits.isEmpty() && !stopped) {
+				//An edit or a control call arriving after the check unparks in advance, so it is not missed:
+				if (running) {
+					LockSupport.parkNanos(this, nextStep - System.nanoTime());
+				}
+				else {
+					LockSupport.park(this);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the queued edits. A failing edit is reported and skipped, the rest are applied.
+	 * @return Whether there was any edit.
+	 */
+	private boolean applyEdits() {
+		boolean any = false;
+		Consumer<Network> edit;
+		while ((edit = edits.poll()) != null) {
+			any = true;
+			try {
+				edit.accept(network);
+			} catch (RuntimeException e) {
+				System.out.println("edit error");
+				e.printStackTrace();
+			}
+		}
+		return any;
+	}
+
+}
@@ -0,0 +1,28 @@
+package main.java.network;
+
+/**
+ * Method of solving the linear system of the network.
+ * HUN: A hálózat lineáris rendszerének megoldási módja.
+ * @author Simon Zoltán
+ *
+ */
+public enum SolverMethod {
+
+	/**
+	 * Factorization of the system in the selected {@link SystemFormulation}.
+	 * HUN: A kiválasztott felírási mód rendszerének faktorizálása.
+	 */
+	direct,
+
+	/**
+	 * Preconditioned conjugate gradient on the {@link SupernodalSystemForCurrent}. A part, whose zero resistance edges form a loop, is invalid in every method.
+	 * HUN: Előkondicionált konjugált gradiens módszer a szupercsomópontos rendszeren.
+	 */
+	conjugateGradient,
+
+	/**
+	 * Conjugate gradient above a number of vertices, direct below.
+	 * HUN: Adott csúcsszám felett konjugált gradiens, alatta direkt módszer.
+	 */
+	automatic
+};
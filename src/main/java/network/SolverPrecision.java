@@ -0,0 +1,22 @@
+package main.java.network;
+
+/**
+ * Precision of the calculation of the currents.
+ * HUN: Az áramok kiszámításának pontossága.
+ * @author Simon Zoltán
+ *
+ */
+public enum SolverPrecision {
+
+	/**
+	 * Single precision factorization and solve. Fastest, the residual is only measured.
+	 * HUN: Egyszeres pontosság.
+	 */
+	single,
+
+	/**
+	 * Single precision factorization, then iterative refinement with double precision residuals.
+	 * HUN: Egyszeres pontosságú faktorizáció, majd iteratív javítás dupla pontosságú maradékkal.
+	 */
+	mixed
+};
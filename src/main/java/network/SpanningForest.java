@@ -0,0 +1,333 @@
+package main.java.network;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Spanning forest of the graph representation of the network, maintained incrementally while the edges are added, removed and reconnected.
+ * Each tree spans one {@link ConnectedPart}, and each edge out of the trees closes a fundamental cycle with the tree path between its ends.
+ * The tree edge of a vertex ({@link Vertex#treeEdge}) leads to its parent, the root of the tree has none.
+ * An edit only touches the trees of the edited edges: joining two trees or splitting one takes time proportional to the smaller tree,
+ * and the other connected parts keep their systems and factorizations.
+ * HUN: A hálózat gráf-reprezentációjának feszítőerdeje, amit az élek hozzáadásakor, törlésekor és átkötésekor lépésenként tartunk karban.
+ * Minden fa egy összefüggő részt feszít ki, és minden fán kívüli él a végpontjai közti faúttal egy alapkört zár.
+ * Egy módosítás csak a módosított élek fáit érinti: két fa egyesítése vagy egy fa kettévágása a kisebbik fa méretével arányos idejű,
+ * a többi összefüggő rész megtartja a rendszerét és a faktorizációját.
+ * @author Simon Zoltán
+ *
+ */
+public class SpanningForest {
+
+	/**
+	 * The network of the forest. Owner of the connected parts.
+	 * HUN: Az erdő hálózata.
+	 */
+	private Network network;
+
+	/**
+	 * Connected parts of the network, one for each tree of the forest.
+	 * HUN: A hálózat összefüggő részei, az erdő minden fájához egy.
+	 */
+	private ArrayList<ConnectedPart> parts = new ArrayList<ConnectedPart>();
+
+	/**
+	 * Mark of the last search. The vertices reached by a search get a new mark ({@link Vertex#mark}), so they do not have to be cleared.
+	 * HUN: A legutóbbi keresés jelölése.
+	 */
+	private int mark = 0;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param network	The network of the forest.
+	 */
+	SpanningForest(Network network) {
+		this.network = network;
+	}
+
+	//Edits:------------------------------------------------------------
+
+	/**
+	 * Adds a vertex without edges. It is the root of a new tree.
+	 * HUN: Hozzáad egy él nélküli csúcsot. Egy új fa gyökere lesz.
+	 * @param vertex	The new vertex.
+	 */
+	void addVertex(Vertex vertex) {
+		ConnectedPart part = new ConnectedPart(network);
+		vertex.treeEdge = null;
+		part.add(vertex);
+		parts.add(part);
+	}
+
+	/**
+	 * Removes a vertex, that has no edges in the forest any more.
+	 * HUN: Töröl egy csúcsot, amelynek már nincs éle az erdőben.
+	 * @param vertex	The removed vertex.
+	 */
+	void removeVertex(Vertex vertex) {
+		ConnectedPart part = vertex.part;
+		part.remove(vertex);
+		vertex.treeEdge = null;
+		if (part.getVertices().isEmpty()) {
+			parts.remove(part);
+		}
+	}
+
+	/**
+	 * Adds an edge, that is already connected to both of its ends. Between two trees it becomes a tree edge, and the smaller tree is joined to the other one.
+	 * Inside a tree it adds one fundamental cycle.
+	 * HUN: Hozzáad egy élet, amely már mindkét végpontjához kapcsolódik. Két fa között faél lesz, és a kisebbik fa a másikhoz csatlakozik.
+	 * Egy fán belül egy alapkört ad hozzá.
+	 * @param edge	The new edge.
+	 */
+	void addEdge(Edge edge) {
+		Vertex input = edge.getInput();
+		Vertex output = edge.getOutput();
+		if (input.part != output.part) {
+			Vertex root = input;
+			ConnectedPart smaller = input.part;
+			ConnectedPart larger = output.part;
+			if (smaller.getVertices().size() > larger.getVertices().size()) {
+				root = output;
+				smaller = output.part;
+				larger = input.part;
+			}
+			reroot(root);
+			root.treeEdge = edge;
+			join(larger, smaller);
+			larger.add(edge);
+		}
+		else {
+			input.part.add(edge);
+		}
+	}
+
+	/**
+	 * Removes an edge, while it is still connected to its ends. Removing an edge out of the tree only drops its fundamental cycle.
+	 * A removed tree edge is replaced by an edge between the two halves of its tree, otherwise the smaller half becomes a new tree.
+	 * Both halves are searched at the same time, until the smaller one is exhausted, so the time is proportional to the smaller half.
+	 * HUN: Töröl egy élet, amíg még kapcsolódik a végpontjaihoz. Fán kívüli él törlése csak az alapkörét szünteti meg.
+	 * A törölt faél helyére a fa két fele közti él kerül, ha nincs ilyen, a kisebbik fél új fa lesz.
+	 * A két felet egyszerre járjuk be, amíg a kisebbik el nem fogy, így az idő a kisebbik fél méretével arányos.
+	 * @param edge	The removed edge.
+	 */
+	void removeEdge(Edge edge) {
+		ConnectedPart part = edge.getInput().part;
+		part.remove(edge);
+		Vertex child;
+		if (edge.getInput().treeEdge == edge) {
+			child = edge.getInput();
+		}
+		else if (edge.getOutput().treeEdge == edge) {
+			child = edge.getOutput();
+		}
+		else {
+			return;
+		}
+		child.treeEdge = null;
+
+		//Smaller half of the tree:
+		Search below = new Search(child, ++mark);
+		Search above = new Search(other(edge, child), ++mark);
+		Search smaller;
+		while (true) {
+			if (!below.step(edge)) {
+				smaller = below;
+				break;
+			}
+			if (!above.step(edge)) {
+				smaller = above;
+				break;
+			}
+		}
+
+		//Replacement edge:
+		for (Vertex vertex : smaller.reached) {
+			Edge replacement = findReplacement(vertex, vertex.getIncoming(), edge, smaller.mark);
+			if (replacement == null) {
+				replacement = findReplacement(vertex, vertex.getOutgoing(), edge, smaller.mark);
+			}
+			if (replacement != null) {
+				reroot(vertex);
+				vertex.treeEdge = replacement;
+				return;
+			}
+		}
+
+		//Split:
+		ConnectedPart split = new ConnectedPart(network);
+		for (Vertex vertex : smaller.reached) {
+			part.remove(vertex);
+			split.add(vertex);
+		}
+		for (Vertex vertex : smaller.reached) {
+			for (Edge incident : vertex.getIncoming().keySet()) {
+				if (part.contains(incident)) {
+					part.remove(incident);
+					split.add(incident);
+				}
+			}
+			for (Edge incident : vertex.getOutgoing().keySet()) {
+				if (part.contains(incident)) {
+					part.remove(incident);
+					split.add(incident);
+				}
+			}
+		}
+		parts.add(split);
+	}
+
+	/**
+	 * Merges a vertex into an other one, before the edges are reconnected. Its children in the tree will be the children of the persistent vertex.
+	 * When they are in different trees, the smaller tree is joined to the other one. Inside a tree the tree edge of the merged vertex,
+	 * rooted at the persistent vertex, closes a cycle after the merge.
+	 * HUN: Egy csúcsot egy másikba olvaszt, az élek átkötése előtt. A fabeli gyerekei a perzisztens csúcs gyerekei lesznek.
+	 * Különböző fák esetén a kisebbik fa a másikhoz csatlakozik. Egy fán belül a beolvadó csúcs faéle - a perzisztens csúcsot gyökérnek véve -
+	 * az összeolvasztás után kört zár.
+	 * @param persistent	The vertex, which obtains the other's role.
+	 * @param merge			The vertex, which is merged into the other.
+	 */
+	void mergeVertices(Vertex persistent, Vertex merge) {
+		if (persistent.part != merge.part) {
+			reroot(merge);
+			ConnectedPart smaller = merge.part;
+			ConnectedPart larger = persistent.part;
+			if (smaller.getVertices().size() > larger.getVertices().size()) {
+				smaller = persistent.part;
+				larger = merge.part;
+			}
+			join(larger, smaller);
+		}
+		else {
+			reroot(persistent);
+		}
+		removeVertex(merge);
+	}
+
+	/**
+	 * Removes all trees.
+	 * HUN: Minden fát töröl.
+	 */
+	void clear() {
+		parts.clear();
+	}
+
+	//Getters:------------------------------------------------------------
+
+	public ArrayList<ConnectedPart> getParts() {
+		return parts;
+	}
+
+	/**
+	 * Whether the edge is in the forest.
+	 * HUN: Faél-e az adott él?
+	 * @param edge	The examined edge.
+	 * @return boolean
+	 */
+	public static boolean isTreeEdge(Edge edge) {
+		return edge.getInput().treeEdge == edge || edge.getOutput().treeEdge == edge;
+	}
+
+	//Auxiliary:-------------------------------------------------------
+
+	/**
+	 *
+	 * @return The vertex at the other end of the edge.
+	 */
+	private static Vertex other(Edge edge, Vertex vertex) {
+		return (edge.getInput() == vertex)? edge.getOutput() : edge.getInput();
+	}
+
+	/**
+	 * Makes the vertex the root of its tree, by reversing the tree edges on its path to the current root.
+	 * HUN: A csúcsot a fája gyökerévé teszi, a jelenlegi gyökérhez vezető út faéleinek megfordításával.
+	 */
+	private static void reroot(Vertex vertex) {
+		Edge toChild = null;
+		Vertex step = vertex;
+		while (step != null) {
+			Edge toParent = step.treeEdge;
+			step.treeEdge = toChild;
+			toChild = toParent;
+			step = (toParent != null)? other(toParent, step) : null;
+		}
+	}
+
+	/**
+	 * Moves every vertex and edge of the smaller part to the larger one.
+	 * HUN: A kisebbik rész minden csúcsát és élét a nagyobbikba helyezi át.
+	 */
+	private void join(ConnectedPart larger, ConnectedPart smaller) {
+		for (Vertex vertex : smaller.getVertices()) {
+			larger.add(vertex);
+		}
+		for (Edge edge : smaller.getEdges()) {
+			larger.add(edge);
+		}
+		parts.remove(smaller);
+	}
+
+	/**
+	 * Edge from the vertex to a vertex without the given mark.
+	 * HUN: Él a csúcsból egy, az adott jelölést nem viselő csúcsba.
+	 * @param adjacent	Incoming or outgoing edges of the vertex.
+	 * @param removed	The removed edge, that is left out.
+	 * @return The edge, or null if there is none.
+	 */
+	private static Edge findReplacement(Vertex vertex, Map<Edge, Vertex> adjacent, Edge removed, int mark) {
+		for (Map.Entry<Edge, Vertex> entry : adjacent.entrySet()) {
+			if (entry.getKey() != removed && entry.getValue().mark != mark) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Breadth first search of a tree along its tree edges, one vertex at a time.
+	 * HUN: Egy fa szélességi bejárása a faélek mentén, csúcsonként léptetve.
+	 */
+	private static class Search {
+
+		/**
+		 * The reached vertices, in the order of reaching them. The ones after head are not yet examined.
+		 */
+		ArrayList<Vertex> reached = new ArrayList<Vertex>();
+		int head = 0;
+		int mark;
+
+		Search(Vertex start, int mark) {
+			this.mark = mark;
+			start.mark = mark;
+			reached.add(start);
+		}
+
+		/**
+		 * Examines the next reached vertex.
+		 * @param removed	The removed edge, that is left out.
+		 * @return false if the whole tree is already reached.
+		 */
+		boolean step(Edge removed) {
+			if (head == reached.size()) {
+				return false;
+			}
+			Vertex vertex = reached.get(head++);
+			visit(vertex, vertex.getIncoming(), removed);
+			visit(vertex, vertex.getOutgoing(), removed);
+			return true;
+		}
+
+		private void visit(Vertex vertex, Map<Edge, Vertex> adjacent, Edge removed) {
+			for (Map.Entry<Edge, Vertex> entry : adjacent.entrySet()) {
+				Edge edge = entry.getKey();
+				Vertex neighbour = entry.getValue();
+				if (edge != removed && neighbour.mark != mark && (vertex.treeEdge == edge || neighbour.treeEdge == edge)) {
+					neighbour.mark = mark;
+					reached.add(neighbour);
+				}
+			}
+		}
+	}
+
+}
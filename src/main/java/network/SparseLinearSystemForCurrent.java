@@ -0,0 +1,158 @@
+package main.java.network;
+
+import main.java.math.DoubleVector;
+import main.java.math.Factorization;
+import main.java.math.Gauss;
+import main.java.math.GaussException;
+import main.java.math.Ordering;
+import main.java.math.Pivoting;
+import main.java.math.RankOneUpdate;
+import main.java.math.SparseLUDecomposition;
+import main.java.math.SparseMatrix;
+import main.java.math.Vector;
+
+/**
+ * Sparse variant of {@link LinearSystemForCurrent}. Same layout, but only the non-zero elements are stored,
+ * so the memory need grows with the number of edges and the length of the base cycles, instead of edges * (vertices + cycles).
+ * HUN: A {@link LinearSystemForCurrent} ritka változata. Azonos elrendezés, de csak a nem nulla elemeket tárolja.
+ * @author Simon Zoltán
+ *
+ */
+public class SparseLinearSystemForCurrent extends SparseMatrix implements SystemForCurrent {
+	int cycleOffset;
+	int noOfVariables;
+	SparseMatrix cycle;
+
+	/**
+	 * Fill-reducing ordering of the pattern of the system. Calculated at the first factorization, and kept while the pattern is unchanged.
+	 * HUN: A rendszer mintázatának kitöltődést csökkentő sorrendje. Az első faktorizációkor számoljuk, és amíg a mintázat nem változik, megtartjuk.
+	 */
+	private Ordering ordering;
+
+	/**
+	 * Constructor
+	 * @param incidence		Incidence matrix of the graph representation of network.
+	 * @param cycle			Base cycle matrix of the graph representation of network.
+	 * @param resistances	Vector of resistances of edges in same order as the order of edges in the incidence and cycle matrices.
+	 * @param sourceVoltage	Vector of source voltages of edges in same order as the order of edges in the incidence and cycle matrices.
+	 */
+	public SparseLinearSystemForCurrent(SparseMatrix incidence, SparseMatrix cycle, Vector resistances, Vector sourceVoltage) {
+		super(incidence.row + 1, incidence.column + cycle.column);
+
+		if (incidence.row != cycle.row) {
+			throw new RuntimeException("Number of variables (unknown currents) not equal in given incidence and cycle matrices.");
+		}
+
+		this.cycle = cycle;
+
+		noOfVariables = incidence.row;
+		cycleOffset = incidence.column;
+
+		for (int c = 0; c < incidence.column; c++) {
+			for (int k = 0; k < incidence.getColumnSize(c); k++) {
+				this.setAt(incidence.getRowIndex(c, k), c, incidence.getValue(c, k));
+			}
+		}
+
+		if (resistances != null) {
+			updateResistances(resistances);
+		}
+		if (sourceVoltage != null) {
+			updateSourceVoltage(sourceVoltage);
+		}
+	}
+
+	/**
+	 * Updates only the "source voltage" part of the matrix.
+	 * HUN: Frissíti a mátrix feszültésforrásokat leíró részét.
+	 * @param sourceVoltages	{@link Vector} of source voltages.
+	 */
+	@Override
+	public void updateSourceVoltage(Vector sourceVoltages) {
+		for (int c = 0; c < this.cycle.column; c++) {
+			float sumOfVoltages = 0;
+			for (int k = 0; k < this.cycle.getColumnSize(c); k++) {
+				int r = this.cycle.getRowIndex(c, k);
+				if (this.cycle.getValue(c, k) > 0) {
+					sumOfVoltages += sourceVoltages.at(r);
+				}
+				else {
+					sumOfVoltages -= sourceVoltages.at(r);
+				}
+			}
+			this.setAt(this.row-1, cycleOffset + c, sumOfVoltages);
+		}
+	}
+
+	/**
+	 * Updates only the "resistances" part of the matrix.
+	 * HUN: Frissíti a mátrix ellenállásokat leíró részét.
+	 * @param resistances {@link Vector} of resistances.
+	 */
+	@Override
+	public void updateResistances(Vector resistances) {
+		for (int c = 0; c < this.cycle.column; c++) {
+			for (int k = 0; k < this.cycle.getColumnSize(c); k++) {
+				int r = this.cycle.getRowIndex(c, k);
+				if (this.cycle.getValue(c, k) > 0) {
+					this.setAt(r, cycleOffset + c, resistances.at(r));
+				}
+				else {
+					this.setAt(r, cycleOffset + c, -resistances.at(r));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The resistance of the edge appears only in the cycle equations, that contain the edge.
+	 */
+	@Override
+	public RankOneUpdate resistanceUpdate(int edgeIndex, float previousResistance, float resistance) {
+		Vector u = new Vector(column);
+		Vector v = new Vector(noOfVariables);
+		v.setAt(edgeIndex, 1);
+		float delta = resistance - previousResistance;
+		for (int c = 0; c < this.cycle.column; c++) {
+			if (this.cycle.at(edgeIndex, c) > 0) {
+				u.setAt(cycleOffset + c, delta);
+			}
+			else if (this.cycle.at(edgeIndex, c) < 0) {
+				u.setAt(cycleOffset + c, -delta);
+			}
+		}
+		return new RankOneUpdate(u, v);
+	}
+
+	@Override
+	public Factorization factorize(Pivoting pivoting) throws GaussException {
+		if (ordering == null || ordering.getType() != pivoting.ordering) {
+			ordering = new Ordering(this, pivoting.ordering, false);		//Equations of vertices and cycles, variables of edges.
+		}
+		return new SparseLUDecomposition(this, pivoting, ordering);
+	}
+
+	@Override
+	public Vector getRightSide() {
+		return Gauss.rightSide(this);
+	}
+
+	/**
+	 * The variables of the system are the currents of the edges.
+	 */
+	@Override
+	public Vector branchCurrents(DoubleVector solution) {
+		return solution.toVector();
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return row - 1;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return column;
+	}
+
+}
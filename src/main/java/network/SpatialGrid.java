@@ -0,0 +1,268 @@
+package main.java.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid of square cells over the board, for finding the nodes or components near a position without examining all of them.
+ * Each item is stored in every cell touched by its bounding box or its segment, and must be put again, when it moves.
+ * Only the occupied cells are stored, so the board is unbounded.
+ * HUN: Négyzetes cellákból álló egyenletes rács a táblán, hogy egy pozícióhoz közeli csomópontokat vagy komponenseket mindegyikük vizsgálata nélkül találjuk meg.
+ * Minden elem a befoglaló téglalapja vagy a szakasza által érintett összes cellában szerepel, és újra be kell tenni, ha elmozdul.
+ * Csak a foglalt cellákat tároljuk, így a tábla korlátlan.
+ * @author Simon Zoltán
+ *
+ * @param <T> Type of the items.
+ */
+public class SpatialGrid<T> {
+
+	/**
+	 * Side length of the cells.
+	 * HUN: A cellák oldalhossza.
+	 */
+	private int cellSize;
+
+	/**
+	 * Entries of the occupied cells, keyed by the cell coordinates.
+	 * HUN: A foglalt cellák bejegyzései, a cella koordinátái szerint.
+	 */
+	private HashMap<Long, ArrayList<Entry<T>>> cells = new HashMap<Long, ArrayList<Entry<T>>>();
+
+	/**
+	 * Entry of each item.
+	 * HUN: Az elemek bejegyzései.
+	 */
+	private IdentityHashMap<T, Entry<T>> entries = new IdentityHashMap<T, Entry<T>>();
+
+	/**
+	 * Number of the items put in so far. Gives the order of the items.
+	 * HUN: Az eddig betett elemek száma. Az elemek sorrendjét adja.
+	 */
+	private long noOfPut = 0;
+
+	/**
+	 * Keys of the cells of the item being put.
+	 */
+	private long newCells[] = new long[16];
+	private int noOfCells;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param cellSize	Side length of the cells. About the size of an item is the best.
+	 */
+	public SpatialGrid(int cellSize) {
+		this.cellSize = cellSize;
+	}
+
+	//Edits:-----------------------------------------------------------
+
+	/**
+	 * Puts an item in the grid, or moves it, if it is already in. A moved item keeps its order.
+	 * HUN: Beteszi az elemet a rácsba, vagy áthelyezi, ha már benne van. Az áthelyezett elem megtartja a sorrendjét.
+	 * @param item	The item.
+	 * @param minX	Bounding box of the item.
+	 * @param minY	Bounding box of the item.
+	 * @param maxX	Bounding box of the item.
+	 * @param maxY	Bounding box of the item.
+	 */
+	public void put(T item, int minX, int minY, int maxX, int maxY) {
+		noOfCells = 0;
+		for (int x = cell(minX); x <= cell(maxX); x++) {
+			for (int y = cell(minY); y <= cell(maxY); y++) {
+				addCell(key(x, y));
+			}
+		}
+		link(item);
+	}
+
+	/**
+	 * Puts a segment in the grid, or moves it, if it is already in. It is stored in the cells, that are closer to the segment than the margin,
+	 * so a long segment does not occupy the whole area of its bounding box. A moved item keeps its order.
+	 * HUN: Betesz egy szakaszt a rácsba, vagy áthelyezi, ha már benne van. Azokban a cellákban tároljuk, amelyek a margónál közelebb vannak a szakaszhoz,
+	 * így egy hosszú szakasz nem foglalja el a befoglaló téglalapja egész területét.
+	 * @param item		The item.
+	 * @param x1		Start of the segment.
+	 * @param y1		Start of the segment.
+	 * @param x2		End of the segment.
+	 * @param y2		End of the segment.
+	 * @param margin	Distance of the hits from the segment.
+	 */
+	public void putSegment(T item, int x1, int y1, int x2, int y2, int margin) {
+		//Walk along the major axis (u), one strip of cells at a time:
+		boolean steep = Math.abs(y2 - y1) > Math.abs(x2 - x1);
+		int u1 = steep? y1 : x1;
+		int v1 = steep? x1 : y1;
+		int u2 = steep? y2 : x2;
+		int v2 = steep? x2 : y2;
+		if (u1 > u2) {
+			int temp = u1; u1 = u2; u2 = temp;
+			temp = v1; v1 = v2; v2 = temp;
+		}
+		noOfCells = 0;
+		for (int cu = cell(u1 - margin); cu <= cell(u2 + margin); cu++) {
+			//Part of the segment, that can hit the strip. The slope is at most 1, so 2 * margin is enough across the strip.
+			int from = Math.max(u1, Math.min(u2, cu * cellSize - margin));
+			int to = Math.max(u1, Math.min(u2, (cu + 1) * cellSize + margin));
+			double vFrom = (u1 == u2)? v1 : v1 + (double)(v2 - v1) * (from - u1) / (u2 - u1);
+			double vTo = (u1 == u2)? v2 : v1 + (double)(v2 - v1) * (to - u1) / (u2 - u1);
+			int low = (int)Math.floor(Math.min(vFrom, vTo)) - 2 * margin;
+			int high = (int)Math.ceil(Math.max(vFrom, vTo)) + 2 * margin;
+			for (int cv = cell(low); cv <= cell(high); cv++) {
+				addCell(steep? key(cv, cu) : key(cu, cv));
+			}
+		}
+		link(item);
+	}
+
+	/**
+	 * Removes an item from the grid.
+	 * HUN: Kiveszi az elemet a rácsból.
+	 * @param item	The item.
+	 */
+	public void remove(T item) {
+		Entry<T> entry = entries.remove(item);
+		if (entry != null) {
+			unlink(entry);
+		}
+	}
+
+	/**
+	 * Removes every item.
+	 * HUN: Minden elemet kivesz.
+	 */
+	public void clear() {
+		cells.clear();
+		entries.clear();
+		noOfPut = 0;
+	}
+
+	//Queries:-----------------------------------------------------------
+
+	/**
+	 * Whether the item is in the grid.
+	 * HUN: Benne van-e az elem a rácsban.
+	 * @param item	The item.
+	 * @return boolean
+	 */
+	public boolean contains(T item) {
+		return entries.containsKey(item);
+	}
+
+	/**
+	 * Finds the first item in the order of putting them in, whose bounding box touches the given square, and which is hit by the given test.
+	 * HUN: Megkeresi a betevés sorrendjében első elemet, amelynek befoglaló téglalapja érinti a megadott négyzetet, és amelyet a megadott teszt eltalál.
+	 * @param x			Center of the square.
+	 * @param y			Center of the square.
+	 * @param radius	Half side length of the square.
+	 * @param hit		Exact test of the items.
+	 * @return The item, or null if no item is hit.
+	 */
+	public T first(int x, int y, int radius, Predicate<T> hit) {
+		Entry<T> found = null;
+		for (int cx = cell(x - radius); cx <= cell(x + radius); cx++) {
+			for (int cy = cell(y - radius); cy <= cell(y + radius); cy++) {
+				ArrayList<Entry<T>> list = cells.get(key(cx, cy));
+				if (list != null) {
+					for (int k = 0; k < list.size(); k++) {
+						Entry<T> entry = list.get(k);
+						if ((found == null || entry.order < found.order) && hit.test(entry.item)) {
+							found = entry;
+						}
+					}
+				}
+			}
+		}
+		return (found != null)? found.item : null;
+	}
+
+	/**
+	 *
+	 * @return Number of the items.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	//Auxiliary:-------------------------------------------------------
+
+	private int cell(int coordinate) {
+		return Math.floorDiv(coordinate, cellSize);
+	}
+
+	/**
+	 * Key of a cell. The packed coordinates are multiplied by an odd constant, which keeps the keys distinct,
+	 * but spreads their hash codes, that would be x ^ y otherwise.
+	 */
+	private static long key(int x, int y) {
+		return (((long)x << 32) | (y & 0xffffffffL)) * 0x9E3779B97F4A7C15L;
+	}
+
+	private void addCell(long key) {
+		if (noOfCells == newCells.length) {
+			newCells = Arrays.copyOf(newCells, 2 * noOfCells);
+		}
+		newCells[noOfCells++] = key;
+	}
+
+	/**
+	 * Moves the item to the collected cells.
+	 */
+	private void link(T item) {
+		Entry<T> entry = entries.get(item);
+		if (entry == null) {
+			entry = new Entry<T>(item, noOfPut++);
+			entries.put(item, entry);
+		}
+		else if (entry.cells.length == noOfCells && Arrays.equals(entry.cells, 0, noOfCells, newCells, 0, noOfCells)) {
+			return;
+		}
+		else {
+			unlink(entry);
+		}
+		entry.cells = Arrays.copyOf(newCells, noOfCells);
+		for (long key : entry.cells) {
+			ArrayList<Entry<T>> list = cells.get(key);
+			if (list == null) {
+				list = new ArrayList<Entry<T>>(4);
+				cells.put(key, list);
+			}
+			list.add(entry);
+		}
+	}
+
+	/**
+	 * Removes the entry from its cells. Inside a cell the order does not matter, so it is swapped with the last one.
+	 */
+	private void unlink(Entry<T> entry) {
+		for (long key : entry.cells) {
+			ArrayList<Entry<T>> list = cells.get(key);
+			int last = list.size() - 1;
+			int k = list.indexOf(entry);
+			list.set(k, list.get(last));
+			list.remove(last);
+			if (list.isEmpty()) {
+				cells.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * An item with its order and the keys of its cells.
+	 */
+	private static class Entry<T> {
+		T item;
+		long order;
+		long cells[];
+
+		Entry(T item, long order) {
+			this.item = item;
+			this.order = order;
+		}
+	}
+
+}
@@ -0,0 +1,430 @@
+package main.java.network;
+
+import java.util.Arrays;
+
+import main.java.math.DoubleVector;
+import main.java.math.Factorization;
+import main.java.math.Gauss;
+import main.java.math.GaussException;
+import main.java.math.Ordering;
+import main.java.math.Pivoting;
+import main.java.math.RankOneUpdate;
+import main.java.math.SparseLUDecomposition;
+import main.java.math.SparseMatrix;
+import main.java.math.Vector;
+
+/**
+ * Linear system of the nodal analysis of the network, where the zero resistance edges (wires, voltage sources) are contracted into supernodes.
+ * HUN: A hálózat csomóponti potenciálos egyenletrendszere, ahol a nulla ellenállású élek (vezetékek, feszültségforrások) szupercsomópontokká vannak összevonva.
+ * @author Simon Zoltán
+ *
+ *<h2>Variables:</h2>{Potentials of the supernodes, except one reference supernode in each connected part of the graph (potential = 0).
+ *                    The potential of a vertex is the potential of its supernode + the sum of source voltages along the zero resistance edges from the root of the supernode.}<br>
+ *
+ *<h2>Equations:</h2>{Kirchhoff's current law for each non reference supernode.}<br>
+ *
+ *<pre>
+ *__________________
+ *|  G conductance |   potentials of supernodes
+ *------------------	=
+ *|  -G*U of edges |   &lt;- "right side" of equations.
+ *------------------
+ *</pre>
+ *
+ * The left side is the weighted Laplacian of the contracted graph without the reference rows, so it is symmetric and positive definite.
+ * It can be solved by conjugate gradient method. The currents of the zero resistance edges are calculated from the currents of the resistances, by Kirchhoff's current law.
+ * The zero resistance edges must not form a loop ({@link Graph#hasZeroResistanceLoop(Vector)}), because the current of a loop of zero resistance would be undetermined. In this case the constructor throws {@link RuntimeException}.
+ */
+public class SupernodalSystemForCurrent extends SparseMatrix implements SystemForCurrent {
+
+	private int noOfEdges;
+	private Vector resistances;
+	private Vector sourceVoltages;
+
+	/**
+	 * Index of the input and output vertex of each edge.
+	 * HUN: Az élek bemeneti és kimeneti csúcsának indexe.
+	 */
+	private int inputVertex[];
+	private int outputVertex[];
+
+	/**
+	 * Supernode of each vertex.
+	 * HUN: A csúcsok szupercsomópontja.
+	 */
+	private int groupOf[];
+
+	/**
+	 * Potential of each vertex relative to the root of its supernode.
+	 * HUN: A csúcsok potenciálja a szupercsomópontjuk gyökeréhez képest.
+	 */
+	private double offset[];
+
+	/**
+	 * Vertices in the order of discovery in their supernode (roots first), and the zero resistance edge leading to them. -1 for roots.
+	 * HUN: A csúcsok a szupercsomópontjukon belüli bejárás sorrendjében, és a hozzájuk vezető nulla ellenállású él.
+	 */
+	private int order[];
+	private int parentEdge[];
+
+	/**
+	 * Index of the potential variable of each supernode. -1 for reference supernodes.
+	 * HUN: A szupercsomópontok potenciál változójának indexe. Referencia szupercsomópont esetén -1.
+	 */
+	private int variableOfGroup[];
+
+	/**
+	 * Fill-reducing ordering of the pattern of the system. Calculated at the first factorization, and kept while the pattern is unchanged.
+	 * HUN: A rendszer mintázatának kitöltődést csökkentő sorrendje. Az első faktorizációkor számoljuk, és amíg a mintázat nem változik, megtartjuk.
+	 */
+	private Ordering ordering;
+
+	/**
+	 * Constructor
+	 * @param graph			Integer indexed graph representation of network.
+	 * @param resistances	Vector of resistances of edges in the order of the edges of the graph.
+	 * @param sourceVoltage	Vector of source voltages of edges in the order of the edges of the graph.
+	 */
+	public SupernodalSystemForCurrent(Graph graph, Vector resistances, Vector sourceVoltage) {
+		super(0, 0);
+		int n = graph.getNoOfVertices();
+		if (n == 0) {
+			throw new RuntimeException("No nodes to work with.");
+		}
+		this.noOfEdges = graph.getNoOfEdges();
+		this.resistances = resistances;
+		this.sourceVoltages = sourceVoltage;
+
+		inputVertex = new int[noOfEdges];
+		outputVertex = new int[noOfEdges];
+		for (int i = 0; i < noOfEdges; i++) {
+			inputVertex[i] = graph.input(i);
+			outputVertex[i] = graph.output(i);
+		}
+		groupOf = new int[n];
+		offset = new double[n];
+		order = new int[n];
+		parentEdge = new int[n];
+
+		contract();
+		build();
+	}
+
+	/**
+	 * Contracts the zero resistance edges into supernodes and selects the reference supernodes.
+	 * HUN: A nulla ellenállású éleket szupercsomópontokká vonja össze, és kiválasztja a referencia szupercsomópontokat.
+	 */
+	private void contract() {
+		int n = groupOf.length;
+
+		//Zero resistance edges of each vertex:
+		int start[] = new int[n + 1];
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 == resistances.at(i)) {
+				start[inputVertex[i] + 1]++;
+				start[outputVertex[i] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			start[v + 1] += start[v];
+		}
+		int zeroEdges[] = new int[start[n]];
+		int fill[] = start.clone();
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 == resistances.at(i)) {
+				zeroEdges[fill[inputVertex[i]]++] = i;
+				zeroEdges[fill[outputVertex[i]]++] = i;
+			}
+		}
+
+		//Spanning tree of each supernode:
+		Arrays.fill(groupOf, -1);
+		boolean treeEdge[] = new boolean[noOfEdges];
+		int noOfGroups = 0;
+		int visited = 0;
+		for (int root = 0; root < n; root++) {
+			if (groupOf[root] >= 0) {
+				continue;
+			}
+			groupOf[root] = noOfGroups;
+			parentEdge[root] = -1;
+			order[visited++] = root;
+			for (int k = visited - 1; k < visited; k++) {
+				int u = order[k];
+				for (int j = start[u]; j < start[u + 1]; j++) {
+					int e = zeroEdges[j];
+					if (treeEdge[e]) {
+						continue;
+					}
+					int w = (inputVertex[e] == u)? outputVertex[e] : inputVertex[e];
+					if (groupOf[w] >= 0) {
+						throw new RuntimeException("Loop of zero resistance edges.");
+					}
+					treeEdge[e] = true;
+					groupOf[w] = noOfGroups;
+					parentEdge[w] = e;
+					order[visited++] = w;
+				}
+			}
+			noOfGroups++;
+		}
+		updateOffsets();
+
+		//The first supernode of each connected part is the reference:
+		int parent[] = new int[noOfGroups];
+		for (int g = 0; g < noOfGroups; g++) {
+			parent[g] = g;
+		}
+		for (int i = 0; i < noOfEdges; i++) {
+			int a = find(parent, groupOf[inputVertex[i]]);
+			int b = find(parent, groupOf[outputVertex[i]]);
+			if (a != b) {
+				parent[Math.max(a, b)] = Math.min(a, b);
+			}
+		}
+		variableOfGroup = new int[noOfGroups];
+		int noOfVariables = 0;
+		for (int g = 0; g < noOfGroups; g++) {
+			variableOfGroup[g] = (find(parent, g) == g)? -1 : noOfVariables++;
+		}
+		copyWithResize(new SparseMatrix(noOfVariables + 1, noOfVariables));
+	}
+
+	/**
+	 * Root of the set of g in the union-find forest.
+	 */
+	private static int find(int parent[], int g) {
+		while (parent[g] != g) {
+			parent[g] = parent[parent[g]];
+			g = parent[g];
+		}
+		return g;
+	}
+
+	/**
+	 * Calculates the potential of the vertices relative to the root of their supernode, from the source voltages of the zero resistance edges.
+	 * HUN: Kiszámolja a csúcsok potenciálját a szupercsomópontjuk gyökeréhez képest.
+	 */
+	private void updateOffsets() {
+		for (int k = 0; k < order.length; k++) {
+			int v = order[k];
+			int e = parentEdge[v];
+			if (e < 0) {
+				offset[v] = 0;
+			}
+			else if (outputVertex[e] == v) {	//V_out = V_in + U
+				offset[v] = offset[inputVertex[e]] + sourceVoltages.at(e);
+			}
+			else {
+				offset[v] = offset[outputVertex[e]] - sourceVoltages.at(e);
+			}
+		}
+	}
+
+	/**
+	 * Stamps the conductance of every resistance into the matrix.
+	 * HUN: Minden ellenállás vezetését beírja a mátrixba.
+	 */
+	private void build() {
+		copyWithResize(new SparseMatrix(row, column));
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 != resistances.at(i)) {
+				int in = variableOfGroup[groupOf[inputVertex[i]]];
+				int out = variableOfGroup[groupOf[outputVertex[i]]];
+				if (groupOf[inputVertex[i]] != groupOf[outputVertex[i]]) {
+					float g = 1 / resistances.at(i);
+					addAt(in, in, g);
+					addAt(out, out, g);
+					addAt(in, out, -g);
+					addAt(out, in, -g);
+				}
+			}
+		}
+		updateRightSide();
+	}
+
+	/**
+	 * Adds val to the element at position of r. row and c. column. Reference supernodes (negative index) are skipped.
+	 * HUN: Hozzáad egy értéket az adott pozíción lévő elemhez. A referencia szupercsomópontokat kihagyja.
+	 */
+	private void addAt(int r, int c, float val) {
+		if (r >= 0 && c >= 0) {
+			setAt(r, c, at(r, c) + val);
+		}
+	}
+
+	/**
+	 * Resistances are equivalent current sources, driven by their own source voltage and by the voltage between the roots of the supernodes.
+	 * HUN: Az ellenállások ekvivalens áramforrások.
+	 */
+	private void updateRightSide() {
+		int rightSideRow = row - 1;
+		for (int c = 0; c < column; c++) {
+			setAt(rightSideRow, c, 0);
+		}
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 != resistances.at(i)) {
+				double u = offset[inputVertex[i]] - offset[outputVertex[i]] + sourceVoltages.at(i);
+				if (0 != u) {
+					float gu = (float)(u / resistances.at(i));
+					addAt(rightSideRow, variableOfGroup[groupOf[inputVertex[i]]], -gu);
+					addAt(rightSideRow, variableOfGroup[groupOf[outputVertex[i]]], gu);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void updateSourceVoltage(Vector sourceVoltages) {
+		this.sourceVoltages = sourceVoltages;
+		updateOffsets();
+		updateRightSide();
+	}
+
+	/**
+	 * If an edge changes from or to zero resistance, the supernodes are formed again, so the size of the system can change.
+	 */
+	@Override
+	public void updateResistances(Vector resistances) {
+		boolean sameSupernodes = true;
+		for (int i = 0; i < noOfEdges; i++) {
+			if ((0 == resistances.at(i)) != (0 == this.resistances.at(i))) {
+				sameSupernodes = false;
+				break;
+			}
+		}
+		this.resistances = resistances;
+		if (!sameSupernodes) {
+			contract();
+			ordering = null;
+		}
+		build();
+	}
+
+	/**
+	 * The conductance of the edge appears in the equations of the supernodes of its end vertices.
+	 * Change from or to zero resistance changes the supernodes.
+	 */
+	@Override
+	public RankOneUpdate resistanceUpdate(int edgeIndex, float previousResistance, float resistance) {
+		if (0 == previousResistance || 0 == resistance) {
+			return null;
+		}
+		Vector u = new Vector(column);
+		Vector v = new Vector(column);
+		int gIn = groupOf[inputVertex[edgeIndex]];
+		int gOut = groupOf[outputVertex[edgeIndex]];
+		if (gIn != gOut) {
+			float delta = 1 / resistance - 1 / previousResistance;
+			int in = variableOfGroup[gIn];
+			int out = variableOfGroup[gOut];
+			if (in >= 0) {
+				u.setAt(in, delta);
+				v.setAt(in, 1);
+			}
+			if (out >= 0) {
+				u.setAt(out, -delta);
+				v.setAt(out, -1);
+			}
+		}
+		return new RankOneUpdate(u, v);
+	}
+
+	@Override
+	public Factorization factorize(Pivoting pivoting) throws GaussException {
+		if (ordering == null || ordering.getType() != pivoting.ordering) {
+			ordering = new Ordering(this, pivoting.ordering);
+		}
+		return new SparseLUDecomposition(this, pivoting, ordering);
+	}
+
+	@Override
+	public Vector getRightSide() {
+		return Gauss.rightSide(this);
+	}
+
+	/**
+	 * The solution contains the potentials of the supernodes.
+	 * The zero resistance edges carry the sum of the currents of the resistances in the subtree behind them.
+	 */
+	@Override
+	public Vector branchCurrents(DoubleVector solution) {
+		Vector current = new Vector(noOfEdges);
+		double netCurrent[] = new double[groupOf.length];	//Current flowing into each vertex from resistances.
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 != resistances.at(i)) {
+				double c = branchCurrent(i, solution);
+				current.setAt(i, (float)c);
+				netCurrent[inputVertex[i]] -= c;
+				netCurrent[outputVertex[i]] += c;
+			}
+		}
+		for (int k = order.length - 1; k >= 0; k--) {		//Leaves first.
+			int v = order[k];
+			int e = parentEdge[v];
+			if (e >= 0) {
+				if (inputVertex[e] == v) {
+					current.setAt(e, (float)netCurrent[v]);
+					netCurrent[outputVertex[e]] += netCurrent[v];
+				}
+				else {
+					current.setAt(e, (float)-netCurrent[v]);
+					netCurrent[inputVertex[e]] += netCurrent[v];
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Calculated edge by edge from the resistances and source voltages in double precision.
+	 */
+	@Override
+	public DoubleVector residual(DoubleVector solution) {
+		DoubleVector ret = new DoubleVector(column);
+		for (int i = 0; i < noOfEdges; i++) {
+			if (0 != resistances.at(i)) {
+				int in = variableOfGroup[groupOf[inputVertex[i]]];
+				int out = variableOfGroup[groupOf[outputVertex[i]]];
+				if (groupOf[inputVertex[i]] != groupOf[outputVertex[i]]) {
+					double current = branchCurrent(i, solution);
+					if (in >= 0) {
+						ret.setAt(in, ret.at(in) - current);
+					}
+					if (out >= 0) {
+						ret.setAt(out, ret.at(out) + current);
+					}
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Current of a resistance from the solution of the system.
+	 * HUN: Egy ellenállás árama a rendszer megoldásából.
+	 */
+	private double branchCurrent(int i, DoubleVector solution) {
+		return (potential(inputVertex[i], solution) - potential(outputVertex[i], solution) + sourceVoltages.at(i)) / resistances.at(i);
+	}
+
+	/**
+	 * Potential of a vertex from the solution of the system.
+	 * HUN: Egy csúcs potenciálja a rendszer megoldásából.
+	 */
+	private double potential(int v, DoubleVector solution) {
+		int var = variableOfGroup[groupOf[v]];
+		return ((var < 0)? 0 : solution.at(var)) + offset[v];
+	}
+
+	@Override
+	public int getNoOfVariables() {
+		return row - 1;
+	}
+
+	@Override
+	public int getNoOfEquations() {
+		return column;
+	}
+
+}
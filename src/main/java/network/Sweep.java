@@ -0,0 +1,390 @@
+package main.java.network;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import main.java.math.Factorization;
+import main.java.math.GaussException;
+import main.java.math.Vector;
+
+/**
+ * Sweep of the resistance of {@link Resistance} and the source voltage of {@link VoltageSource} components of a network.
+ * The values of the parameters are combined into points by the {@link SweepType}, and the currents of all the components are calculated at each point,
+ * without changing the network. The points are solved in parallel chunks, and handed to the consumer in their order, as the chunks are done.
+ * HUN: Egy hálózat ellenállás és feszültségforrás komponensei értékének pásztázása. A paraméterek értékeit a pásztázás típusa kombinálja pontokká,
+ * és minden pontban kiszámoljuk az összes komponens áramát, a hálózat megváltoztatása nélkül. A pontokat párhuzamosan, darabokban oldjuk meg,
+ * és a sorrendjükben adjuk át a fogyasztónak, ahogy a darabok elkészülnek.
+ * @author Simon Zoltán
+ *
+ *<h2>Reuse of the factorization:</h2>{The currents are linear in the source voltages. So the points with the same resistances share a factorization,
+ *                    which is solved once for the other sources, and once for a unit voltage of each swept source, as a batch of right sides.
+ *                    Then the currents of a point are a linear combination of these solutions. A sweep of only source voltages uses a single factorization.
+ *                    The resistances changed compared to the network update the factorization of the network's values by rank-one updates, when it is possible.
+ *                    For the best reuse, the swept resistances should be added before the voltage sources in a grid.}<br>
+ */
+public class Sweep {
+
+	/**
+	 * Number of points solved in a chunk by a thread.
+	 * HUN: Egy szál által egy darabban megoldott pontok száma.
+	 */
+	int chunkSize = 64;
+
+	private Network network;
+	private SweepType type;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	/**
+	 * Swept components, and their values, in the order of adding them.
+	 * HUN: A pásztázott komponensek és értékeik, a hozzáadásuk sorrendjében.
+	 */
+	private ArrayList<Component> components = new ArrayList<Component>();
+	private ArrayList<float[]> values = new ArrayList<float[]>();
+
+	//Working data of a run:
+	private NetworkModel model;
+	private Basis bases[];					//Basis of each part model with the resistances of the network.
+	private int resistanceParameters[][];	//Resistance parameters of each part model.
+	private int voltageParameters[][];		//Voltage parameters of each part model.
+
+	/**
+	 * Solutions with the given resistances, from which the currents of any source voltages are combined.
+	 * Read only after it is made, so it can be shared by the threads.
+	 * HUN: Megoldások adott ellenállásokkal, amelyekből bármely forrásfeszültség áramai kombinálhatók.
+	 */
+	private static class Basis {
+		Vector resistances;
+		Factorization factorization = null;
+		Vector base = null;				//Currents with the swept sources set to zero, or with the sources of the single point using the basis.
+		Vector response[] = null;		//Currents for a unit voltage of each swept source.
+		boolean valid = false;
+		boolean direct = false;			//Some of the right sides have no solution alone, so each point is solved directly.
+	}
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor
+	 * @param network	The swept network.
+	 * @param type		The way the values are combined into points.
+	 */
+	public Sweep(Network network, SweepType type) {
+		this.network = network;
+		this.type = type;
+	}
+
+	//Parameters:-------------------------------------------------------
+
+	/**
+	 * Adds a parameter to the sweep: the resistance of a {@link Resistance}, or the source voltage of a {@link VoltageSource}.
+	 * HUN: Paramétert ad a pásztázáshoz: egy ellenállás ellenállását vagy egy feszültségforrás forrásfeszültségét.
+	 * @param component	The swept component of the network.
+	 * @param values	The values of the parameter.
+	 */
+	public void add(Component component, float values[]) {
+		if (!(component instanceof Resistance) && !(component instanceof VoltageSource)) {
+			throw new RuntimeException("Component has no swept value.");
+		}
+		if (!network.contains(component)) {
+			throw new RuntimeException("Component out of the network.");
+		}
+		if (components.contains(component)) {
+			throw new RuntimeException("Component already swept.");
+		}
+		components.add(component);
+		this.values.add(values.clone());
+	}
+
+	/**
+	 * Evenly spaced values of a range.
+	 * HUN: Egy tartomány egyenletesen elosztott értékei.
+	 * @param from			The first value.
+	 * @param to			The last value.
+	 * @param noOfValues	Number of values, at least 2.
+	 * @return The values.
+	 */
+	public static float[] range(float from, float to, int noOfValues) {
+		if (noOfValues < 2) {
+			throw new RuntimeException("A range needs at least 2 values.");
+		}
+		float range[] = new float[noOfValues];
+		for (int i = 0; i < noOfValues; i++) {
+			range[i] = from + (to - from) * i / (noOfValues - 1);
+		}
+		return range;
+	}
+
+	/**
+	 *
+	 * @return Number of points of the sweep.
+	 */
+	public int getNoOfPoints() {
+		if (type == SweepType.list) {
+			if (values.isEmpty()) {
+				return 1;
+			}
+			for (float parameterValues[] : values) {
+				if (parameterValues.length != values.get(0).length) {
+					throw new RuntimeException("The parameters of a list sweep must have the same number of values.");
+				}
+			}
+			return values.get(0).length;
+		}
+		long noOfPoints = 1;
+		for (float parameterValues[] : values) {
+			noOfPoints *= parameterValues.length;
+			if (noOfPoints > Integer.MAX_VALUE) {
+				throw new RuntimeException("Too many points.");
+			}
+		}
+		return (int)noOfPoints;
+	}
+
+	/**
+	 * Values of the parameters at a point.
+	 * HUN: A paraméterek értékei egy pontban.
+	 * @param point	Index of the point.
+	 * @return The values, in the order of adding the parameters.
+	 */
+	public float[] valuesAt(int point) {
+		float pointValues[] = new float[values.size()];
+		if (type == SweepType.list) {
+			for (int j = 0; j < values.size(); j++) {
+				pointValues[j] = values.get(j)[point];
+			}
+			return pointValues;
+		}
+		for (int j = values.size() - 1; j >= 0; j--) {
+			float parameterValues[] = values.get(j);
+			pointValues[j] = parameterValues[point % parameterValues.length];
+			point /= parameterValues.length;
+		}
+		return pointValues;
+	}
+
+	/**
+	 * Header of the table of the results: the index of the point, the parameters, the validity, and the current of each component of the network.
+	 * HUN: Az eredmények táblázatának fejléce.
+	 * @return The header in CSV format, matching {@link SweepPoint#appendCsv(StringBuilder)}.
+	 */
+	public String getHeader() {
+		StringBuilder builder = new StringBuilder("point");
+		for (Component component : components) {
+			builder.append((component instanceof Resistance)? ",resistance[" : ",voltage[").append(component.networkIndex).append(']');
+		}
+		builder.append(",valid");
+		for (int i = 0; i < network.getComponents().size(); i++) {
+			builder.append(",current[").append(i).append(']');
+		}
+		return builder.toString();
+	}
+
+	//Running:-----------------------------------------------------------
+
+	/**
+	 * Solves all the points, and hands them to the consumer in the order of the points. Must be called on the thread owning the network,
+	 * and the network must not be changed until it returns. The network is simulated once before the sweep, its values are not changed.
+	 * HUN: Megoldja az összes pontot, és a pontok sorrendjében átadja őket a fogyasztónak. A hálózatot birtokló szálon kell hívni.
+	 * A pásztázás előtt a hálózatot egyszer szimuláljuk, az értékeit nem változtatjuk meg.
+	 * @param consumer	Receives the results on the calling thread.
+	 */
+	public void run(Consumer<SweepPoint> consumer) {
+		int noOfPoints = getNoOfPoints();
+		prepare();
+		ArrayDeque<ForkJoinTask<SweepPoint[]>> chunks = new ArrayDeque<ForkJoinTask<SweepPoint[]>>();
+		int window = 2 * pool.getParallelism();
+		int next = 0;
+		try {
+			while (next < noOfPoints || !chunks.isEmpty()) {
+				//Only a few chunks are solved ahead, so the results are streamed instead of being held:
+				while (next < noOfPoints && chunks.size() < window) {
+					int begin = next;
+					int end = (int)Math.min((long)next + chunkSize, noOfPoints);
+					chunks.add(pool.submit(() -> solveChunk(begin, end)));
+					next = end;
+				}
+				for (SweepPoint point : chunks.poll().join()) {
+					consumer.accept(point);
+				}
+			}
+		} finally {
+			for (ForkJoinTask<SweepPoint[]> chunk : chunks) {
+				chunk.cancel(false);
+			}
+			model = null;
+			bases = null;
+		}
+	}
+
+	/**
+	 * Makes the models of the parts with parameters, and solves them with the resistances of the network.
+	 * HUN: Elkészíti a paramétereket tartalmazó részek modelljeit, és megoldja őket a hálózat ellenállásaival.
+	 */
+	private void prepare() {
+		network.simulate(TimeStep.ZERO);
+		model = new NetworkModel(network, components);
+		int noOfModels = model.getNoOfModels();
+		resistanceParameters = new int[noOfModels][];
+		voltageParameters = new int[noOfModels][];
+		for (int m = 0; m < noOfModels; m++) {
+			resistanceParameters[m] = model.getVaried(m, Resistance.class);
+			voltageParameters[m] = model.getVaried(m, VoltageSource.class);
+		}
+		bases = new Basis[noOfModels];
+		for (int m = 0; m < noOfModels; m++) {
+			bases[m] = solveBasis(m, model.getModel(m).getResistances(), null);
+		}
+	}
+
+	/**
+	 * Solves a chunk of points. The basis of the previous point is reused, while the resistances are the same.
+	 * HUN: Megoldja a pontok egy darabját. Az előző pont bázisát újrahasznosítjuk, amíg az ellenállások azonosak.
+	 */
+	private SweepPoint[] solveChunk(int begin, int end) {
+		SweepPoint points[] = new SweepPoint[end - begin];
+		Basis previous[] = bases.clone();
+		for (int p = begin; p < end; p++) {
+			float pointValues[] = valuesAt(p);
+			Vector partCurrents[] = new Vector[bases.length];
+			boolean valid = model.isConstantValid();
+			for (int m = 0; m < bases.length; m++) {
+				Vector resistances = resistancesAt(m, pointValues);
+				Basis basis = previous[m];
+				if (!resistances.equals(basis.resistances)) {
+					//A basis of a single point is solved with the sources of the point, instead of combining them:
+					boolean shared = p + 1 < end && resistances.equals(resistancesAt(m, valuesAt(p + 1)));
+					basis = solveBasis(m, resistances, shared? null : pointValues);
+					if (shared) {
+						previous[m] = basis;
+					}
+				}
+				partCurrents[m] = currentsAt(m, basis, pointValues);
+				valid &= (partCurrents[m] != null);
+			}
+			points[p - begin] = new SweepPoint(p, pointValues, model.gather(partCurrents), valid);
+		}
+		return points;
+	}
+
+	/**
+	 * Resistances of the edges of a model at a point.
+	 */
+	private Vector resistancesAt(int m, float pointValues[]) {
+		Vector resistances = model.getModel(m).getResistances();
+		for (int j : resistanceParameters[m]) {
+			resistances.setAt(model.getEdgeOf(j), pointValues[j]);
+		}
+		return resistances;
+	}
+
+	/**
+	 * Source voltages of the edges of a model at a point.
+	 */
+	private Vector sourceVoltagesAt(int m, float pointValues[]) {
+		Vector sourceVoltages = model.getModel(m).getSourceVoltages();
+		for (int j : voltageParameters[m]) {
+			sourceVoltages.setAt(model.getEdgeOf(j), pointValues[j]);
+		}
+		return sourceVoltages;
+	}
+
+	/**
+	 * Factorizes a model with the given resistances, or updates the factorization of the network's resistances,
+	 * and solves it for the other sources and for a unit voltage of each swept source, reusing the factorization.
+	 * HUN: Faktorizálja a modellt az adott ellenállásokkal, vagy frissíti a hálózat ellenállásainak faktorizációját,
+	 * és megoldja a többi forrásra, valamint minden pásztázott forrás egységnyi feszültségére, a faktorizációt újrahasznosítva.
+	 * @param m				Index of the model.
+	 * @param resistances	Resistances of the edges of the model.
+	 * @param pointValues	Values of the single point using the basis, which is solved with its sources only. null if the basis is shared.
+	 */
+	private Basis solveBasis(int m, Vector resistances, float pointValues[]) {
+		Basis basis = new Basis();
+		basis.resistances = resistances;
+		PartModel.Workspace workspace = model.getModel(m).workspace();
+		Vector sourceVoltages;
+		if (pointValues != null) {
+			sourceVoltages = sourceVoltagesAt(m, pointValues);
+		}
+		else {
+			sourceVoltages = model.getModel(m).getSourceVoltages();
+			for (int j : voltageParameters[m]) {
+				sourceVoltages.setAt(model.getEdgeOf(j), 0);
+			}
+		}
+		try {
+			workspace.setValues(resistances, sourceVoltages);
+			//The factorization of the network's resistances, made by the network itself, or by the basis of the model:
+			Factorization original = (bases[m] != null)? bases[m].factorization : model.getModel(m).getFactorization();
+			if (original != null) {
+				Vector originalResistances = model.getModel(m).getResistances();
+				basis.factorization = resistances.equals(originalResistances)?
+						original : workspace.update(original, originalResistances, resistances);
+			}
+			if (basis.factorization == null) {
+				basis.factorization = workspace.factorize();
+			}
+			basis.valid = true;
+			basis.base = workspace.solve(basis.factorization);
+			basis.response = new Vector[(pointValues != null)? 0 : voltageParameters[m].length];
+			for (int k = 0; k < basis.response.length; k++) {
+				Vector unit = new Vector(sourceVoltages.dimension);
+				unit.setAt(model.getEdgeOf(voltageParameters[m][k]), 1);
+				workspace.setSourceVoltages(unit);
+				basis.response[k] = workspace.solve(basis.factorization);
+			}
+		} catch (GaussException e) {		//No solution with these resistances, or only with some of the right sides.
+			basis.direct = basis.valid;
+		}
+		return basis;
+	}
+
+	/**
+	 * Currents of the edges of a model at a point.
+	 * @return Vector of currents in the order of the edges of the part, or null if the part has no solution.
+	 */
+	private Vector currentsAt(int m, Basis basis, float pointValues[]) {
+		if (!basis.valid) {
+			return null;
+		}
+		if (basis.direct) {
+			PartModel.Workspace workspace = model.getModel(m).workspace();
+			try {
+				workspace.setValues(basis.resistances, sourceVoltagesAt(m, pointValues));
+				return workspace.solve(basis.factorization);
+			} catch (GaussException e) {
+				return null;
+			}
+		}
+		Vector currents = new Vector(basis.base.dimension);
+		for (int i = 0; i < currents.dimension; i++) {
+			double current = basis.base.at(i);
+			for (int k = 0; k < basis.response.length; k++) {
+				current += (double)pointValues[voltageParameters[m][k]] * basis.response[k].at(i);
+			}
+			currents.setAt(i, (float)current);
+		}
+		return currents;
+	}
+
+	//Getters/Setters:----------------------------------------------------
+
+	public SweepType getType() {
+		return type;
+	}
+
+	public ArrayList<Component> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Sets the pool of the threads solving the chunks. The common pool by default.
+	 * @param pool	{@link ForkJoinPool}
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+}
@@ -0,0 +1,93 @@
+package main.java.network;
+
+/**
+ * Result of a point of a {@link Sweep}: the values of the parameters, and the currents of all the components of the network.
+ * Immutable, so it can be passed between threads.
+ * HUN: Egy pásztázás egy pontjának eredménye: a paraméterek értékei, és a hálózat összes komponensének árama.
+ * Megváltoztathatatlan, így szálak között átadható.
+ * @author Simon Zoltán
+ *
+ */
+public final class SweepPoint {
+
+	private final int index;
+	private final float values[];
+	private final float currents[];
+	private final boolean valid;
+
+	//Constructor:------------------------------------------------------
+
+	/**
+	 * Constructor. The arrays are kept, they must not be modified by the caller later.
+	 * @param index		Index of the point in the sweep.
+	 * @param values	Values of the parameters, in the order of adding them to the sweep.
+	 * @param currents	Currents of the components, in the order of the components of the network. NaN in invalid parts.
+	 * @param valid		Whether all the parts of the network could be solved.
+	 */
+	SweepPoint(int index, float values[], float currents[], boolean valid) {
+		this.index = index;
+		this.values = values;
+		this.currents = currents;
+		this.valid = valid;
+	}
+
+	//Output:-----------------------------------------------------------
+
+	/**
+	 * Appends the row of the point to a table in CSV format. The columns are given by {@link Sweep#getHeader()}.
+	 * HUN: A pont sorát fűzi egy CSV formátumú táblázathoz.
+	 * @param builder	The builder of the table.
+	 */
+	public void appendCsv(StringBuilder builder) {
+		builder.append(index);
+		for (float value : values) {
+			builder.append(',').append(value);
+		}
+		builder.append(',').append(valid);
+		for (float current : currents) {
+			builder.append(',').append(current);
+		}
+		builder.append('\n');
+	}
+
+	//Getters:----------------------------------------------------
+
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 *
+	 * @return Copy of the values of the parameters, in the order of adding them to the sweep.
+	 */
+	public float[] getValues() {
+		return values.clone();
+	}
+
+	/**
+	 *
+	 * @param i	Index of the component in the list of components of the network.
+	 * @return Current of the component. NaN, if its part could not be solved.
+	 */
+	public float getCurrent(int i) {
+		return currents[i];
+	}
+
+	/**
+	 *
+	 * @return Copy of the currents of the components, in the order of the components of the network.
+	 */
+	public float[] getCurrents() {
+		return currents.clone();
+	}
+
+	/**
+	 * Whether all the parts of the network could be solved at this point.
+	 * HUN: A hálózat minden része megoldható volt-e ebben a pontban?
+	 * @return boolean
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+}
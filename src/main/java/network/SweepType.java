@@ -0,0 +1,22 @@
+package main.java.network;
+
+/**
+ * The way the values of the parameters of a {@link Sweep} are combined into points.
+ * HUN: A pásztázás paramétereinek értékeit pontokká kombináló mód.
+ * @author Simon Zoltán
+ *
+ */
+public enum SweepType {
+
+	/**
+	 * Every combination of the values of the parameters. The last added parameter changes the fastest.
+	 * HUN: A paraméterek értékeinek minden kombinációja. Az utoljára hozzáadott paraméter változik a leggyorsabban.
+	 */
+	grid,
+
+	/**
+	 * The i. point takes the i. value of each parameter. All the parameters must have the same number of values.
+	 * HUN: Az i. pont minden paraméter i. értékét veszi fel. Minden paraméternek ugyanannyi értéke kell legyen.
+	 */
+	list
+};
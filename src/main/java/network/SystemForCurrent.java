@@ -0,0 +1,88 @@
+package main.java.network;
+
+import main.java.math.DoubleVector;
+import main.java.math.Factorization;
+import main.java.math.GaussException;
+import main.java.math.IterativeRefinement;
+import main.java.math.Pivoting;
+import main.java.math.RankOneUpdate;
+import main.java.math.Vector;
+
+/**
+ * Common interface of the linear systems, that describe the network and calculate the currents of its edges.
+ * HUN: A hálózatot leíró, az élek áramát kiszámoló lineáris rendszerek közös interfésze.
+ * @author Simon Zoltán
+ *
+ */
+public interface SystemForCurrent extends IterativeRefinement.Residual {
+
+	/**
+	 * Updates only the "source voltage" part of the system.
+	 * HUN: Frissíti a rendszer feszültésforrásokat leíró részét.
+	 * @param sourceVoltages	{@link Vector} of source voltages in the order of the edges.
+	 */
+	public void updateSourceVoltage(Vector sourceVoltages);
+
+	/**
+	 * Updates only the "resistances" part of the system.
+	 * HUN: Frissíti a rendszer ellenállásokat leíró részét.
+	 * @param resistances {@link Vector} of resistances in the order of the edges.
+	 */
+	public void updateResistances(Vector resistances);
+
+	/**
+	 * Change of the left side, when the resistance of a single edge changes. Used to update the factorization instead of refactorizing.
+	 * HUN: A bal oldal változása egyetlen él ellenállásának változásakor. A faktorizáció frissítésére használjuk az újrafaktorizálás helyett.
+	 * @param edgeIndex				Index of the edge in the order of the edges.
+	 * @param previousResistance	Resistance of the edge, when the system was factorized (or last updated).
+	 * @param resistance			New resistance of the edge.
+	 * @return {@link RankOneUpdate} of the left side, or null if the change can not be described by a rank-one update.
+	 */
+	public RankOneUpdate resistanceUpdate(int edgeIndex, float previousResistance, float resistance);
+
+	/**
+	 * Factorizes the left side of the system. The factorization stays valid until the resistances or the graph change.
+	 * HUN: Faktorizálja a rendszer bal oldalát. Amíg az ellenállások és a gráf nem változik, a faktorizáció érvényes marad.
+	 * @param pivoting	Threshold and zero tolerance of the pivoting.
+	 * @return {@link Factorization} of the left side.
+	 * @throws GaussException - if the system has infinite solutions.
+	 */
+	public Factorization factorize(Pivoting pivoting) throws GaussException;
+
+	/**
+	 * 
+	 * @return Right side values of the equations.
+	 */
+	public Vector getRightSide();
+
+	/**
+	 * Calculates the currents of the edges from the solution of the system.
+	 * HUN: Kiszámolja az élek áramát a rendszer megoldásából.
+	 * @param solution	Solution of the system.
+	 * @return Vector of currents. The order of elements of the vector is the same as the order of the edges.
+	 */
+	public Vector branchCurrents(DoubleVector solution);
+
+	/**
+	 * Solves the system.
+	 * HUN: Megoldja a rendszert.
+	 * @return Vector of currents. The order of elements of the vector is the same as the order of the edges.
+	 * @throws GaussException - if the system has no solution or has infinite solutions.
+	 */
+	public default Vector calculateCurrent() throws GaussException {
+		return branchCurrents(new DoubleVector(factorize(new Pivoting()).solve(getRightSide())));
+	}
+
+	/**
+	 *
+	 * @return Number of variables of the system.
+	 */
+	public int getNoOfVariables();
+
+	/**
+	 *
+	 * @return Number of equations of the system.
+	 */
+	public int getNoOfEquations();
+
+}
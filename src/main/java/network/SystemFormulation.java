@@ -0,0 +1,31 @@
+package main.java.network;
+
+/**
+ * The way the equations of the network are formed.
+ * HUN: A hálózat egyenleteinek felírási módja.
+ * @author Simon Zoltán
+ *
+ */
+public enum SystemFormulation {
+
+	/**
+	 * Unknown currents of all edges. Kirchhoff's current law for the vertices (incidence matrix)
+	 * and Kirchhoff's voltage law for the base cycles (cycle matrix). See {@link LinearSystemForCurrent}.
+	 * HUN: Illeszkedési és alapkör mátrixos felírás.
+	 */
+	incidenceAndCycle,
+
+	/**
+	 * Modified nodal analysis. Unknown potentials of the vertices and unknown currents of the zero resistance edges.
+	 * See {@link NodalSystemForCurrent}.
+	 * HUN: Módosított csomóponti potenciálok módszere.
+	 */
+	nodal,
+
+	/**
+	 * Nodal analysis with the zero resistance edges contracted into supernodes. Unknown potentials of the supernodes only.
+	 * Symmetric positive definite. See {@link SupernodalSystemForCurrent}.
+	 * HUN: Csomóponti potenciálok módszere szupercsomópontokkal.
+	 */
+	supernodal
+};
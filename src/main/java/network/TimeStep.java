@@ -0,0 +1,70 @@
+package main.java.network;
+
+/**
+ * Immutable length of time, passed to the simulation. It keeps the simulation independent of any UI toolkit's time type.
+ * HUN: Megváltoztathatatlan időtartam, amelyet a szimuláció kap. Így a szimuláció független bármely felhasználói felület időtípusától.
+ * @author Simon Zoltán
+ *
+ */
+public final class TimeStep {
+
+	public static final TimeStep ZERO = new TimeStep(0.0);
+
+	/**
+	 * Length in milliseconds.
+	 * HUN: Hossz milliszekundumban.
+	 */
+	private final double millis;
+
+	//Constructor:------------------------------------------------------
+
+	private TimeStep(double millis) {
+		if (Double.isNaN(millis) || millis < 0.0) {
+			throw new RuntimeException("Invalid time step.");
+		}
+		this.millis = millis;
+	}
+
+	public static TimeStep ofMillis(double millis) {
+		return (millis == 0.0)? ZERO : new TimeStep(millis);
+	}
+
+	public static TimeStep ofSeconds(double seconds) {
+		return ofMillis(seconds * 1000.0);
+	}
+
+	//Getters:----------------------------------------------------
+
+	public double toMillis() {
+		return millis;
+	}
+
+	public double toSeconds() {
+		return millis / 1000.0;
+	}
+
+	/**
+	 *
+	 * @param other	An other time step.
+	 * @return The sum of this and the other time step.
+	 */
+	public TimeStep add(TimeStep other) {
+		return ofMillis(millis + other.millis);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof TimeStep && ((TimeStep) obj).millis == millis;
+	}
+
+	@Override
+	public int hashCode() {
+		return Double.hashCode(millis);
+	}
+
+	@Override
+	public String toString() {
+		return millis + " ms";
+	}
+
+}
@@ -0,0 +1,28 @@
+package main.java.network;
+
+/**
+ * The way the currents of a connected part are brought up to date, from the cheapest to the most expensive.
+ * HUN: Az összefüggő rész áramainak frissítési módja, a legolcsóbbtól a legdrágábbig.
+ * @author Simon Zoltán
+ *
+ */
+public enum UpdatePath {
+
+	/**
+	 * Only the right side of the system is updated, and solved with the existing factorization or preconditioner.
+	 * HUN: Csak a rendszer jobb oldala frissül, a meglévő faktorizációval vagy előkondicionálóval oldjuk meg.
+	 */
+	rightSide,
+
+	/**
+	 * The values of the system are updated. The factorization is updated by low rank corrections, when it is possible.
+	 * HUN: A rendszer értékei frissülnek. A faktorizációt alacsony rangú korrekciókkal frissítjük, ha lehet.
+	 */
+	values,
+
+	/**
+	 * The system is built and factorized again.
+	 * HUN: A rendszer újra felépül és faktorizálódik.
+	 */
+	structure
+};
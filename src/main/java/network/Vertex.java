@@ -11,61 +11,105 @@ import java.util.HashMap;
 public class Vertex {
 
 	/**
-	 * Map of incoming edges.
-	 * key {@link Vertex} Vertex on the other end of the edge.
-	 * value {@link Edge} Incoming edge.
-	 * HUN: Bejövő élek.
-	 * key {@link Vertex} Csúcs az él másik végén.
-	 * value {@link Edge} Bejövő él.
+	 * Map of incoming edges. Keyed by the edge, so parallel edges between the same two vertices are all kept.
+	 * key {@link Edge} Incoming edge.
+	 * value {@link Vertex} Vertex on the other end of the edge.
+	 * HUN: Bejövő élek. Az él a kulcs, így az azonos csúcsok közti párhuzamos élek mind megmaradnak.
+	 * key {@link Edge} Bejövő él.
+	 * value {@link Vertex} Csúcs az él másik végén.
 	 */
-	private HashMap<Vertex, Edge> incoming;	//
+	private HashMap<Edge, Vertex> incoming;
 	
 	/**
-	 * Map of outgoing edges.
-	 * key Vertex {@link Vertex} Vertex on the other end of the edge.
-	 * value Edge {@link Edge} Outgoing edge.
-	 * HUN: Kimenő élek.
-	 * key Vertex {@link Vertex} Csúcs az él másik végén.
-	 * value Edge {@link Edge} Kimenő él.
+	 * Map of outgoing edges. Keyed by the edge, so parallel edges between the same two vertices are all kept.
+	 * key Edge {@link Edge} Outgoing edge.
+	 * value Vertex {@link Vertex} Vertex on the other end of the edge.
+	 * HUN: Kimenő élek. Az él a kulcs, így az azonos csúcsok közti párhuzamos élek mind megmaradnak.
+	 * key Edge {@link Edge} Kimenő él.
+	 * value Vertex {@link Vertex} Csúcs az él másik végén.
 	 */
-private HashMap<Vertex, Edge> outgoing;	
+	private HashMap<Edge, Vertex> outgoing;
 	
-	static int gen = 0;
+	/**
+	 * Id of the vertex, given by the {@link IdAllocator} of the network.
+	 * HUN: A csúcs azonosítója, a hálózat azonosító-kiosztója adja.
+	 */
 	private int id;
 
+	/**
+	 * Index of the vertex in its {@link ConnectedPart}, the same as in the {@link Graph} of the part.
+	 * HUN: A csúcs indexe az összefüggő részében, ugyanaz, mint a rész gráfjában.
+	 */
+	int index = -1;
+
+	/**
+	 * Index of the vertex in the list of vertices of the network. Makes removal and membership check constant time.
+	 * HUN: A csúcs indexe a hálózat csúcslistájában. Konstans idejűvé teszi a törlést és a tagság vizsgálatát.
+	 */
+	int networkIndex = -1;
+
+	/**
+	 * Connected part of the vertex.
+	 * HUN: A csúcs összefüggő része.
+	 */
+	ConnectedPart part = null;
+
+	/**
+	 * Edge to the parent of the vertex in the {@link SpanningForest} of the network. null for the root of a tree.
+	 * HUN: Él a csúcs szülőjéhez a hálózat feszítőerdejében. A fa gyökerénél null.
+	 */
+	Edge treeEdge = null;
+
+	/**
+	 * Mark of the last search of the {@link SpanningForest}, that reached the vertex.
+	 * HUN: A feszítőerdő csúcsot elérő legutóbbi keresésének jelölése.
+	 */
+	int mark = 0;
+
 	//Constructor:-----------------------------------------------------
 	
-	Vertex () {
-		gen++;
-		id = gen;
-		incoming = new HashMap<Vertex, Edge>();
-		outgoing = new HashMap<Vertex, Edge>();
+	Vertex (int id) {
+		this.id = id;
+		incoming = new HashMap<Edge, Vertex>();
+		outgoing = new HashMap<Edge, Vertex>();
 	}
 
 	//Getters/Setters:-------------------------------------------------
 	
-	public HashMap<Vertex, Edge> getIncoming() {
+	public HashMap<Edge, Vertex> getIncoming() {
 		return incoming;
 	}
 
-	public HashMap<Vertex, Edge> getOutgoing() {
+	public HashMap<Edge, Vertex> getOutgoing() {
 		return outgoing;
 	}
 	
-	public void addIncoming(Vertex ohterEnd, Edge incoming) {
-		this.incoming.put(ohterEnd, incoming);
+	/**
+	 * Adds an incoming edge, or updates the other end of an already added one.
+	 * HUN: Hozzáad egy bejövő élet, vagy frissíti egy már hozzáadott él másik végét.
+	 * @param otherEnd	The input vertex of the edge.
+	 * @param incoming	The edge.
+	 */
+	public void addIncoming(Vertex otherEnd, Edge incoming) {
+		this.incoming.put(incoming, otherEnd);
 	}
 	
-	public void removeIncoming(Vertex otherEnd) {
-		this.incoming.remove(otherEnd);
+	public void removeIncoming(Edge incoming) {
+		this.incoming.remove(incoming);
 	}
 	
+	/**
+	 * Adds an outgoing edge, or updates the other end of an already added one.
+	 * HUN: Hozzáad egy kimenő élet, vagy frissíti egy már hozzáadott él másik végét.
+	 * @param otherEnd	The output vertex of the edge.
+	 * @param outgoing	The edge.
+	 */
 	public void addOutgoing(Vertex otherEnd, Edge outgoing) {
-		this.outgoing.put(otherEnd, outgoing);
+		this.outgoing.put(outgoing, otherEnd);
 	}
 
-	public void removeOutgoing(Vertex otherEnd) {
-		this.outgoing.remove(otherEnd);
+	public void removeOutgoing(Edge outgoing) {
+		this.outgoing.remove(outgoing);
 	}
 	
 	public int getNoOfIncoming() {
@@ -114,7 +158,7 @@ private HashMap<Vertex, Edge> outgoing;
 	 */
 	public boolean isNeighbouring (Vertex v) {
 		return ((v != null) && 
-				(this.getIncoming().containsKey(v) || this.getOutgoing().containsKey(v)));
+				(this.getIncoming().containsValue(v) || this.getOutgoing().containsValue(v)));
 	}
 
 }
@@ -1,14 +1,10 @@
 package main.java.network;
 
-import javafx.util.Duration;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import javafx.collections.SetChangeListener;
-import javafx.scene.canvas.GraphicsContext;
-import main.java.gui.DrawingHelper;
 import main.java.math.Coordinate;
 import main.java.math.Line;
 
@@ -60,6 +56,11 @@ public class VoltageSource extends Component {
 		return sourceVoltage / e.getCurrent();
 	}
 
+	@Override
+	Edge getEdge() {
+		return e;
+	}
+
 	//Build/Destroy:------------------------------------------------------------------------------------
 	
 	@Override
@@ -114,7 +115,7 @@ public class VoltageSource extends Component {
 	//Update:----------------------------------------------------------------------------------------
 	
 	@Override
-	public void update(Duration duration) {		
+	public void update(TimeStep duration) {		
 		updatePropertyView();
 	}
 
@@ -174,7 +175,7 @@ public class VoltageSource extends Component {
 
 
 	@Override
-	public void draw(GraphicsContext ctx) {
+	public List<Line> getShape() {
 		List<Line> lines = new ArrayList<Line>();
 
 		//Construction:
@@ -203,10 +204,12 @@ public class VoltageSource extends Component {
 
 		lines.add(new Line(2.0f/3.0f * DEFAULT_SIZE, 0.0f, DEFAULT_SIZE, 0.0f));
 
-		//call drawShape
-		DrawingHelper.drawShape(ctx, getInput().getPos(), getOutput().getPos(), lines, DEFAULT_SIZE, getParent().isThisSelected(this));
+		return lines;
+	}
 
-		System.out.println("VoltageSource draw!");		
+	@Override
+	public float getShapeLength() {
+		return DEFAULT_SIZE;
 	}
 
 
@@ -239,7 +242,7 @@ public class VoltageSource extends Component {
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
-			getParent().setUpdateAll();
+			getParent().setUpdateVoltage(e);
 			System.out.println("Updated value:" + getSourceVoltage());
 			getProperties().get("voltage").value = String.valueOf(getSourceVoltage());
 		}
@@ -251,23 +254,14 @@ public class VoltageSource extends Component {
 		
 		if (getProperties().containsKey("voltage")) {
 			getProperties().get("voltage").value = String.valueOf(getSourceVoltage());
-			if (getProperties().get("voltage").valueN != null) {
-				getProperties().get("voltage").valueN.setText(String.valueOf(getSourceVoltage()));				
-			}
 		}
 
 		if (getProperties().containsKey("current")) {
 			getProperties().get("current").value = String.valueOf(getCurrent());
-			if (getProperties().get("current").valueN != null) {
-				getProperties().get("current").valueN.setText(String.valueOf(getCurrent()));				
-			}
 		}
 
 		if (getProperties().containsKey("resistance")) {
 			getProperties().get("resistance").value = String.valueOf(getResistance());
-			if (getProperties().get("resistance").valueN != null) {
-				getProperties().get("resistance").valueN.setText(String.valueOf(getResistance()));				
-			}
 		}
 		
 	}
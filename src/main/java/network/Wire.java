@@ -1,13 +1,10 @@
 package main.java.network;
 
-import javafx.util.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javafx.scene.canvas.GraphicsContext;
-import main.java.gui.DrawingHelper;
 import main.java.math.Coordinate;
 import main.java.math.Line;
 
@@ -36,6 +33,11 @@ public class Wire extends Component {
 	public float getCurrent() {
 		return e.getCurrent();
 	}
+
+	@Override
+	Edge getEdge() {
+		return e;
+	}
 	
 	//Build/Destroy:------------------------------------------------------------------------------------
 
@@ -87,7 +89,7 @@ public class Wire extends Component {
 	//Update:---------------------------------------------------------------------------------------------
 	
 	@Override
-	public void update(Duration duration) {
+	public void update(TimeStep duration) {
 		updatePropertyView();
 	}
 
@@ -136,40 +138,15 @@ public class Wire extends Component {
 	}
 
 	@Override
-	public void draw(GraphicsContext ctx) {
+	public List<Line> getShape() {
 		List<Line> lines = new ArrayList<Line>();		
-		Coordinate inputPos  = getInput().getPos(); 
-		Coordinate outputPos = getOutput().getPos();
-
-		//boolean eqX = (outputPos.x == inputPos.x);
-		//boolean eqY = (outputPos.y == inputPos.y);
-		
 		lines.add(new Line(0, 0, 100, 0));
-		
-		DrawingHelper.drawShape(ctx, inputPos, outputPos, lines, 100, getParent().isThisSelected(this));
-
-/*
-		//Construction:
-		if (eqX || eqY) {
-			lines.add(new Line(inputPos.x, inputPos.y, outputPos.x, outputPos.y));
-		} else {
-
-			// 2 segments: [input -> breaking point] and [breaking point -> output]
-			int brX = outputPos.x;
-			int brY = outputPos.y;
-			if (outputPos.x != inputPos.x) {
-				brX = inputPos.x;
-			} else if (outputPos.y != inputPos.y) {
-				brY = inputPos.y;
-			}
-			lines.add(new Line(inputPos.x, inputPos.y, brX, brY));
-			lines.add(new Line(brX, brY, outputPos.x, outputPos.y));
-
-		}
+		return lines;
+	}
 
-		//call drawWire
-		DrawingHelper.drawWire(ctx, lines);
-*/
+	@Override
+	public float getShapeLength() {
+		return 100;
 	}
 
 	@Override
@@ -199,23 +176,14 @@ public class Wire extends Component {
 	public void updatePropertyView() {
 		if (getProperties().containsKey("voltage")) {
 			getProperties().get("voltage").value = String.valueOf(getVoltage());
-			if (getProperties().get("voltage").valueN != null) {
-				getProperties().get("voltage").valueN.setText(String.valueOf(getVoltage()));				
-			}
 		}
 
 		if (getProperties().containsKey("current")) {
 			getProperties().get("current").value = String.valueOf(getCurrent());
-			if (getProperties().get("current").valueN != null) {
-				getProperties().get("current").valueN.setText(String.valueOf(getCurrent()));				
-			}
 		}
 
 		if (getProperties().containsKey("resistance")) {
 			getProperties().get("resistance").value = String.valueOf(getResistance());
-			if (getProperties().get("resistance").valueN != null) {
-				getProperties().get("resistance").valueN.setText(String.valueOf(getResistance()));				
-			}
 		}
 		
 	}